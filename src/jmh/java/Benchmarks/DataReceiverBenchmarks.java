@@ -0,0 +1,89 @@
+package Benchmarks;
+
+import Output.OutputSink;
+import Protocol.EpochClock;
+import Protocol.Frames;
+import TrafficReceiver.DataReceiver;
+import TrafficReceiver.ReceiveMode;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>DataReceiverBenchmarks - микробенчмарк разбора сессии {@link DataReceiver} из заранее собранного потока.</p>
+ *
+ * <p>Поток содержит кадр начала сессии, {@link #PACKETS} кадров данных и кадр конца сессии и передается
+ * в {@link DataReceiver#onData(ByteBuffer)} порциями, как при чтении сокета. Так измеряется весь путь приема:
+ * разбор заголовков, учет номеров и задержек и распознавание конца сессии. Результат - время на один пакет.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DataReceiverBenchmarks {
+
+    /**
+     * <p>Количество пакетов в сессии.</p>
+     */
+    static final int PACKETS = 10_000;
+
+    /**
+     * <p>Размер порции, которой данные передаются приемнику.</p>
+     */
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * <p>Размер пакета в байтах.</p>
+     */
+    @Param({"64", "1400"})
+    public int packetSize;
+
+    /**
+     * <p>Режим обработки принятых пакетов.</p>
+     */
+    @Param({"FULL", "DISCARD"})
+    public ReceiveMode receiveMode;
+
+    private DataReceiver receiver;
+    private ByteBuffer stream;
+
+    /**
+     * <p>Создает приемник и собирает поток кадров сессии.</p>
+     */
+    @Setup
+    public void setUp() {
+        receiver = new DataReceiver(OutputSink.NONE, null, null, receiveMode);
+        stream = Frames.put(ByteBuffer.allocateDirect(Frames.length(PACKETS, packetSize)), 1, PACKETS, packetSize,
+                EpochClock.nanos()).flip();
+    }
+
+    /**
+     * <p>Передает приемнику всю сессию порциями по {@link #CHUNK_SIZE} байт.</p>
+     *
+     * @return количество завершенных сессий
+     * @throws IOException если нарушен формат кадров
+     */
+    @Benchmark
+    @OperationsPerInvocation(PACKETS)
+    public long receiveSession() throws IOException {
+        for (int position = 0; position < stream.limit(); position += CHUNK_SIZE) {
+            receiver.onData(stream.slice(position, Math.min(CHUNK_SIZE, stream.limit() - position)));
+        }
+        return receiver.getCompletedSessions();
+    }
+}
@@ -0,0 +1,93 @@
+package Benchmarks;
+
+import NetworkConnection.NetworkConfig;
+import Protocol.FrameHeader;
+import Protocol.FrameType;
+import TrafficGenerator.PacketSender;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>PacketSenderBenchmarks - микробенчмарки {@link PacketSender} с выходным потоком, который отбрасывает данные.</p>
+ *
+ * <p>Поток без сокета оставляет в измерении только работу отправителя: копирование кадра, учет пакетного
+ * режима и событие JFR записи. Результат - время на один пакет.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PacketSenderBenchmarks {
+
+    /**
+     * <p>Размер пакета в байтах.</p>
+     */
+    @Param({"64", "512", "1400"})
+    public int packetSize;
+
+    private PacketSender sender;
+    private PacketSender batchSender;
+    private byte[] packet;
+    private byte[] header;
+
+    /**
+     * <p>Создает отправителей и кадр для отправки.</p>
+     */
+    @Setup
+    public void setUp() {
+        OutputStream sink = OutputStream.nullOutputStream();
+        sender = new PacketSender(sink);
+        batchSender = new PacketSender(sink, NetworkConfig.BATCH_BYTES, NetworkConfig.BATCH_MAX_DELAY_NANOS);
+        packet = new byte[packetSize];
+        header = new byte[FrameHeader.SIZE];
+        FrameHeader.write(ByteBuffer.wrap(header), 0, FrameType.DATA, 0, packetSize, 1, 0, 0);
+    }
+
+    /**
+     * <p>Отправляет пакет без заголовка отдельной записью.</p>
+     *
+     * @return количество отправленных пакетов
+     */
+    @Benchmark
+    public long sendPacket() {
+        sender.sendPacket(packet);
+        return sender.getPacketsSent();
+    }
+
+    /**
+     * <p>Отправляет кадр из заголовка и пакета отдельной записью.</p>
+     *
+     * @return количество отправленных пакетов
+     */
+    @Benchmark
+    public long sendFrame() {
+        sender.sendFrame(header, packet, 0, packetSize);
+        return sender.getPacketsSent();
+    }
+
+    /**
+     * <p>Отправляет кадр в пакетном режиме: запись происходит, когда буфер заполнен.</p>
+     *
+     * @return количество отправленных пакетов
+     */
+    @Benchmark
+    public long sendFrameBatched() {
+        batchSender.sendFrame(header, packet, 0, packetSize);
+        return batchSender.getPacketsSent();
+    }
+}
@@ -0,0 +1,315 @@
+package CLI;
+
+import ErrorHandler.ErrorHandler;
+import NetworkConnection.ThreadMode;
+import NetworkConnection.Transport;
+import TrafficGenerator.RateUnit;
+import TrafficReceiver.ReceiveMode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>BenchmarkCLI - нагрузочный прогон генератора и приемника через loopback с перебором параметров.</p>
+ *
+ * <p>Для каждого сочетания размера пакета, скорости и количества соединений в этом же процессе запускаются
+ * {@link GeneratorCLI} и {@link ReceiverCLI} на 127.0.0.1, и из их строк JSON собирается результат случая:
+ * пропускная способность, пакеты в секунду, загрузка процессора, потери и перцентили задержки. Перед первым
+ * случаем выполняется неучитываемый прогревочный случай, чтобы первые случаи не измерялись на непрогретой JVM.
+ * Результаты выводятся таблицей в поток ошибок, строками JSON case в стандартный вывод и записываются
+ * в файл CSV. Если задан файл базовой линии, случай с пропускной способностью ниже базовой больше чем
+ * на допуск считается регрессией, и прогон завершается с кодом 3.</p>
+ */
+public class BenchmarkCLI {
+    static {
+        CommandLine.useCliLogging();
+    }
+
+    /**
+     * <p>Код завершения при регрессии относительно базовой линии.</p>
+     */
+    public static final int REGRESSION = 3;
+
+    /**
+     * <p>Файл результатов по умолчанию.</p>
+     */
+    public static final String RESULTS_FILE = "logs/benchmark.csv";
+
+    private static final String HOST = "127.0.0.1";
+
+    private static final Set<String> OPTIONS = Set.of("help", "transport", "receive", "sizes", "rates", "rate-unit",
+            "connections", "packets", "warmup", "timeout", "results", "baseline", "tolerance", "quiet");
+
+    private static final String USAGE = """
+            Usage: BenchmarkCLI [options]
+              --transport=stream|nio|udp      transport (default stream)
+              --receive=full|discard          receive mode (default full)
+              --sizes=N,N,...                 packet sizes to sweep (default 64,512,1400)
+              --rates=R,R,...                 rates to sweep, 0 - unlimited (default 0)
+              --rate-unit=pps|mbps|interval-ms  rate unit (default pps)
+              --connections=N,N,...           connection counts to sweep (default 1)
+              --packets=N                     packets per connection in every case (default 100000)
+              --warmup=N                      packets per connection of an untimed unlimited-rate warm-up case
+                                              before the sweep, 0 - no warm-up (default 20000)
+              --timeout=SECONDS               time limit of one case (default 120)
+              --results=PATH                  results CSV (default logs/benchmark.csv)
+              --baseline=PATH                 results CSV of an earlier run to compare with
+              --tolerance=PERCENT             allowed throughput drop against the baseline (default 10)
+              --quiet                         do not print the results table to stderr
+            Exit code 3 means a throughput regression against the baseline.
+            """;
+
+    /**
+     * <p>Конструктор по умолчанию.</p>
+     */
+    public BenchmarkCLI() {
+    }
+
+    /**
+     * <p>Запускает нагрузочный прогон.</p>
+     *
+     * @param args ключи командной строки
+     */
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * <p>Выполняет нагрузочный прогон с заданными потоками вывода.</p>
+     *
+     * @param args ключи командной строки
+     * @param out поток для строк JSON
+     * @param err поток для таблицы результатов и сообщений
+     * @return код завершения: 0 - успех, 1 - ошибка выполнения, 2 - ошибка параметров, 3 - регрессия
+     */
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        CommandLine commandLine;
+        Transport transport;
+        ReceiveMode receiveMode;
+        int[] sizes;
+        double[] rates;
+        RateUnit rateUnit;
+        int[] connectionCounts;
+        int packets;
+        int warmupPackets;
+        int timeoutSeconds;
+        double tolerance;
+        Map<String, BenchmarkResult> baseline = Map.of();
+        try {
+            commandLine = CommandLine.parse(args, OPTIONS);
+            if (commandLine.flag("help")) {
+                err.print(USAGE);
+                return 0;
+            }
+            transport = Transport.parse(commandLine.string("transport", null));
+            receiveMode = ReceiveMode.parse(commandLine.string("receive", null));
+            sizes = commandLine.integers("sizes", new int[]{64, 512, 1400}, 1);
+            rates = commandLine.decimals("rates", new double[]{0});
+            rateUnit = commandLine.enumValue("rate-unit", RateUnit.class, RateUnit.PPS);
+            connectionCounts = commandLine.integers("connections", new int[]{1}, 1);
+            packets = commandLine.integer("packets", 100_000, 1);
+            warmupPackets = commandLine.integer("warmup", 20_000, 0);
+            timeoutSeconds = commandLine.integer("timeout", 120, 1);
+            tolerance = commandLine.decimal("tolerance", 10);
+            String baselineFile = commandLine.string("baseline", null);
+            if (baselineFile != null) {
+                baseline = BenchmarkResult.read(Path.of(baselineFile));
+            }
+        } catch (IllegalArgumentException | IOException e) {
+            ErrorHandler.handleInputError(e.getMessage());
+            err.println(e.getMessage());
+            err.print(USAGE);
+            return 2;
+        }
+
+        boolean quiet = commandLine.flag("quiet");
+        if (!quiet) {
+            err.println(tableHeader());
+        }
+        List<BenchmarkResult> results = new ArrayList<>();
+        int compared = 0;
+        int regressions = 0;
+        try {
+            if (warmupPackets > 0) {
+                // Результат прогрева не выводится и не сравнивается: он нужен только для компиляции горячих путей
+                runCase(transport, receiveMode, sizes[0], 0, rateUnit, connectionCounts[0], warmupPackets,
+                        timeoutSeconds);
+            }
+            for (int connections : connectionCounts) {
+                for (double rate : rates) {
+                    for (int size : sizes) {
+                        BenchmarkResult result = runCase(transport, receiveMode, size, rate, rateUnit, connections,
+                                packets, timeoutSeconds);
+                        results.add(result);
+                        BenchmarkResult previous = baseline.get(result.key());
+                        boolean regression = previous != null && result.isRegression(previous, tolerance);
+                        if (previous != null) {
+                            compared++;
+                        }
+                        if (regression) {
+                            regressions++;
+                        }
+                        GeneratorCLI.print(out, caseLine(result, previous, regression));
+                        if (!quiet) {
+                            err.println(tableRow(result, previous, regression));
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            ErrorHandler.handleIOException("Benchmark case failed", e);
+            GeneratorCLI.print(out, new JsonLine("error").add("role", "benchmark").add("message", e.getMessage()));
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ErrorHandler.handleError("Benchmark interrupted", e);
+            return 1;
+        }
+
+        String resultsFile = commandLine.string("results", RESULTS_FILE);
+        try {
+            BenchmarkResult.write(Path.of(resultsFile), results);
+        } catch (IOException e) {
+            ErrorHandler.handleIOException("Error writing benchmark results", e);
+            return 1;
+        }
+        GeneratorCLI.print(out, new JsonLine("benchmark").add("cases", results.size())
+                .add("compared", compared)
+                .add("regressions", regressions).add("tolerance_percent", tolerance).add("results", resultsFile));
+        return regressions > 0 ? REGRESSION : 0;
+    }
+
+    /**
+     * <p>Выполняет один случай: генератор и приемник в этом процессе обмениваются одной сессией через loopback.</p>
+     *
+     * @param transport транспорт
+     * @param receiveMode режим приема
+     * @param size размер пакета
+     * @param rate скорость; 0 - без ограничения
+     * @param rateUnit единица скорости
+     * @param connections количество соединений
+     * @param packets количество пакетов на соединение
+     * @param timeoutSeconds наибольшее время случая в секундах
+     * @return результат случая
+     * @throws IOException если генератор или приемник завершились с ошибкой
+     * @throws InterruptedException если ожидание генератора прервано
+     */
+    static BenchmarkResult runCase(Transport transport, ReceiveMode receiveMode, int size, double rate,
+                                   RateUnit rateUnit, int connections, int packets, int timeoutSeconds)
+            throws IOException, InterruptedException {
+        ByteArrayOutputStream generatorOut = new ByteArrayOutputStream();
+        ByteArrayOutputStream receiverOut = new ByteArrayOutputStream();
+        PrintStream discard = new PrintStream(PrintStream.nullOutputStream());
+        String[] generatorArgs = {"--transport=" + transport.name().toLowerCase(Locale.ROOT),
+                "--packets=" + packets, "--size=" + size, "--rate=" + rate,
+                "--rate-unit=" + rateUnit.name().toLowerCase(Locale.ROOT), "--receivers=" + connections,
+                "--wait=" + timeoutSeconds, "--quiet"};
+        String[] receiverArgs = {"--host=" + HOST, "--connections=" + connections,
+                "--receive=" + receiveMode.name().toLowerCase(Locale.ROOT), "--duration=" + timeoutSeconds, "--quiet"};
+
+        com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        long cpuStart = os.getProcessCpuTime();
+        long wallStart = System.nanoTime();
+        int[] generatorCode = {1};
+        Thread generator = ThreadMode.PLATFORM.start("benchmark-generator",
+                () -> generatorCode[0] = GeneratorCLI.run(generatorArgs, new PrintStream(generatorOut), discard));
+        int receiverCode = ReceiverCLI.run(receiverArgs, new PrintStream(receiverOut), discard);
+        generator.join(timeoutSeconds * 1_000L);
+        long cpuNanos = os.getProcessCpuTime() - cpuStart;
+        long wallNanos = System.nanoTime() - wallStart;
+
+        String session = findLine(generatorOut, "session");
+        String summary = findLine(receiverOut, "summary");
+        if (generatorCode[0] != 0 || receiverCode != 0 || session == null || summary == null) {
+            throw new IOException("Case size=" + size + " rate=" + rate + " connections=" + connections
+                    + " failed: generator exit " + generatorCode[0] + ", receiver exit " + receiverCode);
+        }
+        double seconds = JsonLine.number(session, "seconds");
+        long sent = (long) JsonLine.number(session, "packets");
+        long received = (long) JsonLine.number(summary, "packets");
+        double lossPercent = sent == 0 ? 0 : Math.max(0, sent - received) * 100.0 / sent;
+        // Время процессора считается за весь случай, включая ожидание соединения, поэтому и делится на все время случая
+        double cpuPercent = wallNanos > 0 ? cpuNanos * 100.0 / wallNanos : Double.NaN;
+        return new BenchmarkResult(transport.name().toLowerCase(Locale.ROOT), size, rate, connections, sent,
+                seconds, JsonLine.number(session, "mbps"), JsonLine.number(session, "pps"), cpuPercent, lossPercent,
+                JsonLine.number(summary, "latency_p50_ms"), JsonLine.number(summary, "latency_p99_ms"),
+                JsonLine.number(summary, "latency_p999_ms"));
+    }
+
+    /**
+     * <p>Находит в выводе консольного приложения последнюю строку JSON с заданным событием.</p>
+     *
+     * @param output вывод приложения
+     * @param event тип события
+     * @return строка JSON или null
+     */
+    private static String findLine(ByteArrayOutputStream output, String event) {
+        String marker = "{\"event\":\"" + event + "\"";
+        String found = null;
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (line.startsWith(marker)) {
+                found = line;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * <p>Создает строку JSON с результатом случая и сравнением с базовой линией.</p>
+     *
+     * @param result результат случая
+     * @param baseline результат базовой линии или null
+     * @param regression true, если случай - регрессия
+     * @return строка JSON
+     */
+    private static JsonLine caseLine(BenchmarkResult result, BenchmarkResult baseline, boolean regression) {
+        JsonLine line = new JsonLine("case").add("transport", result.transport()).add("size", result.packetSize())
+                .add("rate", result.rate()).add("connections", result.connections()).add("packets", result.packets())
+                .add("seconds", result.seconds()).add("mbps", result.mbps()).add("pps", result.pps())
+                .add("cpu_percent", result.cpuPercent()).add("loss_percent", result.lossPercent())
+                .add("latency_p50_ms", result.latencyP50Ms()).add("latency_p99_ms", result.latencyP99Ms())
+                .add("latency_p999_ms", result.latencyP999Ms());
+        if (baseline != null) {
+            line.add("baseline_mbps", baseline.mbps()).add("regression", regression);
+        }
+        return line;
+    }
+
+    /**
+     * <p>Возвращает заголовок текстовой таблицы результатов.</p>
+     *
+     * @return строка заголовка
+     */
+    private static String tableHeader() {
+        return String.format(Locale.ROOT, "%-9s %6s %10s %5s %11s %12s %7s %7s %9s %9s %9s  %s",
+                "transport", "size", "rate", "conn", "Mbit/s", "pps", "cpu%", "loss%", "p50 ms", "p99 ms",
+                "p99.9 ms", "baseline");
+    }
+
+    /**
+     * <p>Форматирует результат случая строкой текстовой таблицы.</p>
+     *
+     * @param result результат случая
+     * @param baseline результат базовой линии или null
+     * @param regression true, если случай - регрессия
+     * @return строка таблицы
+     */
+    private static String tableRow(BenchmarkResult result, BenchmarkResult baseline, boolean regression) {
+        String comparison = baseline == null ? "-" : String.format(Locale.ROOT, "%+.1f%%%s",
+                (result.mbps() / baseline.mbps() - 1) * 100, regression ? " REGRESSION" : "");
+        return String.format(Locale.ROOT, "%-9s %6d %10s %5d %11.1f %12.0f %7.1f %7.3f %9.3f %9.3f %9.3f  %s",
+                result.transport(), result.packetSize(), BenchmarkResult.format(result.rate()), result.connections(),
+                result.mbps(), result.pps(), result.cpuPercent(), result.lossPercent(), result.latencyP50Ms(),
+                result.latencyP99Ms(), result.latencyP999Ms(), comparison);
+    }
+}
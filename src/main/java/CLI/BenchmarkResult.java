@@ -0,0 +1,166 @@
+package CLI;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * <p>BenchmarkResult - результат одного случая нагрузочного прогона через loopback.</p>
+ *
+ * <p>Случай определяется транспортом, размером пакета, скоростью и количеством соединений ({@link #key()}).
+ * Результаты хранятся в файле CSV, который может служить базовой линией следующего прогона.</p>
+ *
+ * @param transport транспорт
+ * @param packetSize размер пакета в байтах
+ * @param rate заданная скорость; 0 - без ограничения
+ * @param connections количество соединений
+ * @param packets количество пакетов, отправленных генератором
+ * @param seconds длительность сессии в секундах
+ * @param mbps пропускная способность, Мбит/с
+ * @param pps скорость, пакетов в секунду
+ * @param cpuPercent загрузка процессора процессом за все время случая в процентах одного ядра
+ * @param lossPercent доля пакетов, не дошедших до приемника, в процентах
+ * @param latencyP50Ms медиана задержки в миллисекундах; NaN - задержка не измерялась
+ * @param latencyP99Ms 99-й перцентиль задержки в миллисекундах
+ * @param latencyP999Ms 99.9-й перцентиль задержки в миллисекундах
+ */
+public record BenchmarkResult(String transport, int packetSize, double rate, int connections, long packets,
+                              double seconds, double mbps, double pps, double cpuPercent, double lossPercent,
+                              double latencyP50Ms, double latencyP99Ms, double latencyP999Ms) {
+
+    /**
+     * <p>Строка заголовка файла CSV.</p>
+     */
+    public static final String CSV_HEADER = "transport,size,rate,connections,packets,seconds,mbps,pps,cpu_percent,"
+            + "loss_percent,latency_p50_ms,latency_p99_ms,latency_p999_ms";
+
+    /**
+     * <p>Возвращает ключ случая, по которому результат сравнивается с базовой линией.</p>
+     *
+     * @return ключ случая
+     */
+    public String key() {
+        return transport + "," + packetSize + "," + format(rate) + "," + connections;
+    }
+
+    /**
+     * <p>Проверяет, упала ли пропускная способность относительно базовой линии больше допуска.</p>
+     *
+     * @param baseline результат базовой линии для того же случая
+     * @param tolerancePercent допустимое падение в процентах
+     * @return true, если пропускная способность ниже базовой больше чем на допуск
+     */
+    public boolean isRegression(BenchmarkResult baseline, double tolerancePercent) {
+        return baseline.mbps() > 0 && mbps < baseline.mbps() * (1 - tolerancePercent / 100);
+    }
+
+    /**
+     * <p>Возвращает результат строкой CSV без перевода строки.</p>
+     *
+     * @return строка CSV
+     */
+    public String toCsv() {
+        return key() + "," + packets + "," + format(seconds) + "," + format(mbps) + "," + format(pps) + ","
+                + format(cpuPercent) + "," + format(lossPercent) + "," + format(latencyP50Ms) + ","
+                + format(latencyP99Ms) + "," + format(latencyP999Ms);
+    }
+
+    /**
+     * <p>Разбирает строку CSV.</p>
+     *
+     * @param line строка CSV
+     * @return результат
+     * @throws IllegalArgumentException если строка не соответствует формату
+     */
+    public static BenchmarkResult fromCsv(String line) {
+        String[] fields = line.split(",", -1);
+        if (fields.length != 13) {
+            throw new IllegalArgumentException("Invalid benchmark result: " + line);
+        }
+        try {
+            return new BenchmarkResult(fields[0], Integer.parseInt(fields[1]), parse(fields[2]),
+                    Integer.parseInt(fields[3]), Long.parseLong(fields[4]), parse(fields[5]), parse(fields[6]),
+                    parse(fields[7]), parse(fields[8]), parse(fields[9]), parse(fields[10]), parse(fields[11]),
+                    parse(fields[12]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid benchmark result: " + line, e);
+        }
+    }
+
+    /**
+     * <p>Записывает результаты в файл CSV с заголовком, создавая недостающие каталоги.</p>
+     *
+     * @param file файл
+     * @param results результаты
+     * @throws IOException если файл не удалось записать
+     */
+    public static void write(Path file, List<BenchmarkResult> results) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(CSV_HEADER);
+            writer.newLine();
+            for (BenchmarkResult result : results) {
+                writer.write(result.toCsv());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * <p>Читает результаты из файла CSV.</p>
+     *
+     * @param file файл
+     * @return результаты по ключам случаев в порядке файла
+     * @throws IOException если файл не удалось прочитать
+     * @throws IllegalArgumentException если файл не соответствует формату
+     */
+    public static Map<String, BenchmarkResult> read(Path file) throws IOException {
+        List<String> lines = new ArrayList<>(Files.readAllLines(file, StandardCharsets.UTF_8));
+        if (lines.isEmpty() || !lines.get(0).equals(CSV_HEADER)) {
+            throw new IllegalArgumentException("Not a benchmark results file: " + file);
+        }
+        Map<String, BenchmarkResult> results = new LinkedHashMap<>();
+        for (String line : lines.subList(1, lines.size())) {
+            if (!line.isBlank()) {
+                BenchmarkResult result = fromCsv(line);
+                results.put(result.key(), result);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * <p>Форматирует число для CSV: целые без дробной части, NaN - пустым полем.</p>
+     *
+     * @param value число
+     * @return строка
+     */
+    static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    /**
+     * <p>Разбирает число из CSV; пустое поле - NaN.</p>
+     *
+     * @param value строка
+     * @return число
+     */
+    private static double parse(String value) {
+        return value.isEmpty() ? Double.NaN : Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,225 @@
+package CLI;
+
+import NetworkConnection.ParameterParser;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>CommandLine - разбор параметров консольных приложений вида --имя=значение и --флаг.</p>
+ *
+ * <p>Все ошибки разбора и проверки значений сообщаются {@link IllegalArgumentException} с текстом,
+ * который можно показать пользователю.</p>
+ */
+public class CommandLine {
+
+    /**
+     * <p>Системное свойство Log4j с файлом конфигурации журнала.</p>
+     */
+    static final String LOG_CONFIG_PROPERTY = "log4j2.configurationFile";
+
+    /**
+     * <p>Конфигурация журнала консольных приложений: сообщения журнала идут в поток ошибок,
+     * чтобы стандартный вывод содержал только строки JSON.</p>
+     */
+    static final String CLI_LOG_CONFIG = "log4j2-cli.xml";
+
+    private final Map<String, String> values;
+
+    /**
+     * <p>Конструктор класса CommandLine.</p>
+     *
+     * @param values значения параметров по именам; у флагов без значения - "true"
+     */
+    private CommandLine(Map<String, String> values) {
+        this.values = values;
+    }
+
+    /**
+     * <p>Разбирает аргументы командной строки.</p>
+     *
+     * @param args аргументы
+     * @param known допустимые имена параметров без префикса --
+     * @return разобранные параметры
+     * @throws IllegalArgumentException если аргумент не начинается с -- или параметр неизвестен
+     */
+    public static CommandLine parse(String[] args, Set<String> known) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.length() == 2) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            String name = separator < 0 ? arg.substring(2) : arg.substring(2, separator);
+            String value = separator < 0 ? "true" : arg.substring(separator + 1);
+            if (!known.contains(name)) {
+                throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+            values.put(name, value);
+        }
+        return new CommandLine(Collections.unmodifiableMap(values));
+    }
+
+    /**
+     * <p>Направляет журнал консольного приложения в поток ошибок, если конфигурация журнала не задана явно.</p>
+     * <p>Должен вызываться до создания первого логгера.</p>
+     */
+    static void useCliLogging() {
+        if (System.getProperty(LOG_CONFIG_PROPERTY) == null) {
+            System.setProperty(LOG_CONFIG_PROPERTY, CLI_LOG_CONFIG);
+        }
+    }
+
+    /**
+     * <p>Возвращает строковое значение параметра.</p>
+     *
+     * @param name имя параметра
+     * @param defaultValue значение, если параметр не задан
+     * @return значение параметра
+     */
+    public String string(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * <p>Проверяет, задан ли флаг.</p>
+     *
+     * @param name имя флага
+     * @return true, если флаг задан без значения или со значением true
+     * @throws IllegalArgumentException если значение не true и не false
+     */
+    public boolean flag(String name) {
+        String value = values.get(name);
+        if (value == null) {
+            return false;
+        }
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "true" -> true;
+            case "false" -> false;
+            default -> throw new IllegalArgumentException("Invalid value of --" + name + ": " + value);
+        };
+    }
+
+    /**
+     * <p>Возвращает целое значение параметра, не меньшее заданного.</p>
+     *
+     * @param name имя параметра
+     * @param defaultValue значение, если параметр не задан
+     * @param min наименьшее допустимое значение
+     * @return значение параметра
+     * @throws IllegalArgumentException если значение не целое или меньше min
+     */
+    public int integer(String name, int defaultValue, int min) {
+        String value = values.get(name);
+        return value == null ? defaultValue : checkInteger(name, value, min, Integer.MAX_VALUE);
+    }
+
+    /**
+     * <p>Возвращает список целых значений параметра через запятую, каждое не меньше заданного.</p>
+     *
+     * @param name имя параметра
+     * @param defaultValue значения, если параметр не задан
+     * @param min наименьшее допустимое значение
+     * @return значения параметра
+     * @throws IllegalArgumentException если значение не целое или меньше min
+     */
+    public int[] integers(String name, int[] defaultValue, int min) {
+        String value = values.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        String[] items = value.split(",");
+        int[] parsed = new int[items.length];
+        for (int i = 0; i < items.length; i++) {
+            parsed[i] = checkInteger(name, items[i], min, Integer.MAX_VALUE);
+        }
+        return parsed;
+    }
+
+    /**
+     * <p>Возвращает неотрицательное дробное значение параметра.</p>
+     *
+     * @param name имя параметра
+     * @param defaultValue значение, если параметр не задан
+     * @return значение параметра
+     * @throws IllegalArgumentException если значение не число или отрицательно
+     */
+    public double decimal(String name, double defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : checkDecimal(name, value);
+    }
+
+    /**
+     * <p>Возвращает список неотрицательных дробных значений параметра через запятую.</p>
+     *
+     * @param name имя параметра
+     * @param defaultValue значения, если параметр не задан
+     * @return значения параметра
+     * @throws IllegalArgumentException если значение не число или отрицательно
+     */
+    public double[] decimals(String name, double[] defaultValue) {
+        String value = values.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        String[] items = value.split(",");
+        double[] parsed = new double[items.length];
+        for (int i = 0; i < items.length; i++) {
+            parsed[i] = checkDecimal(name, items[i]);
+        }
+        return parsed;
+    }
+
+    /**
+     * <p>Возвращает элемент перечисления по имени без учета регистра; дефисы в имени заменяются подчеркиваниями.</p>
+     *
+     * @param name имя параметра
+     * @param type класс перечисления
+     * @param defaultValue значение, если параметр не задан
+     * @param <E> тип перечисления
+     * @return элемент перечисления
+     * @throws IllegalArgumentException если элемента с таким именем нет
+     */
+    public <E extends Enum<E>> E enumValue(String name, Class<E> type, E defaultValue) {
+        String value = values.get(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        String constant = value.trim().replace('-', '_').toUpperCase(Locale.ROOT);
+        for (E candidate : type.getEnumConstants()) {
+            if (candidate.name().equals(constant)) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("Invalid value of --" + name + ": " + value);
+    }
+
+    /**
+     * <p>Разбирает целое значение параметра в заданном диапазоне.</p>
+     *
+     * @param name имя параметра
+     * @param value значение
+     * @param min наименьшее допустимое значение
+     * @param max наибольшее допустимое значение
+     * @return значение
+     * @throws IllegalArgumentException если значение не целое или вне диапазона
+     */
+    private static int checkInteger(String name, String value, int min, int max) {
+        return (int) ParameterParser.checkLong("value of --" + name, value, min, max);
+    }
+
+    /**
+     * <p>Разбирает неотрицательное дробное значение параметра.</p>
+     *
+     * @param name имя параметра
+     * @param value значение
+     * @return значение
+     * @throws IllegalArgumentException если значение не число или отрицательно
+     */
+    private static double checkDecimal(String name, String value) {
+        return ParameterParser.checkDecimal("value of --" + name, value, false);
+    }
+}
@@ -0,0 +1,314 @@
+package CLI;
+
+import Capture.CaptureReader;
+import ErrorHandler.ErrorHandler;
+import Monitoring.MetricsServer;
+import Monitoring.PacketTrace;
+import Monitoring.PrometheusMetrics;
+import NetworkConnection.NetworkConfig;
+import NetworkConnection.ThreadMode;
+import NetworkConnection.Transport;
+import Output.OutputSink;
+import Output.StreamOutput;
+import Results.ResultsStore;
+import Statistics.AggregateStatistics;
+import Statistics.IntervalSample;
+import Statistics.StatisticsSampler;
+import TrafficGenerator.InputReader;
+import TrafficGenerator.PayloadMode;
+import TrafficGenerator.RateUnit;
+import TrafficGenerator.ReplayScheduler;
+import TrafficGenerator.TrafficGenerator;
+import TrafficGenerator.TrafficProfile;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * <p>GeneratorCLI - консольный генератор трафика для серверов без графической среды.</p>
+ *
+ * <p>Все параметры задаются ключами командной строки, JavaFX не загружается. Генератор ждет подключения
+ * заданного количества приемников, проводит заданное количество сессий и завершается. В стандартный вывод
+ * пишутся только строки JSON (по одной на событие): ready, interval и session. Текстовая статистика
+ * и журнал идут в поток ошибок.</p>
+ */
+public class GeneratorCLI {
+    static {
+        CommandLine.useCliLogging();
+    }
+
+    private static final String ROLE = "generator";
+    private static final long WAIT_POLL_MS = 10;
+
+    private static final Set<String> OPTIONS = Set.of("help", "transport", "threads", "packets", "size", "rate",
+            "rate-unit", "profile", "profile-option", "payload", "payload-option", "batch", "checksum",
+            "receivers", "sessions", "wait", "sample-interval", NetworkConfig.TRACE_SAMPLE_PROPERTY,
+            NetworkConfig.TRACE_FILE_PROPERTY, NetworkConfig.METRICS_PORT_PROPERTY,
+            NetworkConfig.RESULTS_STORE_PROPERTY, NetworkConfig.REPLAY_PROPERTY, NetworkConfig.REPLAY_SPEED_PROPERTY, "quiet");
+
+    private static final String USAGE = """
+            Usage: GeneratorCLI [options]
+              --transport=stream|nio|udp      transport (default stream)
+              --threads=platform|virtual      session threads (default platform)
+              --packets=N                     packets per receiver and session (default 1000)
+              --size=BYTES                    packet payload size (default 1024)
+              --rate=R                        rate, 0 - unlimited (default 0)
+              --rate-unit=pps|mbps|interval-ms  rate unit (default pps)
+              --profile=constant|poisson|on-off|ramp|step  traffic profile (default constant)
+              --profile-option=N              profile parameter (default 0)
+              --payload=random|zeros|pattern|seeded|compressible  payload mode (default random)
+              --payload-option=TEXT           payload mode parameter
+              --batch                         batch socket writes
+              --checksum                      write CRC32C of every payload
+              --receivers=N                   receivers to wait for before starting (default 1)
+              --sessions=N                    sessions to run (default 1)
+              --wait=SECONDS                  how long to wait for receivers, 0 - forever (default 0)
+              --sample-interval=MS            interval statistics period (default 1000)
+              --trace-sample=N                binary trace of every N-th packet, 0 - off (default 0);
+                                              N is rounded up to a power of two, at most 1073741824
+              --trace-file=PATH               trace file (default logs/generator.trace)
+              --metrics-port=PORT             serve Prometheus metrics on http://host:PORT/metrics
+              --results-store[=PATH]          append session results to a file (default logs/generator-results.bin)
+              --replay=PATH                   replay a receiver capture instead of --packets, --size and --rate
+              --replay-speed=X                replay timing factor, 2 - twice as fast (default 1)
+              --quiet                         do not print text statistics to stderr
+            """;
+
+    /**
+     * <p>Конструктор по умолчанию.</p>
+     */
+    public GeneratorCLI() {
+    }
+
+    /**
+     * <p>Запускает консольный генератор.</p>
+     *
+     * @param args ключи командной строки
+     */
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * <p>Выполняет консольный генератор с заданными потоками вывода.</p>
+     *
+     * @param args ключи командной строки
+     * @param out поток для строк JSON
+     * @param err поток для текстовых сообщений
+     * @return код завершения: 0 - успех, 1 - ошибка выполнения, 2 - ошибка параметров
+     */
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        CommandLine commandLine;
+        InputReader inputReader = new InputReader();
+        Transport transport;
+        ThreadMode threadMode;
+        int receivers;
+        int sessions;
+        int waitSeconds;
+        long sampleInterval;
+        int traceSample;
+        int metricsPort;
+        Path resultsFile;
+        String replayFile;
+        double replaySpeed;
+        try {
+            commandLine = CommandLine.parse(args, OPTIONS);
+            if (commandLine.flag("help")) {
+                err.print(USAGE);
+                return 0;
+            }
+            inputReader.setPacketCount(commandLine.integer("packets", 1000, 1));
+            inputReader.setPacketSize(commandLine.integer("size", 1024, 1));
+            inputReader.setRate(commandLine.decimal("rate", 0));
+            inputReader.setRateUnit(commandLine.enumValue("rate-unit", RateUnit.class, RateUnit.PPS));
+            TrafficProfile profile = commandLine.enumValue("profile", TrafficProfile.class, TrafficProfile.CONSTANT);
+            int profileOption = commandLine.integer("profile-option", 0, 0);
+            profile.validate(profileOption);
+            inputReader.setTrafficProfile(profile);
+            inputReader.setProfileOption(profileOption);
+            PayloadMode payloadMode = commandLine.enumValue("payload", PayloadMode.class, PayloadMode.RANDOM);
+            String payloadOption = commandLine.string("payload-option", "").trim();
+            payloadMode.validate(payloadOption);
+            inputReader.setPayloadMode(payloadMode);
+            inputReader.setPayloadOption(payloadOption);
+            inputReader.setBatching(commandLine.flag("batch"));
+            inputReader.setChecksum(commandLine.flag("checksum"));
+            transport = Transport.parse(commandLine.string("transport", null));
+            threadMode = ThreadMode.parse(commandLine.string("threads", null));
+            receivers = commandLine.integer("receivers", 1, 1);
+            sessions = commandLine.integer("sessions", 1, 1);
+            waitSeconds = commandLine.integer("wait", 0, 0);
+            sampleInterval = StatisticsSampler.parseInterval(commandLine.string("sample-interval", null));
+            traceSample = PacketTrace.parseSample(commandLine.string(NetworkConfig.TRACE_SAMPLE_PROPERTY, null));
+            metricsPort = MetricsServer.parsePort(commandLine.string(NetworkConfig.METRICS_PORT_PROPERTY, null));
+            resultsFile = ResultsStore.parseFile(commandLine.string(NetworkConfig.RESULTS_STORE_PROPERTY, null),
+                    ResultsStore.GENERATOR_FILE);
+            replayFile = commandLine.string(NetworkConfig.REPLAY_PROPERTY, null);
+            replaySpeed = ReplayScheduler.parseSpeed(commandLine.string(NetworkConfig.REPLAY_SPEED_PROPERTY, null));
+        } catch (IllegalArgumentException e) {
+            ErrorHandler.handleInputError(e.getMessage());
+            err.println(e.getMessage());
+            err.print(USAGE);
+            return 2;
+        }
+
+        OutputSink text = commandLine.flag("quiet") ? OutputSink.NONE : new StreamOutput(err);
+        long origin = System.nanoTime();
+        TrafficGenerator generator;
+        try {
+            startTrace(commandLine, traceSample, PacketTrace.GENERATOR_FILE);
+            startResults(resultsFile);
+            generator = new TrafficGenerator(text, inputReader, transport, threadMode);
+            if (replayFile != null) {
+                generator.setReplay(CaptureReader.open(Path.of(replayFile)), replaySpeed);
+            }
+        } catch (IOException e) {
+            PacketTrace.global().close();
+            ResultsStore.global().close();
+            ErrorHandler.handleIOException("Error starting generator", e);
+            print(out, new JsonLine("error").add("role", ROLE).add("message", e.getMessage()));
+            return 1;
+        }
+
+        PrometheusMetrics metrics = new PrometheusMetrics(PrometheusMetrics.GENERATOR, generator.getCounters());
+        generator.addSampleListener(metrics);
+        MetricsServer metricsServer = null;
+        generator.setSampleIntervalMillis(sampleInterval);
+        generator.addSampleListener(sample -> {
+            if (!sample.isIdle()) {
+                print(out, JsonLine.interval(ROLE, sample, seconds(origin)));
+            }
+        });
+        try {
+            metricsServer = startMetrics(metricsPort, metrics);
+            ThreadMode.PLATFORM.start("generator-acceptor", () -> generator.listenForConnections(text));
+            if (!awaitReceivers(generator, receivers, waitSeconds)) {
+                print(out, new JsonLine("error").add("role", ROLE)
+                        .add("message", "Timed out waiting for " + receivers + " receivers"));
+                return 1;
+            }
+            JsonLine ready = new JsonLine("ready").add("role", ROLE).add("time_s", seconds(origin))
+                    .add("port", NetworkConfig.PORT).add("receivers", generator.getClients().size())
+                    .add("transport", transport.name().toLowerCase()).add("threads", threadMode.name().toLowerCase());
+            if (metricsServer != null) {
+                ready.add("metrics_port", metricsServer.getPort());
+            }
+            if (ResultsStore.global().isEnabled()) {
+                ready.add("run_id", ResultsStore.global().getRunId());
+            }
+            print(out, ready);
+
+            for (int session = 1; session <= sessions; session++) {
+                AggregateStatistics result = generator.handle(session);
+                // Время сессии - время циклов отправки, без заполнения нагрузки и запуска выборки статистики
+                IntervalSample total = new IntervalSample(result.getSendNanos(), result.getPackets(),
+                        result.getBytes(), 0, result.getPackets(), 0, 0);
+                print(out, new JsonLine("session").add("role", ROLE).add("session", session)
+                        .add("receivers", generator.getClients().size())
+                        .add("seconds", total.intervalNanos() / 1_000_000_000.0).add("packets", total.packets())
+                        .add("bytes", total.bytes()).add("pps", total.packetsPerSecond())
+                        .add("mbps", total.megabitsPerSecond()));
+            }
+            return 0;
+        } catch (IOException e) {
+            ErrorHandler.handleIOException("Error starting metrics server", e);
+            print(out, new JsonLine("error").add("role", ROLE).add("message", e.getMessage()));
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ErrorHandler.handleError("Interrupted while waiting for receivers", e);
+            return 1;
+        } finally {
+            generator.stopListening();
+            generator.close();
+            if (metricsServer != null) {
+                metricsServer.close();
+            }
+            PacketTrace.global().close();
+            ResultsStore.global().close();
+        }
+    }
+
+    /**
+     * <p>Запускает сервер метрик, если задан его порт.</p>
+     *
+     * @param port порт; -1 - сервер не нужен
+     * @param metrics источник метрик
+     * @return запущенный сервер или null
+     * @throws IOException если порт занят
+     */
+    static MetricsServer startMetrics(int port, PrometheusMetrics metrics) throws IOException {
+        return port < 0 ? null : new MetricsServer(port, metrics);
+    }
+
+    /**
+     * <p>Запускает общую пакетную трассировку, если задана ее частота.</p>
+     *
+     * @param commandLine ключи командной строки
+     * @param traceSample частота трассировки; 0 - выключена
+     * @param defaultFile файл трассировки, если он не задан ключом --trace-file
+     * @throws IOException если файл трассировки не удалось создать
+     */
+    static void startTrace(CommandLine commandLine, int traceSample, String defaultFile) throws IOException {
+        if (traceSample > 0) {
+            PacketTrace.startGlobal(traceSample,
+                    Path.of(commandLine.string(NetworkConfig.TRACE_FILE_PROPERTY, defaultFile)));
+        }
+    }
+
+    /**
+     * <p>Открывает общий файл итогов сессий, если он задан ключом --results-store.</p>
+     *
+     * @param file файл итогов; null - итоги не сохраняются
+     * @throws IOException если файл не удалось открыть
+     */
+    static void startResults(Path file) throws IOException {
+        if (file != null) {
+            ResultsStore.startGlobal(file);
+        }
+    }
+
+    /**
+     * <p>Ждет подключения заданного количества приемников.</p>
+     *
+     * @param generator генератор
+     * @param receivers количество приемников
+     * @param waitSeconds наибольшее время ожидания в секундах; 0 - без ограничения
+     * @return true, если приемники подключились
+     * @throws InterruptedException если ожидание прервано
+     */
+    private static boolean awaitReceivers(TrafficGenerator generator, int receivers, int waitSeconds)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + waitSeconds * 1_000_000_000L;
+        while (generator.getClients().size() < receivers) {
+            if (waitSeconds > 0 && System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            Thread.sleep(WAIT_POLL_MS);
+        }
+        return true;
+    }
+
+    /**
+     * <p>Возвращает время от запуска в секундах.</p>
+     *
+     * @param origin время запуска в наносекундах
+     * @return время в секундах
+     */
+    static double seconds(long origin) {
+        return (System.nanoTime() - origin) / 1_000_000_000.0;
+    }
+
+    /**
+     * <p>Выводит строку JSON.</p>
+     *
+     * @param out поток вывода
+     * @param line строка JSON
+     */
+    static void print(PrintStream out, JsonLine line) {
+        out.println(line);
+        out.flush();
+    }
+}
@@ -0,0 +1,179 @@
+package CLI;
+
+import Statistics.IntervalSample;
+
+/**
+ * <p>JsonLine - одна строка вывода консольных приложений в формате JSON (JSON Lines).</p>
+ *
+ * <p>Каждое событие - отдельный объект в одной строке с обязательным полем event, поэтому вывод можно
+ * разбирать построчно, например через jq, не дожидаясь конца прогона.</p>
+ */
+public class JsonLine {
+    private final StringBuilder builder = new StringBuilder("{");
+
+    /**
+     * <p>Конструктор класса JsonLine.</p>
+     *
+     * @param event тип события
+     */
+    public JsonLine(String event) {
+        add("event", event);
+    }
+
+    /**
+     * <p>Создает строку с показателями интервала.</p>
+     *
+     * @param role роль приложения: generator или receiver
+     * @param sample показатели интервала
+     * @param timeSeconds время конца интервала от запуска приложения в секундах
+     * @return строка JSON
+     */
+    public static JsonLine interval(String role, IntervalSample sample, double timeSeconds) {
+        JsonLine line = new JsonLine("interval")
+                .add("role", role)
+                .add("time_s", timeSeconds)
+                .add("interval_s", sample.intervalNanos() / 1_000_000_000.0)
+                .add("packets", sample.packets())
+                .add("bytes", sample.bytes())
+                .add("pps", sample.packetsPerSecond())
+                .add("mbps", sample.megabitsPerSecond())
+                .add("missing", sample.missing())
+                .add("loss_percent", sample.lossPercent());
+        if (sample.hasLatency()) {
+            line.add("latency_p50_ms", sample.latencyP50Nanos() / 1_000_000.0)
+                    .add("latency_p99_ms", sample.latencyP99Nanos() / 1_000_000.0);
+        }
+        return line;
+    }
+
+    /**
+     * <p>Читает числовое поле из строки JSON, записанной этим классом.</p>
+     *
+     * @param json строка JSON
+     * @param name имя поля
+     * @return значение поля; NaN, если поля нет или оно не число
+     */
+    public static double number(String json, String name) {
+        String key = "\"" + name + "\":";
+        int start = json.indexOf(key);
+        if (start < 0) {
+            return Double.NaN;
+        }
+        start += key.length();
+        int end = start;
+        while (end < json.length() && json.charAt(end) != ',' && json.charAt(end) != '}') {
+            end++;
+        }
+        try {
+            return Double.parseDouble(json.substring(start, end));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * <p>Добавляет строковое поле.</p>
+     *
+     * @param name имя поля
+     * @param value значение; null записывается как null
+     * @return эта строка
+     */
+    public JsonLine add(String name, String value) {
+        key(name);
+        if (value == null) {
+            builder.append("null");
+        } else {
+            quote(value);
+        }
+        return this;
+    }
+
+    /**
+     * <p>Добавляет целое поле.</p>
+     *
+     * @param name имя поля
+     * @param value значение
+     * @return эта строка
+     */
+    public JsonLine add(String name, long value) {
+        key(name);
+        builder.append(value);
+        return this;
+    }
+
+    /**
+     * <p>Добавляет дробное поле. Бесконечность и NaN записываются как null.</p>
+     *
+     * @param name имя поля
+     * @param value значение
+     * @return эта строка
+     */
+    public JsonLine add(String name, double value) {
+        key(name);
+        builder.append(Double.isFinite(value) ? Double.toString(value) : "null");
+        return this;
+    }
+
+    /**
+     * <p>Добавляет логическое поле.</p>
+     *
+     * @param name имя поля
+     * @param value значение
+     * @return эта строка
+     */
+    public JsonLine add(String name, boolean value) {
+        key(name);
+        builder.append(value);
+        return this;
+    }
+
+    /**
+     * <p>Возвращает объект JSON без перевода строки.</p>
+     *
+     * @return строка JSON
+     */
+    @Override
+    public String toString() {
+        return builder + "}";
+    }
+
+    /**
+     * <p>Записывает имя поля и двоеточие.</p>
+     *
+     * @param name имя поля
+     */
+    private void key(String name) {
+        if (builder.length() > 1) {
+            builder.append(',');
+        }
+        quote(name);
+        builder.append(':');
+    }
+
+    /**
+     * <p>Записывает строку в кавычках с экранированием.</p>
+     *
+     * @param value строка
+     */
+    private void quote(String value) {
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        builder.append('"');
+    }
+}
@@ -0,0 +1,313 @@
+package CLI;
+
+import Capture.CaptureWriter;
+import ErrorHandler.ErrorHandler;
+import Monitoring.MetricsServer;
+import Monitoring.PacketTrace;
+import Monitoring.PrometheusMetrics;
+import NetworkConnection.NetworkConfig;
+import NetworkConnection.SelectorPool;
+import Output.OutputSink;
+import Output.StreamOutput;
+import Results.ResultsStore;
+import Results.SessionResult;
+import Statistics.IntervalSample;
+import Statistics.LatencyHistogram;
+import Statistics.StatisticsSampler;
+import Statistics.TrafficCounters;
+import TrafficReceiver.ReceiveMode;
+import TrafficReceiver.TrafficReceiver;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <p>ReceiverCLI - консольный приемник трафика для серверов без графической среды.</p>
+ *
+ * <p>Все параметры задаются ключами командной строки, JavaFX не загружается. Приемник открывает заданное
+ * количество соединений с генератором и работает, пока генератор не закроет их все или не истечет заданное
+ * время. В стандартный вывод пишутся только строки JSON (по одной на событие): ready, interval, session
+ * на каждую завершенную сессию каждого соединения и summary.
+ * Текстовая статистика и журнал идут в поток ошибок. Итог выводится ровно один раз, в том числе
+ * при остановке процесса сигналом.</p>
+ */
+public class ReceiverCLI {
+    static {
+        CommandLine.useCliLogging();
+    }
+
+    private static final String ROLE = "receiver";
+    private static final long WAIT_POLL_MS = 10;
+    private static final long RETRY_MS = 2_000;
+
+    private static final Set<String> OPTIONS = Set.of("help", "host", NetworkConfig.CONNECTIONS_PROPERTY,
+            NetworkConfig.SELECTORS_PROPERTY, NetworkConfig.RECEIVE_MODE_PROPERTY,
+            NetworkConfig.SAMPLE_INTERVAL_PROPERTY, NetworkConfig.LATENCY_CSV_PROPERTY, NetworkConfig.TRACE_SAMPLE_PROPERTY,
+            NetworkConfig.TRACE_FILE_PROPERTY, NetworkConfig.METRICS_PORT_PROPERTY,
+            NetworkConfig.RESULTS_STORE_PROPERTY, NetworkConfig.CAPTURE_PROPERTY, NetworkConfig.CAPTURE_PAYLOAD_PROPERTY, "duration", "quiet");
+
+    private static final String USAGE = """
+            Usage: ReceiverCLI [options]
+              --host=HOST                     generator address (default localhost)
+              --connections=N                 connections to open (default 1)
+              --selectors=N                   selector threads (default depends on CPU count)
+              --receive=full|discard          receive mode (default full)
+              --sample-interval=MS            interval statistics period (default 1000)
+              --latency-csv=PATH              write the latency histogram to a CSV file on exit
+              --trace-sample=N                binary trace of every N-th packet, 0 - off (default 0);
+                                              N is rounded up to a power of two, at most 1073741824
+              --trace-file=PATH               trace file (default logs/receiver.trace)
+              --metrics-port=PORT             serve Prometheus metrics on http://host:PORT/metrics
+              --results-store[=PATH]          append session results to a file (default logs/receiver-results.bin)
+              --capture[=PATH]                record the first session for replay (default logs/receiver.capture)
+              --capture-payload               also record packet payloads in the capture
+              --duration=SECONDS              stop after this time, 0 - when the generator closes (default 0)
+              --quiet                         do not print text statistics to stderr
+            """;
+
+    /**
+     * <p>Конструктор по умолчанию.</p>
+     */
+    public ReceiverCLI() {
+    }
+
+    /**
+     * <p>Запускает консольный приемник.</p>
+     *
+     * @param args ключи командной строки
+     */
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * <p>Выполняет консольный приемник с заданными потоками вывода.</p>
+     *
+     * @param args ключи командной строки
+     * @param out поток для строк JSON
+     * @param err поток для текстовых сообщений
+     * @return код завершения: 0 - успех, 1 - ошибка выполнения, 2 - ошибка параметров
+     */
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        CommandLine commandLine;
+        String host;
+        int connections;
+        int selectors;
+        ReceiveMode receiveMode;
+        long sampleInterval;
+        int durationSeconds;
+        int traceSample;
+        int metricsPort;
+        Path resultsFile;
+        Path captureFile;
+        boolean capturePayload;
+        try {
+            commandLine = CommandLine.parse(args, OPTIONS);
+            if (commandLine.flag("help")) {
+                err.print(USAGE);
+                return 0;
+            }
+            host = commandLine.string("host", NetworkConfig.SERVER_ADDRESS);
+            connections = commandLine.integer(NetworkConfig.CONNECTIONS_PROPERTY, 1, 1);
+            selectors = Math.min(commandLine.integer(NetworkConfig.SELECTORS_PROPERTY,
+                    NetworkConfig.DEFAULT_SELECTOR_THREADS, 1), connections);
+            receiveMode = ReceiveMode.parse(commandLine.string(NetworkConfig.RECEIVE_MODE_PROPERTY, null));
+            sampleInterval = StatisticsSampler.parseInterval(
+                    commandLine.string(NetworkConfig.SAMPLE_INTERVAL_PROPERTY, null));
+            durationSeconds = commandLine.integer("duration", 0, 0);
+            traceSample = PacketTrace.parseSample(commandLine.string(NetworkConfig.TRACE_SAMPLE_PROPERTY, null));
+            metricsPort = MetricsServer.parsePort(commandLine.string(NetworkConfig.METRICS_PORT_PROPERTY, null));
+            resultsFile = ResultsStore.parseFile(commandLine.string(NetworkConfig.RESULTS_STORE_PROPERTY, null),
+                    ResultsStore.RECEIVER_FILE);
+            captureFile = CaptureWriter.parseFile(commandLine.string(NetworkConfig.CAPTURE_PROPERTY, null));
+            capturePayload = commandLine.flag(NetworkConfig.CAPTURE_PAYLOAD_PROPERTY);
+        } catch (IllegalArgumentException e) {
+            ErrorHandler.handleInputError(e.getMessage());
+            err.println(e.getMessage());
+            err.print(USAGE);
+            return 2;
+        }
+
+        OutputSink text = commandLine.flag("quiet") ? OutputSink.NONE : new StreamOutput(err);
+        long origin = System.nanoTime();
+        TrafficCounters counters = new TrafficCounters();
+        LatencyHistogram totalLatency = new LatencyHistogram();
+        SelectorPool selectorPool;
+        try {
+            GeneratorCLI.startTrace(commandLine, traceSample, PacketTrace.RECEIVER_FILE);
+            GeneratorCLI.startResults(resultsFile);
+            if (captureFile != null) {
+                CaptureWriter.startGlobal(captureFile, capturePayload);
+            }
+            selectorPool = new SelectorPool(selectors, NetworkConfig.MAX_READ_SIZE);
+        } catch (IOException e) {
+            PacketTrace.global().close();
+            ResultsStore.global().close();
+            CaptureWriter.global().close();
+            ErrorHandler.handleIOException("Error starting receiver", e);
+            GeneratorCLI.print(out, new JsonLine("error").add("role", ROLE).add("message", e.getMessage()));
+            return 1;
+        }
+        PrometheusMetrics metrics = new PrometheusMetrics(PrometheusMetrics.RECEIVER, counters);
+        StatisticsSampler sampler = new StatisticsSampler(counters, sampleInterval).addListener(sample -> {
+            if (!sample.isIdle()) {
+                GeneratorCLI.print(out, JsonLine.interval(ROLE, sample, GeneratorCLI.seconds(origin)));
+            }
+        }).addListener(metrics).addLatencyListener(metrics::addLatency);
+        String latencyCsv = commandLine.string(NetworkConfig.LATENCY_CSV_PROPERTY, null);
+        AtomicBoolean finished = new AtomicBoolean();
+        Runnable finish = () -> {
+            if (finished.compareAndSet(false, true)) {
+                sampler.close();
+                selectorPool.close();
+                GeneratorCLI.print(out, summary(counters, totalLatency.snapshot(), GeneratorCLI.seconds(origin)));
+                exportLatency(latencyCsv, totalLatency);
+                PacketTrace.global().close();
+                ResultsStore.global().close();
+                CaptureWriter.global().close();
+            }
+        };
+        Thread shutdownHook = new Thread(finish, "receiver-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+
+        MetricsServer metricsServer = null;
+        try {
+            metricsServer = GeneratorCLI.startMetrics(metricsPort, metrics);
+            for (int i = 0; i < connections; i++) {
+                SocketChannel channel = connect(host, text);
+                new TrafficReceiver(channel.socket(), text, totalLatency, receiveMode, counters)
+                        .setSessionListener(result -> GeneratorCLI.print(out, session(result)))
+                        .register(selectorPool);
+            }
+            sampler.start();
+            JsonLine ready = new JsonLine("ready").add("role", ROLE).add("time_s", GeneratorCLI.seconds(origin))
+                    .add("host", host).add("port", NetworkConfig.PORT).add("connections", connections)
+                    .add("selectors", selectorPool.getThreads()).add("receive", receiveMode.name().toLowerCase());
+            if (metricsServer != null) {
+                ready.add("metrics_port", metricsServer.getPort());
+            }
+            if (ResultsStore.global().isEnabled()) {
+                ready.add("run_id", ResultsStore.global().getRunId());
+            }
+            GeneratorCLI.print(out, ready);
+
+            long deadline = System.nanoTime() + durationSeconds * 1_000_000_000L;
+            while (selectorPool.getConnections() > 0
+                    && (durationSeconds == 0 || System.nanoTime() - deadline < 0)) {
+                Thread.sleep(WAIT_POLL_MS);
+            }
+            return 0;
+        } catch (IOException e) {
+            ErrorHandler.handleIOException("Error starting receiver", e);
+            GeneratorCLI.print(out, new JsonLine("error").add("role", ROLE).add("message", e.getMessage()));
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ErrorHandler.handleError("Receiver interrupted", e);
+            return 1;
+        } finally {
+            finish.run();
+            if (metricsServer != null) {
+                metricsServer.close();
+            }
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // JVM уже завершается: итог выведен обработчиком завершения или этим потоком
+            }
+        }
+    }
+
+    /**
+     * <p>Подключается к генератору. Пока генератор недоступен, повторяет попытку каждые 2 секунды.</p>
+     *
+     * @param host адрес генератора
+     * @param text приемник текстовых сообщений
+     * @return открытый канал
+     * @throws InterruptedException если ожидание прервано
+     */
+    private static SocketChannel connect(String host, OutputSink text) throws InterruptedException {
+        while (true) {
+            try {
+                SocketChannel channel = SocketChannel.open(new InetSocketAddress(host, NetworkConfig.PORT));
+                text.appendText("The connection is established" + '\n');
+                return channel;
+            } catch (IOException e) {
+                text.appendText("Error connecting to the generator: " + e.getMessage() + '\n');
+                Thread.sleep(RETRY_MS);
+            }
+        }
+    }
+
+    /**
+     * <p>Создает строку JSON с итогами сессии одного соединения.</p>
+     *
+     * @param result итоги сессии
+     * @return строка JSON
+     */
+    static JsonLine session(SessionResult result) {
+        IntervalSample total = new IntervalSample(result.durationNanos(), result.packets(), result.bytes(), 0,
+                result.packets(), 0, 0);
+        JsonLine line = new JsonLine("session").add("role", ROLE).add("session", result.session())
+                .add("transport", result.transport().name().toLowerCase())
+                .add("seconds", result.durationNanos() / 1_000_000_000.0).add("packets", result.packets())
+                .add("bytes", result.bytes()).add("pps", total.packetsPerSecond())
+                .add("mbps", total.megabitsPerSecond());
+        if (result.lost() >= 0) {
+            line.add("lost", result.lost());
+        }
+        if (result.hasLatency()) {
+            line.add("latency_p50_ms", result.latencyP50Nanos() / 1_000_000.0)
+                    .add("latency_p99_ms", result.latencyP99Nanos() / 1_000_000.0)
+                    .add("latency_p999_ms", result.latencyP999Nanos() / 1_000_000.0);
+        }
+        return line;
+    }
+
+    /**
+     * <p>Создает итоговую строку JSON со счетчиками и перцентилями задержки.</p>
+     *
+     * @param counters счетчики трафика
+     * @param latency гистограмма задержек всех соединений
+     * @param timeSeconds время от запуска в секундах
+     * @return строка JSON
+     */
+    static JsonLine summary(TrafficCounters counters, LatencyHistogram latency, double timeSeconds) {
+        JsonLine line = new JsonLine("summary").add("role", ROLE).add("time_s", timeSeconds)
+                .add("packets", counters.getPackets()).add("bytes", counters.getBytes())
+                .add("missing", counters.getMissing());
+        if (latency.getCount() > 0) {
+            line.add("latency_p50_ms", latency.getPercentile(50) / 1_000_000.0)
+                    .add("latency_p90_ms", latency.getPercentile(90) / 1_000_000.0)
+                    .add("latency_p99_ms", latency.getPercentile(99) / 1_000_000.0)
+                    .add("latency_p999_ms", latency.getPercentile(99.9) / 1_000_000.0)
+                    .add("latency_max_ms", latency.getMax() / 1_000_000.0);
+        }
+        return line;
+    }
+
+    /**
+     * <p>Записывает гистограмму задержек в файл CSV, если он задан.</p>
+     *
+     * @param file путь к файлу или null
+     * @param latency гистограмма задержек
+     */
+    private static void exportLatency(String file, LatencyHistogram latency) {
+        if (file == null || file.isBlank()) {
+            return;
+        }
+        try (Writer writer = Files.newBufferedWriter(Path.of(file), StandardCharsets.UTF_8)) {
+            latency.writeCsv(writer);
+        } catch (IOException e) {
+            ErrorHandler.handleIOException("Error writing latency histogram", e);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package Capture;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>CaptureReader - чтение файла захвата {@link CaptureWriter} для воспроизведения.</p>
+ *
+ * <p>Файл отображается в память только для чтения, при открытии строится индекс смещений записей, поэтому
+ * пакет с номером i читается без разбора предыдущих. Все методы чтения используют абсолютные индексы,
+ * и один читатель можно использовать из нескольких потоков отправки.</p>
+ */
+public final class CaptureReader {
+    private final Path file;
+    private final MappedByteBuffer data;
+    private final boolean payload;
+    private final int[] offsets;
+    private final long[] totalLengths;
+    private final int maxLength;
+
+    /**
+     * <p>Конструктор класса CaptureReader.</p>
+     *
+     * @param file файл захвата
+     * @param data отображенное содержимое файла
+     * @param payload true - записи содержат полезную нагрузку
+     * @param offsets смещения записей
+     * @param totalLengths суммарные длины первых i пакетов
+     * @param maxLength наибольшая длина пакета
+     */
+    private CaptureReader(Path file, MappedByteBuffer data, boolean payload, int[] offsets, long[] totalLengths,
+                          int maxLength) {
+        this.file = file;
+        this.data = data;
+        this.payload = payload;
+        this.offsets = offsets;
+        this.totalLengths = totalLengths;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * <p>Открывает файл захвата и строит индекс записей.</p>
+     *
+     * @param file файл захвата
+     * @return читатель
+     * @throws IOException если файл не удалось прочитать, он не является файлом захвата или не был закрыт
+     */
+    public static CaptureReader open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < CaptureWriter.HEADER_SIZE) {
+                throw new IOException("Not a capture file: " + file);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, CaptureWriter.HEADER_SIZE);
+            if (header.getLong(0) != CaptureWriter.MAGIC) {
+                throw new IOException("Not a capture file: " + file);
+            }
+            if (header.getInt(8) != CaptureWriter.VERSION) {
+                throw new IOException("Unsupported capture version in " + file);
+            }
+            boolean payload = (header.getInt(12) & CaptureWriter.FLAG_PAYLOAD) != 0;
+            long packets = header.getLong(16);
+            long length = CaptureWriter.HEADER_SIZE + header.getLong(24);
+            if (packets == 0 && channel.size() > CaptureWriter.HEADER_SIZE) {
+                throw new IOException("Capture file was not closed properly: " + file);
+            }
+            if (packets > Integer.MAX_VALUE || length > channel.size() || length > Integer.MAX_VALUE) {
+                throw new IOException("Corrupted capture file: " + file);
+            }
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+
+            int[] offsets = new int[(int) packets];
+            long[] totalLengths = new long[offsets.length + 1];
+            int maxLength = 0;
+            int offset = CaptureWriter.HEADER_SIZE;
+            for (int i = 0; i < offsets.length; i++) {
+                if (offset + CaptureWriter.RECORD_HEADER_SIZE > length) {
+                    throw new IOException("Truncated capture record " + i + " in " + file);
+                }
+                offsets[i] = offset;
+                int packetLength = data.getInt(offset + 16);
+                int stored = data.getInt(offset + 20);
+                if (packetLength < 0 || stored < 0 || stored > packetLength) {
+                    throw new IOException("Corrupted capture record " + i + " in " + file);
+                }
+                maxLength = Math.max(maxLength, packetLength);
+                totalLengths[i + 1] = totalLengths[i] + packetLength;
+                offset += CaptureWriter.RECORD_HEADER_SIZE + stored;
+            }
+            return new CaptureReader(file, data, payload, offsets, totalLengths, maxLength);
+        }
+    }
+
+    /**
+     * <p>Возвращает файл захвата.</p>
+     *
+     * @return файл
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * <p>Возвращает количество пакетов.</p>
+     *
+     * @return количество пакетов
+     */
+    public int size() {
+        return offsets.length;
+    }
+
+    /**
+     * <p>Показывает, сохранена ли полезная нагрузка пакетов.</p>
+     *
+     * @return true, если нагрузку можно воспроизвести
+     */
+    public boolean hasPayload() {
+        return payload;
+    }
+
+    /**
+     * <p>Возвращает время прихода пакета от прихода первого пакета.</p>
+     *
+     * @param index номер пакета от 0
+     * @return время в наносекундах
+     */
+    public long arrivalNanos(int index) {
+        return data.getLong(offsets[index]);
+    }
+
+    /**
+     * <p>Возвращает порядковый номер пакета в захваченной сессии.</p>
+     *
+     * @param index номер пакета от 0
+     * @return порядковый номер
+     */
+    public long sequence(int index) {
+        return data.getLong(offsets[index] + 8);
+    }
+
+    /**
+     * <p>Возвращает длину полезной нагрузки пакета.</p>
+     *
+     * @param index номер пакета от 0
+     * @return длина в байтах
+     */
+    public int length(int index) {
+        return data.getInt(offsets[index] + 16);
+    }
+
+    /**
+     * <p>Копирует сохраненную полезную нагрузку пакета в массив.</p>
+     *
+     * @param index номер пакета от 0
+     * @param target массив длиной не меньше длины пакета
+     * @return количество скопированных байт; 0, если нагрузка не сохранялась
+     */
+    public int copyPayload(int index, byte[] target) {
+        int offset = offsets[index];
+        int stored = data.getInt(offset + 20);
+        data.get(offset + CaptureWriter.RECORD_HEADER_SIZE, target, 0, stored);
+        return stored;
+    }
+
+    /**
+     * <p>Возвращает наибольшую длину пакета.</p>
+     *
+     * @return длина в байтах
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * <p>Возвращает суммарную длину полезной нагрузки первых пакетов.</p>
+     *
+     * @param count количество пакетов от начала захвата
+     * @return длина в байтах
+     */
+    public long totalLength(int count) {
+        return totalLengths[count];
+    }
+
+    /**
+     * <p>Возвращает время от первого до последнего пакета.</p>
+     *
+     * @return длительность в наносекундах; 0 - меньше двух пакетов
+     */
+    public long getDurationNanos() {
+        return offsets.length < 2 ? 0 : arrivalNanos(offsets.length - 1);
+    }
+}
@@ -0,0 +1,374 @@
+package Capture;
+
+import NetworkConnection.NetworkConfig;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <p>CaptureWriter - запись принятой сессии в файл захвата для последующего воспроизведения генератором.</p>
+ *
+ * <p>Для каждого пакета записываются время прихода от первого пакета сессии, порядковый номер, длина
+ * и, если включено, полезная нагрузка. Файл отображается в память участками по
+ * {@link NetworkConfig#CAPTURE_REGION_BYTES} байт, поэтому запись пакета - копирование в память без системных
+ * вызовов, и захват не замедляет прием. Размер файла ограничен {@link NetworkConfig#CAPTURE_MAX_BYTES}:
+ * пакеты сверх него не записываются и только считаются.</p>
+ *
+ * <p>Записывает один поток - поток приема захватываемой сессии. Закрыть захват может и другой поток
+ * (например, при завершении процесса), поэтому запись пакета и закрытие синхронизированы по захвату:
+ * после закрытия пакеты не записываются, а пакет, нагрузка которого записана не полностью, отбрасывается.
+ * Количество пакетов и длина данных записываются в заголовок при закрытии, до этого файл считается
+ * незавершенным.</p>
+ *
+ * <p>Формат файла: заголовок {@value #HEADER_SIZE} байт (сигнатура {@link #MAGIC}, версия, флаги, количество
+ * пакетов, длина данных), затем записи: время прихода в наносекундах, порядковый номер, длина пакета,
+ * длина сохраненной полезной нагрузки и сама нагрузка. Порядок байтов - сетевой.</p>
+ */
+public final class CaptureWriter implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(CaptureWriter.class);
+
+    /**
+     * <p>Сигнатура файла захвата: "TGCAPTUR" в ASCII.</p>
+     */
+    public static final long MAGIC = 0x5447_4341_5054_5552L;
+
+    /**
+     * <p>Версия формата файла.</p>
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * <p>Размер заголовка файла в байтах.</p>
+     */
+    public static final int HEADER_SIZE = 32;
+
+    /**
+     * <p>Размер заголовка записи пакета в байтах.</p>
+     */
+    public static final int RECORD_HEADER_SIZE = 24;
+
+    /**
+     * <p>Флаг заголовка файла: записи содержат полезную нагрузку.</p>
+     */
+    public static final int FLAG_PAYLOAD = 1;
+
+    /**
+     * <p>Файл захвата по умолчанию.</p>
+     */
+    public static final String DEFAULT_FILE = "logs/receiver.capture";
+
+    private static final CaptureWriter DISABLED = new CaptureWriter();
+    private static volatile CaptureWriter global = DISABLED;
+
+    private final boolean enabled;
+    private final boolean payload;
+    private final long maxBytes;
+    private final Path file;
+    private final FileChannel channel;
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long origin;
+    private long packets;
+    private long dropped;
+    private long recordStart;
+    private int pendingPayload;
+    private volatile boolean closed;
+
+    /**
+     * <p>Конструктор выключенного захвата.</p>
+     */
+    private CaptureWriter() {
+        enabled = false;
+        payload = false;
+        maxBytes = 0;
+        file = null;
+        channel = null;
+    }
+
+    /**
+     * <p>Конструктор класса CaptureWriter. Создает файл захвата, заменяя существующий.</p>
+     *
+     * @param file файл захвата
+     * @param payload true - записывать полезную нагрузку пакетов
+     * @param maxBytes наибольший размер файла в байтах
+     * @throws IOException если файл не удалось создать
+     * @throws IllegalArgumentException если наибольший размер меньше заголовка или больше 2 ГиБ
+     */
+    public CaptureWriter(Path file, boolean payload, long maxBytes) throws IOException {
+        if (maxBytes <= HEADER_SIZE || maxBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid capture size limit: " + maxBytes);
+        }
+        this.enabled = true;
+        this.payload = payload;
+        this.maxBytes = maxBytes;
+        this.file = file;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            writeHeader();
+            map(HEADER_SIZE, RECORD_HEADER_SIZE);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        logger.info("CaptureWriter initialized: payload {}, limit {} bytes, file {}", payload, maxBytes, file);
+    }
+
+    /**
+     * <p>Возвращает общий захват процесса. Пока он не запущен, возвращается выключенный.</p>
+     *
+     * @return захват
+     */
+    public static CaptureWriter global() {
+        return global;
+    }
+
+    /**
+     * <p>Запускает общий захват процесса. Захватывается первая сессия, которая начнется после запуска.</p>
+     *
+     * @param file файл захвата
+     * @param payload true - записывать полезную нагрузку пакетов
+     * @return запущенный захват
+     * @throws IOException если файл не удалось создать
+     * @throws IllegalStateException если общий захват уже запущен
+     */
+    public static synchronized CaptureWriter startGlobal(Path file, boolean payload) throws IOException {
+        if (global.enabled) {
+            throw new IllegalStateException("Capture is already started");
+        }
+        CaptureWriter capture = new CaptureWriter(file, payload, NetworkConfig.CAPTURE_MAX_BYTES);
+        global = capture;
+        return capture;
+    }
+
+    /**
+     * <p>Определяет файл захвата из параметра запуска.</p>
+     *
+     * @param value путь к файлу; true - {@link #DEFAULT_FILE}; null, пустая строка или false - захват выключен
+     * @return файл захвата или null
+     */
+    public static Path parseFile(String value) {
+        if (value == null || value.isBlank() || value.trim().equalsIgnoreCase("false")) {
+            return null;
+        }
+        return Path.of(value.trim().equalsIgnoreCase("true") ? DEFAULT_FILE : value.trim());
+    }
+
+    /**
+     * <p>Закрепляет общий захват за сессией. Захват получает только первая сессия, вызвавшая метод.</p>
+     *
+     * @param sessionId номер сессии
+     * @return захват или null, если он выключен или уже закреплен за другой сессией
+     */
+    public static CaptureWriter claimGlobal(int sessionId) {
+        CaptureWriter capture = global;
+        if (!capture.enabled || !capture.claimed.compareAndSet(false, true)) {
+            return null;
+        }
+        logger.info("Capturing session # {} to {}", sessionId, capture.file);
+        return capture;
+    }
+
+    /**
+     * <p>Показывает, включен ли захват.</p>
+     *
+     * @return true, если захват пишет в файл
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * <p>Возвращает файл захвата.</p>
+     *
+     * @return файл или null у выключенного захвата
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * <p>Записывает заголовок пакета. Если записывается полезная нагрузка, она передается следом
+     * через {@link #payload(ByteBuffer, int, int)} частями, как приходит из соединения.</p>
+     *
+     * @param arrival время прихода в наносекундах по {@link System#nanoTime()}
+     * @param sequence порядковый номер пакета
+     * @param length длина полезной нагрузки
+     */
+    public synchronized void begin(long arrival, long sequence, int length) {
+        pendingPayload = 0;
+        if (!enabled || closed) {
+            return;
+        }
+        int stored = payload ? length : 0;
+        if (!ensure(RECORD_HEADER_SIZE + stored)) {
+            dropped++;
+            return;
+        }
+        if (packets == 0) {
+            origin = arrival;
+        }
+        recordStart = regionStart + region.position();
+        region.putLong(arrival - origin).putLong(sequence).putInt(length).putInt(stored);
+        pendingPayload = stored;
+        packets++;
+    }
+
+    /**
+     * <p>Записывает часть полезной нагрузки пакета, начатого {@link #begin}. Позиция и граница буфера
+     * не меняются; лишние байты сверх длины пакета не записываются.</p>
+     *
+     * @param buffer буфер с данными
+     * @param offset индекс начала части в буфере
+     * @param length длина части
+     */
+    public synchronized void payload(ByteBuffer buffer, int offset, int length) {
+        int chunk = Math.min(length, pendingPayload);
+        if (chunk <= 0 || closed) {
+            return;
+        }
+        region.put(region.position(), buffer, offset, chunk);
+        region.position(region.position() + chunk);
+        pendingPayload -= chunk;
+    }
+
+    /**
+     * <p>Записывает пакет целиком, например принятую датаграмму.</p>
+     *
+     * @param arrival время прихода в наносекундах по {@link System#nanoTime()}
+     * @param sequence порядковый номер пакета
+     * @param buffer буфер с полезной нагрузкой
+     * @param offset индекс начала нагрузки в буфере
+     * @param length длина нагрузки
+     */
+    public void record(long arrival, long sequence, ByteBuffer buffer, int offset, int length) {
+        begin(arrival, sequence, length);
+        payload(buffer, offset, length);
+    }
+
+    /**
+     * <p>Возвращает количество записанных пакетов.</p>
+     *
+     * @return количество пакетов
+     */
+    public long getPackets() {
+        return packets;
+    }
+
+    /**
+     * <p>Возвращает количество пакетов, не записанных из-за ограничения размера файла.</p>
+     *
+     * @return количество пакетов
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * <p>Записывает итоговый заголовок, обрезает файл по данным и закрывает его.
+     * Если это общий захват, общим снова становится выключенный.</p>
+     */
+    @Override
+    public void close() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (CaptureWriter.class) {
+            if (global == this) {
+                global = DISABLED;
+            }
+        }
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (pendingPayload > 0) {
+                // Нагрузка последнего пакета записана не полностью: запись отбрасывается
+                region.position((int) (recordStart - regionStart));
+                pendingPayload = 0;
+                packets--;
+            }
+            long end = regionStart + region.position();
+            try {
+                region.force();
+                writeHeader();
+                try {
+                    channel.truncate(end);
+                } catch (IOException e) {
+                    // В Windows отображенный файл нельзя обрезать; читатель берет длину данных из заголовка
+                    logger.debug("Capture file is not truncated: {}", e.getMessage());
+                }
+                channel.close();
+            } catch (IOException e) {
+                logger.error("Error closing capture file: {}", e.getMessage());
+            }
+        }
+        if (dropped > 0) {
+            logger.warn("Capture size limit reached: {} packets not recorded", dropped);
+        }
+        logger.info("CaptureWriter closed: {} packets written to {}", packets, file);
+    }
+
+    /**
+     * <p>Проверяет, что в отображенном участке есть место для записи, и при необходимости отображает
+     * следующий участок с текущей позиции.</p>
+     *
+     * @param bytes размер записи
+     * @return false, если запись не помещается в ограничение размера файла или участок не удалось отобразить
+     */
+    private boolean ensure(int bytes) {
+        if (region.remaining() >= bytes) {
+            return true;
+        }
+        long position = regionStart + region.position();
+        if (position + bytes > maxBytes) {
+            return false;
+        }
+        try {
+            map(position, bytes);
+            return true;
+        } catch (IOException e) {
+            logger.error("Error mapping capture file: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * <p>Отображает в память участок файла.</p>
+     *
+     * @param position начало участка
+     * @param bytes наименьший размер участка
+     * @throws IOException если участок не удалось отобразить
+     */
+    private void map(long position, int bytes) throws IOException {
+        long size = Math.min(Math.max(NetworkConfig.CAPTURE_REGION_BYTES, bytes), maxBytes - position);
+        region = channel.map(FileChannel.MapMode.READ_WRITE, position, size);
+        regionStart = position;
+    }
+
+    /**
+     * <p>Записывает заголовок файла с текущим количеством пакетов и длиной данных.</p>
+     *
+     * @throws IOException если заголовок не удалось записать
+     */
+    private void writeHeader() throws IOException {
+        long end = region == null ? HEADER_SIZE : regionStart + region.position();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putLong(MAGIC).putInt(VERSION)
+                .putInt(payload ? FLAG_PAYLOAD : 0).putLong(packets).putLong(end - HEADER_SIZE);
+        channel.write(header.flip(), 0);
+    }
+}
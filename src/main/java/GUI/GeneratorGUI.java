@@ -1,8 +1,21 @@
 package GUI;
 
+import Capture.CaptureReader;
 import ErrorHandler.ErrorHandler;
+import Monitoring.MetricsServer;
+import Monitoring.PacketTrace;
+import Monitoring.PrometheusMetrics;
+import NetworkConnection.NetworkConfig;
+import NetworkConnection.ThreadMode;
+import NetworkConnection.Transport;
+import Results.ResultsStore;
+import Statistics.StatisticsSampler;
 import TrafficGenerator.InputReader;
+import TrafficGenerator.PayloadMode;
+import TrafficGenerator.RateUnit;
+import TrafficGenerator.ReplayScheduler;
 import TrafficGenerator.TrafficGenerator;
+import TrafficGenerator.TrafficProfile;
 
 import javafx.application.Application;
 import javafx.application.Platform;
@@ -11,7 +24,8 @@ import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.Button;
-import javafx.scene.control.TextArea;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
@@ -19,6 +33,7 @@ import javafx.stage.Stage;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * <p>Класс GeneratorGUI представляет собой JavaFX приложение для генерации сетевого трафика.</p>
@@ -27,13 +42,23 @@ public class GeneratorGUI extends Application {
     private static final Logger logger = LogManager.getLogger(GeneratorGUI.class);
 
     private TrafficGenerator generator;
-    private TextArea outputArea;
+    private MetricsServer metricsServer;
+    private OutputArea outputArea;
+    private LiveCharts charts;
     private Button generateButton;
     private int sessionCount = 0;
     private TextField packetCountField;
     private TextField packetSizeField;
     private TextField frequencyField;
+    private ComboBox<RateUnit> rateUnitBox;
+    private ComboBox<TrafficProfile> trafficProfileBox;
+    private TextField profileOptionField;
+    private ComboBox<PayloadMode> payloadModeBox;
+    private TextField payloadOptionField;
+    private CheckBox batchingBox;
+    private CheckBox checksumBox;
     private InputReader inputReader;
+    private ThreadMode threadMode = ThreadMode.PLATFORM;
     private boolean isTrafficGenerating = false;
 
     /**
@@ -50,27 +75,60 @@ public class GeneratorGUI extends Application {
      */
     @Override
     public void start(Stage primaryStage) {
-        outputArea = new TextArea();
-        outputArea.setEditable(false);
+        outputArea = new OutputArea();
         outputArea.setPrefWidth(400);
-        logger.info ("TextArea outputArea created; parameters: editable = false, pref Width = {}, prefHeight = {}",outputArea.getPrefWidth(), outputArea.getPrefHeight());
+        charts = new LiveCharts(false);
+        logger.info ("OutputArea outputArea created; parameters: max lines = {}, pref Width = {}, prefHeight = {}",OutputArea.DEFAULT_MAX_LINES, outputArea.getPrefWidth(), outputArea.getPrefHeight());
         packetCountField = createTextField("PACKET COUNT");
         packetSizeField = createTextField("PACKET SIZE [BYTES]");
-        frequencyField = createTextField("FREQUENCY [MS]");
+        frequencyField = createTextField("RATE (0 - UNLIMITED)");
+        rateUnitBox = new ComboBox<>();
+        rateUnitBox.getItems().addAll(RateUnit.values());
+        rateUnitBox.setValue(RateUnit.INTERVAL_MS);
+        rateUnitBox.setPrefWidth(200);
+        rateUnitBox.setStyle("-fx-background-radius: 0;");
+        logger.info("ComboBox rateUnitBox created; default value = {}", rateUnitBox.getValue());
+        trafficProfileBox = new ComboBox<>();
+        trafficProfileBox.getItems().addAll(TrafficProfile.values());
+        trafficProfileBox.setValue(TrafficProfile.CONSTANT);
+        trafficProfileBox.setPrefWidth(200);
+        trafficProfileBox.setStyle("-fx-background-radius: 0;");
+        logger.info("ComboBox trafficProfileBox created; default value = {}", trafficProfileBox.getValue());
+        profileOptionField = createTextField("PROFILE OPTION");
+        payloadModeBox = new ComboBox<>();
+        payloadModeBox.getItems().addAll(PayloadMode.values());
+        payloadModeBox.setValue(PayloadMode.RANDOM);
+        payloadModeBox.setPrefWidth(200);
+        payloadModeBox.setStyle("-fx-background-radius: 0;");
+        logger.info("ComboBox payloadModeBox created; default value = {}", payloadModeBox.getValue());
+        payloadOptionField = createTextField("PAYLOAD OPTION");
+        batchingBox = new CheckBox("BATCH WRITES");
+        logger.info("CheckBox batchingBox created");
+        checksumBox = new CheckBox("VERIFY PAYLOAD");
+        logger.info("CheckBox checksumBox created");
 
         inputReader = new InputReader();
         logger.info ("InputReader inputReader created");
 
         try {
-            generator = new TrafficGenerator(outputArea, inputReader);
+            threadMode = readThreadMode();
+            startTrace();
+            startResults();
+            generator = new TrafficGenerator(outputArea, inputReader, readTransport(), threadMode);
+            startReplay();
+            generator.setSampleIntervalMillis(readSampleInterval());
+            generator.addSampleListener(charts);
+            PrometheusMetrics metrics = new PrometheusMetrics(PrometheusMetrics.GENERATOR, generator.getCounters());
+            generator.addSampleListener(metrics);
+            startMetrics(metrics);
             logger.info ("TrafficGenerator generator created");
             appendText("Server started. Waiting for client connection...");
             logger.info("Server started");
 
-            new Thread(() -> {
+            threadMode.start("generator-acceptor", () -> {
                 logger.info("Listening for connections");
                 generator.listenForConnections(outputArea);
-            }).start();
+            });
         } catch (IOException ex) {
             ErrorHandler.handleError("Error starting server", ex);
             appendText("Error starting server: " + ex.getMessage());
@@ -107,20 +165,47 @@ public class GeneratorGUI extends Application {
 
             int packetCount = inputReader.scanPacketCount(packetCountField);
             int packetSize = inputReader.scanPacketSize(packetSizeField);
-            int frequency = inputReader.scanFrequency(frequencyField);
+            double rate = inputReader.scanRate(frequencyField);
+            inputReader.scanRateUnit(rateUnitBox);
+            TrafficProfile trafficProfile = inputReader.scanTrafficProfile(trafficProfileBox);
+            int profileOption = inputReader.scanProfileOption(profileOptionField);
+            PayloadMode payloadMode = inputReader.scanPayloadMode(payloadModeBox);
+            String payloadOption = inputReader.scanPayloadOption(payloadOptionField);
+            inputReader.scanBatching(batchingBox);
+            inputReader.scanChecksum(checksumBox);
 
-            if (packetCount < 0 || packetSize < 0 || frequency < 0) {
+            if (packetCount < 0 || packetSize < 0 || rate < 0) {
                 showErrorDialog("Enter the correct data: positive int");
                 isTrafficGenerating = false;
                 generateButton.setDisable(false);
-                logger.warn("Invalid input data: packetCount = {}, packetSize = {}, frequency = {}", packetCount, packetSize, frequency);
+                logger.warn("Invalid input data: packetCount = {}, packetSize = {}, rate = {}", packetCount, packetSize, rate);
+                return;
+            }
+
+            try {
+                trafficProfile.validate(profileOption);
+            } catch (IllegalArgumentException e) {
+                showErrorDialog("Invalid profile option for " + trafficProfile + ": " + e.getMessage());
+                isTrafficGenerating = false;
+                generateButton.setDisable(false);
+                logger.warn("Invalid profile option: profile = {}, option = {}", trafficProfile, profileOption);
+                return;
+            }
+
+            try {
+                payloadMode.validate(payloadOption);
+            } catch (IllegalArgumentException e) {
+                showErrorDialog("Invalid payload option for " + payloadMode + ": " + e.getMessage());
+                isTrafficGenerating = false;
+                generateButton.setDisable(false);
+                logger.warn("Invalid payload option: mode = {}, option = {}", payloadMode, payloadOption);
                 return;
             }
 
             sessionCount++;
             logger.info("Increasing the sessionCount: sessionCount = {}", sessionCount);
 
-            new Thread(() -> {
+            threadMode.start("generator-session", () -> {
                 if (generator != null) {
                     generator.handle(sessionCount);
                 } else {
@@ -129,18 +214,19 @@ public class GeneratorGUI extends Application {
                 }
                 isTrafficGenerating = false;
                 Platform.runLater(() -> generateButton.setDisable(false));
-            }).start();
+            });
         });
 
-        VBox inputLayout = new VBox(10, packetCountField, packetSizeField, frequencyField, generateButton);
+        VBox inputLayout = new VBox(10, packetCountField, packetSizeField, frequencyField, rateUnitBox,
+                trafficProfileBox, profileOptionField, payloadModeBox, payloadOptionField, batchingBox, checksumBox, generateButton);
         inputLayout.setPadding(new Insets(0));
         logger.info("New VBox inputLayout created");
 
-        HBox layout = new HBox(10, inputLayout, outputArea);
+        HBox layout = new HBox(10, inputLayout, LiveCharts.createTabs(outputArea, charts));
         layout.setPadding(new Insets(5));
         logger.info("New HBox layout created");
 
-        Scene scene = new Scene(layout, 600, 400);
+        Scene scene = new Scene(layout, 800, 600);
         logger.info("New Scene scene created");
         primaryStage.setScene(scene);
         logger.info("Scene scene installed");
@@ -154,12 +240,168 @@ public class GeneratorGUI extends Application {
                 generator.close();
                 logger.info ("TrafficGenerator generator is closed");
             }
+            if (metricsServer != null) {
+                metricsServer.close();
+            }
+            PacketTrace.global().close();
+            ResultsStore.global().close();
             Platform.exit();
             logger.info("The application is shutting down.");
             System.exit(0);
         });
     }
 
+    /**
+     * <p>Определяет транспорт из параметра запуска --transport=... или системного свойства transport.</p>
+     *
+     * @return выбранный транспорт или {@link Transport#STREAM}, если значение некорректно
+     */
+    private Transport readTransport() {
+        try {
+            Transport transport = Transport.parse(readParameter(NetworkConfig.TRANSPORT_PROPERTY));
+            logger.info("Transport selected: {}", transport);
+            return transport;
+        } catch (IllegalArgumentException e) {
+            ErrorHandler.handleInputError(e.getMessage());
+            appendText(e.getMessage() + ", using " + Transport.STREAM);
+            return Transport.STREAM;
+        }
+    }
+
+    /**
+     * <p>Определяет модель потоков из параметра запуска --threads=... или системного свойства threads.</p>
+     *
+     * @return выбранная модель потоков или {@link ThreadMode#PLATFORM}, если значение некорректно
+     */
+    private ThreadMode readThreadMode() {
+        try {
+            ThreadMode threadMode = ThreadMode.parse(readParameter(NetworkConfig.THREADS_PROPERTY));
+            logger.info("Thread mode selected: {}", threadMode);
+            return threadMode;
+        } catch (IllegalArgumentException e) {
+            ErrorHandler.handleInputError(e.getMessage());
+            appendText(e.getMessage() + ", using " + ThreadMode.PLATFORM);
+            return ThreadMode.PLATFORM;
+        }
+    }
+
+    /**
+     * <p>Определяет интервал вывода текущей скорости из параметра запуска --sample-interval=... (в миллисекундах)
+     * или системного свойства sample-interval.</p>
+     *
+     * @return интервал в миллисекундах или {@link NetworkConfig#SAMPLE_INTERVAL_MS}, если значение некорректно
+     */
+    private long readSampleInterval() {
+        try {
+            long interval = StatisticsSampler.parseInterval(readParameter(NetworkConfig.SAMPLE_INTERVAL_PROPERTY));
+            logger.info("Sample interval selected: {} ms", interval);
+            return interval;
+        } catch (IllegalArgumentException e) {
+            ErrorHandler.handleInputError(e.getMessage());
+            appendText(e.getMessage() + ", using " + NetworkConfig.SAMPLE_INTERVAL_MS + " ms");
+            return NetworkConfig.SAMPLE_INTERVAL_MS;
+        }
+    }
+
+    /**
+     * <p>Запускает пакетную трассировку, если она включена параметром запуска --trace-sample=N
+     * или системным свойством trace-sample. Файл задается параметром --trace-file=...</p>
+     */
+    private void startTrace() {
+        try {
+            int sample = PacketTrace.parseSample(readParameter(NetworkConfig.TRACE_SAMPLE_PROPERTY));
+            if (sample == 0) {
+                return;
+            }
+            String file = readParameter(NetworkConfig.TRACE_FILE_PROPERTY);
+            PacketTrace trace = PacketTrace.startGlobal(sample, Path.of(file != null ? file : PacketTrace.GENERATOR_FILE));
+            appendText("Packet trace: every " + trace.getSampleEvery() + " packet(s)");
+        } catch (IllegalArgumentException e) {
+            ErrorHandler.handleInputError(e.getMessage());
+            appendText(e.getMessage() + ", packet trace disabled");
+        } catch (IOException e) {
+            ErrorHandler.handleIOException("Error starting packet trace", e);
+            appendText("Error starting packet trace: " + e.getMessage());
+        }
+    }
+
+    /**
+     * <p>Открывает файл итогов сессий, если он включен параметром запуска --results-store=true|PATH
+     * или системным свойством results-store.</p>
+     */
+    private void startResults() {
+        Path file = ResultsStore.parseFile(readParameter(NetworkConfig.RESULTS_STORE_PROPERTY),
+                ResultsStore.GENERATOR_FILE);
+        if (file == null) {
+            return;
+        }
+        try {
+            ResultsStore store = ResultsStore.startGlobal(file);
+            appendText("Session results: run " + store.getRunId() + ", file " + file);
+        } catch (IOException e) {
+            ErrorHandler.handleIOException("Error opening session results file", e);
+            appendText("Error opening session results file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * <p>Включает воспроизведение файла захвата, если он задан параметром запуска --replay=PATH
+     * или системным свойством replay. Коэффициент скорости задается параметром --replay-speed=X.</p>
+     */
+    private void startReplay() {
+        String file = readParameter(NetworkConfig.REPLAY_PROPERTY);
+        if (file == null || file.isBlank()) {
+            return;
+        }
+        try {
+            double speed = ReplayScheduler.parseSpeed(readParameter(NetworkConfig.REPLAY_SPEED_PROPERTY));
+            CaptureReader capture = CaptureReader.open(Path.of(file));
+            generator.setReplay(capture, speed);
+            appendText("Replay: " + capture.size() + " packets from " + file + ", speed x" + speed
+                    + "; packet count, size and rate fields are ignored");
+        } catch (IllegalArgumentException e) {
+            ErrorHandler.handleInputError(e.getMessage());
+            appendText(e.getMessage() + ", replay disabled");
+        } catch (IOException e) {
+            ErrorHandler.handleIOException("Error opening capture file", e);
+            appendText("Error opening capture file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * <p>Запускает сервер метрик Prometheus, если порт задан параметром запуска --metrics-port=...
+     * или системным свойством metrics-port.</p>
+     *
+     * @param metrics источник метрик
+     */
+    private void startMetrics(PrometheusMetrics metrics) {
+        try {
+            int port = MetricsServer.parsePort(readParameter(NetworkConfig.METRICS_PORT_PROPERTY));
+            if (port < 0) {
+                return;
+            }
+            metricsServer = new MetricsServer(port, metrics);
+            appendText("Metrics: http://localhost:" + metricsServer.getPort() + MetricsServer.PATH);
+        } catch (IllegalArgumentException e) {
+            ErrorHandler.handleInputError(e.getMessage());
+            appendText(e.getMessage() + ", metrics disabled");
+        } catch (IOException e) {
+            ErrorHandler.handleIOException("Error starting metrics server", e);
+            appendText("Error starting metrics server: " + e.getMessage());
+        }
+    }
+
+    /**
+     * <p>Возвращает значение параметра запуска --name=..., а если его нет - системного свойства name.</p>
+     *
+     * @param name имя параметра
+     * @return значение параметра или null, если он не задан
+     */
+    private String readParameter(String name) {
+        String value = getParameters().getNamed().get(name);
+        return value != null ? value : System.getProperty(name);
+    }
+
     /**
      * <p>Создает и настраивает поле ввода с заданным текстом на заднем поле.</p>
      *
@@ -180,7 +422,7 @@ public class GeneratorGUI extends Application {
      * @param text Текст для добавления.
      */
     private void appendText(String text) {
-        Platform.runLater(() -> outputArea.appendText(text + "\n"));
+        outputArea.appendText(text + "\n");
         logger.info("Adding text to outputArea: {}", text);
     }
 
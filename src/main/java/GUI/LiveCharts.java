@@ -0,0 +1,154 @@
+package GUI;
+
+import Statistics.Downsampler;
+import Statistics.IntervalSample;
+import Statistics.SampleRing;
+import Statistics.SampleRing.Metric;
+
+import javafx.application.Platform;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TabPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * <p>LiveCharts - графики скорости, потерь и задержки, которые обновляются во время сессии.</p>
+ *
+ * <p>Показатели интервалов {@link IntervalSample} складываются в кольцевой буфер {@link SampleRing}
+ * фиксированного размера. Перед отображением каждый ряд прореживается методом LTTB ({@link Downsampler})
+ * до {@value #DISPLAY_POINTS} точек, поэтому многочасовой прогон рисуется так же быстро, как короткий,
+ * а число узлов в графе сцены не растет. Интервалы можно передавать из любого потока: перерисовка
+ * ставится в очередь потока JavaFX не чаще, чем он успевает ее выполнять.</p>
+ */
+public class LiveCharts extends VBox implements Consumer<IntervalSample> {
+
+    /**
+     * <p>Количество интервалов в буфере: при интервале в секунду - около 18 часов.</p>
+     */
+    public static final int RING_CAPACITY = 65_536;
+
+    /**
+     * <p>Наибольшее количество точек одного ряда на графике.</p>
+     */
+    public static final int DISPLAY_POINTS = 400;
+
+    private final SampleRing ring = new SampleRing(RING_CAPACITY);
+    private final Map<Metric, XYChart.Series<Number, Number>> series = new EnumMap<>(Metric.class);
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    private final long origin = System.nanoTime();
+
+    /**
+     * <p>Конструктор класса LiveCharts.</p>
+     *
+     * @param receiveCharts true - показывать также потери и задержку, которые известны только приемнику
+     */
+    public LiveCharts(boolean receiveCharts) {
+        super(5);
+        addChart("Throughput", "Mbit/s", Metric.THROUGHPUT_MBPS, "Mbit/s");
+        addChart("Packet rate", "pps", Metric.PACKETS_PER_SECOND, "pps");
+        if (receiveCharts) {
+            addChart("Loss", "%", Metric.LOSS_PERCENT, "loss");
+            LineChart<Number, Number> latency = addChart("Latency", "ms", Metric.LATENCY_P50_MS, "p50");
+            latency.getData().add(createSeries(Metric.LATENCY_P99_MS, "p99"));
+            latency.setLegendVisible(true);
+        }
+    }
+
+    /**
+     * <p>Создает вкладки с текстовым выводом и графиками.</p>
+     *
+     * @param output область текстового вывода
+     * @param liveCharts графики показателей сессии
+     * @return панель вкладок
+     */
+    public static TabPane createTabs(OutputArea output, LiveCharts liveCharts) {
+        Tab outputTab = new Tab("OUTPUT", output);
+        Tab chartsTab = new Tab("CHARTS", liveCharts);
+        TabPane tabs = new TabPane(outputTab, chartsTab);
+        tabs.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
+        HBox.setHgrow(tabs, Priority.ALWAYS);
+        VBox.setVgrow(tabs, Priority.ALWAYS);
+        return tabs;
+    }
+
+    /**
+     * <p>Добавляет показатели интервала. Может вызываться из любого потока.</p>
+     *
+     * @param sample показатели интервала
+     */
+    @Override
+    public void accept(IntervalSample sample) {
+        ring.add((System.nanoTime() - origin) / 1_000_000_000.0, sample);
+        if (refreshPending.compareAndSet(false, true)) {
+            Platform.runLater(this::refresh);
+        }
+    }
+
+    /**
+     * <p>Перерисовывает графики по прореженным рядам буфера. Вызывается в потоке JavaFX.</p>
+     */
+    public void refresh() {
+        refreshPending.set(false);
+        SampleRing.Snapshot snapshot = ring.snapshot();
+        double[] times = snapshot.times();
+        for (Map.Entry<Metric, XYChart.Series<Number, Number>> entry : series.entrySet()) {
+            double[] values = snapshot.values(entry.getKey());
+            int[] points = Downsampler.lttb(times, values, DISPLAY_POINTS);
+            List<XYChart.Data<Number, Number>> data = new ArrayList<>(points.length);
+            for (int index : points) {
+                data.add(new XYChart.Data<>(times[index], values[index]));
+            }
+            entry.getValue().getData().setAll(data);
+        }
+    }
+
+    /**
+     * <p>Создает график с одним рядом и добавляет его в панель.</p>
+     *
+     * @param title заголовок графика
+     * @param unit подпись оси значений
+     * @param metric показатель ряда
+     * @param name имя ряда
+     * @return созданный график
+     */
+    private LineChart<Number, Number> addChart(String title, String unit, Metric metric, String name) {
+        NumberAxis timeAxis = new NumberAxis();
+        timeAxis.setLabel("Time, s");
+        timeAxis.setForceZeroInRange(false);
+        NumberAxis valueAxis = new NumberAxis();
+        valueAxis.setLabel(unit);
+        LineChart<Number, Number> chart = new LineChart<>(timeAxis, valueAxis);
+        chart.setTitle(title);
+        chart.setAnimated(false);
+        chart.setCreateSymbols(false);
+        chart.setLegendVisible(false);
+        chart.getData().add(createSeries(metric, name));
+        VBox.setVgrow(chart, Priority.ALWAYS);
+        getChildren().add(chart);
+        return chart;
+    }
+
+    /**
+     * <p>Создает ряд показателя.</p>
+     *
+     * @param metric показатель
+     * @param name имя ряда
+     * @return пустой ряд
+     */
+    private XYChart.Series<Number, Number> createSeries(Metric metric, String name) {
+        XYChart.Series<Number, Number> created = new XYChart.Series<>();
+        created.setName(name);
+        series.put(metric, created);
+        return created;
+    }
+}
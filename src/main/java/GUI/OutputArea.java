@@ -0,0 +1,165 @@
+package GUI;
+
+import Output.OutputSink;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.scene.control.TextArea;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>OutputArea - область вывода, в которую можно писать из любого потока.</p>
+ *
+ * <p>{@link #appendText(String)} только кладет сообщение в неблокирующую очередь и сразу возвращает управление,
+ * поэтому потоки отправки и приема не ждут поток JavaFX. Очередь разбирает {@link AnimationTimer} не чаще
+ * одного раза за кадр: все накопленные сообщения добавляются в текст одним изменением. Таймер запускается
+ * первым сообщением в пустую очередь и останавливается, когда очередь разобрана, поэтому в простое окно
+ * не просыпается на каждом кадре. В области хранятся
+ * только последние строки, более старые удаляются из начала текста. Если поток JavaFX не успевает
+ * и в очереди набирается слишком много сообщений, новые отбрасываются, а их количество выводится вместо них.</p>
+ */
+public class OutputArea extends TextArea implements OutputSink {
+
+    /**
+     * <p>Количество строк, которые хранит область вывода по умолчанию.</p>
+     */
+    public static final int DEFAULT_MAX_LINES = 5_000;
+
+    /**
+     * <p>Количество сообщений, которые могут ждать вывода, по умолчанию.</p>
+     */
+    public static final int DEFAULT_MAX_PENDING = 10_000;
+
+    private final int maxLines;
+    private final int maxPending;
+    private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean timerRunning = new AtomicBoolean();
+    private final LongAdder dropped = new LongAdder();
+    private final Queue<Integer> lineLengths = new ArrayDeque<>();
+    private final StringBuilder chunk = new StringBuilder();
+    private int currentLineLength;
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            flush();
+        }
+    };
+
+    /**
+     * <p>Конструктор класса OutputArea с размерами по умолчанию.</p>
+     */
+    public OutputArea() {
+        this(DEFAULT_MAX_LINES, DEFAULT_MAX_PENDING);
+    }
+
+    /**
+     * <p>Конструктор класса OutputArea.</p>
+     *
+     * @param maxLines количество хранимых строк
+     * @param maxPending количество сообщений, которые могут ждать вывода
+     * @throws IllegalArgumentException если одно из значений не положительно
+     */
+    public OutputArea(int maxLines, int maxPending) {
+        if (maxLines <= 0 || maxPending <= 0) {
+            throw new IllegalArgumentException("Line and message limits must be positive");
+        }
+        this.maxLines = maxLines;
+        this.maxPending = maxPending;
+        setEditable(false);
+    }
+
+    /**
+     * <p>Ставит текст в очередь вывода. Может вызываться из любого потока и никогда не блокируется.</p>
+     *
+     * @param text текст для добавления
+     */
+    @Override
+    public void appendText(String text) {
+        if (pendingCount.incrementAndGet() > maxPending) {
+            pendingCount.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        pending.add(text);
+        if (timerRunning.compareAndSet(false, true)) {
+            Platform.runLater(timer::start);
+        }
+    }
+
+    /**
+     * <p>Выводит все сообщения из очереди и удаляет строки сверх предела.</p>
+     * <p>Вызывается в потоке JavaFX таймером на каждом кадре. Разобрав очередь, останавливает таймер.</p>
+     */
+    public void flush() {
+        String text;
+        while ((text = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            chunk.append(text);
+        }
+        stopIfIdle();
+        long droppedMessages = dropped.sumThenReset();
+        if (droppedMessages > 0) {
+            chunk.append("... ").append(droppedMessages).append(" messages dropped ...\n");
+        }
+        if (chunk.isEmpty()) {
+            return;
+        }
+        countLines(chunk);
+        super.appendText(chunk.toString());
+        chunk.setLength(0);
+
+        int excess = 0;
+        while (lineLengths.size() > maxLines) {
+            excess += lineLengths.remove();
+        }
+        if (excess > 0) {
+            deleteText(0, excess);
+            positionCaret(getLength());
+        }
+    }
+
+    /**
+     * <p>Останавливает таймер вывода до следующего сообщения.</p>
+     */
+    public void stop() {
+        timer.stop();
+        timerRunning.set(false);
+    }
+
+    /**
+     * <p>Останавливает таймер, если очередь пуста.</p>
+     * <p>Сообщение, добавленное между проверкой и сбросом флага, не запускает таймер само: флаг еще установлен.
+     * Поэтому после сброса очередь проверяется еще раз, и таймер продолжает работу, если она не пуста.</p>
+     */
+    private void stopIfIdle() {
+        if (!pending.isEmpty()) {
+            return;
+        }
+        timer.stop();
+        timerRunning.set(false);
+        if (!pending.isEmpty() && timerRunning.compareAndSet(false, true)) {
+            timer.start();
+        }
+    }
+
+    /**
+     * <p>Учитывает длины завершенных строк добавляемого текста.</p>
+     *
+     * @param text добавляемый текст
+     */
+    private void countLines(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            currentLineLength++;
+            if (text.charAt(i) == '\n') {
+                lineLengths.add(currentLineLength);
+                currentLineLength = 0;
+            }
+        }
+    }
+}
@@ -1,28 +1,64 @@
 package GUI;
 
+import Capture.CaptureWriter;
+import ErrorHandler.ErrorHandler;
+import Monitoring.MetricsServer;
+import Monitoring.PacketTrace;
+import Monitoring.PrometheusMetrics;
+import Monitoring.PinningMonitor;
 import NetworkConnection.NetworkConfig;
+import NetworkConnection.ParameterParser;
+import NetworkConnection.SelectorPool;
+import NetworkConnection.ThreadMode;
+import Results.ResultsStore;
+import Statistics.IntervalSample;
+import Statistics.LatencyHistogram;
+import Statistics.StatisticsSampler;
+import Statistics.TrafficCounters;
+import TrafficReceiver.ReceiveMode;
 import TrafficReceiver.TrafficReceiver;
 
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
-import javafx.scene.control.TextArea;
-import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import java.io.IOException;
-import java.net.Socket;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * <p>Класс ReceiverGUI представляет собой JavaFX приложение, которое подключается к серверу и отображает полученные данные.</p>
+ * <p>Параметр запуска --connections=N открывает N соединений. Данные всех соединений читает небольшой пул потоков
+ * с селекторами (--selectors=N), соединения распределяются между ними поровну. Параметр --threads=virtual
+ * запускает в виртуальных потоках подключение к генератору, а --receive=discard включает режим, в котором пакеты
+ * только считаются. Задержки пакетов всех соединений складываются в одну гистограмму,
+ * которая при закрытии окна записывается в файл, заданный параметром --latency-csv=путь.</p>
+ * <p>Пока идет прием, раз в интервал (--sample-interval=мс, по умолчанию секунда) выводятся суммарные
+ * скорость, потери и задержка всех соединений за этот интервал; на вкладке графиков они же показаны за все
+ * время работы приемника.</p>
  */
 public class ReceiverGUI extends Application {
     private static final Logger logger = LogManager.getLogger(ReceiverGUI.class);
-    private TrafficReceiver receiver;
-    private TextArea outputArea;
+    private final List<TrafficReceiver> receivers = new CopyOnWriteArrayList<>();
+    private final LatencyHistogram totalLatency = new LatencyHistogram();
+    private final TrafficCounters counters = new TrafficCounters();
+    private StatisticsSampler sampler;
+    private PinningMonitor pinningMonitor;
+    private MetricsServer metricsServer;
+    private SelectorPool selectorPool;
+    private ReceiveMode receiveMode;
+    private OutputArea outputArea;
+    private LiveCharts charts;
 
     /**
      * <p>Конструктор по умолчанию.</p>
@@ -39,40 +75,45 @@ public class ReceiverGUI extends Application {
      */
     @Override
     public void start(Stage primaryStage) {
-        outputArea = new TextArea();
-        outputArea.setEditable(false);
-        logger.info ("TextArea outputArea created; parameters: editable = false, pref Width = {}, prefHeight = {}",outputArea.getPrefWidth(), outputArea.getPrefHeight());
-
-        new Thread(() -> {
-            while (true) {
-                try (Socket socket = new Socket(NetworkConfig.SERVER_ADDRESS, NetworkConfig.PORT)) {
-                    appendText("The connection is established");
-                    logger.info("The connection is established with the server at {}:{}", NetworkConfig.SERVER_ADDRESS, NetworkConfig.PORT);
-
-                    receiver = new TrafficReceiver(socket, outputArea);
-                    logger.info ("TrafficReceiver receiver created");
-                    receiver.handle();
-                    break;
-                } catch (IOException ex) {
-                    appendText("Error when starting the server: " + ex.getMessage());
-                    logger.error("Error when starting the server: {}", ex.getMessage());
-                    try {
-                        Thread.sleep(2000);
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        appendText("The stream is interrupted: " + e.getMessage());
-                        logger.warn("The stream is interrupted: {}", e.getMessage());
-                        break;
-                    }
-                }
-            }
-        }).start();
+        outputArea = new OutputArea();
+        logger.info ("OutputArea outputArea created; parameters: max lines = {}, pref Width = {}, prefHeight = {}",OutputArea.DEFAULT_MAX_LINES, outputArea.getPrefWidth(), outputArea.getPrefHeight());
 
-        VBox layout = new VBox(10, outputArea);
+        ThreadMode threadMode = readThreadMode();
+        int connections = readConnections();
+        if (threadMode == ThreadMode.VIRTUAL) {
+            pinningMonitor = new PinningMonitor();
+            pinningMonitor.start();
+        }
+        int selectors = readSelectors();
+        receiveMode = readReceiveMode();
+        startTrace();
+        startResults();
+        startCapture();
+        try {
+            selectorPool = new SelectorPool(selectors, NetworkConfig.MAX_READ_SIZE);
+        } catch (IOException e) {
+            ErrorHandler.handleIOException("Error starting selector threads", e);
+            appendText("Error starting selector threads: " + e.getMessage());
+            return;
+        }
+        charts = new LiveCharts(true);
+        PrometheusMetrics metrics = new PrometheusMetrics(PrometheusMetrics.RECEIVER, counters);
+        sampler = new StatisticsSampler(counters, readSampleInterval())
+                .addListener(this::displaySample)
+                .addListener(charts)
+                .addListener(metrics)
+                .addLatencyListener(metrics::addLatency)
+                .start();
+        startMetrics(metrics);
+        appendText("Opening " + connections + " connection(s) on " + selectors + " selector thread(s)");
+        for (int i = 0; i < connections; i++) {
+            threadMode.start("receiver-connect-" + i, this::connect);
+        }
+
+        VBox layout = new VBox(10, LiveCharts.createTabs(outputArea, charts));
         layout.setPadding(new Insets(5));
-        VBox.setVgrow(outputArea, Priority.ALWAYS);
 
-        Scene scene = new Scene(layout, 400, 400);
+        Scene scene = new Scene(layout, 600, 700);
         logger.info("New Scene scene created");
         primaryStage.setScene(scene);
         logger.info("Scene scene installed");
@@ -82,23 +123,279 @@ public class ReceiverGUI extends Application {
         logger.info("Stage primaryStage showed");
 
         primaryStage.setOnCloseRequest(event -> {
-            if (receiver != null) {
+            if (selectorPool != null) {
+                selectorPool.close();
+            }
+            if (sampler != null) {
+                sampler.close();
+            }
+            for (TrafficReceiver receiver : receivers) {
                 receiver.close();
                 logger.info("TrafficReceiver receiver is closed");
             }
+            if (pinningMonitor != null) {
+                pinningMonitor.close();
+            }
+            exportLatency();
+            if (metricsServer != null) {
+                metricsServer.close();
+            }
+            PacketTrace.global().close();
+            ResultsStore.global().close();
+            CaptureWriter.global().close();
             Platform.exit();
             logger.info("The application is shutting down.");
             System.exit(0);
         });
     }
 
+    /**
+     * <p>Подключается к генератору и передает соединение пулу селекторов.</p>
+     * <p>Пока генератор недоступен, повторяет попытку подключения каждые 2 секунды.</p>
+     */
+    private void connect() {
+        while (true) {
+            try {
+                SocketChannel channel = SocketChannel.open(
+                        new InetSocketAddress(NetworkConfig.SERVER_ADDRESS, NetworkConfig.PORT));
+                appendText("The connection is established");
+                logger.info("The connection is established with the server at {}:{}", NetworkConfig.SERVER_ADDRESS, NetworkConfig.PORT);
+
+                TrafficReceiver receiver = new TrafficReceiver(channel.socket(), outputArea, totalLatency, receiveMode,
+                        counters);
+                receivers.add(receiver);
+                logger.info ("TrafficReceiver receiver created");
+                receiver.register(selectorPool);
+                break;
+            } catch (IOException ex) {
+                appendText("Error when starting the server: " + ex.getMessage());
+                logger.error("Error when starting the server: {}", ex.getMessage());
+                try {
+                    Thread.sleep(2000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    appendText("The stream is interrupted: " + e.getMessage());
+                    logger.warn("The stream is interrupted: {}", e.getMessage());
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>Выводит показатели интервала, если за него приходили пакеты.</p>
+     *
+     * @param sample показатели интервала
+     */
+    private void displaySample(IntervalSample sample) {
+        if (!sample.isIdle()) {
+            appendText("Receiving: " + sample.format());
+        }
+    }
+
+    /**
+     * <p>Записывает общую гистограмму задержек в файл CSV, если он задан параметром --latency-csv=...</p>
+     */
+    private void exportLatency() {
+        String file = readParameter(NetworkConfig.LATENCY_CSV_PROPERTY);
+        if (file == null || file.isBlank()) {
+            return;
+        }
+        try (Writer writer = Files.newBufferedWriter(Path.of(file), StandardCharsets.UTF_8)) {
+            LatencyHistogram latency = totalLatency.snapshot();
+            latency.writeCsv(writer);
+            logger.info("Latency histogram of {} packets written to {}", latency.getCount(), file);
+        } catch (IOException e) {
+            ErrorHandler.handleIOException("Error writing latency histogram", e);
+        }
+    }
+
+    /**
+     * <p>Определяет модель потоков из параметра запуска --threads=... или системного свойства threads.</p>
+     *
+     * @return выбранная модель потоков или {@link ThreadMode#PLATFORM}, если значение некорректно
+     */
+    private ThreadMode readThreadMode() {
+        try {
+            ThreadMode threadMode = ThreadMode.parse(readParameter(NetworkConfig.THREADS_PROPERTY));
+            logger.info("Thread mode selected: {}", threadMode);
+            return threadMode;
+        } catch (IllegalArgumentException e) {
+            ErrorHandler.handleInputError(e.getMessage());
+            appendText(e.getMessage() + ", using " + ThreadMode.PLATFORM);
+            return ThreadMode.PLATFORM;
+        }
+    }
+
+    /**
+     * <p>Определяет режим приема из параметра запуска --receive=... или системного свойства receive.</p>
+     *
+     * @return выбранный режим или {@link ReceiveMode#FULL}, если значение некорректно
+     */
+    private ReceiveMode readReceiveMode() {
+        try {
+            ReceiveMode mode = ReceiveMode.parse(readParameter(NetworkConfig.RECEIVE_MODE_PROPERTY));
+            logger.info("Receive mode selected: {}", mode);
+            return mode;
+        } catch (IllegalArgumentException e) {
+            ErrorHandler.handleInputError(e.getMessage());
+            appendText(e.getMessage() + ", using " + ReceiveMode.FULL);
+            return ReceiveMode.FULL;
+        }
+    }
+
+    /**
+     * <p>Определяет интервал вывода текущей скорости из параметра запуска --sample-interval=... (в миллисекундах)
+     * или системного свойства sample-interval.</p>
+     *
+     * @return интервал в миллисекундах или {@link NetworkConfig#SAMPLE_INTERVAL_MS}, если значение некорректно
+     */
+    private long readSampleInterval() {
+        try {
+            long interval = StatisticsSampler.parseInterval(readParameter(NetworkConfig.SAMPLE_INTERVAL_PROPERTY));
+            logger.info("Sample interval selected: {} ms", interval);
+            return interval;
+        } catch (IllegalArgumentException e) {
+            ErrorHandler.handleInputError(e.getMessage());
+            appendText(e.getMessage() + ", using " + NetworkConfig.SAMPLE_INTERVAL_MS + " ms");
+            return NetworkConfig.SAMPLE_INTERVAL_MS;
+        }
+    }
+
+    /**
+     * <p>Определяет количество соединений из параметра запуска --connections=... или системного свойства connections.</p>
+     *
+     * @return количество соединений; 1, если значение не задано или некорректно
+     */
+    private int readConnections() {
+        try {
+            return ParameterParser.parseInt("number of connections", readParameter(NetworkConfig.CONNECTIONS_PROPERTY),
+                    1, 1, Integer.MAX_VALUE);
+        } catch (IllegalArgumentException e) {
+            ErrorHandler.handleInputError(e.getMessage());
+            appendText(e.getMessage() + ", using 1");
+            return 1;
+        }
+    }
+
+    /**
+     * <p>Определяет количество потоков с селекторами из параметра запуска --selectors=... или системного свойства selectors.</p>
+     *
+     * @return количество потоков; {@link NetworkConfig#DEFAULT_SELECTOR_THREADS}, если значение не задано или некорректно
+     */
+    private int readSelectors() {
+        try {
+            return ParameterParser.parseInt("number of selector threads",
+                    readParameter(NetworkConfig.SELECTORS_PROPERTY), NetworkConfig.DEFAULT_SELECTOR_THREADS, 1,
+                    Integer.MAX_VALUE);
+        } catch (IllegalArgumentException e) {
+            ErrorHandler.handleInputError(e.getMessage());
+            appendText(e.getMessage() + ", using " + NetworkConfig.DEFAULT_SELECTOR_THREADS);
+            return NetworkConfig.DEFAULT_SELECTOR_THREADS;
+        }
+    }
+
+    /**
+     * <p>Запускает пакетную трассировку, если она включена параметром запуска --trace-sample=N
+     * или системным свойством trace-sample. Файл задается параметром --trace-file=...</p>
+     */
+    private void startTrace() {
+        try {
+            int sample = PacketTrace.parseSample(readParameter(NetworkConfig.TRACE_SAMPLE_PROPERTY));
+            if (sample == 0) {
+                return;
+            }
+            String file = readParameter(NetworkConfig.TRACE_FILE_PROPERTY);
+            PacketTrace trace = PacketTrace.startGlobal(sample, Path.of(file != null ? file : PacketTrace.RECEIVER_FILE));
+            appendText("Packet trace: every " + trace.getSampleEvery() + " packet(s)");
+        } catch (IllegalArgumentException e) {
+            ErrorHandler.handleInputError(e.getMessage());
+            appendText(e.getMessage() + ", packet trace disabled");
+        } catch (IOException e) {
+            ErrorHandler.handleIOException("Error starting packet trace", e);
+            appendText("Error starting packet trace: " + e.getMessage());
+        }
+    }
+
+    /**
+     * <p>Открывает файл итогов сессий, если он включен параметром запуска --results-store=true|PATH
+     * или системным свойством results-store.</p>
+     */
+    private void startResults() {
+        Path file = ResultsStore.parseFile(readParameter(NetworkConfig.RESULTS_STORE_PROPERTY),
+                ResultsStore.RECEIVER_FILE);
+        if (file == null) {
+            return;
+        }
+        try {
+            ResultsStore store = ResultsStore.startGlobal(file);
+            appendText("Session results: run " + store.getRunId() + ", file " + file);
+        } catch (IOException e) {
+            ErrorHandler.handleIOException("Error opening session results file", e);
+            appendText("Error opening session results file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * <p>Запускает захват первой принятой сессии, если файл задан параметром запуска --capture=true|PATH
+     * или системным свойством capture. Параметр --capture-payload=true добавляет в захват полезную нагрузку.</p>
+     */
+    private void startCapture() {
+        Path file = CaptureWriter.parseFile(readParameter(NetworkConfig.CAPTURE_PROPERTY));
+        if (file == null) {
+            return;
+        }
+        try {
+            boolean payload = Boolean.parseBoolean(readParameter(NetworkConfig.CAPTURE_PAYLOAD_PROPERTY));
+            CaptureWriter.startGlobal(file, payload);
+            appendText("Capturing the next session to " + file + (payload ? " with payload" : ""));
+        } catch (IOException e) {
+            ErrorHandler.handleIOException("Error creating capture file", e);
+            appendText("Error creating capture file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * <p>Запускает сервер метрик Prometheus, если порт задан параметром запуска --metrics-port=...
+     * или системным свойством metrics-port.</p>
+     *
+     * @param metrics источник метрик
+     */
+    private void startMetrics(PrometheusMetrics metrics) {
+        try {
+            int port = MetricsServer.parsePort(readParameter(NetworkConfig.METRICS_PORT_PROPERTY));
+            if (port < 0) {
+                return;
+            }
+            metricsServer = new MetricsServer(port, metrics);
+            appendText("Metrics: http://localhost:" + metricsServer.getPort() + MetricsServer.PATH);
+        } catch (IllegalArgumentException e) {
+            ErrorHandler.handleInputError(e.getMessage());
+            appendText(e.getMessage() + ", metrics disabled");
+        } catch (IOException e) {
+            ErrorHandler.handleIOException("Error starting metrics server", e);
+            appendText("Error starting metrics server: " + e.getMessage());
+        }
+    }
+
+    /**
+     * <p>Возвращает значение параметра запуска --name=..., а если его нет - системного свойства name.</p>
+     *
+     * @param name имя параметра
+     * @return значение параметра или null, если он не задан
+     */
+    private String readParameter(String name) {
+        String value = getParameters().getNamed().get(name);
+        return value != null ? value : System.getProperty(name);
+    }
+
     /**
      * <p>Добавляет текст в область вывода в потокобезопасном режиме.</p>
      *
      * @param text текст для добавления
      */
     private void appendText(String text) {
-        Platform.runLater(() -> outputArea.appendText(text + "\n"));
+        outputArea.appendText(text + "\n");
         logger.info("Adding text to outputArea: {}", text);
     }
 
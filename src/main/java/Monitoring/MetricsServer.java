@@ -0,0 +1,113 @@
+package Monitoring;
+
+import NetworkConnection.ParameterParser;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * <p>MetricsServer - встроенный HTTP-сервер, который отдает {@link PrometheusMetrics} по адресу /metrics.</p>
+ *
+ * <p>Сервер построен на {@code com.sun.net.httpserver} из JDK и обслуживает запросы одним фоновым потоком:
+ * ответ - уже собранная строка, поэтому запрос не нагружает потоки отправки и приема.</p>
+ */
+public class MetricsServer implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(MetricsServer.class);
+
+    /**
+     * <p>Путь, по которому отдаются метрики.</p>
+     */
+    public static final String PATH = "/metrics";
+
+    /**
+     * <p>Тип содержимого текстового формата Prometheus.</p>
+     */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * <p>Конструктор класса MetricsServer. Запускает сервер на всех адресах узла.</p>
+     *
+     * @param port порт; 0 - любой свободный
+     * @param metrics источник метрик
+     * @throws IOException если порт занят
+     */
+    public MetricsServer(int port, PrometheusMetrics metrics) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext(PATH, exchange -> respond(exchange, metrics));
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.start();
+        logger.info("Metrics server started on port {}", getPort());
+    }
+
+    /**
+     * <p>Определяет порт сервера метрик по строке.</p>
+     *
+     * @param value номер порта; null или пустая строка - сервер не запускается
+     * @return номер порта; -1, если сервер не нужен
+     * @throws IllegalArgumentException если значение не является номером порта
+     */
+    public static int parsePort(String value) {
+        return ParameterParser.parseInt("metrics port", value, -1, 0, 65_535);
+    }
+
+    /**
+     * <p>Возвращает порт, на котором работает сервер.</p>
+     *
+     * @return номер порта
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * <p>Останавливает сервер.</p>
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        logger.info("Metrics server stopped");
+    }
+
+    /**
+     * <p>Отвечает на запрос метрик.</p>
+     *
+     * @param exchange запрос
+     * @param metrics источник метрик
+     * @throws IOException если возникает ошибка записи ответа
+     */
+    private static void respond(HttpExchange exchange, PrometheusMetrics metrics) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = metrics.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package Monitoring;
+
+import NetworkConnection.NetworkConfig;
+import NetworkConnection.ParameterParser;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>PacketTrace - двоичная трассировка событий отдельных пакетов.</p>
+ *
+ * <p>Текстовый журнал на каждый пакет стоит дороже самой отправки, поэтому события пакетов пишутся
+ * в кольцевой буфер из примитивов: запись занимает один атомарный инкремент и пять записей в массив
+ * без создания объектов и без блокировок. Отправка и прием выбранных пакетов (каждый N-й номер,
+ * N - степень двойки) записываются одинаково на генераторе и приемнике, поэтому их можно сопоставить;
+ * пропуски и ошибки контрольной суммы записываются всегда. Фоновый поток периодически переносит новые
+ * записи в файл; если потоки отправки обгоняют его на целый круг буфера, старые записи теряются
+ * и учитываются как пропущенные. Файл читает {@link TraceDecoder}.</p>
+ *
+ * <p>Формат файла: заголовок {@value #HEADER_SIZE} байт (сигнатура {@link #MAGIC}, N, резерв), затем записи
+ * по {@value #RECORD_SIZE} байт: время от эпохи в наносекундах, упакованные событие, сессия и длина,
+ * порядковый номер пакета. Порядок байтов - сетевой.</p>
+ */
+public final class PacketTrace implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(PacketTrace.class);
+
+    /**
+     * <p>Сигнатура файла трассировки: "PKTTRACE" в ASCII.</p>
+     */
+    public static final long MAGIC = 0x504B_5454_5241_4345L;
+
+    /**
+     * <p>Размер заголовка файла в байтах.</p>
+     */
+    public static final int HEADER_SIZE = 16;
+
+    /**
+     * <p>Размер записи в файле в байтах.</p>
+     */
+    public static final int RECORD_SIZE = 24;
+
+    /**
+     * <p>Файл трассировки генератора по умолчанию.</p>
+     */
+    public static final String GENERATOR_FILE = "logs/generator.trace";
+
+    /**
+     * <p>Файл трассировки приемника по умолчанию.</p>
+     */
+    public static final String RECEIVER_FILE = "logs/receiver.trace";
+
+    /**
+     * <p>Наибольшая частота трассировки: большая степень двойки не помещается в int.</p>
+     */
+    public static final int MAX_SAMPLE_EVERY = 1 << 30;
+
+    private static final int SLOT_LONGS = 4;
+    private static final int WRITE_BUFFER_RECORDS = 4_096;
+    private static final PacketTrace DISABLED = new PacketTrace();
+    private static volatile PacketTrace global = DISABLED;
+
+    private final boolean enabled;
+    private final int sampleEvery;
+    private final long sampleMask;
+    private final int capacity;
+    private final int indexMask;
+    private final AtomicLongArray slots;
+    private final AtomicLong cursor = new AtomicLong();
+    private final Path file;
+    private final FileChannel channel;
+    private final ByteBuffer writeBuffer;
+    private ScheduledExecutorService writer;
+    private long drained;
+    private long written;
+    private long dropped;
+
+    /**
+     * <p>Конструктор выключенной трассировки: {@link #record} сразу возвращает управление.</p>
+     */
+    private PacketTrace() {
+        enabled = false;
+        sampleEvery = 0;
+        sampleMask = 0;
+        capacity = 0;
+        indexMask = 0;
+        slots = null;
+        file = null;
+        channel = null;
+        writeBuffer = null;
+    }
+
+    /**
+     * <p>Конструктор класса PacketTrace. Создает файл и записывает заголовок, фоновый поток не запускает.</p>
+     *
+     * @param capacity количество записей в кольцевом буфере; округляется вверх до степени двойки
+     * @param sampleEvery записывать каждый N-й пакет; округляется вверх до степени двойки
+     * @param file файл трассировки
+     * @throws IOException если файл не удалось создать
+     * @throws IllegalArgumentException если одно из значений не положительно или частота больше
+     *                                  {@link #MAX_SAMPLE_EVERY}
+     */
+    public PacketTrace(int capacity, int sampleEvery, Path file) throws IOException {
+        if (capacity <= 0 || sampleEvery <= 0) {
+            throw new IllegalArgumentException("Trace capacity and sampling must be positive");
+        }
+        if (sampleEvery > MAX_SAMPLE_EVERY) {
+            throw new IllegalArgumentException("Trace sampling must not exceed " + MAX_SAMPLE_EVERY);
+        }
+        this.enabled = true;
+        this.capacity = ceilPowerOfTwo(capacity);
+        this.indexMask = this.capacity - 1;
+        this.sampleEvery = ceilPowerOfTwo(sampleEvery);
+        this.sampleMask = this.sampleEvery - 1;
+        this.slots = new AtomicLongArray(this.capacity * SLOT_LONGS);
+        this.file = file;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_RECORDS * RECORD_SIZE);
+        writeBuffer.putLong(MAGIC).putInt(this.sampleEvery).putInt(0);
+        flushBuffer();
+        if (this.sampleEvery != sampleEvery) {
+            logger.info("Trace sample {} rounded up to the power of two {}", sampleEvery, this.sampleEvery);
+        }
+        logger.info("PacketTrace initialized: {} records, every {} packet(s), file {}",
+                this.capacity, this.sampleEvery, file);
+    }
+
+    /**
+     * <p>Возвращает общую трассировку процесса. Пока она не запущена, возвращается выключенная.</p>
+     *
+     * @return трассировка
+     */
+    public static PacketTrace global() {
+        return global;
+    }
+
+    /**
+     * <p>Запускает общую трассировку процесса с буфером {@link NetworkConfig#TRACE_CAPACITY} записей.</p>
+     *
+     * @param sampleEvery записывать каждый N-й пакет
+     * @param file файл трассировки
+     * @return запущенная трассировка
+     * @throws IOException если файл не удалось создать
+     * @throws IllegalStateException если общая трассировка уже запущена
+     */
+    public static synchronized PacketTrace startGlobal(int sampleEvery, Path file) throws IOException {
+        if (global.enabled) {
+            throw new IllegalStateException("Packet trace is already started");
+        }
+        PacketTrace trace = new PacketTrace(NetworkConfig.TRACE_CAPACITY, sampleEvery, file);
+        trace.start();
+        global = trace;
+        return trace;
+    }
+
+    /**
+     * <p>Разбирает частоту трассировки из параметра запуска.</p>
+     *
+     * @param value значение параметра или null
+     * @return N для записи каждого N-го пакета, до {@link #MAX_SAMPLE_EVERY}; 0 - трассировка выключена.
+     *         При запуске трассировки N округляется вверх до степени двойки
+     * @throws IllegalArgumentException если значение не является целым числом от 0 до {@link #MAX_SAMPLE_EVERY}
+     */
+    public static int parseSample(String value) {
+        return ParameterParser.parseInt("trace sample", value, 0, 0, MAX_SAMPLE_EVERY);
+    }
+
+    /**
+     * <p>Показывает, включена ли трассировка.</p>
+     *
+     * @return true, если события записываются
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * <p>Возвращает частоту трассировки.</p>
+     *
+     * @return N: записывается каждый N-й пакет; 0 - трассировка выключена
+     */
+    public int getSampleEvery() {
+        return sampleEvery;
+    }
+
+    /**
+     * <p>Записывает событие пакета. Может вызываться из любого потока, не создает объектов и не блокируется.</p>
+     *
+     * @param event событие
+     * @param timestamp время события от эпохи в наносекундах
+     * @param session номер сессии
+     * @param sequence порядковый номер пакета
+     * @param length длина полезной нагрузки или количество пропущенных пакетов
+     */
+    public void record(TraceEvent event, long timestamp, int session, long sequence, int length) {
+        if (!enabled || (event.isSampled() && (sequence & sampleMask) != 0)) {
+            return;
+        }
+        long index = cursor.getAndIncrement();
+        int base = (int) (index & indexMask) * SLOT_LONGS;
+        // Номер записи сбрасывается до записи полей: читатель, заставший перезапись ячейки, увидит другой номер
+        slots.setOpaque(base, -1);
+        VarHandle.storeStoreFence();
+        slots.setPlain(base + 1, timestamp);
+        slots.setPlain(base + 2, pack(event, session, length));
+        slots.setPlain(base + 3, sequence);
+        // Номер записи публикуется последним: читатель по нему узнает, что поля записаны полностью
+        slots.setRelease(base, index + 1);
+    }
+
+    /**
+     * <p>Запускает фоновый поток, который раз в {@link NetworkConfig#TRACE_DRAIN_MS} мс переносит записи в файл.</p>
+     *
+     * @throws IllegalStateException если поток уже запущен
+     */
+    public synchronized void start() {
+        if (writer != null) {
+            throw new IllegalStateException("Packet trace writer is already started");
+        }
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "packet-trace-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(this::drainQuietly, NetworkConfig.TRACE_DRAIN_MS,
+                NetworkConfig.TRACE_DRAIN_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * <p>Переносит в файл все опубликованные записи. Запись, которую еще не закончил поток отправки,
+     * остается до следующего вызова.</p>
+     *
+     * @return количество записей, перенесенных в файл
+     * @throws IOException если возникает ошибка записи файла
+     */
+    public synchronized long drain() throws IOException {
+        if (!enabled || !channel.isOpen()) {
+            return 0;
+        }
+        long before = written;
+        long end = cursor.get();
+        if (end - drained > capacity) {
+            dropped += end - capacity - drained;
+            drained = end - capacity;
+        }
+        while (drained < end) {
+            int base = (int) (drained & indexMask) * SLOT_LONGS;
+            long stamp = slots.getAcquire(base);
+            if (stamp <= drained) {
+                break;
+            }
+            long timestamp = slots.getPlain(base + 1);
+            long packed = slots.getPlain(base + 2);
+            long sequence = slots.getPlain(base + 3);
+            VarHandle.acquireFence();
+            // Ячейку могли перезаписать, пока читались поля: это видно по номеру записи, а если ее уже заняла
+            // следующая запись, еще не сбросившая номер, - по счетчику записей
+            if (stamp != drained + 1 || slots.getOpaque(base) != stamp || cursor.get() - drained > capacity) {
+                dropped++;
+            } else {
+                writeBuffer.putLong(timestamp).putLong(packed).putLong(sequence);
+                written++;
+                if (!writeBuffer.hasRemaining()) {
+                    flushBuffer();
+                }
+            }
+            drained++;
+        }
+        flushBuffer();
+        return written - before;
+    }
+
+    /**
+     * <p>Возвращает количество записей в файле.</p>
+     *
+     * @return количество записей
+     */
+    public synchronized long getWritten() {
+        return written;
+    }
+
+    /**
+     * <p>Возвращает количество записей, которые были перезаписаны до переноса в файл.</p>
+     *
+     * @return количество потерянных записей
+     */
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * <p>Останавливает фоновый поток, переносит оставшиеся записи и закрывает файл.
+     * Если это общая трассировка, общей снова становится выключенная.</p>
+     */
+    @Override
+    public void close() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (PacketTrace.class) {
+            if (global == this) {
+                global = DISABLED;
+            }
+        }
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = writer;
+            writer = null;
+        }
+        if (running != null) {
+            running.shutdown();
+            try {
+                running.awaitTermination(NetworkConfig.TRACE_DRAIN_MS * 10, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            if (!channel.isOpen()) {
+                return;
+            }
+            drainQuietly();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.error("Error closing packet trace: {}", e.getMessage());
+            }
+        }
+        logger.info("PacketTrace closed: {} records written to {}, {} dropped", written, file, dropped);
+    }
+
+    /**
+     * <p>Упаковывает событие, сессию и длину в одно число.</p>
+     *
+     * @param event событие
+     * @param session номер сессии (младшие 24 бита)
+     * @param length длина
+     * @return упакованное значение
+     */
+    static long pack(TraceEvent event, int session, int length) {
+        return ((long) event.ordinal() << 56) | ((session & 0xFF_FFFFL) << 32) | (length & 0xFFFF_FFFFL);
+    }
+
+    /**
+     * <p>Переносит записи в файл из фонового потока, сообщая об ошибках в журнал.</p>
+     */
+    private void drainQuietly() {
+        try {
+            drain();
+        } catch (IOException e) {
+            logger.error("Error writing packet trace: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * <p>Записывает накопленные байты в файл.</p>
+     *
+     * @throws IOException если возникает ошибка записи
+     */
+    private void flushBuffer() throws IOException {
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            channel.write(writeBuffer);
+        }
+        writeBuffer.clear();
+    }
+
+    /**
+     * <p>Округляет число вверх до степени двойки.</p>
+     *
+     * @param value положительное число
+     * @return степень двойки, не меньшая числа
+     */
+    private static int ceilPowerOfTwo(int value) {
+        return value == 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+}
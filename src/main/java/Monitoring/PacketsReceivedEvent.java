@@ -0,0 +1,65 @@
+package Monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <p>PacketsReceivedEvent - событие JFR для одной порции данных, прочитанной приемником.</p>
+ *
+ * <p>Фиксируется на каждое чтение, а не на каждый пакет: длительность события - время разбора порции,
+ * поля - прочитанные байты и количество пакетов данных в ней.</p>
+ */
+@Name(PacketsReceivedEvent.NAME)
+@Label("Packets Received")
+@Category({"Traffic Generator"})
+@Description("Chunk of data read and decoded on one connection")
+@StackTrace(false)
+public class PacketsReceivedEvent extends jdk.jfr.Event {
+
+    /**
+     * <p>Имя события в записи JFR.</p>
+     */
+    public static final String NAME = "traffic.PacketsReceived";
+
+    @Label("Session")
+    int session;
+
+    @Label("Packets")
+    long packets;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    /**
+     * <p>Создает событие и отмечает начало разбора порции.</p>
+     *
+     * @return начатое событие
+     */
+    public static PacketsReceivedEvent start() {
+        PacketsReceivedEvent event = new PacketsReceivedEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * <p>Отмечает окончание разбора порции и фиксирует событие, если оно включено в записи.</p>
+     *
+     * @param session номер текущей сессии
+     * @param packets количество пакетов данных в порции
+     * @param bytes количество прочитанных байт
+     */
+    public void complete(int session, long packets, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.session = session;
+            this.packets = packets;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package Monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <p>PacketsSentEvent - событие JFR для пачки отправленных пакетов.</p>
+ *
+ * <p>Событие на каждый пакет стоило бы дороже отправки, поэтому генератор фиксирует одно событие
+ * на {@link NetworkConnection.NetworkConfig#JFR_BATCH_PACKETS} пакетов: длительность события - время
+ * отправки пачки, по ней видны провалы скорости.</p>
+ */
+@Name(PacketsSentEvent.NAME)
+@Label("Packets Sent")
+@Category({"Traffic Generator"})
+@Description("Batch of packets sent on one connection")
+@StackTrace(false)
+public class PacketsSentEvent extends jdk.jfr.Event {
+
+    /**
+     * <p>Имя события в записи JFR.</p>
+     */
+    public static final String NAME = "traffic.PacketsSent";
+
+    @Label("Session")
+    int session;
+
+    @Label("Packets")
+    long packets;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    /**
+     * <p>Создает событие и отмечает начало пачки.</p>
+     *
+     * @return начатое событие
+     */
+    public static PacketsSentEvent start() {
+        PacketsSentEvent event = new PacketsSentEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * <p>Отмечает окончание пачки и фиксирует событие, если оно включено в записи.</p>
+     *
+     * @param session номер сессии
+     * @param packets количество пакетов в пачке
+     * @param bytes количество байт полезной нагрузки
+     */
+    public void complete(int session, long packets, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.session = session;
+            this.packets = packets;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
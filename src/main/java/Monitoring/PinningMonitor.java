@@ -0,0 +1,154 @@
+package Monitoring;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>PinningMonitor - класс для подсчета блокировок виртуальных потоков на потоках-носителях.</p>
+ *
+ * <p>Виртуальный поток закрепляется (pinning) за потоком-носителем, если блокируется внутри
+ * synchronized или нативного кода. Пока он закреплен, носитель не может выполнять другие виртуальные
+ * потоки. Монитор подписывается на событие JFR jdk.VirtualThreadPinned и считает количество
+ * закреплений, их суммарную и максимальную длительность.</p>
+ */
+public class PinningMonitor implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(PinningMonitor.class);
+
+    /**
+     * <p>Имя события JFR о закреплении виртуального потока.</p>
+     */
+    public static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    /**
+     * <p>Порог длительности закрепления по умолчанию.</p>
+     */
+    public static final Duration DEFAULT_THRESHOLD = Duration.ofMillis(1);
+
+    private final RecordingStream stream;
+    private final LongAdder pinnedCount = new LongAdder();
+    private final LongAdder pinnedNanos = new LongAdder();
+    private final AtomicLong maxPinnedNanos = new AtomicLong();
+    private volatile boolean started;
+
+    /**
+     * <p>Конструктор класса PinningMonitor с порогом {@link #DEFAULT_THRESHOLD}.</p>
+     */
+    public PinningMonitor() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * <p>Конструктор класса PinningMonitor.</p>
+     *
+     * @param threshold минимальная длительность закрепления, которая учитывается
+     */
+    public PinningMonitor(Duration threshold) {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.setReuse(true);
+        logger.info("PinningMonitor initialized with threshold {}", threshold);
+    }
+
+    /**
+     * <p>Запускает прием событий в фоновом потоке.</p>
+     */
+    public void start() {
+        stream.startAsync();
+        started = true;
+        logger.info("PinningMonitor started");
+    }
+
+    /**
+     * <p>Возвращает количество закреплений виртуальных потоков.</p>
+     *
+     * @return количество закреплений
+     */
+    public long getPinnedCount() {
+        return pinnedCount.sum();
+    }
+
+    /**
+     * <p>Возвращает суммарную длительность закреплений.</p>
+     *
+     * @return длительность в наносекундах
+     */
+    public long getPinnedNanos() {
+        return pinnedNanos.sum();
+    }
+
+    /**
+     * <p>Возвращает максимальную длительность одного закрепления.</p>
+     *
+     * @return длительность в наносекундах
+     */
+    public long getMaxPinnedNanos() {
+        return maxPinnedNanos.get();
+    }
+
+    /**
+     * <p>Возвращает строку с итогами наблюдения.</p>
+     *
+     * @return итоги в виде одной строки
+     */
+    public String summary() {
+        return String.format("Virtual thread pinning: %d events, total %.2f ms, max %.2f ms.",
+                getPinnedCount(), getPinnedNanos() / 1_000_000.0, getMaxPinnedNanos() / 1_000_000.0);
+    }
+
+    /**
+     * <p>Останавливает прием событий.</p>
+     * <p>Запущенный поток сначала останавливается: {@link RecordingStream#stop()} дожидается обработки
+     * событий, записанных до остановки, поэтому итоги учитывают и их.</p>
+     */
+    @Override
+    public void close() {
+        if (started) {
+            started = false;
+            stream.stop();
+        }
+        stream.close();
+        logger.info("PinningMonitor stopped: {}", summary());
+    }
+
+    /**
+     * <p>Обрабатывает событие закрепления виртуального потока.</p>
+     *
+     * @param event событие JFR
+     */
+    private void onPinned(RecordedEvent event) {
+        long nanos = event.getDuration().toNanos();
+        pinnedCount.increment();
+        pinnedNanos.add(nanos);
+        maxPinnedNanos.accumulateAndGet(nanos, Math::max);
+        logger.warn("Virtual thread pinned for {} ns at {}", nanos, topFrame(event));
+    }
+
+    /**
+     * <p>Возвращает первый кадр стека события вне классов JDK, то есть место в коде приложения,
+     * где произошло закрепление.</p>
+     *
+     * @param event событие JFR
+     * @return описание кадра или "unknown", если стек недоступен
+     */
+    private static String topFrame(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "unknown";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return frames.isEmpty() ? "unknown" : frames.get(0).getMethod().getName();
+    }
+}
@@ -0,0 +1,197 @@
+package Monitoring;
+
+import Statistics.IntervalSample;
+import Statistics.LatencyHistogram;
+import Statistics.TrafficCounters;
+
+import java.math.BigDecimal;
+import java.util.function.Consumer;
+
+/**
+ * <p>PrometheusMetrics - показатели генератора или приемника в текстовом формате Prometheus.</p>
+ *
+ * <p>Текст собирается заранее в потоке выборки {@link Statistics.StatisticsSampler} на каждом интервале
+ * и публикуется одной volatile-ссылкой. Запрос метрик только читает готовую строку, поэтому он никогда
+ * не обращается к счетчикам, которые обновляют потоки отправки и приема, и не ждет их. Между интервалами
+ * выдаются показания последней выборки.</p>
+ */
+public class PrometheusMetrics implements Consumer<IntervalSample> {
+
+    /**
+     * <p>Роль генератора трафика.</p>
+     */
+    public static final String GENERATOR = "generator";
+
+    /**
+     * <p>Роль приемника трафика.</p>
+     */
+    public static final String RECEIVER = "receiver";
+
+    /**
+     * <p>Границы корзин гистограммы задержек в секундах.</p>
+     */
+    static final double[] LATENCY_BUCKETS = {
+            0.00005, 0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5};
+
+    private final String role;
+    private final TrafficCounters counters;
+    private final LatencyHistogram totalLatency = new LatencyHistogram();
+    private final StringBuilder builder = new StringBuilder();
+    private volatile String snapshot;
+
+    /**
+     * <p>Конструктор класса PrometheusMetrics.</p>
+     *
+     * @param role роль процесса ({@link #GENERATOR} или {@link #RECEIVER}), выводится меткой role
+     * @param counters счетчики трафика процесса
+     */
+    public PrometheusMetrics(String role, TrafficCounters counters) {
+        this.role = role;
+        this.counters = counters;
+        render(null);
+    }
+
+    /**
+     * <p>Добавляет задержки интервала к накопленной гистограмме. Вызывается в потоке выборки.</p>
+     *
+     * @param intervalLatency гистограмма задержек интервала
+     */
+    public void addLatency(LatencyHistogram intervalLatency) {
+        totalLatency.merge(intervalLatency);
+    }
+
+    /**
+     * <p>Собирает новый текст метрик по показаниям интервала. Вызывается в потоке выборки.</p>
+     *
+     * @param sample показатели интервала
+     */
+    @Override
+    public void accept(IntervalSample sample) {
+        render(sample);
+    }
+
+    /**
+     * <p>Возвращает текст последней выборки. Может вызываться из любого потока.</p>
+     *
+     * @return метрики в текстовом формате Prometheus
+     */
+    public String scrape() {
+        return snapshot;
+    }
+
+    /**
+     * <p>Собирает текст метрик и публикует его.</p>
+     *
+     * @param sample показатели последнего интервала или null до первой выборки
+     */
+    private synchronized void render(IntervalSample sample) {
+        builder.setLength(0);
+        counter("traffic_packets_total", "Packets " + verb() + ".", counters.getPackets());
+        counter("traffic_bytes_total", "Payload bytes " + verb() + ".", counters.getBytes());
+        counter("traffic_sessions_total", "Sessions started.", counters.getSessions());
+        if (sample != null) {
+            gauge("traffic_packets_per_second", "Packet rate over the last interval.", sample.packetsPerSecond());
+            gauge("traffic_throughput_mbps", "Throughput over the last interval, Mbit/s.", sample.megabitsPerSecond());
+        }
+        if (GENERATOR.equals(role)) {
+            counter("traffic_write_blocked_seconds_total", "Time spent in socket writes.",
+                    counters.getWriteNanos() / 1_000_000_000.0);
+        } else {
+            gauge("traffic_missing_packets", "Packets currently missing from the sequence.", counters.getMissing());
+            if (sample != null) {
+                gauge("traffic_loss_percent", "Packet loss over the last interval, percent.", sample.lossPercent());
+            }
+            latencyHistogram();
+        }
+        snapshot = builder.toString();
+    }
+
+    /**
+     * <p>Выводит гистограмму задержек с накопленными количествами по границам {@link #LATENCY_BUCKETS}.</p>
+     */
+    private void latencyHistogram() {
+        String name = "traffic_latency_seconds";
+        header(name, "One-way packet latency.", "histogram");
+        LatencyHistogram latency = totalLatency.snapshot();
+        for (double bound : LATENCY_BUCKETS) {
+            sample(name + "_bucket", "le=\"" + format(bound) + "\"",
+                    format(latency.countAtMost((long) (bound * 1_000_000_000L))));
+        }
+        sample(name + "_bucket", "le=\"+Inf\"", format(latency.getCount()));
+        sample(name + "_sum", null, format(latency.getSum() / 1_000_000_000.0));
+        sample(name + "_count", null, format(latency.getCount()));
+    }
+
+    /**
+     * <p>Выводит счетчик.</p>
+     *
+     * @param name имя метрики
+     * @param help описание
+     * @param value значение
+     */
+    private void counter(String name, String help, double value) {
+        header(name, help, "counter");
+        sample(name, null, format(value));
+    }
+
+    /**
+     * <p>Выводит текущее значение.</p>
+     *
+     * @param name имя метрики
+     * @param help описание
+     * @param value значение
+     */
+    private void gauge(String name, String help, double value) {
+        header(name, help, "gauge");
+        sample(name, null, format(value));
+    }
+
+    /**
+     * <p>Выводит строки HELP и TYPE метрики.</p>
+     *
+     * @param name имя метрики
+     * @param help описание
+     * @param type тип метрики
+     */
+    private void header(String name, String help, String type) {
+        builder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * <p>Выводит строку значения с меткой role и дополнительными метками.</p>
+     *
+     * @param name имя ряда
+     * @param labels дополнительные метки или null
+     * @param value значение
+     */
+    private void sample(String name, String labels, String value) {
+        builder.append(name).append("{role=\"").append(role).append('"');
+        if (labels != null) {
+            builder.append(',').append(labels);
+        }
+        builder.append("} ").append(value).append('\n');
+    }
+
+    /**
+     * <p>Возвращает глагол для описаний счетчиков.</p>
+     *
+     * @return sent или received
+     */
+    private String verb() {
+        return GENERATOR.equals(role) ? "sent" : "received";
+    }
+
+    /**
+     * <p>Форматирует значение: целые числа без дробной части.</p>
+     *
+     * @param value значение
+     * @return строка
+     */
+    private static String format(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,75 @@
+package Monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <p>SessionEvent - событие JFR сессии генерации или приема на одном соединении.</p>
+ *
+ * <p>Начинается с началом сессии и фиксируется при ее окончании, поэтому в записи JFR видны
+ * начало и длительность сессии рядом с паузами GC и safepoint.</p>
+ */
+@Name(SessionEvent.NAME)
+@Label("Traffic Session")
+@Category({"Traffic Generator"})
+@Description("Generation or receiving session on one connection")
+@StackTrace(false)
+public class SessionEvent extends jdk.jfr.Event {
+
+    /**
+     * <p>Имя события в записи JFR.</p>
+     */
+    public static final String NAME = "traffic.Session";
+
+    @Label("Role")
+    String role;
+
+    @Label("Session")
+    int session;
+
+    @Label("Peer")
+    String peer;
+
+    @Label("Packets")
+    long packets;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    /**
+     * <p>Создает событие и отмечает начало сессии.</p>
+     *
+     * @return начатое событие
+     */
+    public static SessionEvent start() {
+        SessionEvent event = new SessionEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * <p>Отмечает окончание сессии и фиксирует событие, если оно включено в записи.</p>
+     *
+     * @param role роль (generator или receiver)
+     * @param session номер сессии
+     * @param peer адрес другой стороны соединения
+     * @param packets количество пакетов сессии
+     * @param bytes количество байт полезной нагрузки
+     */
+    public void complete(String role, int session, String peer, long packets, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.role = role;
+            this.session = session;
+            this.peer = peer;
+            this.packets = packets;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package Monitoring;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * <p>TraceDecoder - чтение файла пакетной трассировки {@link PacketTrace} вне работающего приложения.</p>
+ *
+ * <p>Запуск: {@code java -cp <jar> Monitoring.TraceDecoder <файл трассировки>} - записи выводятся
+ * в стандартный вывод в формате CSV, итог по событиям - в поток ошибок.</p>
+ */
+public final class TraceDecoder {
+
+    /**
+     * <p>Запись трассировки.</p>
+     *
+     * @param timestamp время события от эпохи в наносекундах
+     * @param event событие
+     * @param session номер сессии
+     * @param sequence порядковый номер пакета
+     * @param length длина полезной нагрузки или количество пропущенных пакетов
+     */
+    public record TraceRecord(long timestamp, TraceEvent event, int session, long sequence, int length) {
+    }
+
+    /**
+     * <p>Закрытый конструктор: класс содержит только статические методы.</p>
+     */
+    private TraceDecoder() {
+    }
+
+    /**
+     * <p>Читает файл трассировки и передает записи обработчику по порядку.</p>
+     *
+     * @param file файл трассировки
+     * @param consumer обработчик записей
+     * @return частота трассировки N, с которой записан файл
+     * @throws IOException если файл не удалось прочитать или он не является файлом трассировки
+     */
+    public static int read(Path file, Consumer<TraceRecord> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(PacketTrace.RECORD_SIZE * 4_096);
+            buffer.limit(PacketTrace.HEADER_SIZE);
+            readFully(channel, buffer);
+            if (buffer.position() < PacketTrace.HEADER_SIZE || buffer.getLong(0) != PacketTrace.MAGIC) {
+                throw new IOException("Not a packet trace file: " + file);
+            }
+            int sampleEvery = buffer.getInt(Long.BYTES);
+            buffer.clear();
+            while (channel.read(buffer) > 0 || buffer.position() > 0) {
+                buffer.flip();
+                while (buffer.remaining() >= PacketTrace.RECORD_SIZE) {
+                    long timestamp = buffer.getLong();
+                    long packed = buffer.getLong();
+                    long sequence = buffer.getLong();
+                    consumer.accept(new TraceRecord(timestamp, TraceEvent.fromCode((int) (packed >>> 56)),
+                            (int) ((packed >>> 32) & 0xFF_FFFF), sequence, (int) packed));
+                }
+                if (buffer.hasRemaining() && channel.position() == channel.size()) {
+                    throw new IOException("Truncated packet trace record in " + file);
+                }
+                buffer.compact();
+            }
+            return sampleEvery;
+        }
+    }
+
+    /**
+     * <p>Выводит записи файла трассировки в формате CSV.</p>
+     *
+     * @param args путь к файлу трассировки
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Usage: TraceDecoder <trace file>");
+            System.exit(2);
+        }
+        long[] counts = new long[TraceEvent.values().length];
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        try {
+            out.write("time_ns,event,session,sequence,length\n");
+            int sampleEvery = read(Path.of(args[0]), traceRecord -> {
+                counts[traceRecord.event().ordinal()]++;
+                try {
+                    out.write(format(traceRecord));
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            out.flush();
+            System.err.println("Sampling: every " + sampleEvery + " packet(s)");
+            for (TraceEvent event : TraceEvent.values()) {
+                System.err.println(event + ": " + counts[event.ordinal()]);
+            }
+        } catch (IOException | IllegalStateException e) {
+            System.err.println("Error reading packet trace: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * <p>Форматирует запись строкой CSV.</p>
+     *
+     * @param traceRecord запись
+     * @return строка CSV с переводом строки
+     */
+    public static String format(TraceRecord traceRecord) {
+        return traceRecord.timestamp() + "," + traceRecord.event() + "," + traceRecord.session() + ","
+                + traceRecord.sequence() + "," + traceRecord.length() + "\n";
+    }
+
+    /**
+     * <p>Читает из канала, пока буфер не заполнится или файл не закончится.</p>
+     *
+     * @param channel канал файла
+     * @param buffer буфер
+     * @throws IOException если возникает ошибка чтения
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+            // читаем дальше
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package Monitoring;
+
+/**
+ * <p>TraceEvent - виды событий пакетной трассировки {@link PacketTrace}.</p>
+ */
+public enum TraceEvent {
+    /**
+     * <p>Генератор отправил пакет.</p>
+     */
+    SENT(true),
+    /**
+     * <p>Приемник принял пакет.</p>
+     */
+    RECEIVED(true),
+    /**
+     * <p>Приемник обнаружил пропуск номеров; в поле длины записывается количество пропущенных пакетов.</p>
+     */
+    GAP(false),
+    /**
+     * <p>Контрольная сумма принятого пакета не совпала.</p>
+     */
+    CHECKSUM_ERROR(false);
+
+    private static final TraceEvent[] VALUES = values();
+
+    private final boolean sampled;
+
+    /**
+     * <p>Конструктор события.</p>
+     *
+     * @param sampled true - событие записывается только для выбранных номеров пакетов
+     */
+    TraceEvent(boolean sampled) {
+        this.sampled = sampled;
+    }
+
+    /**
+     * <p>Показывает, прореживается ли событие. Редкие события записываются всегда.</p>
+     *
+     * @return true, если событие записывается только для выбранных номеров пакетов
+     */
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    /**
+     * <p>Возвращает событие по его коду в файле трассировки.</p>
+     *
+     * @param code порядковый номер события
+     * @return событие
+     * @throws IllegalArgumentException если код неизвестен
+     */
+    public static TraceEvent fromCode(int code) {
+        if (code < 0 || code >= VALUES.length) {
+            throw new IllegalArgumentException("Unknown trace event: " + code);
+        }
+        return VALUES[code];
+    }
+}
@@ -0,0 +1,63 @@
+package Monitoring;
+
+import NetworkConnection.Transport;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * <p>WriteStallEvent - событие JFR для записи в сокет, которая заняла больше порога.</p>
+ *
+ * <p>Запись блокируется, когда буфер отправки сокета полон. Порог по умолчанию - 1 мс: более быстрые записи
+ * отбрасываются проверкой {@link #shouldCommit()} без записи полей, а событие с трассой стека показывает,
+ * где отправка ждала сеть.</p>
+ */
+@Name(WriteStallEvent.NAME)
+@Label("Socket Write Stall")
+@Category({"Traffic Generator"})
+@Description("Socket write that blocked longer than the threshold")
+@Threshold("1 ms")
+public class WriteStallEvent extends jdk.jfr.Event {
+
+    /**
+     * <p>Имя события в записи JFR.</p>
+     */
+    public static final String NAME = "traffic.WriteStall";
+
+    @Label("Transport")
+    String transport;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    /**
+     * <p>Создает событие и отмечает начало записи.</p>
+     *
+     * @return начатое событие
+     */
+    public static WriteStallEvent start() {
+        WriteStallEvent event = new WriteStallEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * <p>Отмечает окончание записи и фиксирует событие, если запись длилась дольше порога.</p>
+     *
+     * @param transport транспорт соединения
+     * @param bytes количество записанных байт
+     */
+    public void complete(Transport transport, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.transport = transport.name();
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
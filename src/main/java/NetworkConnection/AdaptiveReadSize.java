@@ -0,0 +1,65 @@
+package NetworkConnection;
+
+/**
+ * <p>AdaptiveReadSize - класс для подбора размера чтения из сокета по заполнению предыдущих чтений.</p>
+ *
+ * <p>Если чтение заполнило весь запрошенный размер, в сокете, скорее всего, есть еще данные, и размер
+ * удваивается: при высокой скорости одно большое чтение заменяет десятки мелких системных вызовов.
+ * Если несколько чтений подряд заполнили меньше четверти, размер уменьшается вдвое, чтобы медленные
+ * соединения не гоняли через кеш процессора большие буферы. Размер всегда остается степенью двойки.</p>
+ */
+public class AdaptiveReadSize {
+    private static final int SHRINK_AFTER = 4;
+    private final int minSize;
+    private final int maxSize;
+    private int size;
+    private int smallReads;
+
+    /**
+     * <p>Конструктор класса AdaptiveReadSize.</p>
+     *
+     * @param minSize минимальный размер чтения (степень двойки)
+     * @param initialSize начальный размер чтения
+     * @param maxSize максимальный размер чтения (степень двойки)
+     * @throws IllegalArgumentException если размеры не степени двойки или начальный размер вне диапазона
+     */
+    public AdaptiveReadSize(int minSize, int initialSize, int maxSize) {
+        if (Integer.bitCount(minSize) != 1 || Integer.bitCount(maxSize) != 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Read sizes must be powers of two with min <= max");
+        }
+        if (initialSize < minSize || initialSize > maxSize) {
+            throw new IllegalArgumentException("Initial read size must be between " + minSize + " and " + maxSize);
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.size = Integer.highestOneBit(initialSize);
+    }
+
+    /**
+     * <p>Возвращает размер следующего чтения.</p>
+     *
+     * @return размер в байтах
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * <p>Учитывает результат чтения и при необходимости меняет размер следующего.</p>
+     *
+     * @param bytesRead количество прочитанных байт
+     */
+    public void record(int bytesRead) {
+        if (bytesRead >= size) {
+            size = Math.min(maxSize, size << 1);
+            smallReads = 0;
+        } else if (bytesRead < size >> 2 && size > minSize) {
+            if (++smallReads >= SHRINK_AFTER) {
+                size >>= 1;
+                smallReads = 0;
+            }
+        } else {
+            smallReads = 0;
+        }
+    }
+}
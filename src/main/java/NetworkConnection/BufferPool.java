@@ -0,0 +1,73 @@
+package NetworkConnection;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * <p>BufferPool - класс пула прямых буферов {@link ByteBuffer} одинакового размера.</p>
+ *
+ * <p>Прямые буферы дорого создавать и освобождать, поэтому отправители и приемники берут их
+ * из пула на время сессии и возвращают по ее окончании. Буферы сверх лимита пула не хранятся.</p>
+ */
+public class BufferPool {
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ArrayDeque<ByteBuffer> buffers = new ArrayDeque<>();
+
+    /**
+     * <p>Конструктор класса BufferPool.</p>
+     *
+     * @param bufferSize размер каждого буфера в байтах
+     * @param maxPooled максимальное количество буферов, хранимых в пуле
+     * @throws IllegalArgumentException если параметры не положительны
+     */
+    public BufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize <= 0 || maxPooled <= 0) {
+            throw new IllegalArgumentException("Buffer size and pool size must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * <p>Возвращает размер буферов пула.</p>
+     *
+     * @return размер буфера в байтах
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * <p>Берет очищенный буфер из пула или создает новый, если пул пуст.</p>
+     *
+     * @return прямой буфер размером {@link #getBufferSize()}
+     */
+    public synchronized ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.pollFirst();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        return buffer.clear();
+    }
+
+    /**
+     * <p>Возвращает буфер в пул.</p>
+     *
+     * @param buffer буфер, полученный через {@link #acquire()}
+     */
+    public synchronized void release(ByteBuffer buffer) {
+        if (buffer != null && buffer.capacity() == bufferSize && buffer.isDirect() && buffers.size() < maxPooled) {
+            buffers.addFirst(buffer);
+        }
+    }
+
+    /**
+     * <p>Возвращает количество свободных буферов в пуле.</p>
+     *
+     * @return количество буферов
+     */
+    public synchronized int available() {
+        return buffers.size();
+    }
+}
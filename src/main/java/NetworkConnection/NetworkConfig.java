@@ -15,6 +15,169 @@ public class NetworkConfig {
      */
     public static final int PORT = 12345;
 
+    /**
+     * <p>Максимальный размер одной записи в сокет в пакетном режиме отправки.</p>
+     */
+    public static final int BATCH_BYTES = 64 * 1024;
+
+    /**
+     * <p>Максимальное время, которое пакет может ждать в буфере в пакетном режиме отправки.</p>
+     */
+    public static final long BATCH_MAX_DELAY_NANOS = 1_000_000;
+
+    /**
+     * <p>Размер прямых буферов, из которых отправляются данные в транспорте NIO.</p>
+     */
+    public static final int DIRECT_BUFFER_SIZE = 16 * 1024;
+
+    /**
+     * <p>Максимальный размер полезных данных датаграммы UDP.</p>
+     */
+    public static final int MAX_DATAGRAM_SIZE = 65_507;
+
+    /**
+     * <p>Размер приемного буфера сокета UDP. Большой буфер сглаживает всплески при высокой скорости пакетов.</p>
+     */
+    public static final int DATAGRAM_RECEIVE_BUFFER = 4 * 1024 * 1024;
+
+    /**
+     * <p>Время ожидания ответа приемника по управляющему соединению в миллисекундах.</p>
+     */
+    public static final int CONTROL_TIMEOUT_MS = 5_000;
+
+    /**
+     * <p>Время, в течение которого приемник дочитывает датаграммы после конца сессии, в миллисекундах.</p>
+     */
+    public static final int DATAGRAM_DRAIN_MS = 50;
+
+    /**
+     * <p>Количество потоков с селекторами у приемника по умолчанию: половина ядер, от 1 до 4.
+     * Один поток селектора обслуживает сотни соединений, поэтому больше потоков обычно не нужно.</p>
+     */
+    public static final int DEFAULT_SELECTOR_THREADS =
+            Math.clamp(Runtime.getRuntime().availableProcessors() / 2, 1, 4);
+
+    /**
+     * <p>Наименьший размер одного чтения из сокета приемника.</p>
+     */
+    public static final int MIN_READ_SIZE = 4 * 1024;
+
+    /**
+     * <p>Начальный размер одного чтения из сокета приемника; дальше он подбирается по заполнению чтений.</p>
+     */
+    public static final int INITIAL_READ_SIZE = 64 * 1024;
+
+    /**
+     * <p>Наибольший размер одного чтения из сокета приемника и размер его прямых буферов чтения.</p>
+     */
+    public static final int MAX_READ_SIZE = 1024 * 1024;
+
+    /**
+     * <p>Интервал вывода текущей скорости и потерь во время сессии по умолчанию, в миллисекундах.</p>
+     */
+    public static final long SAMPLE_INTERVAL_MS = 1_000;
+
+    /**
+     * <p>Количество записей в кольцевом буфере пакетной трассировки (32 байта на запись).</p>
+     */
+    public static final int TRACE_CAPACITY = 1 << 16;
+
+    /**
+     * <p>Период переноса записей пакетной трассировки в файл, в миллисекундах.</p>
+     */
+    public static final long TRACE_DRAIN_MS = 100;
+
+    /**
+     * <p>Количество отправленных пакетов, на которое фиксируется одно событие JFR {@link Monitoring.PacketsSentEvent}.</p>
+     */
+    public static final int JFR_BATCH_PACKETS = 1_024;
+
+    /**
+     * <p>Размер участка файла захвата, который отображается в память за один раз.</p>
+     */
+    public static final int CAPTURE_REGION_BYTES = 16 * 1024 * 1024;
+
+    /**
+     * <p>Наибольший размер файла захвата; пакеты сверх него не записываются.</p>
+     */
+    public static final long CAPTURE_MAX_BYTES = 1024L * 1024 * 1024;
+
+    /**
+     * <p>Имя системного свойства и параметра запуска, задающего транспорт (stream, nio или udp).</p>
+     */
+    public static final String TRANSPORT_PROPERTY = "transport";
+
+    /**
+     * <p>Имя системного свойства и параметра запуска, задающего модель потоков (platform или virtual).</p>
+     */
+    public static final String THREADS_PROPERTY = "threads";
+
+    /**
+     * <p>Имя системного свойства и параметра запуска, задающего количество соединений приемника.</p>
+     */
+    public static final String CONNECTIONS_PROPERTY = "connections";
+
+    /**
+     * <p>Имя системного свойства и параметра запуска, задающего количество потоков с селекторами приемника.</p>
+     */
+    public static final String SELECTORS_PROPERTY = "selectors";
+
+    /**
+     * <p>Имя системного свойства и параметра запуска, задающего режим приема (full или discard).</p>
+     */
+    public static final String RECEIVE_MODE_PROPERTY = "receive";
+
+    /**
+     * <p>Имя системного свойства и параметра запуска, задающего файл CSV для гистограммы задержек приемника.</p>
+     */
+    public static final String LATENCY_CSV_PROPERTY = "latency-csv";
+
+    /**
+     * <p>Имя системного свойства и параметра запуска, задающего интервал вывода текущей скорости в миллисекундах.</p>
+     */
+    public static final String SAMPLE_INTERVAL_PROPERTY = "sample-interval";
+
+    /**
+     * <p>Имя системного свойства и параметра запуска, включающего пакетную трассировку каждого N-го пакета.</p>
+     */
+    public static final String TRACE_SAMPLE_PROPERTY = "trace-sample";
+
+    /**
+     * <p>Имя системного свойства и параметра запуска, задающего файл пакетной трассировки.</p>
+     */
+    public static final String TRACE_FILE_PROPERTY = "trace-file";
+
+    /**
+     * <p>Имя системного свойства и параметра запуска, задающего порт HTTP-сервера метрик Prometheus.</p>
+     */
+    public static final String METRICS_PORT_PROPERTY = "metrics-port";
+
+    /**
+     * <p>Имя системного свойства и параметра запуска, включающего сохранение итогов сессий в файл
+     * (true - файл по умолчанию или путь к файлу).</p>
+     */
+    public static final String RESULTS_STORE_PROPERTY = "results-store";
+
+    /**
+     * <p>Имя системного свойства и параметра запуска, задающего файл захвата первой принятой сессии.</p>
+     */
+    public static final String CAPTURE_PROPERTY = "capture";
+
+    /**
+     * <p>Имя системного свойства и параметра запуска, включающего запись полезной нагрузки в файл захвата.</p>
+     */
+    public static final String CAPTURE_PAYLOAD_PROPERTY = "capture-payload";
+
+    /**
+     * <p>Имя системного свойства и параметра запуска, задающего воспроизводимый генератором файл захвата.</p>
+     */
+    public static final String REPLAY_PROPERTY = "replay";
+
+    /**
+     * <p>Имя системного свойства и параметра запуска, задающего коэффициент скорости воспроизведения.</p>
+     */
+    public static final String REPLAY_SPEED_PROPERTY = "replay-speed";
+
     /**
      * <p>Конструктор по умолчанию.</p>
      */
@@ -1,16 +1,20 @@
 package NetworkConnection;
 
 import ErrorHandler.ErrorHandler;
+import Output.OutputSink;
 
-import javafx.application.Platform;
-import javafx.scene.control.TextArea;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import java.io.IOException;
 import java.net.BindException;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
+import java.nio.channels.ServerSocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * <p>NetworkConnection - класс для управления сетевыми соединениями.
@@ -27,10 +31,15 @@ public class NetworkConnection {
     protected ServerSocket serverSocket;
 
     /**
-     * <p>Сокет для установления соединения с клиентом.</p>
+     * <p>Сокет для установления соединения с клиентом (последний принятый).</p>
      */
     protected Socket socket;
 
+    /**
+     * <p>Все принятые соединения с клиентами.</p>
+     */
+    protected final List<Socket> clients = new CopyOnWriteArrayList<>();
+
     /**
      * <p>Конструктор, создающий серверный сокет на заданном порту.</p>
      *
@@ -38,9 +47,33 @@ public class NetworkConnection {
      * @throws IOException если возникла ошибка при создании сокета
      */
     public NetworkConnection(int port) throws IOException {
+        this(port, Transport.STREAM);
+    }
+
+    /**
+     * <p>Конструктор, создающий серверный сокет на заданном порту для выбранного транспорта.</p>
+     * <p>Для {@link Transport#NIO} сокет создается через {@link ServerSocketChannel}, поэтому
+     * у принятых сокетов есть канал {@link Socket#getChannel()}.</p>
+     *
+     * @param port порт, на котором будет создан серверный сокет
+     * @param transport транспорт для передачи данных
+     * @throws IOException если возникла ошибка при создании сокета
+     */
+    public NetworkConnection(int port, Transport transport) throws IOException {
         try {
-            serverSocket = new ServerSocket(port);
-            logger.info("The server socket is created on the port {}", port);
+            if (transport == Transport.NIO) {
+                ServerSocketChannel serverChannel = ServerSocketChannel.open();
+                try {
+                    serverChannel.bind(new InetSocketAddress(port));
+                } catch (IOException e) {
+                    serverChannel.close();
+                    throw e;
+                }
+                serverSocket = serverChannel.socket();
+            } else {
+                serverSocket = new ServerSocket(port);
+            }
+            logger.info("The server socket is created on the port {} ({})", port, transport);
         } catch (BindException e) {
             ErrorHandler.handleBindError("Port " + port + " is already in use", e);
             logger.error("Port {} is already in use", port);
@@ -62,27 +95,68 @@ public class NetworkConnection {
     }
 
     /**
-     * <p>Метод, который прослушивает входящие соединения и обновляет интерфейс.</p>
+     * <p>Метод, который прослушивает входящие соединения и сообщает о подключившихся клиентах.</p>
+     * <p>Возвращает управление после {@link #stopListening()}; закрытие серверного сокета при этом ошибкой не считается.</p>
      *
-     * @param outputArea область текста для отображения информации о клиентах
+     * @param outputArea приемник сообщений о клиентах
      */
-    public void listenForConnections(TextArea outputArea) {
+    public void listenForConnections(OutputSink outputArea) {
         while (listening) {
             try {
                 socket = serverSocket.accept();
+                clients.add(socket);
                 String clientIP = socket.getInetAddress().getHostAddress();
                 logger.info("The client is connected: {}", clientIP);
-                Platform.runLater(() -> {
-                    outputArea.appendText("The client is connected: " + clientIP + "\n");
-                });
+                outputArea.appendText("The client is connected: " + clientIP + "\n");
             } catch (SocketException e) {
+                if (!listening) {
+                    logger.info("Stopped listening for connections");
+                    break;
+                }
                 ErrorHandler.handleSocketError("A socket error has occurred", e);
             } catch (IOException e) {
+                // Сокет, созданный каналом (транспорт NIO), при закрытии бросает AsynchronousCloseException
+                if (!listening) {
+                    logger.info("Stopped listening for connections");
+                    break;
+                }
                 ErrorHandler.handleError("An error occurred while accepting the connection", e);
             }
         }
     }
 
+    /**
+     * <p>Возвращает открытые соединения с клиентами. Закрытые соединения удаляются из списка.</p>
+     *
+     * @return список открытых соединений
+     */
+    public List<Socket> getClients() {
+        List<Socket> connected = new ArrayList<>();
+        for (Socket client : clients) {
+            if (client.isClosed()) {
+                clients.remove(client);
+            } else {
+                connected.add(client);
+            }
+        }
+        return connected;
+    }
+
+    /**
+     * <p>Закрывает соединение с клиентом и удаляет его из списка.</p>
+     *
+     * @param client соединение с клиентом
+     */
+    protected void removeClient(Socket client) {
+        clients.remove(client);
+        try {
+            client.close();
+            logger.info("The client connection is closed: {}", client.getRemoteSocketAddress());
+        } catch (IOException e) {
+            ErrorHandler.handleError("Error closing the client connection", e);
+        }
+    }
+
     /**
      * <p>Метод для обработки соединений. Переопределяется в @see TrafficGenerator и @see TrafficReceiver.</p>
      *
@@ -108,6 +182,9 @@ public class NetworkConnection {
      */
     public void close() {
         try {
+            for (Socket client : clients) {
+                removeClient(client);
+            }
             if (socket != null && !socket.isClosed()) {
                 socket.close();
 
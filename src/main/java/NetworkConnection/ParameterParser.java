@@ -0,0 +1,106 @@
+package NetworkConnection;
+
+/**
+ * <p>ParameterParser - разбор числовых параметров запуска с проверкой диапазона.</p>
+ *
+ * <p>Параметры приходят строками из командной строки, системных свойств или параметров запуска графического
+ * приложения, поэтому разбор не зависит от их источника. Ошибки сообщаются {@link IllegalArgumentException}
+ * с описанием параметра и допустимого диапазона, которое можно показать пользователю.</p>
+ */
+public final class ParameterParser {
+
+    /**
+     * <p>Закрытый конструктор: класс содержит только статические методы.</p>
+     */
+    private ParameterParser() {
+    }
+
+    /**
+     * <p>Разбирает целое значение параметра; незаданный параметр получает значение по умолчанию.</p>
+     *
+     * @param description описание параметра для сообщения об ошибке
+     * @param value значение или null
+     * @param defaultValue значение, если параметр не задан или пуст
+     * @param min наименьшее допустимое значение
+     * @param max наибольшее допустимое значение
+     * @return значение параметра
+     * @throws IllegalArgumentException если значение не целое или вне диапазона
+     */
+    public static int parseInt(String description, String value, int defaultValue, int min, int max) {
+        return (int) parseLong(description, value, defaultValue, min, max);
+    }
+
+    /**
+     * <p>Разбирает длинное целое значение параметра; незаданный параметр получает значение по умолчанию.</p>
+     *
+     * @param description описание параметра для сообщения об ошибке
+     * @param value значение или null
+     * @param defaultValue значение, если параметр не задан или пуст
+     * @param min наименьшее допустимое значение
+     * @param max наибольшее допустимое значение
+     * @return значение параметра
+     * @throws IllegalArgumentException если значение не целое или вне диапазона
+     */
+    public static long parseLong(String description, String value, long defaultValue, long min, long max) {
+        return value == null || value.isBlank() ? defaultValue : checkLong(description, value, min, max);
+    }
+
+    /**
+     * <p>Разбирает положительное дробное значение параметра; незаданный параметр получает значение по умолчанию.</p>
+     *
+     * @param description описание параметра для сообщения об ошибке
+     * @param value значение или null
+     * @param defaultValue значение, если параметр не задан или пуст
+     * @return значение параметра
+     * @throws IllegalArgumentException если значение не число или не положительно
+     */
+    public static double parsePositive(String description, String value, double defaultValue) {
+        return value == null || value.isBlank() ? defaultValue : checkDecimal(description, value, true);
+    }
+
+    /**
+     * <p>Разбирает заданное целое значение параметра в диапазоне.</p>
+     *
+     * @param description описание параметра для сообщения об ошибке
+     * @param value значение
+     * @param min наименьшее допустимое значение
+     * @param max наибольшее допустимое значение
+     * @return значение
+     * @throws IllegalArgumentException если значение не целое или вне диапазона
+     */
+    public static long checkLong(String description, String value, long min, long max) {
+        try {
+            long parsed = Long.parseLong(value.trim());
+            if (parsed >= min && parsed <= max) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // Некорректное значение обрабатывается ниже так же, как значение вне диапазона
+        }
+        String range = max == Integer.MAX_VALUE || max == Long.MAX_VALUE
+                ? "integer >= " + min : "integer " + min + ".." + max;
+        throw new IllegalArgumentException("Invalid " + description + ": " + value + " (" + range + ")");
+    }
+
+    /**
+     * <p>Разбирает заданное неотрицательное или положительное дробное значение параметра.</p>
+     *
+     * @param description описание параметра для сообщения об ошибке
+     * @param value значение
+     * @param positive true - значение должно быть больше нуля, false - не меньше нуля
+     * @return значение
+     * @throws IllegalArgumentException если значение не число или вне диапазона
+     */
+    public static double checkDecimal(String description, String value, boolean positive) {
+        try {
+            double parsed = Double.parseDouble(value.trim());
+            if (Double.isFinite(parsed) && (positive ? parsed > 0 : parsed >= 0)) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // Некорректное значение обрабатывается ниже так же, как значение вне диапазона
+        }
+        throw new IllegalArgumentException("Invalid " + description + ": " + value
+                + (positive ? " (number > 0)" : " (number >= 0)"));
+    }
+}
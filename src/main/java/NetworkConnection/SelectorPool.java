@@ -0,0 +1,304 @@
+package NetworkConnection;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>SelectorPool - пул потоков с селекторами для чтения из множества неблокирующих соединений.</p>
+ *
+ * <p>Каждый поток владеет своим {@link Selector} и прямым буфером чтения из {@link BufferPool}: данные
+ * читаются из сокета прямо в него, без промежуточного копирования в кучу. Размер каждого чтения подбирается
+ * для соединения отдельно ({@link AdaptiveReadSize}). Новое соединение закрепляется за потоком,
+ * у которого сейчас меньше всего соединений, и дальше обслуживается только им, поэтому обработчику соединения
+ * не нужна синхронизация. Поток просыпается сразу, как только в сокете появились данные, и передает
+ * прочитанное обработчику {@link Handler}.</p>
+ *
+ * <p>Потоки селекторов всегда платформенные: ожидание в {@link Selector#select()} занимает поток-носитель
+ * виртуального потока, а самих потоков немного.</p>
+ */
+public class SelectorPool implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(SelectorPool.class);
+
+    /**
+     * <p>Сколько раз подряд поток читает из одного соединения, пока буфер заполняется целиком.
+     * Ограничение не дает быстрому соединению занять поток и задержать остальные.</p>
+     */
+    private static final int MAX_READS_PER_WAKEUP = 16;
+
+    /**
+     * <p>Handler - обработчик данных одного соединения. Все методы вызываются потоком селектора.</p>
+     */
+    public interface Handler {
+
+        /**
+         * <p>Вызывается для каждой прочитанной порции данных. Буфер действителен только во время вызова.</p>
+         *
+         * @param buffer буфер с данными между position и limit
+         * @throws IOException если данные некорректны; соединение будет закрыто
+         */
+        void onData(ByteBuffer buffer) throws IOException;
+
+        /**
+         * <p>Вызывается один раз после закрытия соединения: удаленной стороной, из-за ошибки или при закрытии пула.</p>
+         */
+        void onClosed();
+    }
+
+    private final SelectorLoop[] loops;
+    private final BufferPool bufferPool;
+    private final int minReadSize;
+    private final int maxReadSize;
+
+    /**
+     * <p>Конструктор класса SelectorPool: запускает потоки селекторов.</p>
+     *
+     * @param threads количество потоков
+     * @param maxReadSize максимальный размер одного чтения и буфера каждого потока в байтах (степень двойки)
+     * @throws IOException если не удалось открыть селектор
+     * @throws IllegalArgumentException если количество потоков не положительно или размер не степень двойки
+     */
+    public SelectorPool(int threads, int maxReadSize) throws IOException {
+        if (threads <= 0 || Integer.bitCount(maxReadSize) != 1) {
+            throw new IllegalArgumentException("Thread count must be positive and read size a power of two");
+        }
+        this.maxReadSize = maxReadSize;
+        this.minReadSize = Math.min(NetworkConfig.MIN_READ_SIZE, maxReadSize);
+        this.bufferPool = new BufferPool(maxReadSize, threads);
+        loops = new SelectorLoop[threads];
+        try {
+            for (int i = 0; i < threads; i++) {
+                loops[i] = new SelectorLoop(bufferPool);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+        for (int i = 0; i < threads; i++) {
+            loops[i].thread = ThreadMode.PLATFORM.start("receiver-selector-" + i, loops[i]);
+        }
+        logger.info("SelectorPool started: {} threads, reads of {} to {} bytes", threads, minReadSize, maxReadSize);
+    }
+
+    /**
+     * <p>Переводит соединение в неблокирующий режим и закрепляет его за наименее загруженным потоком.</p>
+     *
+     * @param channel подключенный канал
+     * @param handler обработчик данных соединения
+     * @throws IOException если не удалось перевести канал в неблокирующий режим
+     */
+    public void register(SocketChannel channel, Handler handler) throws IOException {
+        channel.configureBlocking(false);
+        SelectorLoop loop = loops[0];
+        for (SelectorLoop candidate : loops) {
+            if (candidate.connections.get() < loop.connections.get()) {
+                loop = candidate;
+            }
+        }
+        loop.connections.incrementAndGet();
+        int initialSize = Math.clamp(NetworkConfig.INITIAL_READ_SIZE, minReadSize, maxReadSize);
+        loop.pending.add(new Registration(channel, handler,
+                new AdaptiveReadSize(minReadSize, initialSize, maxReadSize)));
+        loop.selector.wakeup();
+        logger.info("Connection {} registered with {}", channel.getRemoteAddress(), loop.thread.getName());
+    }
+
+    /**
+     * <p>Возвращает количество потоков селекторов.</p>
+     *
+     * @return количество потоков
+     */
+    public int getThreads() {
+        return loops.length;
+    }
+
+    /**
+     * <p>Возвращает количество открытых соединений во всех потоках.</p>
+     *
+     * @return количество соединений
+     */
+    public int getConnections() {
+        int connections = 0;
+        for (SelectorLoop loop : loops) {
+            connections += loop.connections.get();
+        }
+        return connections;
+    }
+
+    /**
+     * <p>Останавливает потоки селекторов и закрывает все соединения.</p>
+     */
+    @Override
+    public void close() {
+        for (SelectorLoop loop : loops) {
+            if (loop != null) {
+                loop.running = false;
+                loop.selector.wakeup();
+            }
+        }
+        for (SelectorLoop loop : loops) {
+            if (loop != null && loop.thread == null) {
+                loop.shutdown();
+            } else if (loop != null) {
+                try {
+                    loop.thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    logger.warn("Interrupted while stopping selector threads");
+                    return;
+                }
+            }
+        }
+        logger.info("SelectorPool closed");
+    }
+
+    /**
+     * <p>Registration - соединение потока селектора: канал, обработчик и размер чтения.</p>
+     *
+     * @param channel канал соединения
+     * @param handler обработчик данных соединения
+     * @param readSize размер чтения соединения
+     */
+    private record Registration(SocketChannel channel, Handler handler, AdaptiveReadSize readSize) {
+    }
+
+    /**
+     * <p>SelectorLoop - цикл одного потока селектора.</p>
+     */
+    private static final class SelectorLoop implements Runnable {
+        private final Selector selector;
+        private final BufferPool bufferPool;
+        private final ByteBuffer readBuffer;
+        private final Queue<Registration> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger connections = new AtomicInteger();
+        private volatile boolean running = true;
+        private Thread thread;
+
+        /**
+         * <p>Конструктор класса SelectorLoop.</p>
+         *
+         * @param bufferPool пул, из которого берется буфер чтения
+         * @throws IOException если не удалось открыть селектор
+         */
+        private SelectorLoop(BufferPool bufferPool) throws IOException {
+            this.selector = Selector.open();
+            this.bufferPool = bufferPool;
+            this.readBuffer = bufferPool.acquire();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select();
+                    registerPending();
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        if (key.isValid() && key.isReadable()) {
+                            read(key);
+                        }
+                    }
+                    selector.selectedKeys().clear();
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                logger.error("Selector thread failed: {}", e.getMessage());
+            } finally {
+                shutdown();
+            }
+        }
+
+        /**
+         * <p>Регистрирует в селекторе соединения, добавленные другими потоками.</p>
+         */
+        private void registerPending() {
+            Registration registration;
+            while ((registration = pending.poll()) != null) {
+                try {
+                    registration.channel().register(selector, SelectionKey.OP_READ, registration);
+                } catch (IOException e) {
+                    logger.warn("Cannot register connection: {}", e.getMessage());
+                    closeConnection(registration.channel(), registration.handler());
+                }
+            }
+        }
+
+        /**
+         * <p>Читает доступные данные соединения и передает их обработчику.</p>
+         *
+         * @param key ключ соединения
+         */
+        private void read(SelectionKey key) {
+            SocketChannel channel = (SocketChannel) key.channel();
+            Registration connection = (Registration) key.attachment();
+            AdaptiveReadSize readSize = connection.readSize();
+            try {
+                for (int i = 0; i < MAX_READS_PER_WAKEUP; i++) {
+                    int limit = readSize.size();
+                    int bytesRead = channel.read(readBuffer.clear().limit(limit));
+                    if (bytesRead == -1) {
+                        logger.info("Connection closed by peer: {}", channel.getRemoteAddress());
+                        key.cancel();
+                        closeConnection(channel, connection.handler());
+                        return;
+                    }
+                    readSize.record(bytesRead);
+                    if (bytesRead > 0) {
+                        connection.handler().onData(readBuffer.flip());
+                    }
+                    if (bytesRead < limit) {
+                        return;
+                    }
+                }
+            } catch (IOException e) {
+                logger.warn("Closing connection after error: {}", e.getMessage());
+                key.cancel();
+                closeConnection(channel, connection.handler());
+            }
+        }
+
+        /**
+         * <p>Закрывает соединение и сообщает об этом обработчику.</p>
+         *
+         * @param channel канал соединения
+         * @param handler обработчик соединения
+         */
+        private void closeConnection(SocketChannel channel, Handler handler) {
+            connections.decrementAndGet();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("Error closing connection: {}", e.getMessage());
+            }
+            handler.onClosed();
+        }
+
+        /**
+         * <p>Закрывает все соединения потока и его селектор.</p>
+         */
+        private void shutdown() {
+            Registration registration;
+            while ((registration = pending.poll()) != null) {
+                closeConnection(registration.channel(), registration.handler());
+            }
+            for (SelectionKey key : selector.keys()) {
+                // Отмененные ключи остаются в наборе до следующего select; их соединения уже закрыты в read
+                if (key.isValid()) {
+                    closeConnection((SocketChannel) key.channel(), ((Registration) key.attachment()).handler());
+                }
+            }
+            bufferPool.release(readBuffer);
+            try {
+                selector.close();
+            } catch (IOException e) {
+                logger.warn("Error closing selector: {}", e.getMessage());
+            }
+        }
+    }
+}
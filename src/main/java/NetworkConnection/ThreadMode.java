@@ -0,0 +1,90 @@
+package NetworkConnection;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * <p>ThreadMode - перечисление моделей потоков для сессий генератора и обработчиков приемника.</p>
+ *
+ * <p>В режиме {@link #VIRTUAL} каждое соединение обслуживается виртуальным потоком: блокирующий код
+ * сокетов не меняется, но при ожидании ввода-вывода поток освобождает поток-носитель, поэтому
+ * одна JVM выдерживает десятки тысяч медленных соединений.</p>
+ */
+public enum ThreadMode {
+    /**
+     * <p>Обычные потоки операционной системы.</p>
+     */
+    PLATFORM {
+        @Override
+        Thread.Builder builder() {
+            return Thread.ofPlatform();
+        }
+    },
+
+    /**
+     * <p>Виртуальные потоки, по одному на соединение.</p>
+     */
+    VIRTUAL {
+        @Override
+        Thread.Builder builder() {
+            return Thread.ofVirtual();
+        }
+    };
+
+    /**
+     * <p>Возвращает построитель потоков этого режима.</p>
+     *
+     * @return построитель потоков
+     */
+    abstract Thread.Builder builder();
+
+    /**
+     * <p>Возвращает фабрику потоков с именами вида name-N.</p>
+     *
+     * @param name префикс имени потоков
+     * @return фабрика потоков
+     */
+    public ThreadFactory factory(String name) {
+        return builder().name(name + "-", 0).factory();
+    }
+
+    /**
+     * <p>Создает исполнитель, запускающий каждую задачу в отдельном потоке этого режима.</p>
+     *
+     * @param name префикс имени потоков
+     * @return исполнитель задач
+     */
+    public ExecutorService newExecutor(String name) {
+        return Executors.newThreadPerTaskExecutor(factory(name));
+    }
+
+    /**
+     * <p>Запускает задачу в новом потоке этого режима.</p>
+     *
+     * @param name имя потока
+     * @param task задача
+     * @return запущенный поток
+     */
+    public Thread start(String name, Runnable task) {
+        return builder().name(name).start(task);
+    }
+
+    /**
+     * <p>Возвращает режим по имени без учета регистра.</p>
+     *
+     * @param name имя режима; null или пустая строка - {@link #PLATFORM}
+     * @return режим потоков
+     * @throws IllegalArgumentException если режим с таким именем не существует
+     */
+    public static ThreadMode parse(String name) {
+        if (name == null || name.isBlank()) {
+            return PLATFORM;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown thread mode: " + name);
+        }
+    }
+}
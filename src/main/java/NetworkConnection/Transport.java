@@ -0,0 +1,49 @@
+package NetworkConnection;
+
+/**
+ * <p>Transport - перечисление способов передачи данных между генератором и приемником.</p>
+ */
+public enum Transport {
+    /**
+     * <p>Блокирующие потоки {@link java.net.Socket} и массивы байтов в куче.</p>
+     */
+    STREAM,
+
+    /**
+     * <p>{@link java.nio.channels.SocketChannel} с отправкой из прямых буферов {@link java.nio.ByteBuffer}.</p>
+     */
+    NIO,
+
+    /**
+     * <p>{@link java.nio.channels.DatagramChannel}: каждый пакет - одна датаграмма с порядковым номером.
+     * Управляющие сообщения сессии по-прежнему передаются через соединение TCP.</p>
+     */
+    UDP;
+
+    /**
+     * <p>Проверяет, передаются ли пакеты датаграммами.</p>
+     *
+     * @return true для {@link #UDP}
+     */
+    public boolean isDatagram() {
+        return this == UDP;
+    }
+
+    /**
+     * <p>Возвращает транспорт по имени без учета регистра.</p>
+     *
+     * @param name имя транспорта; null или пустая строка - {@link #STREAM}
+     * @return транспорт
+     * @throws IllegalArgumentException если транспорт с таким именем не существует
+     */
+    public static Transport parse(String name) {
+        if (name == null || name.isBlank()) {
+            return STREAM;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown transport: " + name);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package Output;
+
+/**
+ * <p>OutputSink - приемник текстовых сообщений генератора и приемника трафика.</p>
+ *
+ * <p>Классы отправки, приема и статистики пишут сообщения только через этот интерфейс и не зависят
+ * от JavaFX: в графическом интерфейсе сообщения выводит область вывода, в консольном режиме -
+ * поток ошибок процесса. Реализации должны допускать вызовы из любых потоков.</p>
+ */
+@FunctionalInterface
+public interface OutputSink {
+
+    /**
+     * <p>Приемник, который отбрасывает все сообщения.</p>
+     */
+    OutputSink NONE = text -> { };
+
+    /**
+     * <p>Выводит текст. Перевод строки, если он нужен, входит в текст.</p>
+     *
+     * @param text текст для вывода
+     */
+    void appendText(String text);
+}
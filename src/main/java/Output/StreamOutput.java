@@ -0,0 +1,29 @@
+package Output;
+
+import java.io.PrintStream;
+
+/**
+ * <p>StreamOutput - вывод сообщений в поток, например в поток ошибок консольного приложения.</p>
+ *
+ * <p>Вывод синхронизирован, поэтому сообщения разных потоков не перемешиваются внутри строки.</p>
+ */
+public class StreamOutput implements OutputSink {
+    private final PrintStream stream;
+
+    /**
+     * <p>Конструктор класса StreamOutput.</p>
+     *
+     * @param stream поток для вывода
+     */
+    public StreamOutput(PrintStream stream) {
+        this.stream = stream;
+    }
+
+    @Override
+    public void appendText(String text) {
+        synchronized (stream) {
+            stream.print(text);
+            stream.flush();
+        }
+    }
+}
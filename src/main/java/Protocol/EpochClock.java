@@ -0,0 +1,47 @@
+package Protocol;
+
+import java.time.Instant;
+
+/**
+ * <p>EpochClock - часы с наносекундным разрешением, отсчитываемые от эпохи Unix.</p>
+ *
+ * <p>{@link System#nanoTime()} монотонен, но не связан с календарным временем и различается между
+ * процессами. Часы один раз привязывают его к {@link Instant#now()} при загрузке класса, после чего
+ * время отправки, записанное генератором, можно сравнивать со временем приема в другом процессе
+ * на том же узле (или на узлах с синхронизированными часами).</p>
+ */
+public final class EpochClock {
+    private static final long BASE_EPOCH_NANOS;
+    private static final long BASE_NANO_TIME;
+
+    static {
+        Instant now = Instant.now();
+        BASE_NANO_TIME = System.nanoTime();
+        BASE_EPOCH_NANOS = now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+
+    /**
+     * <p>Закрытый конструктор: класс содержит только статические методы.</p>
+     */
+    private EpochClock() {
+    }
+
+    /**
+     * <p>Возвращает текущее время в наносекундах от эпохи.</p>
+     *
+     * @return время в наносекундах
+     */
+    public static long nanos() {
+        return toEpochNanos(System.nanoTime());
+    }
+
+    /**
+     * <p>Переводит значение {@link System#nanoTime()} во время от эпохи.</p>
+     *
+     * @param nanoTime значение {@link System#nanoTime()}
+     * @return время в наносекундах от эпохи
+     */
+    public static long toEpochNanos(long nanoTime) {
+        return BASE_EPOCH_NANOS + (nanoTime - BASE_NANO_TIME);
+    }
+}
@@ -0,0 +1,137 @@
+package Protocol;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>FrameDecoder - потоковый разборщик кадров протокола.</p>
+ *
+ * <p>Получает байты порциями произвольного размера через {@link #feed(ByteBuffer)} и сообщает о кадрах
+ * слушателю {@link Listener}. Если заголовок целиком лежит в полученной порции, он читается прямо из нее;
+ * копируются только заголовки, разрезанные между порциями. Полезная нагрузка передается слушателю
+ * частями в виде участков исходного буфера, поэтому размер кадра не ограничен размером буфера чтения.</p>
+ */
+public class FrameDecoder {
+
+    /**
+     * <p>Listener - слушатель разобранных кадров.</p>
+     */
+    public interface Listener {
+
+        /**
+         * <p>Вызывается для каждого заголовка. Представление заголовка действительно только во время вызова.</p>
+         *
+         * @param header заголовок кадра
+         */
+        void onHeader(FrameHeader header);
+
+        /**
+         * <p>Вызывается для очередной части полезной нагрузки текущего кадра.</p>
+         *
+         * @param buffer буфер с данными
+         * @param offset индекс начала части в буфере
+         * @param length длина части
+         */
+        default void onPayload(ByteBuffer buffer, int offset, int length) {
+        }
+
+        /**
+         * <p>Вызывается после последнего байта полезной нагрузки кадра.</p>
+         */
+        default void onFrameEnd() {
+        }
+    }
+
+    private final Listener listener;
+    private final ByteBuffer headerBuffer = ByteBuffer.allocate(FrameHeader.SIZE);
+    private final FrameHeader header = new FrameHeader();
+    private long remainingPayload = -1;
+    private long frames;
+
+    /**
+     * <p>Конструктор класса FrameDecoder.</p>
+     *
+     * @param listener слушатель разобранных кадров
+     * @throws IllegalArgumentException если слушатель равен null
+     */
+    public FrameDecoder(Listener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        this.listener = listener;
+    }
+
+    /**
+     * <p>Разбирает очередную порцию байтов. После вызова все байты порции прочитаны.</p>
+     *
+     * @param source буфер с данными между position и limit
+     * @throws ProtocolException если заголовок кадра некорректен
+     */
+    public void feed(ByteBuffer source) throws ProtocolException {
+        while (source.hasRemaining()) {
+            if (remainingPayload >= 0) {
+                int chunk = (int) Math.min(remainingPayload, source.remaining());
+                listener.onPayload(source, source.position(), chunk);
+                source.position(source.position() + chunk);
+                remainingPayload -= chunk;
+            } else if (headerBuffer.position() == 0 && source.remaining() >= FrameHeader.SIZE) {
+                header.wrap(source, source.position());
+                startFrame();
+                source.position(source.position() + FrameHeader.SIZE);
+            } else {
+                int chunk = Math.min(headerBuffer.remaining(), source.remaining());
+                headerBuffer.put(headerBuffer.position(), source, source.position(), chunk);
+                headerBuffer.position(headerBuffer.position() + chunk);
+                source.position(source.position() + chunk);
+                if (headerBuffer.hasRemaining()) {
+                    return;
+                }
+                header.wrap(headerBuffer, 0);
+                startFrame();
+                headerBuffer.clear();
+            }
+            if (remainingPayload == 0) {
+                remainingPayload = -1;
+                frames++;
+                listener.onFrameEnd();
+            }
+        }
+    }
+
+    /**
+     * <p>Проверяет, находится ли разборщик на границе кадров.</p>
+     *
+     * @return true, если нет начатого, но не разобранного до конца кадра
+     */
+    public boolean isAtFrameBoundary() {
+        return remainingPayload < 0 && headerBuffer.position() == 0;
+    }
+
+    /**
+     * <p>Возвращает количество разобранных кадров.</p>
+     *
+     * @return количество кадров
+     */
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * <p>Проверяет заголовок и сообщает о нем слушателю.</p>
+     *
+     * @throws ProtocolException если сигнатура, тип или длина кадра некорректны
+     */
+    private void startFrame() throws ProtocolException {
+        if (!header.hasValidMagic()) {
+            throw new ProtocolException("Invalid frame magic");
+        }
+        if (header.type() == null) {
+            throw new ProtocolException("Unknown frame type");
+        }
+        if (header.length() < 0) {
+            throw new ProtocolException("Negative frame length: " + header.length());
+        }
+        listener.onHeader(header);
+        remainingPayload = header.length();
+    }
+}
@@ -0,0 +1,214 @@
+package Protocol;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>FrameHeader - заголовок кадра протокола фиксированного размера {@value #SIZE} байт.</p>
+ *
+ * <p>Формат (big-endian):</p>
+ * <pre>
+ *  0  magic      2  0x5447 ("TG")
+ *  2  type       1  {@link FrameType}
+ *  3  flags      1  например {@link #FLAG_DATAGRAM}
+ *  4  length     4  длина полезной нагрузки после заголовка
+ *  8  sessionId  4  номер сессии
+ * 12  checksum   4  CRC32C полезной нагрузки, если установлен {@link #FLAG_CHECKSUM}
+ * 16  sequence   8  порядковый номер или параметр управляющего кадра
+ * 24  timestamp  8  время отправки в наносекундах от эпохи ({@link EpochClock})
+ * </pre>
+ *
+ * <p>Объект класса - легковесное представление заголовка, лежащего в буфере: поля читаются прямо из
+ * буфера при обращении, без копирования и создания объектов на каждый кадр.</p>
+ */
+public final class FrameHeader {
+    /**
+     * <p>Размер заголовка в байтах.</p>
+     */
+    public static final int SIZE = 32;
+
+    /**
+     * <p>Сигнатура в начале каждого кадра.</p>
+     */
+    public static final short MAGIC = 0x5447;
+
+    /**
+     * <p>Флаг начала сессии: пакеты данных передаются датаграммами UDP.</p>
+     */
+    public static final int FLAG_DATAGRAM = 1;
+
+    /**
+     * <p>Флаг начала сессии и кадров данных: в поле checksum записана CRC32C полезной нагрузки.</p>
+     */
+    public static final int FLAG_CHECKSUM = 2;
+
+    private static final int TYPE = 2;
+    private static final int FLAGS = 3;
+    private static final int LENGTH = 4;
+    private static final int SESSION_ID = 8;
+    private static final int CHECKSUM = 12;
+    private static final int SEQUENCE = 16;
+    private static final int TIMESTAMP = 24;
+
+    private ByteBuffer buffer;
+    private int index;
+
+    /**
+     * <p>Направляет представление на заголовок, лежащий в буфере.</p>
+     *
+     * @param buffer буфер с заголовком
+     * @param index индекс начала заголовка в буфере
+     * @return это же представление
+     */
+    public FrameHeader wrap(ByteBuffer buffer, int index) {
+        this.buffer = buffer;
+        this.index = index;
+        return this;
+    }
+
+    /**
+     * <p>Проверяет сигнатуру заголовка.</p>
+     *
+     * @return true, если заголовок начинается с {@link #MAGIC}
+     */
+    public boolean hasValidMagic() {
+        return buffer.getShort(index) == MAGIC;
+    }
+
+    /**
+     * <p>Возвращает тип кадра.</p>
+     *
+     * @return тип кадра или null, если код неизвестен
+     */
+    public FrameType type() {
+        return FrameType.of(buffer.get(index + TYPE));
+    }
+
+    /**
+     * <p>Возвращает флаги кадра.</p>
+     *
+     * @return флаги
+     */
+    public int flags() {
+        return buffer.get(index + FLAGS) & 0xFF;
+    }
+
+    /**
+     * <p>Возвращает длину полезной нагрузки.</p>
+     *
+     * @return длина в байтах
+     */
+    public int length() {
+        return buffer.getInt(index + LENGTH);
+    }
+
+    /**
+     * <p>Возвращает номер сессии.</p>
+     *
+     * @return номер сессии
+     */
+    public int sessionId() {
+        return buffer.getInt(index + SESSION_ID);
+    }
+
+    /**
+     * <p>Возвращает контрольную сумму полезной нагрузки.</p>
+     *
+     * @return контрольная сумма
+     */
+    public int checksum() {
+        return buffer.getInt(index + CHECKSUM);
+    }
+
+    /**
+     * <p>Возвращает порядковый номер или параметр управляющего кадра.</p>
+     *
+     * @return значение поля sequence
+     */
+    public long sequence() {
+        return buffer.getLong(index + SEQUENCE);
+    }
+
+    /**
+     * <p>Возвращает время отправки кадра.</p>
+     *
+     * @return время в наносекундах от эпохи
+     */
+    public long timestamp() {
+        return buffer.getLong(index + TIMESTAMP);
+    }
+
+    /**
+     * <p>Записывает заголовок в буфер по абсолютному индексу. Позиция буфера не меняется.</p>
+     *
+     * @param target буфер для записи
+     * @param index индекс начала заголовка
+     * @param type тип кадра
+     * @param flags флаги
+     * @param length длина полезной нагрузки
+     * @param sessionId номер сессии
+     * @param sequence порядковый номер или параметр управляющего кадра
+     * @param timestamp время отправки в наносекундах от эпохи
+     */
+    public static void write(ByteBuffer target, int index, FrameType type, int flags, int length, int sessionId,
+                             long sequence, long timestamp) {
+        target.putShort(index, MAGIC)
+                .put(index + TYPE, type.code())
+                .put(index + FLAGS, (byte) flags)
+                .putInt(index + LENGTH, length)
+                .putInt(index + SESSION_ID, sessionId)
+                .putInt(index + CHECKSUM, 0)
+                .putLong(index + SEQUENCE, sequence)
+                .putLong(index + TIMESTAMP, timestamp);
+    }
+
+    /**
+     * <p>Обновляет порядковый номер и время отправки в уже записанном заголовке.</p>
+     * <p>Используется в цикле отправки, где остальные поля заголовка не меняются от пакета к пакету.</p>
+     *
+     * @param target буфер с заголовком
+     * @param index индекс начала заголовка
+     * @param sequence порядковый номер
+     * @param timestamp время отправки в наносекундах от эпохи
+     */
+    public static void writeSequence(ByteBuffer target, int index, long sequence, long timestamp) {
+        target.putLong(index + SEQUENCE, sequence).putLong(index + TIMESTAMP, timestamp);
+    }
+
+    /**
+     * <p>Обновляет длину полезной нагрузки в уже записанном заголовке.</p>
+     * <p>Используется при воспроизведении захвата, где длина меняется от пакета к пакету.</p>
+     *
+     * @param target буфер с заголовком
+     * @param index индекс начала заголовка
+     * @param length длина полезной нагрузки
+     */
+    public static void writeLength(ByteBuffer target, int index, int length) {
+        target.putInt(index + LENGTH, length);
+    }
+
+    /**
+     * <p>Записывает контрольную сумму полезной нагрузки в уже записанный заголовок.</p>
+     *
+     * @param target буфер с заголовком
+     * @param index индекс начала заголовка
+     * @param checksum контрольная сумма CRC32C
+     */
+    public static void writeChecksum(ByteBuffer target, int index, int checksum) {
+        target.putInt(index + CHECKSUM, checksum);
+    }
+
+    /**
+     * <p>Создает заголовок управляющего кадра без полезной нагрузки.</p>
+     *
+     * @param type тип кадра
+     * @param flags флаги
+     * @param sessionId номер сессии
+     * @param sequence параметр управляющего кадра
+     * @return массив из {@value #SIZE} байт
+     */
+    public static byte[] control(FrameType type, int flags, int sessionId, long sequence) {
+        byte[] header = new byte[SIZE];
+        write(ByteBuffer.wrap(header), 0, type, flags, 0, sessionId, sequence, EpochClock.nanos());
+        return header;
+    }
+}
@@ -0,0 +1,67 @@
+package Protocol;
+
+/**
+ * <p>FrameType - перечисление типов кадров протокола обмена между генератором и приемником.</p>
+ *
+ * <p>Управляющие кадры не имеют полезной нагрузки: их параметры передаются полями заголовка
+ * {@link FrameHeader}.</p>
+ */
+public enum FrameType {
+    /**
+     * <p>Начало сессии: поле sequence содержит ожидаемое количество пакетов, флаги - режим передачи.</p>
+     */
+    SESSION_START(1),
+
+    /**
+     * <p>Пакет данных: поле sequence - порядковый номер пакета, timestamp - время отправки.</p>
+     */
+    DATA(2),
+
+    /**
+     * <p>Конец сессии: поле sequence содержит количество фактически отправленных пакетов.</p>
+     */
+    SESSION_END(3),
+
+    /**
+     * <p>Ответ приемника на начало сессии с датаграммами: поле sequence содержит порт UDP приемника.</p>
+     */
+    DATAGRAM_PORT(4);
+
+    private static final FrameType[] BY_CODE = new FrameType[256];
+
+    static {
+        for (FrameType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final byte code;
+
+    /**
+     * <p>Конструктор типа кадра.</p>
+     *
+     * @param code код типа в заголовке
+     */
+    FrameType(int code) {
+        this.code = (byte) code;
+    }
+
+    /**
+     * <p>Возвращает код типа в заголовке кадра.</p>
+     *
+     * @return код типа
+     */
+    public byte code() {
+        return code;
+    }
+
+    /**
+     * <p>Возвращает тип кадра по коду.</p>
+     *
+     * @param code код типа из заголовка
+     * @return тип кадра или null, если код неизвестен
+     */
+    public static FrameType of(byte code) {
+        return BY_CODE[code & 0xFF];
+    }
+}
@@ -0,0 +1,253 @@
+package Results;
+
+import CLI.CommandLine;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * <p>ResultsReport - отчет по файлу итогов {@link ResultsStore} вне работающего приложения.</p>
+ *
+ * <p>Без параметров выводит список прогонов с их итогами. С параметром --against сравнивает прогон с другим
+ * прогоном, с параметром --baseline=N - со скользящей базовой линией из N предыдущих прогонов: для
+ * пропускной способности, потерь и перцентилей задержки выводятся оба значения и изменение в процентах.</p>
+ *
+ * <p>Запуск: {@code java -cp <jar> Results.ResultsReport --file=logs/receiver-results.bin --baseline=5}</p>
+ */
+public final class ResultsReport {
+
+    private static final Set<String> OPTIONS = Set.of("help", "file", "run", "against", "baseline", "from", "to");
+
+    private static final String USAGE = """
+            Usage: ResultsReport [options]
+              --file=PATH                     session results file (default logs/receiver-results.bin)
+              --from=TIME --to=TIME           list only sessions that ended in this interval (ISO-8601, UTC)
+              --run=ID                        run to compare (default the latest run)
+              --against=ID                    compare with this run
+              --baseline=N                    compare with the mean of the N previous runs
+            Without --against and --baseline the runs in the file are listed.
+            """;
+
+    /**
+     * <p>Закрытый конструктор: класс содержит только статические методы.</p>
+     */
+    private ResultsReport() {
+    }
+
+    /**
+     * <p>Выводит отчет по файлу итогов.</p>
+     *
+     * @param args ключи командной строки
+     */
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * <p>Выполняет отчет с заданными потоками вывода.</p>
+     *
+     * @param args ключи командной строки
+     * @param out поток для отчета
+     * @param err поток для сообщений об ошибках
+     * @return код завершения: 0 - успех, 1 - ошибка чтения или прогон не найден, 2 - ошибка параметров
+     */
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        CommandLine commandLine;
+        Path file;
+        int baseline;
+        long from;
+        long to;
+        try {
+            commandLine = CommandLine.parse(args, OPTIONS);
+            if (commandLine.flag("help")) {
+                err.print(USAGE);
+                return 0;
+            }
+            file = Path.of(commandLine.string("file", ResultsStore.RECEIVER_FILE));
+            baseline = commandLine.integer("baseline", 0, 1);
+            from = parseTime("from", commandLine.string("from", null), Long.MIN_VALUE);
+            to = parseTime("to", commandLine.string("to", null), Long.MAX_VALUE);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.print(USAGE);
+            return 2;
+        }
+        if (!Files.exists(file)) {
+            err.println("Session results file not found: " + file);
+            return 1;
+        }
+
+        try (ResultsStore store = ResultsStore.open(file)) {
+            List<Long> runIds = store.runIds();
+            String against = commandLine.string("against", null);
+            if (against == null && baseline == 0) {
+                out.print(listRuns(store, runIds, from, to));
+                return 0;
+            }
+            if (runIds.isEmpty()) {
+                err.println("No runs in " + file);
+                return 1;
+            }
+            long runId = parseRunId("run", commandLine.string("run", null), runIds.get(runIds.size() - 1));
+            RunSummary run = summary(store, runId);
+            if (run == null) {
+                err.println("Run not found: " + runId);
+                return 1;
+            }
+            if (against != null) {
+                RunSummary other = summary(store, parseRunId("against", against, 0));
+                if (other == null) {
+                    err.println("Run not found: " + against);
+                    return 1;
+                }
+                out.print(compare(run, other, "run " + other.runId()));
+                return 0;
+            }
+            List<RunSummary> previous = new ArrayList<>();
+            int index = runIds.indexOf(runId);
+            for (int i = Math.max(0, index - baseline); i < index; i++) {
+                previous.add(summary(store, runIds.get(i)));
+            }
+            if (previous.isEmpty()) {
+                err.println("No runs before " + runId + " for the baseline");
+                return 1;
+            }
+            out.print(compare(run, RunSummary.mean(previous), "baseline of " + previous.size() + " run(s)"));
+            return 0;
+        } catch (IOException e) {
+            err.println("Error reading session results: " + e.getMessage());
+            return 1;
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            return 2;
+        }
+    }
+
+    /**
+     * <p>Собирает итоги прогона.</p>
+     *
+     * @param store файл итогов
+     * @param runId номер прогона
+     * @return итоги прогона или null, если прогона нет
+     * @throws IOException если файл не удалось прочитать
+     */
+    static RunSummary summary(ResultsStore store, long runId) throws IOException {
+        List<SessionResult> results = store.findRun(runId);
+        return results.isEmpty() ? null : RunSummary.of(runId, results);
+    }
+
+    /**
+     * <p>Формирует список прогонов с итогами. Если задан интервал времени, в итоги входят только сессии,
+     * закончившиеся в нем.</p>
+     *
+     * @param store файл итогов
+     * @param runIds номера прогонов
+     * @param from начало интервала в миллисекундах от эпохи
+     * @param to конец интервала в миллисекундах от эпохи
+     * @return текст отчета
+     * @throws IOException если файл не удалось прочитать
+     */
+    static String listRuns(ResultsStore store, List<Long> runIds, long from, long to) throws IOException {
+        StringBuilder report = new StringBuilder(String.format(Locale.ROOT,
+                "%-15s %-24s %8s %12s %10s %12s %8s %9s %9s%n",
+                "run", "started", "sessions", "packets", "seconds", "Mbit/s", "loss%", "p50 ms", "p99 ms"));
+        List<SessionResult> sessions = from == Long.MIN_VALUE && to == Long.MAX_VALUE ? null
+                : store.findBetween(from, to);
+        for (long runId : runIds) {
+            List<SessionResult> results = sessions == null ? store.findRun(runId)
+                    : sessions.stream().filter(result -> result.runId() == runId).toList();
+            if (results.isEmpty()) {
+                continue;
+            }
+            RunSummary run = RunSummary.of(runId, results);
+            report.append(String.format(Locale.ROOT, "%-15d %-24s %8d %12d %10.3f %12.2f %8.3f %9.3f %9.3f%n",
+                    run.runId(), Instant.ofEpochMilli(run.startMillis()), run.sessions(), run.packets(),
+                    run.seconds(), run.mbps(), run.lossPercent(), run.latencyP50Ms(), run.latencyP99Ms()));
+        }
+        return report.toString();
+    }
+
+    /**
+     * <p>Формирует сравнение прогона с другим прогоном или базовой линией.</p>
+     *
+     * @param run прогон
+     * @param other прогон или базовая линия для сравнения
+     * @param otherLabel подпись второго столбца
+     * @return текст отчета
+     */
+    static String compare(RunSummary run, RunSummary other, String otherLabel) {
+        StringBuilder report = new StringBuilder(String.format(Locale.ROOT, "Run %d (%s) against %s%n",
+                run.runId(), Instant.ofEpochMilli(run.startMillis()), otherLabel));
+        report.append(String.format(Locale.ROOT, "%-18s %14s %14s %10s%n", "metric", "run", "against", "change"));
+        row(report, "throughput Mbit/s", run.mbps(), other.mbps());
+        row(report, "packets/s", run.pps(), other.pps());
+        row(report, "packets", run.packets(), other.packets());
+        row(report, "loss %", run.lossPercent(), other.lossPercent());
+        row(report, "latency p50 ms", run.latencyP50Ms(), other.latencyP50Ms());
+        row(report, "latency p99 ms", run.latencyP99Ms(), other.latencyP99Ms());
+        row(report, "latency p99.9 ms", run.latencyP999Ms(), other.latencyP999Ms());
+        return report.toString();
+    }
+
+    /**
+     * <p>Добавляет строку сравнения показателя.</p>
+     *
+     * @param report текст отчета
+     * @param metric название показателя
+     * @param value значение прогона
+     * @param other значение для сравнения
+     */
+    private static void row(StringBuilder report, String metric, double value, double other) {
+        String change = other != 0 && Double.isFinite(value) && Double.isFinite(other)
+                ? String.format(Locale.ROOT, "%+.1f%%", (value / other - 1) * 100) : "-";
+        report.append(String.format(Locale.ROOT, "%-18s %14.3f %14.3f %10s%n", metric, value, other, change));
+    }
+
+    /**
+     * <p>Разбирает номер прогона.</p>
+     *
+     * @param name имя параметра
+     * @param value значение или null
+     * @param defaultValue значение по умолчанию
+     * @return номер прогона
+     * @throws IllegalArgumentException если значение не является числом
+     */
+    private static long parseRunId(String name, String value, long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value of --" + name + ": " + value);
+        }
+    }
+
+    /**
+     * <p>Разбирает время в формате ISO-8601.</p>
+     *
+     * @param name имя параметра
+     * @param value значение или null
+     * @param defaultValue значение по умолчанию
+     * @return время в миллисекундах от эпохи
+     * @throws IllegalArgumentException если значение не является временем ISO-8601
+     */
+    private static long parseTime(String name, String value, long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Instant.parse(value.trim()).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid value of --" + name + ": " + value + " (ISO-8601 time)");
+        }
+    }
+}
@@ -0,0 +1,469 @@
+package Results;
+
+import ErrorHandler.ErrorHandler;
+import Monitoring.PrometheusMetrics;
+import NetworkConnection.Transport;
+import Statistics.LatencyHistogram;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * <p>ResultsStore - файл итогов сессий {@link SessionResult}, в который каждый прогон дописывает свои сессии.</p>
+ *
+ * <p>Записи имеют постоянный размер {@value #RECORD_SIZE} байт, поэтому добавление - одна запись в конец файла,
+ * а запись с номером i читается по смещению без разбора предыдущих. Номер прогона - время запуска процесса,
+ * время окончания сессии не убывает внутри файла, поэтому поиск прогона по номеру и сессий по интервалу
+ * времени - двоичный поиск по файлу. Файл рассчитан на одного писателя: генератор и приемник пишут
+ * каждый в свой файл.</p>
+ *
+ * <p>Формат файла: заголовок {@value #HEADER_SIZE} байт (сигнатура {@link #MAGIC}, версия, размер записи),
+ * затем записи: номер прогона, время окончания, длительность, пакеты, байты, потери, три перцентиля задержки,
+ * заданная скорость, номер сессии, размер пакета, роль и транспорт. Порядок байтов - сетевой.</p>
+ */
+public final class ResultsStore implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(ResultsStore.class);
+
+    /**
+     * <p>Сигнатура файла итогов: "TGRESULT" в ASCII.</p>
+     */
+    public static final long MAGIC = 0x5447_5245_5355_4C54L;
+
+    /**
+     * <p>Версия формата файла.</p>
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * <p>Размер заголовка файла в байтах.</p>
+     */
+    public static final int HEADER_SIZE = 16;
+
+    /**
+     * <p>Размер записи в файле в байтах.</p>
+     */
+    public static final int RECORD_SIZE = 96;
+
+    /**
+     * <p>Файл итогов генератора по умолчанию.</p>
+     */
+    public static final String GENERATOR_FILE = "logs/generator-results.bin";
+
+    /**
+     * <p>Файл итогов приемника по умолчанию.</p>
+     */
+    public static final String RECEIVER_FILE = "logs/receiver-results.bin";
+
+    private static final String[] ROLES = {PrometheusMetrics.GENERATOR, PrometheusMetrics.RECEIVER};
+
+    private static final ResultsStore DISABLED = new ResultsStore();
+    private static volatile ResultsStore global = DISABLED;
+
+    private final boolean enabled;
+    private final Path file;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final long runId;
+    private long lastTime;
+
+    /**
+     * <p>Конструктор выключенного хранилища: {@link #append} сразу возвращает управление.</p>
+     */
+    private ResultsStore() {
+        enabled = false;
+        file = null;
+        channel = null;
+        buffer = null;
+        runId = 0;
+    }
+
+    /**
+     * <p>Конструктор класса ResultsStore. Открывает файл для добавления сессий нового прогона,
+     * создавая его при необходимости.</p>
+     *
+     * @param file файл итогов
+     * @throws IOException если файл не удалось открыть или он не является файлом итогов
+     */
+    public ResultsStore(Path file) throws IOException {
+        this(file, true);
+    }
+
+    /**
+     * <p>Конструктор, открывающий файл для добавления или только для чтения.</p>
+     *
+     * @param file файл итогов
+     * @param writable true - файл создается при необходимости и открывается для добавления
+     * @throws IOException если файл не удалось открыть или он не является файлом итогов
+     */
+    private ResultsStore(Path file, boolean writable) throws IOException {
+        this.enabled = writable;
+        this.file = file;
+        this.buffer = ByteBuffer.allocate(RECORD_SIZE);
+        if (writable) {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        } else {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+        }
+        try {
+            if (channel.size() == 0 && writable) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putLong(MAGIC).putInt(VERSION).putInt(RECORD_SIZE);
+                channel.write(header.flip(), 0);
+            } else {
+                checkHeader();
+                if (writable) {
+                    dropTornRecord();
+                }
+            }
+            long count = size();
+            lastTime = count > 0 ? read(count - 1).timeMillis() : 0;
+            runId = Math.max(System.currentTimeMillis(), count > 0 ? read(count - 1).runId() + 1 : 0);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        if (writable) {
+            logger.info("ResultsStore opened: {} sessions, run {}, file {}", size(), runId, file);
+        }
+    }
+
+    /**
+     * <p>Открывает существующий файл итогов только для чтения.</p>
+     *
+     * @param file файл итогов
+     * @return хранилище, в которое нельзя добавлять сессии
+     * @throws IOException если файл не удалось открыть или он не является файлом итогов
+     */
+    public static ResultsStore open(Path file) throws IOException {
+        return new ResultsStore(file, false);
+    }
+
+    /**
+     * <p>Возвращает общее хранилище процесса. Пока оно не запущено, возвращается выключенное.</p>
+     *
+     * @return хранилище
+     */
+    public static ResultsStore global() {
+        return global;
+    }
+
+    /**
+     * <p>Открывает общее хранилище процесса.</p>
+     *
+     * @param file файл итогов
+     * @return открытое хранилище
+     * @throws IOException если файл не удалось открыть
+     * @throws IllegalStateException если общее хранилище уже открыто
+     */
+    public static synchronized ResultsStore startGlobal(Path file) throws IOException {
+        if (global.enabled) {
+            throw new IllegalStateException("Results store is already started");
+        }
+        ResultsStore store = new ResultsStore(file);
+        global = store;
+        return store;
+    }
+
+    /**
+     * <p>Определяет файл итогов из параметра запуска.</p>
+     *
+     * @param value путь к файлу; true - файл по умолчанию; null, пустая строка или false - итоги не сохраняются
+     * @param defaultFile файл по умолчанию
+     * @return файл итогов или null
+     */
+    public static Path parseFile(String value, String defaultFile) {
+        if (value == null || value.isBlank() || value.trim().equalsIgnoreCase("false")) {
+            return null;
+        }
+        return Path.of(value.trim().equalsIgnoreCase("true") ? defaultFile : value.trim());
+    }
+
+    /**
+     * <p>Показывает, сохраняются ли итоги.</p>
+     *
+     * @return true, если в хранилище можно добавлять сессии
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * <p>Возвращает номер прогона, с которым добавляются сессии.</p>
+     *
+     * @return номер прогона; 0 - хранилище выключено или открыто только для чтения
+     */
+    public long getRunId() {
+        return enabled ? runId : 0;
+    }
+
+    /**
+     * <p>Добавляет итоги сессии текущего прогона. Ошибка записи сообщается через {@link ErrorHandler}
+     * и не прерывает работу вызывающего потока.</p>
+     *
+     * @param role роль: generator или receiver
+     * @param transport транспорт сессии
+     * @param session номер сессии
+     * @param packetSize размер пакета; 0 - неизвестен
+     * @param rate заданная скорость в пакетах в секунду; 0 - без ограничения, NaN - неизвестна
+     * @param durationNanos длительность сессии в наносекундах
+     * @param packets количество пакетов
+     * @param bytes количество байт полезной нагрузки
+     * @param lost количество потерянных пакетов; -1 - не измерялось
+     * @param latency гистограмма задержек сессии; null - задержка не измерялась
+     * @return сохраненные итоги или null, если хранилище выключено или запись не удалась
+     */
+    public SessionResult append(String role, Transport transport, int session, int packetSize, double rate,
+                                long durationNanos, long packets, long bytes, long lost, LatencyHistogram latency) {
+        if (!enabled) {
+            return null;
+        }
+        synchronized (this) {
+            lastTime = Math.max(lastTime, System.currentTimeMillis());
+            SessionResult result = SessionResult.of(runId, lastTime, role, transport, session, packetSize, rate,
+                    durationNanos, packets, bytes, lost, latency);
+            try {
+                encode(result);
+                // Запись по номеру, а не в конец файла: недописанная запись не сдвигает последующие
+                channel.write(buffer.flip(), HEADER_SIZE + size() * RECORD_SIZE);
+                return result;
+            } catch (IOException e) {
+                ErrorHandler.handleIOException("Error saving session results", e);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * <p>Возвращает количество сессий в файле.</p>
+     *
+     * @return количество записей
+     * @throws IOException если размер файла не удалось прочитать
+     */
+    public long size() throws IOException {
+        return (channel.size() - HEADER_SIZE) / RECORD_SIZE;
+    }
+
+    /**
+     * <p>Читает итоги сессии по номеру записи.</p>
+     *
+     * @param index номер записи от 0
+     * @return итоги сессии
+     * @throws IOException если запись не удалось прочитать
+     */
+    public synchronized SessionResult read(long index) throws IOException {
+        buffer.clear();
+        long position = HEADER_SIZE + index * RECORD_SIZE;
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated session results record " + index + " in " + file);
+            }
+        }
+        return decode(buffer.flip());
+    }
+
+    /**
+     * <p>Находит сессии прогона двоичным поиском по номеру прогона.</p>
+     *
+     * @param runId номер прогона
+     * @return сессии прогона в порядке записи; пустой список, если прогона нет
+     * @throws IOException если файл не удалось прочитать
+     */
+    public List<SessionResult> findRun(long runId) throws IOException {
+        List<SessionResult> results = new ArrayList<>();
+        for (long i = lowerBound(runId, SessionResult::runId); i < size(); i++) {
+            SessionResult result = read(i);
+            if (result.runId() != runId) {
+                break;
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * <p>Находит сессии, закончившиеся в заданном интервале времени, двоичным поиском по времени окончания.</p>
+     *
+     * @param fromMillis начало интервала в миллисекундах от эпохи, включительно
+     * @param toMillis конец интервала в миллисекундах от эпохи, не включительно
+     * @return сессии в порядке записи
+     * @throws IOException если файл не удалось прочитать
+     */
+    public List<SessionResult> findBetween(long fromMillis, long toMillis) throws IOException {
+        List<SessionResult> results = new ArrayList<>();
+        for (long i = lowerBound(fromMillis, SessionResult::timeMillis); i < size(); i++) {
+            SessionResult result = read(i);
+            if (result.timeMillis() >= toMillis) {
+                break;
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * <p>Возвращает номера всех прогонов в файле по возрастанию.</p>
+     *
+     * @return номера прогонов
+     * @throws IOException если файл не удалось прочитать
+     */
+    public List<Long> runIds() throws IOException {
+        List<Long> runIds = new ArrayList<>();
+        long count = size();
+        long index = 0;
+        while (index < count) {
+            long runId = read(index).runId();
+            runIds.add(runId);
+            index = lowerBound(runId + 1, SessionResult::runId);
+        }
+        return runIds;
+    }
+
+    /**
+     * <p>Закрывает файл. Общее хранилище после закрытия снова выключено.</p>
+     */
+    @Override
+    public void close() {
+        if (channel == null) {
+            return;
+        }
+        synchronized (ResultsStore.class) {
+            if (global == this) {
+                global = DISABLED;
+            }
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.error("Error closing session results file: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * <p>Находит номер первой записи, у которой ключ не меньше заданного. Ключ не убывает по файлу.</p>
+     *
+     * @param key искомое значение ключа
+     * @param keyOf ключ записи
+     * @return номер записи; размер файла, если такой записи нет
+     * @throws IOException если файл не удалось прочитать
+     */
+    private long lowerBound(long key, ToLongFunction<SessionResult> keyOf) throws IOException {
+        long low = 0;
+        long high = size();
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (keyOf.applyAsLong(read(middle)) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * <p>Проверяет заголовок файла.</p>
+     *
+     * @throws IOException если файл не является файлом итогов этой версии
+     */
+    private void checkHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+            // читаем дальше
+        }
+        if (header.position() < HEADER_SIZE || header.getLong(0) != MAGIC) {
+            throw new IOException("Not a session results file: " + file);
+        }
+        if (header.getInt(Long.BYTES) != VERSION || header.getInt(Long.BYTES + Integer.BYTES) != RECORD_SIZE) {
+            throw new IOException("Unsupported session results version in " + file);
+        }
+    }
+
+    /**
+     * <p>Обрезает недописанную последнюю запись, которая остается после аварийного завершения или
+     * переполнения диска, чтобы новые записи шли с границы записи.</p>
+     *
+     * @throws IOException если файл не удалось обрезать
+     */
+    private void dropTornRecord() throws IOException {
+        long end = HEADER_SIZE + size() * RECORD_SIZE;
+        if (channel.size() > end) {
+            logger.warn("Dropping {} bytes of an incomplete session record in {}", channel.size() - end, file);
+            channel.truncate(end);
+        }
+    }
+
+    /**
+     * <p>Записывает итоги сессии в буфер записи.</p>
+     *
+     * @param result итоги сессии
+     */
+    private void encode(SessionResult result) {
+        buffer.clear();
+        buffer.putLong(result.runId()).putLong(result.timeMillis()).putLong(result.durationNanos())
+                .putLong(result.packets()).putLong(result.bytes()).putLong(result.lost())
+                .putLong(result.latencyP50Nanos()).putLong(result.latencyP99Nanos()).putLong(result.latencyP999Nanos())
+                .putDouble(result.rate()).putInt(result.session()).putInt(result.packetSize())
+                .put((byte) roleCode(result.role())).put((byte) result.transport().ordinal());
+        while (buffer.hasRemaining()) {
+            buffer.put((byte) 0);
+        }
+    }
+
+    /**
+     * <p>Читает итоги сессии из буфера.</p>
+     *
+     * @param record буфер с записью
+     * @return итоги сессии
+     * @throws IOException если роль или транспорт записи неизвестны
+     */
+    private SessionResult decode(ByteBuffer record) throws IOException {
+        long runId = record.getLong();
+        long timeMillis = record.getLong();
+        long durationNanos = record.getLong();
+        long packets = record.getLong();
+        long bytes = record.getLong();
+        long lost = record.getLong();
+        long p50 = record.getLong();
+        long p99 = record.getLong();
+        long p999 = record.getLong();
+        double rate = record.getDouble();
+        int session = record.getInt();
+        int packetSize = record.getInt();
+        int role = record.get();
+        int transport = record.get();
+        if (role < 0 || role >= ROLES.length || transport < 0 || transport >= Transport.values().length) {
+            throw new IOException("Corrupted session results record in " + file);
+        }
+        return new SessionResult(runId, timeMillis, ROLES[role], Transport.values()[transport], session, packetSize,
+                rate, durationNanos, packets, bytes, lost, p50, p99, p999);
+    }
+
+    /**
+     * <p>Возвращает код роли для записи в файл.</p>
+     *
+     * @param role роль
+     * @return код роли
+     * @throws IllegalArgumentException если роль неизвестна
+     */
+    private static int roleCode(String role) {
+        for (int i = 0; i < ROLES.length; i++) {
+            if (ROLES[i].equals(role)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown role: " + role);
+    }
+}
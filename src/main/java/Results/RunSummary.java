@@ -0,0 +1,109 @@
+package Results;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * <p>RunSummary - итоги одного прогона, собранные из итогов его сессий {@link SessionResult}.</p>
+ *
+ * <p>Пропускная способность считается по всем байтам прогона за время от начала первой сессии до окончания
+ * последней, поэтому параллельные соединения не завышают ее. Перцентили задержки прогона - средние
+ * перцентилей сессий, взвешенные по количеству пакетов: это приближение, точные перцентили потребовали бы
+ * хранить гистограммы.</p>
+ *
+ * @param runId номер прогона
+ * @param startMillis время начала первой сессии в миллисекундах от эпохи
+ * @param sessions количество сессий
+ * @param packets количество пакетов
+ * @param bytes количество байт полезной нагрузки
+ * @param seconds время от начала первой сессии до окончания последней в секундах
+ * @param mbps пропускная способность, Мбит/с
+ * @param pps скорость, пакетов в секунду
+ * @param lossPercent потери в процентах; NaN - не измерялись
+ * @param latencyP50Ms медиана задержки в миллисекундах; NaN - не измерялась
+ * @param latencyP99Ms 99-й перцентиль задержки в миллисекундах
+ * @param latencyP999Ms 99.9-й перцентиль задержки в миллисекундах
+ */
+public record RunSummary(long runId, long startMillis, int sessions, long packets, long bytes, double seconds,
+                         double mbps, double pps, double lossPercent, double latencyP50Ms, double latencyP99Ms,
+                         double latencyP999Ms) {
+
+    /**
+     * <p>Собирает итоги прогона из итогов его сессий.</p>
+     *
+     * @param runId номер прогона
+     * @param results итоги сессий прогона
+     * @return итоги прогона
+     * @throws IllegalArgumentException если список сессий пуст
+     */
+    public static RunSummary of(long runId, List<SessionResult> results) {
+        if (results.isEmpty()) {
+            throw new IllegalArgumentException("Run " + runId + " has no sessions");
+        }
+        long start = Long.MAX_VALUE;
+        long end = Long.MIN_VALUE;
+        long packets = 0;
+        long bytes = 0;
+        long lost = 0;
+        long lossPackets = 0;
+        long latencyPackets = 0;
+        double p50 = 0;
+        double p99 = 0;
+        double p999 = 0;
+        for (SessionResult result : results) {
+            start = Math.min(start, result.startEpochNanos());
+            end = Math.max(end, result.timeMillis() * 1_000_000L);
+            packets += result.packets();
+            bytes += result.bytes();
+            if (result.lost() >= 0) {
+                lost += result.lost();
+                lossPackets += result.packets() + result.lost();
+            }
+            if (result.hasLatency()) {
+                latencyPackets += result.packets();
+                p50 += (double) result.latencyP50Nanos() * result.packets();
+                p99 += (double) result.latencyP99Nanos() * result.packets();
+                p999 += (double) result.latencyP999Nanos() * result.packets();
+            }
+        }
+        double seconds = (end - start) / 1_000_000_000.0;
+        double toMillis = latencyPackets > 0 ? 1.0 / (latencyPackets * 1_000_000.0) : Double.NaN;
+        return new RunSummary(runId, start / 1_000_000L, results.size(), packets, bytes, seconds,
+                seconds > 0 ? bytes * 8 / seconds / 1_000_000.0 : Double.NaN,
+                seconds > 0 ? packets / seconds : Double.NaN,
+                lossPackets > 0 ? lost * 100.0 / lossPackets : Double.NaN,
+                p50 * toMillis, p99 * toMillis, p999 * toMillis);
+    }
+
+    /**
+     * <p>Собирает скользящую базовую линию: средние значения показателей нескольких прогонов. Показатели,
+     * которые в прогоне не измерялись, в среднее не входят.</p>
+     *
+     * @param runs итоги прогонов
+     * @return базовая линия с номером прогона 0
+     * @throws IllegalArgumentException если список прогонов пуст
+     */
+    public static RunSummary mean(List<RunSummary> runs) {
+        if (runs.isEmpty()) {
+            throw new IllegalArgumentException("No runs for the baseline");
+        }
+        return new RunSummary(0, runs.get(0).startMillis(),
+                (int) Math.round(runs.stream().mapToInt(RunSummary::sessions).average().orElse(0)),
+                Math.round(runs.stream().mapToLong(RunSummary::packets).average().orElse(0)),
+                Math.round(runs.stream().mapToLong(RunSummary::bytes).average().orElse(0)),
+                average(runs, RunSummary::seconds), average(runs, RunSummary::mbps), average(runs, RunSummary::pps),
+                average(runs, RunSummary::lossPercent), average(runs, RunSummary::latencyP50Ms),
+                average(runs, RunSummary::latencyP99Ms), average(runs, RunSummary::latencyP999Ms));
+    }
+
+    /**
+     * <p>Считает среднее значение показателя по прогонам, в которых он измерялся.</p>
+     *
+     * @param runs итоги прогонов
+     * @param metric показатель
+     * @return среднее значение или NaN, если показатель не измерялся ни в одном прогоне
+     */
+    private static double average(List<RunSummary> runs, ToDoubleFunction<RunSummary> metric) {
+        return runs.stream().mapToDouble(metric).filter(Double::isFinite).average().orElse(Double.NaN);
+    }
+}
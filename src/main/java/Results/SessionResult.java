@@ -0,0 +1,74 @@
+package Results;
+
+import NetworkConnection.Transport;
+import Statistics.LatencyHistogram;
+
+/**
+ * <p>SessionResult - параметры и итоги одной сессии генератора или приемника, сохраняемые в {@link ResultsStore}.</p>
+ *
+ * <p>Величины, которые роль не измеряет (потери и задержка у генератора, заданная скорость у приемника),
+ * хранятся как -1 или NaN.</p>
+ *
+ * @param runId номер прогона - время запуска процесса в миллисекундах от эпохи
+ * @param timeMillis время окончания сессии в миллисекундах от эпохи
+ * @param role роль: generator или receiver
+ * @param transport транспорт сессии
+ * @param session номер сессии
+ * @param packetSize размер пакета в байтах; 0 - неизвестен
+ * @param rate заданная скорость в пакетах в секунду; 0 - без ограничения, NaN - неизвестна
+ * @param durationNanos длительность сессии в наносекундах
+ * @param packets количество отправленных или полученных пакетов
+ * @param bytes количество байт полезной нагрузки
+ * @param lost количество потерянных пакетов; -1 - не измерялось
+ * @param latencyP50Nanos медиана задержки в наносекундах; -1 - не измерялась
+ * @param latencyP99Nanos 99-й перцентиль задержки в наносекундах; -1 - не измерялся
+ * @param latencyP999Nanos 99.9-й перцентиль задержки в наносекундах; -1 - не измерялся
+ */
+public record SessionResult(long runId, long timeMillis, String role, Transport transport, int session,
+                            int packetSize, double rate, long durationNanos, long packets, long bytes, long lost,
+                            long latencyP50Nanos, long latencyP99Nanos, long latencyP999Nanos) {
+
+    /**
+     * <p>Создает итоги сессии, беря перцентили задержки из гистограммы.</p>
+     *
+     * @param runId номер прогона
+     * @param timeMillis время окончания сессии в миллисекундах от эпохи
+     * @param role роль: generator или receiver
+     * @param transport транспорт сессии
+     * @param session номер сессии
+     * @param packetSize размер пакета в байтах
+     * @param rate заданная скорость в пакетах в секунду; NaN - неизвестна
+     * @param durationNanos длительность сессии в наносекундах
+     * @param packets количество пакетов
+     * @param bytes количество байт полезной нагрузки
+     * @param lost количество потерянных пакетов; -1 - не измерялось
+     * @param latency гистограмма задержек сессии; null или пустая - задержка не измерялась
+     * @return итоги сессии
+     */
+    public static SessionResult of(long runId, long timeMillis, String role, Transport transport, int session,
+                                   int packetSize, double rate, long durationNanos, long packets, long bytes,
+                                   long lost, LatencyHistogram latency) {
+        boolean hasLatency = latency != null && latency.getCount() > 0;
+        return new SessionResult(runId, timeMillis, role, transport, session, packetSize, rate, durationNanos,
+                packets, bytes, lost, hasLatency ? latency.getPercentile(50) : -1,
+                hasLatency ? latency.getPercentile(99) : -1, hasLatency ? latency.getPercentile(99.9) : -1);
+    }
+
+    /**
+     * <p>Возвращает время начала сессии в наносекундах от эпохи.</p>
+     *
+     * @return время начала сессии
+     */
+    public long startEpochNanos() {
+        return timeMillis * 1_000_000L - durationNanos;
+    }
+
+    /**
+     * <p>Проверяет, измерялась ли в сессии задержка.</p>
+     *
+     * @return true, если перцентили задержки известны
+     */
+    public boolean hasLatency() {
+        return latencyP50Nanos >= 0;
+    }
+}
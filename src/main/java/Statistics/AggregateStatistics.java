@@ -0,0 +1,114 @@
+package Statistics;
+
+import Output.OutputSink;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>AggregateStatistics - класс для суммарной статистики параллельных сессий генератора.</p>
+ *
+ * <p>Потоки отправки отдельных соединений добавляют свои итоги, после чего выводится общая
+ * пропускная способность генератора по всем приемникам. Время отправки сессии - от начала первого
+ * цикла отправки до конца последнего, без подготовки сессии.</p>
+ */
+public class AggregateStatistics {
+    private static final Logger logger = LogManager.getLogger(AggregateStatistics.class);
+    private final OutputSink outputArea;
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong packets = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong sendStart = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong sendEnd = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * <p>Конструктор с параметром для инициализации области вывода.</p>
+     *
+     * @param outputArea приемник сообщений для вывода статистики
+     */
+    public AggregateStatistics(OutputSink outputArea) {
+        this.outputArea = outputArea;
+    }
+
+    /**
+     * <p>Добавляет итоги сессии одного соединения. Может вызываться из разных потоков.</p>
+     *
+     * @param packetCount количество отправленных пакетов
+     * @param totalBytes количество отправленных байт
+     */
+    public void addConnection(long packetCount, long totalBytes) {
+        connections.incrementAndGet();
+        packets.addAndGet(packetCount);
+        bytes.addAndGet(totalBytes);
+    }
+
+    /**
+     * <p>Добавляет итоги сессии одного соединения вместе с временем его цикла отправки.
+     * Может вызываться из разных потоков.</p>
+     *
+     * @param packetCount количество отправленных пакетов
+     * @param totalBytes количество отправленных байт
+     * @param startTime время начала цикла отправки в наносекундах
+     * @param endTime время окончания цикла отправки в наносекундах
+     */
+    public void addConnection(long packetCount, long totalBytes, long startTime, long endTime) {
+        addConnection(packetCount, totalBytes);
+        sendStart.accumulateAndGet(startTime, Math::min);
+        sendEnd.accumulateAndGet(endTime, Math::max);
+    }
+
+    /**
+     * <p>Возвращает суммарное количество пакетов.</p>
+     *
+     * @return количество пакетов
+     */
+    public long getPackets() {
+        return packets.get();
+    }
+
+    /**
+     * <p>Возвращает суммарное количество байт.</p>
+     *
+     * @return количество байт
+     */
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    /**
+     * <p>Возвращает время отправки сессии: от начала первого цикла отправки до конца последнего.</p>
+     *
+     * @return время в наносекундах; 0, если время циклов отправки не добавлялось
+     */
+    public long getSendNanos() {
+        long end = sendEnd.get();
+        return end == Long.MIN_VALUE ? 0 : end - sendStart.get();
+    }
+
+    /**
+     * <p>Метод для отображения суммарной статистики по всем соединениям.</p>
+     * <p>Если добавлено время циклов отправки, скорость считается по нему, иначе - от начала сессии.</p>
+     *
+     * @param startTime время начала сессии в наносекундах
+     */
+    public void displayStatistics(long startTime) {
+        long sendNanos = getSendNanos();
+        long transferTime = sendNanos > 0 ? sendNanos : System.nanoTime() - startTime;
+        if (transferTime <= 0) {
+            outputArea.appendText("Transfer time is too short to measure.\n");
+            logger.warn("Transfer time is too short to measure");
+            return;
+        }
+
+        double timeInSeconds = transferTime / 1_000_000_000.0;
+        double packetsPerSecond = packets.get() / timeInSeconds;
+        double megabits = bytes.get() * 8 / timeInSeconds / 1_000_000.0;
+
+        outputArea.appendText(String.format("Total: %d receivers, %d packets in %.2f seconds.\n",
+                connections.get(), packets.get(), timeInSeconds));
+        outputArea.appendText(String.format("Aggregate throughput: %.2f pps (%.2f Mbit/s).\n", packetsPerSecond, megabits));
+        logger.info("Total: {} receivers, {} packets in {} seconds", connections.get(), packets.get(), timeInSeconds);
+        logger.info("Aggregate throughput: {} pps ({} Mbit/s)", packetsPerSecond, megabits);
+    }
+}
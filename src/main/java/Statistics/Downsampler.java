@@ -0,0 +1,73 @@
+package Statistics;
+
+/**
+ * <p>Downsampler - прореживание рядов для графиков методом Largest-Triangle-Three-Buckets (LTTB).</p>
+ *
+ * <p>Ряд делится на корзины, и из каждой выбирается точка, образующая наибольший треугольник с точкой,
+ * выбранной в предыдущей корзине, и средним следующей. Так сохраняются пики и провалы, которые простое
+ * усреднение или выбор каждой N-й точки сглаживают, а количество точек на графике не зависит от длины ряда.</p>
+ */
+public final class Downsampler {
+
+    /**
+     * <p>Закрытый конструктор: класс содержит только статические методы.</p>
+     */
+    private Downsampler() {
+    }
+
+    /**
+     * <p>Выбирает точки ряда для отображения.</p>
+     *
+     * @param x абсциссы точек по возрастанию
+     * @param y ординаты точек
+     * @param threshold наибольшее количество точек результата
+     * @return индексы выбранных точек по возрастанию; все индексы, если точек не больше threshold или threshold меньше 3
+     * @throws IllegalArgumentException если длины массивов различаются
+     */
+    public static int[] lttb(double[] x, double[] y, int threshold) {
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("Coordinate arrays must have the same length");
+        }
+        int length = x.length;
+        if (threshold >= length || threshold < 3) {
+            int[] all = new int[length];
+            for (int i = 0; i < length; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] selected = new int[threshold];
+        double bucketSize = (double) (length - 2) / (threshold - 2);
+        int previous = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, length);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += x[i];
+                averageY += y[i];
+            }
+            averageX /= nextEnd - nextStart;
+            averageY /= nextEnd - nextStart;
+
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = nextStart;
+            double maxArea = -1;
+            int best = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((x[previous] - averageX) * (y[i] - y[previous])
+                        - (x[previous] - x[i]) * (averageY - y[previous]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    best = i;
+                }
+            }
+            selected[bucket + 1] = best;
+            previous = best;
+        }
+        selected[threshold - 1] = length - 1;
+        return selected;
+    }
+}
@@ -1,6 +1,7 @@
 package Statistics;
 
-import javafx.scene.control.TextArea;
+import Output.OutputSink;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -9,7 +10,8 @@ import org.apache.logging.log4j.Logger;
  */
 public class GeneratorStatistics {
     private static final Logger logger = LogManager.getLogger(GeneratorStatistics.class);
-    private TextArea outputArea;
+    private OutputSink outputArea;
+    private String label = "";
 
     /**
      * <p>Конструктор без параметров. Необходим т.к. создается конструктор
@@ -21,12 +23,24 @@ public class GeneratorStatistics {
     /**
      * <p>Конструктор с параметром для инициализации области вывода.</p>
      *
-     * @param outputArea область текста для отображения статистики
+     * @param outputArea приемник сообщений для вывода статистики
      */
-    public GeneratorStatistics(TextArea outputArea) {
+    public GeneratorStatistics(OutputSink outputArea) {
         this.outputArea = outputArea;
     }
 
+    /**
+     * <p>Конструктор с областью вывода и меткой соединения.</p>
+     * <p>Метка выводится в начале каждой строки, чтобы различать статистику параллельных сессий.</p>
+     *
+     * @param outputArea приемник сообщений для вывода статистики
+     * @param label метка соединения, например адрес приемника; null - без метки
+     */
+    public GeneratorStatistics(OutputSink outputArea, String label) {
+        this.outputArea = outputArea;
+        this.label = label == null ? "" : "[" + label + "] ";
+    }
+
     /**
      * <p>Метод для отображения статистики передачи данных.</p>
      *
@@ -34,22 +48,93 @@ public class GeneratorStatistics {
      * @param totalBytesRead общее количество байт, созданных для передачи
      * @param startTime время начала передачи в наносекундах
      */
-    public void displayStatistics(int packetCount, int totalBytesRead, long startTime) {
+    public void displayStatistics(long packetCount, long totalBytesRead, long startTime) {
         long endTime = System.nanoTime();
         long transferTime = endTime - startTime;
 
         if (transferTime <= 0) {
-            outputArea.appendText("Transfer time is too short to measure.\n");
+            print("Transfer time is too short to measure.\n");
             logger.warn("Transfer time is too short to measure");
             return;
         }
 
         double timeInSeconds = transferTime / 1_000_000_000.0;
 
-        outputArea.appendText(String.format("Sent %d packets in %.2f seconds.\n", packetCount, timeInSeconds));
-        outputArea.appendText(String.format("Transfer speed: %.2f KB/s.\n", (totalBytesRead) / (1024.0 * timeInSeconds)));
+        print(String.format("Sent %d packets in %.2f seconds.\n", packetCount, timeInSeconds));
+        print(String.format("Transfer speed: %.2f KB/s.\n", (totalBytesRead) / (1024.0 * timeInSeconds)));
 
         logger.info("Sent {} packets in {}  seconds", packetCount, timeInSeconds);
         logger.info("Transfer speed: {} KB/s", (totalBytesRead) / (1024.0 * timeInSeconds));
     }
+
+    /**
+     * <p>Метод для отображения запрошенной и фактически достигнутой скорости отправки.</p>
+     *
+     * @param requestedPacketsPerSecond запрошенная скорость в пакетах в секунду; 0 - без ограничения
+     * @param packetCount общее количество отправленных пакетов
+     * @param packetSize размер пакета в байтах
+     * @param startTime время начала передачи в наносекундах
+     */
+    public void displayRate(double requestedPacketsPerSecond, long packetCount, int packetSize, long startTime) {
+        long transferTime = System.nanoTime() - startTime;
+        if (transferTime <= 0) {
+            return;
+        }
+
+        double timeInSeconds = transferTime / 1_000_000_000.0;
+        double achievedPacketsPerSecond = packetCount / timeInSeconds;
+        double achievedMegabits = achievedPacketsPerSecond * packetSize * 8 / 1_000_000.0;
+
+        if (requestedPacketsPerSecond > 0) {
+            double requestedMegabits = requestedPacketsPerSecond * packetSize * 8 / 1_000_000.0;
+            print(String.format("Requested rate: %.2f pps (%.2f Mbit/s).\n", requestedPacketsPerSecond, requestedMegabits));
+            logger.info("Requested rate: {} pps ({} Mbit/s)", requestedPacketsPerSecond, requestedMegabits);
+        } else {
+            print("Requested rate: unlimited.\n");
+            logger.info("Requested rate: unlimited");
+        }
+        print(String.format("Achieved rate: %.2f pps (%.2f Mbit/s).\n", achievedPacketsPerSecond, achievedMegabits));
+        logger.info("Achieved rate: {} pps ({} Mbit/s)", achievedPacketsPerSecond, achievedMegabits);
+    }
+
+    /**
+     * <p>Метод для отображения количества записей в сокет в расчете на пакет.</p>
+     *
+     * @param writeCalls количество записей (системных вызовов записи)
+     * @param packetCount количество отправленных пакетов
+     */
+    public void displayWriteCalls(long writeCalls, long packetCount) {
+        if (packetCount == 0) {
+            return;
+        }
+        double callsPerPacket = writeCalls / (double) packetCount;
+        print(String.format("Write calls: %d (%.3f per packet).\n", writeCalls, callsPerPacket));
+        logger.info("Write calls: {} ({} per packet)", writeCalls, callsPerPacket);
+    }
+
+    /**
+     * <p>Метод для отображения процессорного времени, затраченного потоком отправки.</p>
+     *
+     * @param cpuTime процессорное время потока в наносекундах; -1, если измерение не поддерживается
+     * @param startTime время начала передачи в наносекундах
+     */
+    public void displayCpuUsage(long cpuTime, long startTime) {
+        long transferTime = System.nanoTime() - startTime;
+        if (cpuTime < 0 || transferTime <= 0) {
+            return;
+        }
+        double cpuMilliseconds = cpuTime / 1_000_000.0;
+        double cpuLoad = cpuTime * 100.0 / transferTime;
+        print(String.format("CPU time: %.2f ms (%.1f%% of one core).\n", cpuMilliseconds, cpuLoad));
+        logger.info("CPU time: {} ms ({}% of one core)", cpuMilliseconds, cpuLoad);
+    }
+
+    /**
+     * <p>Выводит строку статистики с меткой соединения.</p>
+     *
+     * @param text строка для вывода
+     */
+    private void print(String text) {
+        outputArea.appendText(label + text);
+    }
 }
@@ -0,0 +1,77 @@
+package Statistics;
+
+/**
+ * <p>IntervalSample - показатели трафика за один интервал {@link StatisticsSampler}.</p>
+ *
+ * @param intervalNanos длительность интервала в наносекундах
+ * @param packets количество пакетов за интервал
+ * @param bytes количество байт за интервал
+ * @param missing изменение количества недостающих пакетов за интервал; отрицательное, если запоздавших
+ *                пакетов пришло больше, чем открылось новых пропусков
+ * @param totalPackets количество пакетов с начала учета
+ * @param latencyP50Nanos медиана задержки пакетов интервала в наносекундах; 0, если задержки не учитывались
+ * @param latencyP99Nanos 99-й перцентиль задержки пакетов интервала в наносекундах; 0, если задержки не учитывались
+ */
+public record IntervalSample(long intervalNanos, long packets, long bytes, long missing, long totalPackets,
+                             long latencyP50Nanos, long latencyP99Nanos) {
+
+    /**
+     * <p>Возвращает скорость в пакетах в секунду.</p>
+     *
+     * @return пакеты в секунду; 0, если длительность интервала не положительна
+     */
+    public double packetsPerSecond() {
+        return intervalNanos <= 0 ? 0 : packets * 1_000_000_000.0 / intervalNanos;
+    }
+
+    /**
+     * <p>Возвращает пропускную способность в мегабитах в секунду.</p>
+     *
+     * @return Мбит/с; 0, если длительность интервала не положительна
+     */
+    public double megabitsPerSecond() {
+        return intervalNanos <= 0 ? 0 : bytes * 8_000.0 / intervalNanos;
+    }
+
+    /**
+     * <p>Возвращает долю пакетов, потерянных за интервал, в процентах.</p>
+     *
+     * @return потери в процентах; 0, если пропусков не прибавилось
+     */
+    public double lossPercent() {
+        return missing <= 0 ? 0 : missing * 100.0 / (packets + missing);
+    }
+
+    /**
+     * <p>Проверяет, учитывались ли за интервал задержки пакетов.</p>
+     *
+     * @return true, если перцентили задержки известны
+     */
+    public boolean hasLatency() {
+        return latencyP99Nanos > 0;
+    }
+
+    /**
+     * <p>Проверяет, что за интервал не было трафика.</p>
+     *
+     * @return true, если не пришло ни одного пакета и не изменились потери
+     */
+    public boolean isIdle() {
+        return packets == 0 && missing == 0;
+    }
+
+    /**
+     * <p>Возвращает строку для вывода.</p>
+     *
+     * @return строка с длительностью интервала, скоростью, потерями и задержкой, если она учитывалась
+     */
+    public String format() {
+        String text = String.format("Interval %.2f s: %d packets, %.2f pps, %.2f Mbit/s, loss %.2f%%",
+                intervalNanos / 1_000_000_000.0, packets, packetsPerSecond(), megabitsPerSecond(), lossPercent());
+        if (hasLatency()) {
+            text += String.format(", latency p50 %.3f ms, p99 %.3f ms",
+                    latencyP50Nanos / 1_000_000.0, latencyP99Nanos / 1_000_000.0);
+        }
+        return text + '.';
+    }
+}
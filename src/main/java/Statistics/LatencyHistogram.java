@@ -0,0 +1,262 @@
+package Statistics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * <p>LatencyHistogram - гистограмма задержек с логарифмическими корзинами фиксированного размера.</p>
+ *
+ * <p>Значения до {@value #LINEAR_LIMIT} нс учитываются точно, дальше каждая степень двойки делится на
+ * {@value #SUB_BUCKETS} корзин, поэтому относительная погрешность перцентилей не больше 1/{@value #SUB_BUCKETS}
+ * (около 3%) во всем диапазоне от наносекунд до часов. Массив корзин создается один раз, запись значения
+ * не создает объектов и сводится к нескольким битовым операциям.</p>
+ *
+ * <p>Метод {@link #record(long)} рассчитан на один пишущий поток (обработчик соединения). Гистограммы
+ * нескольких соединений складываются методом {@link #merge(LatencyHistogram)}, который, как и
+ * {@link #writeCsv(Writer)}, синхронизирован по целевой гистограмме. Общую гистограмму, в которую сливают
+ * другие потоки, читают через {@link #snapshot()}: копия снимается под той же блокировкой, поэтому
+ * количество, максимум и перцентили в ней согласованы между собой.</p>
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+    private static final int LINEAR_BITS = SUB_BUCKET_BITS + 1;
+    static final int BUCKET_COUNT = LINEAR_LIMIT + (Long.SIZE - 1 - LINEAR_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+    private long clamped;
+
+    /**
+     * <p>Учитывает одно значение задержки.</p>
+     * <p>Отрицательные значения (например, из-за расхождения часов отправителя и получателя) учитываются как 0.</p>
+     *
+     * @param nanos задержка в наносекундах
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            clamped++;
+            nanos = 0;
+        }
+        counts[bucketIndex(nanos)]++;
+        count++;
+        sum += nanos;
+        if (nanos < min) {
+            min = nanos;
+        }
+        if (nanos > max) {
+            max = nanos;
+        }
+    }
+
+    /**
+     * <p>Добавляет значения в корзину с заданным номером.</p>
+     * <p>Используется при переносе корзин из {@link TrafficCounters}: точные значения там не хранятся,
+     * поэтому среднее и крайние значения оцениваются по верхней границе корзины.</p>
+     *
+     * @param index номер корзины
+     * @param values количество значений
+     */
+    void add(int index, long values) {
+        long upperBound = bucketUpperBound(index);
+        counts[index] += values;
+        count += values;
+        sum += upperBound * values;
+        min = Math.min(min, upperBound);
+        max = Math.max(max, upperBound);
+    }
+
+    /**
+     * <p>Добавляет значения другой гистограммы к этой.</p>
+     *
+     * @param other гистограмма для добавления
+     */
+    public synchronized void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        clamped += other.clamped;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * <p>Возвращает копию гистограммы, снятую под блокировкой {@link #merge(LatencyHistogram)}.</p>
+     *
+     * @return независимая копия значений
+     */
+    public synchronized LatencyHistogram snapshot() {
+        LatencyHistogram copy = new LatencyHistogram();
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * <p>Сбрасывает все значения.</p>
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+        clamped = 0;
+    }
+
+    /**
+     * <p>Возвращает значение, не больше которого заданная доля задержек.</p>
+     * <p>Результат - верхняя граница корзины, в которую попадает перцентиль, но не больше максимума.</p>
+     *
+     * @param percentile перцентиль от 0 до 100
+     * @return задержка в наносекундах; 0, если значений нет
+     * @throws IllegalArgumentException если перцентиль вне диапазона от 0 до 100
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank) {
+                return Math.min(bucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * <p>Возвращает количество учтенных значений.</p>
+     *
+     * @return количество значений
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * <p>Возвращает сумму учтенных значений.</p>
+     *
+     * @return сумма задержек в наносекундах
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * <p>Возвращает количество значений, не больших заданного, с точностью до корзины:
+     * учитываются корзины, верхняя граница которых не больше заданного значения.</p>
+     *
+     * @param nanos граница в наносекундах
+     * @return количество значений
+     */
+    public synchronized long countAtMost(long nanos) {
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT && bucketUpperBound(i) <= nanos; i++) {
+            cumulative += counts[i];
+        }
+        return cumulative;
+    }
+
+    /**
+     * <p>Возвращает наименьшее значение.</p>
+     *
+     * @return задержка в наносекундах; 0, если значений нет
+     */
+    public long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    /**
+     * <p>Возвращает наибольшее значение.</p>
+     *
+     * @return задержка в наносекундах
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * <p>Возвращает среднее значение.</p>
+     *
+     * @return средняя задержка в наносекундах; 0, если значений нет
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * <p>Возвращает количество отрицательных значений, учтенных как 0.</p>
+     *
+     * @return количество отрицательных значений
+     */
+    public long getClamped() {
+        return clamped;
+    }
+
+    /**
+     * <p>Выводит непустые корзины в формате CSV: верхняя граница корзины в наносекундах, количество
+     * значений в корзине и накопленная доля значений в процентах.</p>
+     * <p>Файлы разных запусков можно сравнивать построчно или строить по ним графики хвоста распределения.</p>
+     *
+     * @param writer приемник текста
+     * @throws IOException если возникает ошибка записи
+     */
+    public synchronized void writeCsv(Writer writer) throws IOException {
+        writer.write("upper_bound_ns,count,cumulative_percent\n");
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            cumulative += counts[i];
+            writer.write(String.format(Locale.ROOT, "%d,%d,%.4f%n",
+                    Math.min(bucketUpperBound(i), max), counts[i], cumulative * 100.0 / count));
+        }
+        writer.flush();
+    }
+
+    /**
+     * <p>Вычисляет номер корзины для значения.</p>
+     *
+     * @param value неотрицательное значение
+     * @return номер корзины
+     */
+    static int bucketIndex(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - LINEAR_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * <p>Вычисляет наибольшее значение, попадающее в корзину.</p>
+     *
+     * @param index номер корзины
+     * @return верхняя граница корзины включительно
+     */
+    private static long bucketUpperBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int exponent = (index - LINEAR_LIMIT) / SUB_BUCKETS + LINEAR_BITS;
+        int subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lower = (1L << exponent) + subBucket * width;
+        return lower + width - 1;
+    }
+}
@@ -1,6 +1,7 @@
 package Statistics;
 
-import javafx.scene.control.TextArea;
+import Output.OutputSink;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -10,14 +11,14 @@ import org.apache.logging.log4j.Logger;
  */
 public class ReceiverStatistics extends GeneratorStatistics {
     private static final Logger logger = LogManager.getLogger(ReceiverStatistics.class);
-    private TextArea outputArea;
+    private OutputSink outputArea;
 
     /**
-     * <p>Конструктор для инициализации @see ReceiverStatistics с областью текста.</p>
+     * <p>Конструктор для инициализации @see ReceiverStatistics с приемником сообщений.</p>
      *
-     * @param outputArea область текста для отображения статистики
+     * @param outputArea приемник сообщений для вывода статистики
      */
-    public ReceiverStatistics(TextArea outputArea) {
+    public ReceiverStatistics(OutputSink outputArea) {
         this.outputArea = outputArea;
     }
 
@@ -29,8 +30,21 @@ public class ReceiverStatistics extends GeneratorStatistics {
      * @param startTime время начала передачи в наносекундах
      */
     @Override
-    public void displayStatistics(int packetCount, int totalBytesReceived, long startTime) {
-        long endTime = System.nanoTime();
+    public void displayStatistics(long packetCount, long totalBytesReceived, long startTime) {
+        displayStatistics(packetCount, totalBytesReceived, startTime, System.nanoTime());
+    }
+
+    /**
+     * <p>Метод для отображения статистики приема данных за заданный интервал.</p>
+     * <p>Используется, когда прием закончился раньше вызова, например при приеме датаграмм,
+     * где после конца сессии приемник еще некоторое время ждет запоздавшие пакеты.</p>
+     *
+     * @param packetCount общее количество полученных пакетов
+     * @param totalBytesReceived общее количество байт, полученных за передачу
+     * @param startTime время начала передачи в наносекундах
+     * @param endTime время окончания передачи в наносекундах
+     */
+    public void displayStatistics(long packetCount, long totalBytesReceived, long startTime, long endTime) {
         long transferTime = endTime - startTime;
 
         if (packetCount == 0) {
@@ -62,15 +76,63 @@ public class ReceiverStatistics extends GeneratorStatistics {
      * @param expectedPacketCount общее количество полученных пакетов
      * @param packetCount ожидаемое количество пакетов
      */
-    public void displayPacketLoss(int packetCount, int expectedPacketCount) {
+    public void displayPacketLoss(long packetCount, long expectedPacketCount) {
         if (expectedPacketCount == 0) {
             logger.warn("Expected packet count is zero, cannot calculate packet loss");
             return;
         }
-        int lostPackets = packetCount - expectedPacketCount;
+        long lostPackets = packetCount - expectedPacketCount;
         double packetLoss = (lostPackets / (double) packetCount) * 100;
 
         outputArea.appendText(String.format("Packet loss: %.2f%%.\n", packetLoss));
         logger.info("Packet loss: {}%", packetLoss);
     }
+
+    /**
+     * <p>Метод для отображения потерь, дубликатов и нарушений порядка по порядковым номерам пакетов,
+     * а также поврежденных пакетов, если проверялись контрольные суммы.</p>
+     *
+     * @param tracker учет порядковых номеров полученных пакетов
+     */
+    public void displaySequenceStatistics(SequenceTracker tracker) {
+        outputArea.appendText(String.format("Packet loss: %d of %d (%.2f%%).\n",
+                tracker.getLost(), tracker.getExpected(), tracker.getLossPercent()));
+        outputArea.appendText(String.format("Duplicates: %d, out of order: %d.\n",
+                tracker.getDuplicates(), tracker.getReordered()));
+        logger.info("Packet loss: {} of {} ({}%)", tracker.getLost(), tracker.getExpected(), tracker.getLossPercent());
+        logger.info("Duplicates: {}, out of order: {}, invalid: {}",
+                tracker.getDuplicates(), tracker.getReordered(), tracker.getInvalid());
+        if (tracker.getInvalid() > 0) {
+            outputArea.appendText(String.format("Invalid sequence numbers: %d.\n", tracker.getInvalid()));
+        }
+        if (tracker.getVerified() > 0) {
+            outputArea.appendText(String.format("Payload integrity: %d corrupted of %d verified.\n",
+                    tracker.getCorrupted(), tracker.getVerified()));
+            logger.info("Payload integrity: {} corrupted of {} verified", tracker.getCorrupted(), tracker.getVerified());
+        }
+    }
+
+    /**
+     * <p>Метод для отображения перцентилей задержки пакетов.</p>
+     * <p>Задержка - время от отметки отправки в кадре до его разбора приемником. Отрицательные значения
+     * означают, что часы генератора и приемника расходятся, и учитываются как 0.</p>
+     *
+     * @param histogram гистограмма задержек сессии
+     */
+    public void displayLatency(LatencyHistogram histogram) {
+        if (histogram.getCount() == 0) {
+            return;
+        }
+        outputArea.appendText(String.format("Latency p50: %.3f ms, p90: %.3f ms, p99: %.3f ms, p99.9: %.3f ms, max: %.3f ms.\n",
+                histogram.getPercentile(50) / 1_000_000.0, histogram.getPercentile(90) / 1_000_000.0,
+                histogram.getPercentile(99) / 1_000_000.0, histogram.getPercentile(99.9) / 1_000_000.0,
+                histogram.getMax() / 1_000_000.0));
+        logger.info("Latency p50: {} ns, p90: {} ns, p99: {} ns, p99.9: {} ns, max: {} ns, mean: {} ns",
+                histogram.getPercentile(50), histogram.getPercentile(90), histogram.getPercentile(99),
+                histogram.getPercentile(99.9), histogram.getMax(), histogram.getMean());
+        if (histogram.getClamped() > 0) {
+            outputArea.appendText(String.format("Negative latencies (clock skew): %d.\n", histogram.getClamped()));
+            logger.warn("Negative latencies counted as zero: {}", histogram.getClamped());
+        }
+    }
 }
@@ -0,0 +1,146 @@
+package Statistics;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * <p>SampleRing - кольцевой буфер показателей интервалов фиксированного размера.</p>
+ *
+ * <p>Значения хранятся в массивах примитивов, выделенных один раз, поэтому память не растет со временем:
+ * после заполнения новые интервалы замещают самые старые. Буфер пишет поток выборки, а читает поток
+ * интерфейса, поэтому методы синхронизированы.</p>
+ */
+public class SampleRing {
+
+    /**
+     * <p>Metric - показатель интервала, который хранит буфер.</p>
+     */
+    public enum Metric {
+        /**
+         * <p>Пропускная способность в Мбит/с.</p>
+         */
+        THROUGHPUT_MBPS(IntervalSample::megabitsPerSecond),
+
+        /**
+         * <p>Скорость в пакетах в секунду.</p>
+         */
+        PACKETS_PER_SECOND(IntervalSample::packetsPerSecond),
+
+        /**
+         * <p>Потери в процентах.</p>
+         */
+        LOSS_PERCENT(IntervalSample::lossPercent),
+
+        /**
+         * <p>Медиана задержки в миллисекундах.</p>
+         */
+        LATENCY_P50_MS(sample -> sample.latencyP50Nanos() / 1_000_000.0),
+
+        /**
+         * <p>99-й перцентиль задержки в миллисекундах.</p>
+         */
+        LATENCY_P99_MS(sample -> sample.latencyP99Nanos() / 1_000_000.0);
+
+        private final ToDoubleFunction<IntervalSample> extractor;
+
+        /**
+         * <p>Конструктор показателя.</p>
+         *
+         * @param extractor функция, которая вычисляет показатель по интервалу
+         */
+        Metric(ToDoubleFunction<IntervalSample> extractor) {
+            this.extractor = extractor;
+        }
+    }
+
+    /**
+     * <p>Snapshot - копия содержимого буфера в хронологическом порядке.</p>
+     *
+     * @param times время конца каждого интервала в секундах
+     * @param values значения показателей: первый индекс - {@link Metric#ordinal()}, второй - номер интервала
+     */
+    public record Snapshot(double[] times, double[][] values) {
+
+        /**
+         * <p>Возвращает значения одного показателя.</p>
+         *
+         * @param metric показатель
+         * @return значения в хронологическом порядке
+         */
+        public double[] values(Metric metric) {
+            return values[metric.ordinal()];
+        }
+    }
+
+    private final double[] times;
+    private final double[][] values;
+    private int next;
+    private int size;
+
+    /**
+     * <p>Конструктор класса SampleRing.</p>
+     *
+     * @param capacity количество хранимых интервалов
+     * @throws IllegalArgumentException если размер не положителен
+     */
+    public SampleRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        times = new double[capacity];
+        values = new double[Metric.values().length][capacity];
+    }
+
+    /**
+     * <p>Добавляет показатели интервала; если буфер заполнен, замещает самый старый интервал.</p>
+     *
+     * @param timeSeconds время конца интервала в секундах
+     * @param sample показатели интервала
+     */
+    public synchronized void add(double timeSeconds, IntervalSample sample) {
+        times[next] = timeSeconds;
+        for (Metric metric : Metric.values()) {
+            values[metric.ordinal()][next] = metric.extractor.applyAsDouble(sample);
+        }
+        next = (next + 1) % times.length;
+        size = Math.min(size + 1, times.length);
+    }
+
+    /**
+     * <p>Возвращает количество хранимых интервалов.</p>
+     *
+     * @return количество интервалов
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * <p>Копирует содержимое буфера в хронологическом порядке.</p>
+     *
+     * @return копия содержимого
+     */
+    public synchronized Snapshot snapshot() {
+        int start = size < times.length ? 0 : next;
+        double[] timesCopy = copy(times, start);
+        double[][] valuesCopy = new double[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            valuesCopy[i] = copy(values[i], start);
+        }
+        return new Snapshot(timesCopy, valuesCopy);
+    }
+
+    /**
+     * <p>Копирует кольцевой массив, начиная с заданного индекса.</p>
+     *
+     * @param source кольцевой массив
+     * @param start индекс самого старого значения
+     * @return массив из size значений в хронологическом порядке
+     */
+    private double[] copy(double[] source, int start) {
+        double[] result = new double[size];
+        int head = Math.min(size, source.length - start);
+        System.arraycopy(source, start, result, 0, head);
+        System.arraycopy(source, 0, result, head, size - head);
+        return result;
+    }
+}
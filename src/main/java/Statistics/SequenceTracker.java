@@ -0,0 +1,158 @@
+package Statistics;
+
+import java.util.BitSet;
+
+/**
+ * <p>SequenceTracker - класс для учета порядковых номеров полученных пакетов.</p>
+ *
+ * <p>Отмечает каждый номер в битовом множестве, поэтому отличает новые пакеты от дубликатов.
+ * Пакет считается пришедшим не по порядку, если его номер меньше наибольшего уже полученного.
+ * Потерянными считаются ожидаемые номера, которые так и не пришли. Если генератор записывает в пакеты
+ * контрольные суммы, здесь же учитываются результаты их проверки.</p>
+ */
+public class SequenceTracker {
+    private final long expected;
+    private final BitSet seen = new BitSet();
+    private long received;
+    private long duplicates;
+    private long reordered;
+    private long invalid;
+    private long verified;
+    private long corrupted;
+    private long highest = -1;
+
+    /**
+     * <p>Конструктор класса SequenceTracker.</p>
+     *
+     * @param expected ожидаемое количество пакетов с номерами от 0 до expected - 1
+     * @throws IllegalArgumentException если ожидаемое количество отрицательное
+     */
+    public SequenceTracker(long expected) {
+        if (expected < 0 || expected > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Expected packet count must be between 0 and " + Integer.MAX_VALUE);
+        }
+        this.expected = expected;
+    }
+
+    /**
+     * <p>Учитывает полученный пакет.</p>
+     * <p>Возвращает, на сколько изменилось количество недостающих пакетов до наибольшего полученного номера:
+     * по нему живая статистика считает потери за интервал, не дожидаясь конца сессии.</p>
+     *
+     * @param sequence порядковый номер пакета
+     * @return размер открывшегося пропуска; -1, если пакет заполнил пропуск; 0 в остальных случаях
+     */
+    public long record(long sequence) {
+        if (sequence < 0 || sequence >= expected) {
+            invalid++;
+            return 0;
+        }
+        int index = (int) sequence;
+        if (seen.get(index)) {
+            duplicates++;
+            return 0;
+        }
+        seen.set(index);
+        received++;
+        if (sequence < highest) {
+            reordered++;
+            return -1;
+        }
+        long gap = sequence - highest - 1;
+        highest = sequence;
+        return gap;
+    }
+
+    /**
+     * <p>Учитывает результат проверки контрольной суммы полезной нагрузки пакета.</p>
+     *
+     * @param valid true, если контрольная сумма совпала
+     */
+    public void recordChecksum(boolean valid) {
+        verified++;
+        if (!valid) {
+            corrupted++;
+        }
+    }
+
+    /**
+     * <p>Возвращает ожидаемое количество пакетов.</p>
+     *
+     * @return количество пакетов
+     */
+    public long getExpected() {
+        return expected;
+    }
+
+    /**
+     * <p>Возвращает количество различных полученных пакетов.</p>
+     *
+     * @return количество пакетов без дубликатов
+     */
+    public long getReceived() {
+        return received;
+    }
+
+    /**
+     * <p>Возвращает количество потерянных пакетов.</p>
+     *
+     * @return количество пакетов, которые не пришли
+     */
+    public long getLost() {
+        return expected - received;
+    }
+
+    /**
+     * <p>Возвращает количество повторно полученных пакетов.</p>
+     *
+     * @return количество дубликатов
+     */
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * <p>Возвращает количество пакетов, пришедших не по порядку.</p>
+     *
+     * @return количество пакетов с номером меньше уже полученного
+     */
+    public long getReordered() {
+        return reordered;
+    }
+
+    /**
+     * <p>Возвращает количество пакетов с номером вне ожидаемого диапазона.</p>
+     *
+     * @return количество некорректных номеров
+     */
+    public long getInvalid() {
+        return invalid;
+    }
+
+    /**
+     * <p>Возвращает количество пакетов, у которых проверялась контрольная сумма.</p>
+     *
+     * @return количество проверенных пакетов
+     */
+    public long getVerified() {
+        return verified;
+    }
+
+    /**
+     * <p>Возвращает количество пакетов с несовпавшей контрольной суммой.</p>
+     *
+     * @return количество поврежденных пакетов
+     */
+    public long getCorrupted() {
+        return corrupted;
+    }
+
+    /**
+     * <p>Возвращает долю потерянных пакетов в процентах.</p>
+     *
+     * @return потери в процентах; 0, если пакеты не ожидались
+     */
+    public double getLossPercent() {
+        return expected == 0 ? 0 : getLost() * 100.0 / expected;
+    }
+}
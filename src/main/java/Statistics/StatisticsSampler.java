@@ -0,0 +1,168 @@
+package Statistics;
+
+import NetworkConnection.NetworkConfig;
+import NetworkConnection.ParameterParser;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * <p>StatisticsSampler - поток, который с заданным интервалом снимает показания {@link TrafficCounters}
+ * и передает слушателям показатели интервала {@link IntervalSample}.</p>
+ *
+ * <p>Потоки отправки и приема только обновляют счетчики и ничего не знают о выводе: как показывать
+ * интервалы, решают слушатели (область вывода, журнал, экспорт метрик). Слушатели вызываются в потоке
+ * выборки и не должны в нем блокироваться.</p>
+ */
+public class StatisticsSampler implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(StatisticsSampler.class);
+    private final TrafficCounters counters;
+    private final long intervalMillis;
+    private final List<Consumer<IntervalSample>> listeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<LatencyHistogram>> latencyListeners = new CopyOnWriteArrayList<>();
+    private final LatencyHistogram intervalLatency = new LatencyHistogram();
+    private ScheduledExecutorService executor;
+    private long lastTime;
+    private long lastPackets;
+    private long lastBytes;
+    private long lastMissing;
+
+    /**
+     * <p>Конструктор класса StatisticsSampler.</p>
+     *
+     * @param counters счетчики, с которых снимаются показания
+     * @param intervalMillis интервал между выборками в миллисекундах
+     * @throws IllegalArgumentException если интервал не положителен
+     */
+    public StatisticsSampler(TrafficCounters counters, long intervalMillis) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Sample interval must be positive");
+        }
+        this.counters = counters;
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * <p>Определяет интервал выборки по строке.</p>
+     *
+     * @param value интервал в миллисекундах; null или пустая строка - {@link NetworkConfig#SAMPLE_INTERVAL_MS}
+     * @return интервал в миллисекундах
+     * @throws IllegalArgumentException если значение не положительное число
+     */
+    public static long parseInterval(String value) {
+        return ParameterParser.parseLong("sample interval", value, NetworkConfig.SAMPLE_INTERVAL_MS, 1, Long.MAX_VALUE);
+    }
+
+    /**
+     * <p>Добавляет слушателя показателей интервалов.</p>
+     *
+     * @param listener слушатель
+     * @return этот объект
+     */
+    public StatisticsSampler addListener(Consumer<IntervalSample> listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * <p>Добавляет слушателя задержек интервала.</p>
+     * <p>Слушатель получает гистограмму задержек за интервал раньше слушателей показателей. Гистограмма
+     * принадлежит выборке и действительна только во время вызова: ее можно добавить к своей, но не сохранять.</p>
+     *
+     * @param listener слушатель
+     * @return этот объект
+     */
+    public StatisticsSampler addLatencyListener(Consumer<LatencyHistogram> listener) {
+        latencyListeners.add(listener);
+        return this;
+    }
+
+    /**
+     * <p>Запускает выборку: первый интервал отсчитывается от текущих показаний счетчиков.</p>
+     *
+     * @return этот объект
+     * @throws IllegalStateException если выборка уже запущена
+     */
+    public synchronized StatisticsSampler start() {
+        if (executor != null) {
+            throw new IllegalStateException("Sampler is already started");
+        }
+        lastTime = System.nanoTime();
+        lastPackets = counters.getPackets();
+        lastBytes = counters.getBytes();
+        lastMissing = counters.getMissing();
+        counters.drainLatency(intervalLatency);
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "statistics-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::sample, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        logger.info("Statistics sampler started: every {} ms", intervalMillis);
+        return this;
+    }
+
+    /**
+     * <p>Снимает показания за прошедший интервал и передает их слушателям.</p>
+     *
+     * @return показатели интервала
+     */
+    public synchronized IntervalSample sample() {
+        long now = System.nanoTime();
+        long packets = counters.getPackets();
+        long bytes = counters.getBytes();
+        long missing = counters.getMissing();
+        intervalLatency.reset();
+        counters.drainLatency(intervalLatency);
+        IntervalSample sample = new IntervalSample(now - lastTime, packets - lastPackets, bytes - lastBytes,
+                missing - lastMissing, packets, intervalLatency.getPercentile(50), intervalLatency.getPercentile(99));
+        lastTime = now;
+        lastPackets = packets;
+        lastBytes = bytes;
+        lastMissing = missing;
+        for (Consumer<LatencyHistogram> listener : latencyListeners) {
+            try {
+                listener.accept(intervalLatency);
+            } catch (RuntimeException e) {
+                logger.error("Latency listener failed: {}", e.getMessage());
+            }
+        }
+        for (Consumer<IntervalSample> listener : listeners) {
+            try {
+                listener.accept(sample);
+            } catch (RuntimeException e) {
+                logger.error("Statistics listener failed: {}", e.getMessage());
+            }
+        }
+        return sample;
+    }
+
+    /**
+     * <p>Останавливает выборку и передает слушателям последний, неполный интервал.</p>
+     */
+    @Override
+    public void close() {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = executor;
+            executor = null;
+        }
+        if (running == null) {
+            return;
+        }
+        running.shutdownNow();
+        try {
+            running.awaitTermination(intervalMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sample();
+        logger.info("Statistics sampler stopped");
+    }
+}
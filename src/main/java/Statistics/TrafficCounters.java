@@ -0,0 +1,132 @@
+package Statistics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>TrafficCounters - 64-битные счетчики трафика, которые обновляются на каждом пакете.</p>
+ *
+ * <p>Счетчики построены на {@link LongAdder}: каждый поток отправки или приема пишет в свою ячейку, поэтому
+ * соединения не конкурируют за одну строку кеша, а запись не требует блокировок. Суммы читает
+ * {@link StatisticsSampler} раз в интервал; значения, прочитанные во время записи, могут не включать
+ * последние пакеты, которые попадут в следующий интервал.</p>
+ *
+ * <p>Задержки учитываются в корзинах той же сетки, что и в {@link LatencyHistogram}, но счетчики корзин
+ * атомарные: в них пишут все соединения сразу, а поток выборки забирает и обнуляет их раз в интервал.</p>
+ */
+public class TrafficCounters {
+    private final LongAdder packets = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder missing = new LongAdder();
+    private final LongAdder sessions = new LongAdder();
+    private final LongAdder writeNanos = new LongAdder();
+    private final AtomicLongArray latencyCounts = new AtomicLongArray(LatencyHistogram.BUCKET_COUNT);
+
+    /**
+     * <p>Учитывает один пакет.</p>
+     *
+     * @param packetBytes размер полезной нагрузки пакета в байтах
+     */
+    public void record(long packetBytes) {
+        packets.increment();
+        bytes.add(packetBytes);
+    }
+
+    /**
+     * <p>Учитывает изменение количества недостающих пакетов.</p>
+     * <p>Положительное значение - открылся пропуск в порядковых номерах, отрицательное - пропуск
+     * заполнил запоздавший пакет.</p>
+     *
+     * @param delta изменение количества недостающих пакетов
+     * @see SequenceTracker#record(long)
+     */
+    public void recordMissing(long delta) {
+        if (delta != 0) {
+            missing.add(delta);
+        }
+    }
+
+    /**
+     * <p>Учитывает начало сессии.</p>
+     */
+    public void recordSession() {
+        sessions.increment();
+    }
+
+    /**
+     * <p>Учитывает время, проведенное в записи в сокет.</p>
+     *
+     * @param nanos время в наносекундах
+     */
+    public void recordWriteNanos(long nanos) {
+        writeNanos.add(nanos);
+    }
+
+    /**
+     * <p>Учитывает задержку одного пакета.</p>
+     * <p>Отрицательные значения учитываются как 0, как и в {@link LatencyHistogram#record(long)}.</p>
+     *
+     * @param nanos задержка в наносекундах
+     */
+    public void recordLatency(long nanos) {
+        latencyCounts.incrementAndGet(LatencyHistogram.bucketIndex(Math.max(0, nanos)));
+    }
+
+    /**
+     * <p>Переносит задержки, учтенные с прошлого вызова, в гистограмму и обнуляет их.</p>
+     *
+     * @param target гистограмма, в которую добавляются задержки
+     */
+    public void drainLatency(LatencyHistogram target) {
+        for (int i = 0; i < latencyCounts.length(); i++) {
+            if (latencyCounts.get(i) != 0) {
+                target.add(i, latencyCounts.getAndSet(i, 0));
+            }
+        }
+    }
+
+    /**
+     * <p>Возвращает количество учтенных пакетов.</p>
+     *
+     * @return количество пакетов
+     */
+    public long getPackets() {
+        return packets.sum();
+    }
+
+    /**
+     * <p>Возвращает количество начатых сессий.</p>
+     *
+     * @return количество сессий
+     */
+    public long getSessions() {
+        return sessions.sum();
+    }
+
+    /**
+     * <p>Возвращает время, проведенное в записи в сокет.</p>
+     *
+     * @return время в наносекундах
+     */
+    public long getWriteNanos() {
+        return writeNanos.sum();
+    }
+
+    /**
+     * <p>Возвращает количество учтенных байт.</p>
+     *
+     * @return количество байт
+     */
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    /**
+     * <p>Возвращает текущее количество недостающих пакетов.</p>
+     *
+     * @return количество пакетов, пропущенных в порядковых номерах и еще не пришедших
+     */
+    public long getMissing() {
+        return missing.sum();
+    }
+}
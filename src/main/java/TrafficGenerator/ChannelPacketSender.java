@@ -0,0 +1,291 @@
+package TrafficGenerator;
+
+import ErrorHandler.ErrorHandler;
+import Monitoring.WriteStallEvent;
+import NetworkConnection.BufferPool;
+import NetworkConnection.Transport;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.Arrays;
+
+/**
+ * <p>ChannelPacketSender - класс для отправки пакетов через канал NIO из прямых буферов.</p>
+ *
+ * <p>Кадры уходят одной собирающей записью {@link GatheringByteChannel#write(ByteBuffer[], int, int)} из
+ * участков прямой памяти. Полезная нагрузка из {@link PayloadGenerator} не копируется: в запись передается
+ * окно прямой копии его кольцевого блока. В прямые буферы из {@link BufferPool} копируются только заголовки
+ * кадров и нагрузка, переданная массивом (например, из файла захвата). Частичные записи дописываются до конца.
+ * В пакетном режиме запись выполняется, когда накоплен заданный объем, буферы заполнены или первый пакет
+ * ждет дольше заданной границы задержки.</p>
+ */
+public class ChannelPacketSender implements PacketSink {
+    private static final Logger logger = LogManager.getLogger(ChannelPacketSender.class);
+    private static final int UNBATCHED_BUFFERS = 4;
+    // Наибольшее количество участков одной собирающей записи, как IOV_MAX в Linux
+    private static final int MAX_VIEWS = 1024;
+    private final GatheringByteChannel channel;
+    private final BufferPool bufferPool;
+    private final ByteBuffer[] buffers;
+    private final ByteBuffer[] views;
+    private final ByteBuffer[] viewSources;
+    private final boolean batching;
+    private final int batchBytes;
+    private final long maxBatchDelayNanos;
+    private int current;
+    private int viewCount;
+    private int pendingBytes;
+    private long batchStartTime;
+    private long writeCalls;
+    private long packetsSent;
+    private boolean failed;
+
+    /**
+     * <p>Конструктор класса ChannelPacketSender: каждый пакет отправляется сразу.</p>
+     *
+     * @param channel блокирующий канал для отправки данных
+     * @param bufferPool пул прямых буферов
+     * @throws IllegalArgumentException если канал или пул равны null
+     */
+    public ChannelPacketSender(GatheringByteChannel channel, BufferPool bufferPool) {
+        this(channel, bufferPool, UNBATCHED_BUFFERS, 0, 0);
+    }
+
+    /**
+     * <p>Конструктор класса ChannelPacketSender в пакетном режиме.</p>
+     *
+     * @param channel блокирующий канал для отправки данных
+     * @param bufferPool пул прямых буферов
+     * @param batchBytes максимальный размер одной записи в байтах
+     * @param maxBatchDelayNanos максимальное время ожидания пакета в буфере в наносекундах
+     * @throws IllegalArgumentException если канал или пул равны null или параметры пакетного режима не положительны
+     */
+    public ChannelPacketSender(GatheringByteChannel channel, BufferPool bufferPool, int batchBytes, long maxBatchDelayNanos) {
+        this(channel, bufferPool, checkBatch(bufferPool, batchBytes, maxBatchDelayNanos), batchBytes, maxBatchDelayNanos);
+    }
+
+    /**
+     * <p>Общий конструктор: берет из пула заданное количество прямых буферов.</p>
+     *
+     * @param channel блокирующий канал для отправки данных
+     * @param bufferPool пул прямых буферов
+     * @param bufferCount количество буферов
+     * @param batchBytes максимальный размер одной записи в байтах; 0 - каждый пакет отправляется сразу
+     * @param maxBatchDelayNanos максимальное время ожидания пакета в буфере в наносекундах
+     */
+    private ChannelPacketSender(GatheringByteChannel channel, BufferPool bufferPool, int bufferCount,
+                                int batchBytes, long maxBatchDelayNanos) {
+        if (channel == null || bufferPool == null) {
+            throw new IllegalArgumentException("Channel and buffer pool cannot be null");
+        }
+        this.channel = channel;
+        this.bufferPool = bufferPool;
+        this.batching = batchBytes > 0;
+        this.batchBytes = batchBytes;
+        this.maxBatchDelayNanos = maxBatchDelayNanos;
+        this.buffers = new ByteBuffer[bufferCount];
+        this.views = new ByteBuffer[batching ? MAX_VIEWS : 2 * bufferCount];
+        this.viewSources = new ByteBuffer[views.length];
+        for (int i = 0; i < bufferCount; i++) {
+            buffers[i] = bufferPool.acquire();
+        }
+        logger.info("ChannelPacketSender initialized: {} direct buffers of {} bytes, batching = {}",
+                bufferCount, bufferPool.getBufferSize(), batching);
+    }
+
+    @Override
+    public void sendFrame(byte[] header, byte[] data, int offset, int length) {
+        if (data == null || header == null) {
+            ErrorHandler.handleInputError("Cannot send null data packet");
+            return;
+        }
+        send(header, data, null, offset, length);
+    }
+
+    @Override
+    public void sendFrame(byte[] header, PayloadGenerator payload, int offset, int length) {
+        if (payload == null || header == null) {
+            ErrorHandler.handleInputError("Cannot send null data packet");
+            return;
+        }
+        send(header, null, payload.getDirectBuffer(), offset, length);
+    }
+
+    /**
+     * <p>Добавляет кадр к записи и отправляет накопленное, если запись не пакетная или пакет готов.</p>
+     *
+     * @param header заголовок кадра
+     * @param data массив с полезной нагрузкой или null, если нагрузка берется из прямого буфера
+     * @param direct прямой буфер с полезной нагрузкой или null
+     * @param offset смещение начала нагрузки
+     * @param length длина нагрузки
+     */
+    private void send(byte[] header, byte[] data, ByteBuffer direct, int offset, int length) {
+        try {
+            long now = batching ? System.nanoTime() : 0;
+            if (pendingBytes == 0) {
+                batchStartTime = now;
+            }
+            append(header, 0, header.length);
+            if (direct != null) {
+                if (viewCount == views.length) {
+                    writeBuffers();
+                }
+                addView(direct, offset, length);
+            } else {
+                append(data, offset, length);
+            }
+            if (!batching || pendingBytes >= batchBytes || now - batchStartTime >= maxBatchDelayNanos) {
+                writeBuffers();
+            }
+            packetsSent++;
+        } catch (IOException e) {
+            failed = true;
+            ErrorHandler.handleIOException("Error sending packet", e);
+        }
+    }
+
+    @Override
+    public void flushIfDue(long nextSendTime) {
+        if (pendingBytes > 0 && nextSendTime - batchStartTime >= maxBatchDelayNanos) {
+            try {
+                writeBuffers();
+            } catch (IOException e) {
+                failed = true;
+                ErrorHandler.handleIOException("Error sending packet batch", e);
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (pendingBytes > 0) {
+            writeBuffers();
+        }
+    }
+
+    @Override
+    public long getWriteCalls() {
+        return writeCalls;
+    }
+
+    @Override
+    public long getPacketsSent() {
+        return packetsSent;
+    }
+
+    @Override
+    public boolean hasFailed() {
+        return failed;
+    }
+
+    /**
+     * <p>Возвращает прямые буферы в пул. Неотправленные данные теряются, поэтому перед вызовом нужен {@link #flush()}.</p>
+     */
+    @Override
+    public void release() {
+        for (int i = 0; i < buffers.length; i++) {
+            bufferPool.release(buffers[i]);
+            buffers[i] = null;
+        }
+        Arrays.fill(views, null);
+        Arrays.fill(viewSources, null);
+    }
+
+    /**
+     * <p>Копирует данные в прямые буферы, отправляя накопленное, если все буферы заполнены.</p>
+     *
+     * @param data массив байтов с данными
+     * @param offset смещение начала данных в массиве
+     * @param length длина данных
+     * @throws IOException если возникает ошибка ввода-вывода
+     */
+    private void append(byte[] data, int offset, int length) throws IOException {
+        while (length > 0) {
+            ByteBuffer buffer = buffers[current];
+            if (!buffer.hasRemaining()) {
+                if (current == buffers.length - 1) {
+                    writeBuffers();
+                } else {
+                    current++;
+                }
+                continue;
+            }
+            if (viewCount == views.length) {
+                writeBuffers();
+                continue;
+            }
+            int start = buffer.position();
+            int chunk = Math.min(length, buffer.remaining());
+            buffer.put(data, offset, chunk);
+            addView(buffer, start, chunk);
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    /**
+     * <p>Добавляет к записи участок буфера. Участок, продолжающий предыдущий участок того же буфера,
+     * присоединяется к нему. Объекты участков создаются один раз и переиспользуются.</p>
+     *
+     * @param source буфер с данными
+     * @param from индекс начала участка
+     * @param length длина участка
+     */
+    private void addView(ByteBuffer source, int from, int length) {
+        int last = viewCount - 1;
+        if (last >= 0 && viewSources[last] == source && views[last].limit() == from) {
+            views[last].limit(from + length);
+        } else {
+            if (viewSources[viewCount] != source) {
+                views[viewCount] = source.duplicate();
+                viewSources[viewCount] = source;
+            }
+            views[viewCount].limit(from + length).position(from);
+            viewCount++;
+        }
+        pendingBytes += length;
+    }
+
+    /**
+     * <p>Отправляет накопленные участки собирающей записью, повторяя ее до полной отправки.</p>
+     *
+     * @throws IOException если возникает ошибка ввода-вывода
+     */
+    private void writeBuffers() throws IOException {
+        ByteBuffer last = views[viewCount - 1];
+        WriteStallEvent stall = WriteStallEvent.start();
+        while (last.hasRemaining()) {
+            channel.write(views, 0, viewCount);
+            writeCalls++;
+        }
+        stall.complete(Transport.NIO, pendingBytes);
+        for (int i = 0; i <= current; i++) {
+            buffers[i].clear();
+        }
+        current = 0;
+        viewCount = 0;
+        pendingBytes = 0;
+    }
+
+    /**
+     * <p>Проверяет параметры пакетного режима и возвращает нужное количество буферов.</p>
+     *
+     * @param bufferPool пул прямых буферов
+     * @param batchBytes максимальный размер одной записи в байтах
+     * @param maxBatchDelayNanos максимальное время ожидания пакета в буфере в наносекундах
+     * @return количество буферов для пакетного режима
+     */
+    private static int checkBatch(BufferPool bufferPool, int batchBytes, long maxBatchDelayNanos) {
+        if (bufferPool == null) {
+            throw new IllegalArgumentException("Channel and buffer pool cannot be null");
+        }
+        if (batchBytes <= 0 || maxBatchDelayNanos <= 0) {
+            throw new IllegalArgumentException("Batch size and delay must be positive");
+        }
+        return (batchBytes + bufferPool.getBufferSize() - 1) / bufferPool.getBufferSize();
+    }
+}
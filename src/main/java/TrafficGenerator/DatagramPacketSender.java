@@ -0,0 +1,126 @@
+package TrafficGenerator;
+
+import ErrorHandler.ErrorHandler;
+import Monitoring.WriteStallEvent;
+import NetworkConnection.BufferPool;
+import NetworkConnection.Transport;
+import Protocol.FrameHeader;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * <p>DatagramPacketSender - класс для отправки пакетов датаграммами через подключенный канал UDP.</p>
+ *
+ * <p>Каждый вызов {@link #sendFrame(byte[], byte[], int, int)} отправляет ровно одну датаграмму: заголовок
+ * кадра с порядковым номером, за которым следует пакет. По номерам приемник считает потери, дубликаты
+ * и пакеты, пришедшие не по порядку. Датаграмма собирается в одном прямом буфере из {@link BufferPool},
+ * который используется повторно для всех пакетов. Объединять датаграммы нельзя, поэтому пакетный режим
+ * для этого транспорта не применяется.</p>
+ */
+public class DatagramPacketSender implements PacketSink {
+    private static final Logger logger = LogManager.getLogger(DatagramPacketSender.class);
+
+    private final WritableByteChannel channel;
+    private final BufferPool bufferPool;
+    private ByteBuffer buffer;
+    private long writeCalls;
+    private long packetsSent;
+    private boolean failed;
+
+    /**
+     * <p>Конструктор класса DatagramPacketSender.</p>
+     *
+     * @param channel подключенный канал датаграмм (каждая запись - одна датаграмма)
+     * @param bufferPool пул прямых буферов размером не меньше максимальной датаграммы
+     * @throws IllegalArgumentException если канал или пул равны null
+     */
+    public DatagramPacketSender(WritableByteChannel channel, BufferPool bufferPool) {
+        if (channel == null || bufferPool == null) {
+            throw new IllegalArgumentException("Channel and buffer pool cannot be null");
+        }
+        this.channel = channel;
+        this.bufferPool = bufferPool;
+        this.buffer = bufferPool.acquire();
+        logger.info("DatagramPacketSender initialized: datagram buffer of {} bytes", buffer.capacity());
+    }
+
+    /**
+     * <p>Возвращает максимальный размер пакета, который помещается в одну датаграмму.</p>
+     *
+     * @param maxDatagramSize максимальный размер датаграммы
+     * @return максимальный размер пакета после заголовка кадра
+     */
+    public static int maxPacketSize(int maxDatagramSize) {
+        return maxDatagramSize - FrameHeader.SIZE;
+    }
+
+    @Override
+    public void sendFrame(byte[] header, byte[] data, int offset, int length) {
+        if (data == null || header == null) {
+            ErrorHandler.handleInputError("Cannot send null data packet");
+            return;
+        }
+        if (length > buffer.capacity() - header.length) {
+            ErrorHandler.handleInputError("Packet of " + length + " bytes does not fit into a datagram");
+            failed = true;
+            return;
+        }
+
+        try {
+            buffer.clear();
+            buffer.put(header).put(data, offset, length).flip();
+            WriteStallEvent stall = WriteStallEvent.start();
+            channel.write(buffer);
+            stall.complete(Transport.UDP, header.length + length);
+            writeCalls++;
+            packetsSent++;
+        } catch (IOException e) {
+            failed = true;
+            ErrorHandler.handleIOException("Error sending datagram", e);
+        }
+    }
+
+    /**
+     * <p>Ничего не делает: датаграммы отправляются сразу.</p>
+     *
+     * @param nextSendTime время отправки следующего пакета в наносекундах
+     */
+    @Override
+    public void flushIfDue(long nextSendTime) {
+    }
+
+    /**
+     * <p>Ничего не делает: датаграммы отправляются сразу.</p>
+     */
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public long getWriteCalls() {
+        return writeCalls;
+    }
+
+    @Override
+    public long getPacketsSent() {
+        return packetsSent;
+    }
+
+    @Override
+    public boolean hasFailed() {
+        return failed;
+    }
+
+    /**
+     * <p>Возвращает прямой буфер в пул.</p>
+     */
+    @Override
+    public void release() {
+        bufferPool.release(buffer);
+        buffer = null;
+    }
+}
@@ -1,17 +1,30 @@
 package TrafficGenerator;
 
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.TextField;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
  * <p>InputReader - класс для чтения и обработки пользовательского ввода из текстовых полей.</p>
+ *
+ * <p>Консольный генератор задает параметры сеттерами и не вызывает методы scan*, поэтому классы
+ * JavaFX при его запуске не загружаются.</p>
  */
 public class InputReader {
     private static final Logger logger = LogManager.getLogger(InputReader.class);
     private int packetCount;
     private int packetSize;
     private int frequency;
+    private double rate;
+    private RateUnit rateUnit = RateUnit.INTERVAL_MS;
+    private PayloadMode payloadMode = PayloadMode.RANDOM;
+    private String payloadOption = "";
+    private TrafficProfile trafficProfile = TrafficProfile.CONSTANT;
+    private int profileOption;
+    private boolean batching;
+    private boolean checksum;
 
     /**
      * <p>Конструктор без параметров.</p>
@@ -46,6 +59,168 @@ public class InputReader {
         return frequency;
     }
 
+    /**
+     * <p>Возвращает скорость отправки в единицах {@link #getRateUnit()}.</p>
+     *
+     * @return скорость отправки
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * <p>Возвращает единицу скорости отправки.</p>
+     *
+     * @return единица скорости отправки
+     */
+    public RateUnit getRateUnit() {
+        return rateUnit;
+    }
+
+    /**
+     * <p>Возвращает профиль трафика.</p>
+     *
+     * @return профиль трафика
+     */
+    public TrafficProfile getTrafficProfile() {
+        return trafficProfile;
+    }
+
+    /**
+     * <p>Возвращает параметр профиля трафика.</p>
+     *
+     * @return параметр профиля трафика; 0 - значение по умолчанию
+     */
+    public int getProfileOption() {
+        return profileOption;
+    }
+
+    /**
+     * <p>Возвращает признак пакетного режима отправки.</p>
+     *
+     * @return true, если пакеты объединяются в одну запись
+     */
+    public boolean isBatching() {
+        return batching;
+    }
+
+    /**
+     * <p>Возвращает признак проверки целостности полезной нагрузки.</p>
+     *
+     * @return true, если в каждый пакет записывается контрольная сумма CRC32C
+     */
+    public boolean isChecksum() {
+        return checksum;
+    }
+
+    /**
+     * <p>Возвращает режим полезной нагрузки.</p>
+     *
+     * @return режим полезной нагрузки
+     */
+    public PayloadMode getPayloadMode() {
+        return payloadMode;
+    }
+
+    /**
+     * <p>Возвращает параметр режима полезной нагрузки.</p>
+     *
+     * @return параметр режима полезной нагрузки
+     */
+    public String getPayloadOption() {
+        return payloadOption;
+    }
+
+    /**
+     * <p>Задает количество пакетов.</p>
+     *
+     * @param packetCount количество пакетов
+     */
+    public void setPacketCount(int packetCount) {
+        this.packetCount = packetCount;
+    }
+
+    /**
+     * <p>Задает размер пакета.</p>
+     *
+     * @param packetSize размер пакета в байтах
+     */
+    public void setPacketSize(int packetSize) {
+        this.packetSize = packetSize;
+    }
+
+    /**
+     * <p>Задает скорость отправки пакетов.</p>
+     *
+     * @param rate скорость в выбранных единицах; 0 - без ограничения
+     */
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+
+    /**
+     * <p>Задает единицу скорости отправки.</p>
+     *
+     * @param rateUnit единица скорости
+     */
+    public void setRateUnit(RateUnit rateUnit) {
+        this.rateUnit = rateUnit;
+    }
+
+    /**
+     * <p>Задает профиль трафика.</p>
+     *
+     * @param trafficProfile профиль трафика
+     */
+    public void setTrafficProfile(TrafficProfile trafficProfile) {
+        this.trafficProfile = trafficProfile;
+    }
+
+    /**
+     * <p>Задает параметр профиля трафика.</p>
+     *
+     * @param profileOption параметр профиля; 0 - значение по умолчанию
+     */
+    public void setProfileOption(int profileOption) {
+        this.profileOption = profileOption;
+    }
+
+    /**
+     * <p>Задает режим полезной нагрузки.</p>
+     *
+     * @param payloadMode режим полезной нагрузки
+     */
+    public void setPayloadMode(PayloadMode payloadMode) {
+        this.payloadMode = payloadMode;
+    }
+
+    /**
+     * <p>Задает параметр режима полезной нагрузки.</p>
+     *
+     * @param payloadOption параметр режима
+     */
+    public void setPayloadOption(String payloadOption) {
+        this.payloadOption = payloadOption;
+    }
+
+    /**
+     * <p>Задает признак пакетного режима отправки.</p>
+     *
+     * @param batching true - пакетный режим
+     */
+    public void setBatching(boolean batching) {
+        this.batching = batching;
+    }
+
+    /**
+     * <p>Задает признак проверки целостности полезной нагрузки.</p>
+     *
+     * @param checksum true - записывать контрольные суммы
+     */
+    public void setChecksum(boolean checksum) {
+        this.checksum = checksum;
+    }
+
     /**
      * <p>Считывает количество пакетов из текстового поля.</p>
      *
@@ -76,9 +251,119 @@ public class InputReader {
      */
     public int scanFrequency(TextField frequencyField) {
         this.frequency = parseInput(frequencyField);
+        this.rate = this.frequency;
         return this.frequency;
     }
 
+    /**
+     * <p>Считывает скорость отправки пакетов из текстового поля.</p>
+     * <p>В отличие от {@link #scanFrequency(TextField)} допускает дробные значения.</p>
+     *
+     * @param rateField текстовое поле для ввода скорости
+     * @return скорость или -1 в случае ошибки
+     */
+    public double scanRate(TextField rateField) {
+        try {
+            this.rate = Double.parseDouble(rateField.getText().trim());
+            if (Double.isNaN(this.rate) || Double.isInfinite(this.rate)) {
+                this.rate = -1;
+            }
+            logger.info("Parsed rate from field {}: {}", rateField, rateField.getText());
+        } catch (NumberFormatException e) {
+            logger.error("Invalid rate in field {}: {}", rateField, rateField.getText());
+            this.rate = -1;
+        }
+        return this.rate;
+    }
+
+    /**
+     * <p>Считывает единицу скорости отправки из выпадающего списка.</p>
+     *
+     * @param rateUnitBox выпадающий список единиц скорости
+     * @return единица скорости или {@link RateUnit#INTERVAL_MS}, если единица не выбрана
+     */
+    public RateUnit scanRateUnit(ComboBox<RateUnit> rateUnitBox) {
+        RateUnit value = rateUnitBox.getValue();
+        this.rateUnit = value != null ? value : RateUnit.INTERVAL_MS;
+        logger.info("Rate unit selected: {}", this.rateUnit);
+        return this.rateUnit;
+    }
+
+    /**
+     * <p>Считывает профиль трафика из выпадающего списка.</p>
+     *
+     * @param trafficProfileBox выпадающий список профилей трафика
+     * @return профиль трафика или {@link TrafficProfile#CONSTANT}, если профиль не выбран
+     */
+    public TrafficProfile scanTrafficProfile(ComboBox<TrafficProfile> trafficProfileBox) {
+        TrafficProfile value = trafficProfileBox.getValue();
+        this.trafficProfile = value != null ? value : TrafficProfile.CONSTANT;
+        logger.info("Traffic profile selected: {}", this.trafficProfile);
+        return this.trafficProfile;
+    }
+
+    /**
+     * <p>Считывает параметр профиля трафика из текстового поля. Пустое поле означает значение по умолчанию.</p>
+     *
+     * @param profileOptionField текстовое поле для ввода параметра профиля
+     * @return параметр профиля, 0 для пустого поля или -1 в случае ошибки
+     */
+    public int scanProfileOption(TextField profileOptionField) {
+        String text = profileOptionField.getText();
+        this.profileOption = text == null || text.isBlank() ? 0 : parseInput(profileOptionField);
+        return this.profileOption;
+    }
+
+    /**
+     * <p>Считывает признак пакетного режима отправки из флажка.</p>
+     *
+     * @param batchingBox флажок пакетного режима
+     * @return true, если флажок установлен
+     */
+    public boolean scanBatching(CheckBox batchingBox) {
+        this.batching = batchingBox.isSelected();
+        logger.info("Batching selected: {}", this.batching);
+        return this.batching;
+    }
+
+    /**
+     * <p>Считывает признак проверки целостности полезной нагрузки из флажка.</p>
+     *
+     * @param checksumBox флажок проверки целостности
+     * @return true, если флажок установлен
+     */
+    public boolean scanChecksum(CheckBox checksumBox) {
+        this.checksum = checksumBox.isSelected();
+        logger.info("Payload checksum selected: {}", this.checksum);
+        return this.checksum;
+    }
+
+    /**
+     * <p>Считывает режим полезной нагрузки из выпадающего списка.</p>
+     *
+     * @param payloadModeBox выпадающий список режимов полезной нагрузки
+     * @return режим полезной нагрузки или {@link PayloadMode#RANDOM}, если режим не выбран
+     */
+    public PayloadMode scanPayloadMode(ComboBox<PayloadMode> payloadModeBox) {
+        PayloadMode value = payloadModeBox.getValue();
+        this.payloadMode = value != null ? value : PayloadMode.RANDOM;
+        logger.info("Payload mode selected: {}", this.payloadMode);
+        return this.payloadMode;
+    }
+
+    /**
+     * <p>Считывает параметр режима полезной нагрузки из текстового поля.</p>
+     *
+     * @param payloadOptionField текстовое поле для ввода параметра режима
+     * @return параметр режима без пробелов по краям
+     */
+    public String scanPayloadOption(TextField payloadOptionField) {
+        String text = payloadOptionField.getText();
+        this.payloadOption = text != null ? text.trim() : "";
+        logger.info("Payload option read: {}", this.payloadOption);
+        return this.payloadOption;
+    }
+
     /**
      * <p>Проверяет ввод из текстового поля и возвращает целочисленное значение.</p>
      *
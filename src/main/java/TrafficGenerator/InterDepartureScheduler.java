@@ -0,0 +1,17 @@
+package TrafficGenerator;
+
+/**
+ * <p>InterDepartureScheduler - интерфейс расписания интервалов между отправками пакетов.</p>
+ *
+ * <p>Реализации вычисляют интервалы по одному, без выделения памяти, поэтому расписание
+ * не ограничивает скорость отправки. Реализации создаются через {@link TrafficProfile}.</p>
+ */
+public interface InterDepartureScheduler {
+
+    /**
+     * <p>Возвращает интервал между только что отправленным пакетом и следующим.</p>
+     *
+     * @return интервал в наносекундах; 0 - отправить следующий пакет сразу
+     */
+    long nextGapNanos();
+}
@@ -1,6 +1,8 @@
 package TrafficGenerator;
 
 import ErrorHandler.ErrorHandler;
+import Monitoring.WriteStallEvent;
+import NetworkConnection.Transport;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -9,10 +11,24 @@ import java.io.OutputStream;
 
 /**
  * <p>PacketSender - класс для отправки пакетов данных через заданный поток вывода OutputStream.</p>
+ *
+ * <p>В пакетном режиме пакеты копируются в буфер и уходят в поток одной записью, когда буфер
+ * заполнен или первый пакет в нем ждет дольше заданной границы задержки. Это сокращает число
+ * системных вызовов на пакет для маленьких пакетов.</p>
+ *
+ * <p>Записи, которые блокируются дольше порога, фиксируются событием JFR {@link WriteStallEvent}.</p>
  */
-public class PacketSender {
+public class PacketSender implements PacketSink {
     private static final Logger logger = LogManager.getLogger(PacketSender.class);
     private final OutputStream outputStream;
+    private final byte[] batchBuffer;
+    private final long maxBatchDelayNanos;
+    private byte[] frameBuffer;
+    private int batchLength;
+    private long batchStartTime;
+    private long writeCalls;
+    private long packetsSent;
+    private boolean failed;
 
     /**
      * <p>Конструктор класса PacketSender.</p>
@@ -26,9 +42,32 @@ public class PacketSender {
             throw new IllegalArgumentException("OutputStream cannot be null");
         }
         this.outputStream = outputStream;
+        this.batchBuffer = null;
+        this.maxBatchDelayNanos = 0;
         logger.info("PacketSender initialized with OutputStream: {}", outputStream);
     }
 
+    /**
+     * <p>Конструктор класса PacketSender в пакетном режиме.</p>
+     *
+     * @param outputStream выходной поток для отправки данных
+     * @param batchBytes максимальный размер одной записи в байтах
+     * @param maxBatchDelayNanos максимальное время ожидания пакета в буфере в наносекундах
+     * @throws IllegalArgumentException если outputStream равен null или параметры пакетного режима не положительны
+     */
+    public PacketSender(OutputStream outputStream, int batchBytes, long maxBatchDelayNanos) {
+        if (outputStream == null) {
+            throw new IllegalArgumentException("OutputStream cannot be null");
+        }
+        if (batchBytes <= 0 || maxBatchDelayNanos <= 0) {
+            throw new IllegalArgumentException("Batch size and delay must be positive");
+        }
+        this.outputStream = outputStream;
+        this.batchBuffer = new byte[batchBytes];
+        this.maxBatchDelayNanos = maxBatchDelayNanos;
+        logger.info("PacketSender initialized in batch mode: {} bytes, {} ns", batchBytes, maxBatchDelayNanos);
+    }
+
     /**
      * <p>Отправляет пакет данных.</p>
      *
@@ -39,13 +78,182 @@ public class PacketSender {
             ErrorHandler.handleInputError("Cannot send null data packet");
             return;
         }
+        if (batchBuffer != null) {
+            sendPacket(data, 0, data.length);
+            return;
+        }
 
         try {
+            WriteStallEvent stall = WriteStallEvent.start();
             outputStream.write(data);
             outputStream.flush();
-            logger.info("Packet sent successfully: {} bytes", data.length);
+            stall.complete(Transport.STREAM, data.length);
+            writeCalls++;
+            packetsSent++;
+        } catch (IOException e) {
+            failed = true;
+            ErrorHandler.handleIOException("Error sending packet", e);
+        }
+    }
+
+    /**
+     * <p>Отправляет кадр из заголовка и пакета данных, являющегося частью массива.</p>
+     * <p>Позволяет отправлять пакеты из общего буфера без копирования в отдельный массив. Без пакетного режима
+     * заголовок и пакет копируются в один массив, чтобы кадр ушел одной записью.</p>
+     *
+     * @param header заголовок кадра
+     * @param data массив байтов, содержащий пакет
+     * @param offset смещение начала пакета в массиве
+     * @param length длина пакета
+     */
+    @Override
+    public void sendFrame(byte[] header, byte[] data, int offset, int length) {
+        if (data == null || header == null) {
+            ErrorHandler.handleInputError("Cannot send null data packet");
+            return;
+        }
+
+        try {
+            if (batchBuffer == null) {
+                WriteStallEvent stall = WriteStallEvent.start();
+                writeFrame(header, data, offset, length);
+                outputStream.flush();
+                stall.complete(Transport.STREAM, header.length + length);
+                writeCalls++;
+            } else {
+                appendToBatch(header, data, offset, length);
+            }
+            packetsSent++;
         } catch (IOException e) {
+            failed = true;
             ErrorHandler.handleIOException("Error sending packet", e);
         }
     }
+
+    /**
+     * <p>Отправляет накопленные пакеты, если следующий пакет выйдет за границу задержки.</p>
+     * <p>Вызывается перед ожиданием следующего пакета, чтобы пакеты не ждали в буфере дольше границы.</p>
+     *
+     * @param nextSendTime время отправки следующего пакета в наносекундах
+     */
+    @Override
+    public void flushIfDue(long nextSendTime) {
+        if (batchLength > 0 && nextSendTime - batchStartTime >= maxBatchDelayNanos) {
+            try {
+                writeBatch();
+            } catch (IOException e) {
+                failed = true;
+                ErrorHandler.handleIOException("Error sending packet batch", e);
+            }
+        }
+    }
+
+    /**
+     * <p>Отправляет все накопленные пакеты и сбрасывает поток вывода.</p>
+     *
+     * @throws IOException если возникает ошибка ввода-вывода
+     */
+    @Override
+    public void flush() throws IOException {
+        if (batchLength > 0) {
+            writeBatch();
+        }
+        outputStream.flush();
+    }
+
+    /**
+     * <p>Возвращает количество записей в поток вывода.</p>
+     *
+     * @return количество записей (системных вызовов записи)
+     */
+    @Override
+    public long getWriteCalls() {
+        return writeCalls;
+    }
+
+    /**
+     * <p>Возвращает количество отправленных пакетов.</p>
+     *
+     * @return количество пакетов
+     */
+    @Override
+    public long getPacketsSent() {
+        return packetsSent;
+    }
+
+    @Override
+    public boolean hasFailed() {
+        return failed;
+    }
+
+    /**
+     * <p>Копирует кадр в буфер пакетного режима и отправляет буфер, если он заполнен или пакет ждет слишком долго.</p>
+     *
+     * @param header заголовок кадра
+     * @param data массив байтов, содержащий пакет
+     * @param offset смещение начала пакета в массиве
+     * @param length длина пакета
+     * @throws IOException если возникает ошибка ввода-вывода
+     */
+    private void appendToBatch(byte[] header, byte[] data, int offset, int length) throws IOException {
+        int frameLength = header.length + length;
+        if (frameLength > batchBuffer.length - batchLength && batchLength > 0) {
+            writeBatch();
+        }
+        if (frameLength >= batchBuffer.length) {
+            WriteStallEvent stall = WriteStallEvent.start();
+            writeFrame(header, data, offset, length);
+            stall.complete(Transport.STREAM, frameLength);
+            writeCalls++;
+            return;
+        }
+
+        long now = System.nanoTime();
+        if (batchLength == 0) {
+            batchStartTime = now;
+        }
+        System.arraycopy(header, 0, batchBuffer, batchLength, header.length);
+        System.arraycopy(data, offset, batchBuffer, batchLength + header.length, length);
+        batchLength += frameLength;
+
+        if (batchLength == batchBuffer.length || now - batchStartTime >= maxBatchDelayNanos) {
+            writeBatch();
+        }
+    }
+
+    /**
+     * <p>Записывает кадр в поток одной записью, копируя заголовок и пакет в общий массив.</p>
+     *
+     * @param header заголовок кадра
+     * @param data массив байтов, содержащий пакет
+     * @param offset смещение начала пакета в массиве
+     * @param length длина пакета
+     * @throws IOException если возникает ошибка ввода-вывода
+     */
+    private void writeFrame(byte[] header, byte[] data, int offset, int length) throws IOException {
+        if (header.length == 0) {
+            outputStream.write(data, offset, length);
+            return;
+        }
+        int frameLength = header.length + length;
+        if (frameBuffer == null || frameBuffer.length < frameLength) {
+            frameBuffer = new byte[frameLength];
+        }
+        System.arraycopy(header, 0, frameBuffer, 0, header.length);
+        System.arraycopy(data, offset, frameBuffer, header.length, length);
+        outputStream.write(frameBuffer, 0, frameLength);
+    }
+
+    /**
+     * <p>Отправляет содержимое буфера пакетного режима одной записью.</p>
+     *
+     * @throws IOException если возникает ошибка ввода-вывода
+     */
+    private void writeBatch() throws IOException {
+        WriteStallEvent stall = WriteStallEvent.start();
+        outputStream.write(batchBuffer, 0, batchLength);
+        stall.complete(Transport.STREAM, batchLength);
+        writeCalls++;
+        batchLength = 0;
+    }
 }
@@ -0,0 +1,94 @@
+package TrafficGenerator;
+
+import java.io.IOException;
+
+/**
+ * <p>PacketSink - интерфейс отправителя пакетов, общий для всех транспортов.</p>
+ *
+ * <p>Реализации: {@link PacketSender} для потоков, {@link ChannelPacketSender} для каналов NIO
+ * и {@link DatagramPacketSender} для датаграмм UDP.</p>
+ */
+public interface PacketSink {
+
+    /**
+     * <p>Пустой заголовок для отправки пакета без кадра.</p>
+     */
+    byte[] NO_HEADER = new byte[0];
+
+    /**
+     * <p>Отправляет пакет данных, являющийся частью массива, без заголовка кадра.</p>
+     *
+     * @param data массив байтов, содержащий пакет
+     * @param offset смещение начала пакета в массиве
+     * @param length длина пакета
+     */
+    default void sendPacket(byte[] data, int offset, int length) {
+        sendFrame(NO_HEADER, data, offset, length);
+    }
+
+    /**
+     * <p>Отправляет кадр: заголовок и следующий за ним пакет данных как один пакет.</p>
+     * <p>Заголовок и данные уходят одной записью (или одной датаграммой), а не двумя.</p>
+     *
+     * @param header заголовок кадра
+     * @param data массив байтов, содержащий пакет
+     * @param offset смещение начала пакета в массиве
+     * @param length длина пакета
+     */
+    void sendFrame(byte[] header, byte[] data, int offset, int length);
+
+    /**
+     * <p>Отправляет кадр, полезная нагрузка которого - окно кольцевого блока {@link PayloadGenerator}.</p>
+     * <p>По умолчанию окно берется из массива блока. Отправитель через канал NIO передает в запись окно
+     * прямой копии блока и не копирует нагрузку.</p>
+     *
+     * @param header заголовок кадра
+     * @param payload генератор полезной нагрузки
+     * @param offset смещение начала пакета в кольцевом блоке
+     * @param length длина пакета
+     */
+    default void sendFrame(byte[] header, PayloadGenerator payload, int offset, int length) {
+        sendFrame(header, payload.getBuffer(), offset, length);
+    }
+
+    /**
+     * <p>Отправляет накопленные пакеты, если следующий пакет выйдет за границу задержки.</p>
+     *
+     * @param nextSendTime время отправки следующего пакета в наносекундах
+     */
+    void flushIfDue(long nextSendTime);
+
+    /**
+     * <p>Отправляет все накопленные пакеты.</p>
+     *
+     * @throws IOException если возникает ошибка ввода-вывода
+     */
+    void flush() throws IOException;
+
+    /**
+     * <p>Возвращает количество системных вызовов записи.</p>
+     *
+     * @return количество записей
+     */
+    long getWriteCalls();
+
+    /**
+     * <p>Возвращает количество отправленных пакетов.</p>
+     *
+     * @return количество пакетов
+     */
+    long getPacketsSent();
+
+    /**
+     * <p>Проверяет, произошла ли ошибка записи. После ошибки соединение считается потерянным.</p>
+     *
+     * @return true, если при отправке произошла ошибка ввода-вывода
+     */
+    boolean hasFailed();
+
+    /**
+     * <p>Освобождает ресурсы отправителя (например, буферы пула). Соединение не закрывается.</p>
+     */
+    default void release() {
+    }
+}
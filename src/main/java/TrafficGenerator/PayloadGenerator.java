@@ -0,0 +1,153 @@
+package TrafficGenerator;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.random.RandomGenerator;
+
+/**
+ * <p>PayloadGenerator - класс для генерации полезной нагрузки пакетов без выделения памяти на каждый пакет.</p>
+ *
+ * <p>При создании заполняет кольцевой блок данными выбранного {@link PayloadMode}, после чего каждый пакет
+ * представляет собой окно размером packetSize внутри этого блока. Окна сдвигаются по кольцу,
+ * поэтому соседние пакеты отличаются, а цикл отправки работает с одним и тем же массивом.</p>
+ *
+ * <p>Для отправки через канал NIO блок по первому запросу копируется в прямой буфер
+ * {@link #getDirectBuffer()}, общий для всех генераторов, созданных {@link #share()}.</p>
+ */
+public class PayloadGenerator {
+    /**
+     * <p>Размер кольцевого блока с заранее сгенерированными данными.</p>
+     */
+    public static final int RING_SIZE = 1 << 20;
+
+    private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final byte[] buffer;
+    private final AtomicReference<ByteBuffer> directBuffer;
+    private final int packetSize;
+    private int offset;
+
+    /**
+     * <p>Конструктор класса PayloadGenerator со случайной полезной нагрузкой.</p>
+     *
+     * @param packetSize размер пакета
+     * @throws IllegalArgumentException если размер пакета отрицательный
+     */
+    public PayloadGenerator(int packetSize) {
+        this(packetSize, PayloadMode.RANDOM, null);
+    }
+
+    /**
+     * <p>Конструктор класса PayloadGenerator с заданным режимом полезной нагрузки.</p>
+     *
+     * @param packetSize размер пакета
+     * @param mode режим заполнения полезной нагрузки
+     * @param option параметр режима
+     * @throws IllegalArgumentException если размер пакета отрицательный или параметр режима некорректен
+     */
+    public PayloadGenerator(int packetSize, PayloadMode mode, String option) {
+        if (packetSize < 0) {
+            throw new IllegalArgumentException("Packet size cannot be negative");
+        }
+        if (mode == null) {
+            throw new IllegalArgumentException("Payload mode cannot be null");
+        }
+        mode.validate(option);
+        this.packetSize = packetSize;
+        this.buffer = new byte[RING_SIZE + packetSize];
+        this.directBuffer = new AtomicReference<>();
+        mode.fill(buffer, option);
+    }
+
+    /**
+     * <p>Конструктор, использующий уже заполненный кольцевой блок другого генератора.</p>
+     *
+     * @param source генератор, кольцевой блок которого используется
+     */
+    private PayloadGenerator(PayloadGenerator source) {
+        this.packetSize = source.packetSize;
+        this.buffer = source.buffer;
+        this.directBuffer = source.directBuffer;
+    }
+
+    /**
+     * <p>Возвращает генератор с тем же кольцевым блоком и собственным смещением.</p>
+     * <p>Блок только читается при отправке, поэтому его можно использовать в нескольких потоках
+     * одновременно, не заполняя заново для каждого соединения.</p>
+     *
+     * @return генератор, разделяющий кольцевой блок с текущим
+     */
+    public PayloadGenerator share() {
+        return new PayloadGenerator(this);
+    }
+
+    /**
+     * <p>Возвращает массив, в котором лежат все окна полезной нагрузки.</p>
+     *
+     * @return кольцевой блок данных
+     */
+    public byte[] getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * <p>Возвращает прямую копию кольцевого блока только для чтения. Копия создается при первом вызове.</p>
+     * <p>Окна пакетов лежат в ней по тем же смещениям, что и в {@link #getBuffer()}. Позиция и граница
+     * буфера не меняются, поэтому окна берутся абсолютными индексами из нескольких потоков.</p>
+     *
+     * @return прямой буфер с кольцевым блоком
+     */
+    public ByteBuffer getDirectBuffer() {
+        ByteBuffer direct = directBuffer.get();
+        if (direct == null) {
+            ByteBuffer copy = ByteBuffer.allocateDirect(buffer.length).put(buffer).flip().asReadOnlyBuffer();
+            direct = directBuffer.compareAndSet(null, copy) ? copy : directBuffer.get();
+        }
+        return direct;
+    }
+
+    /**
+     * <p>Возвращает размер пакета.</p>
+     *
+     * @return размер пакета
+     */
+    public int getPacketSize() {
+        return packetSize;
+    }
+
+    /**
+     * <p>Возвращает смещение следующего пакета в кольцевом блоке и сдвигает окно.</p>
+     *
+     * @return смещение начала пакета в массиве {@link #getBuffer()}
+     */
+    public int nextOffset() {
+        int current = offset;
+        offset = (int) ((offset + (long) packetSize) % RING_SIZE);
+        return current;
+    }
+
+    /**
+     * <p>Заполняет участок массива случайными байтами, записывая по 8 байт за один шаг генератора.</p>
+     *
+     * @param data массив для заполнения
+     * @param from индекс первого байта (включительно)
+     * @param to индекс последнего байта (не включительно)
+     * @param random генератор псевдослучайных чисел
+     */
+    static void fillRandom(byte[] data, int from, int to, RandomGenerator random) {
+        int i = from;
+        for (; i <= to - Long.BYTES; i += Long.BYTES) {
+            LONG_VIEW.set(data, i, random.nextLong());
+        }
+        if (i < to) {
+            long tail = random.nextLong();
+            for (; i < to; i++) {
+                data[i] = (byte) tail;
+                tail >>>= 8;
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package TrafficGenerator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.SplittableRandom;
+
+/**
+ * <p>PayloadMode - перечисление режимов заполнения полезной нагрузки пакетов.</p>
+ *
+ * <p>Каждый режим заполняет кольцевой блок {@link PayloadGenerator} один раз перед сессией,
+ * поэтому выбор режима не влияет на стоимость отправки пакета. Параметр режима задается строкой:
+ * шаблон для PATTERN, зерно для SEEDED и доля несжимаемых байтов для COMPRESSIBLE.</p>
+ */
+public enum PayloadMode {
+    /**
+     * <p>Равномерно случайные байты (режим по умолчанию).</p>
+     */
+    RANDOM {
+        @Override
+        void fill(byte[] buffer, String option) {
+            PayloadGenerator.fillRandom(buffer, 0, buffer.length, new SplittableRandom());
+        }
+    },
+
+    /**
+     * <p>Все байты равны нулю.</p>
+     */
+    ZERO {
+        @Override
+        void fill(byte[] buffer, String option) {
+        }
+    },
+
+    /**
+     * <p>Повторяющийся шаблон: текст или шестнадцатеричная строка с префиксом 0x.</p>
+     */
+    PATTERN {
+        @Override
+        void fill(byte[] buffer, String option) {
+            byte[] pattern = parsePattern(option);
+            int filled = Math.min(pattern.length, buffer.length);
+            System.arraycopy(pattern, 0, buffer, 0, filled);
+            while (filled < buffer.length) {
+                int chunk = Math.min(filled, buffer.length - filled);
+                System.arraycopy(buffer, 0, buffer, filled, chunk);
+                filled += chunk;
+            }
+        }
+
+        @Override
+        public void validate(String option) {
+            parsePattern(option);
+        }
+    },
+
+    /**
+     * <p>Детерминированная псевдослучайная последовательность с заданным зерном.</p>
+     */
+    SEEDED {
+        @Override
+        void fill(byte[] buffer, String option) {
+            PayloadGenerator.fillRandom(buffer, 0, buffer.length, new SplittableRandom(parseSeed(option)));
+        }
+
+        @Override
+        public void validate(String option) {
+            parseSeed(option);
+        }
+    },
+
+    /**
+     * <p>Данные с заданной сжимаемостью: в каждом блоке из {@value #CHUNK_SIZE} байт
+     * случайной является только указанная доля, остальное - нули.</p>
+     */
+    COMPRESSIBLE {
+        @Override
+        void fill(byte[] buffer, String option) {
+            int randomBytes = (int) Math.round(parseRatio(option) * CHUNK_SIZE);
+            SplittableRandom random = new SplittableRandom();
+            for (int chunk = 0; chunk < buffer.length; chunk += CHUNK_SIZE) {
+                PayloadGenerator.fillRandom(buffer, chunk, Math.min(chunk + randomBytes, buffer.length), random);
+            }
+        }
+
+        @Override
+        public void validate(String option) {
+            parseRatio(option);
+        }
+    };
+
+    /**
+     * <p>Размер блока, внутри которого режим COMPRESSIBLE чередует случайные байты и нули.</p>
+     */
+    public static final int CHUNK_SIZE = 256;
+
+    /**
+     * <p>Заполняет кольцевой блок данными режима.</p>
+     *
+     * @param buffer массив для заполнения
+     * @param option параметр режима
+     */
+    abstract void fill(byte[] buffer, String option);
+
+    /**
+     * <p>Проверяет параметр режима до начала сессии.</p>
+     *
+     * @param option параметр режима
+     * @throws IllegalArgumentException если параметр не подходит для режима
+     */
+    public void validate(String option) {
+    }
+
+    /**
+     * <p>Разбирает шаблон: шестнадцатеричная строка с префиксом 0x или текст в UTF-8.</p>
+     *
+     * @param option параметр режима
+     * @return байты шаблона
+     * @throws IllegalArgumentException если параметр некорректен
+     */
+    private static byte[] parsePattern(String option) {
+        if (option == null || option.isEmpty()) {
+            throw new IllegalArgumentException("Pattern cannot be empty");
+        }
+        if (option.startsWith("0x")) {
+            byte[] pattern = HexFormat.of().parseHex(option.substring(2));
+            if (pattern.length == 0) {
+                throw new IllegalArgumentException("Pattern cannot be empty");
+            }
+            return pattern;
+        }
+        return option.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * <p>Разбирает зерно генератора псевдослучайных чисел.</p>
+     *
+     * @param option параметр режима
+     * @return зерно
+     * @throws IllegalArgumentException если параметр некорректен
+     */
+    private static long parseSeed(String option) {
+        if (option == null || option.isEmpty()) {
+            throw new IllegalArgumentException("Seed cannot be empty");
+        }
+        try {
+            return Long.parseLong(option.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Seed must be an integer: " + option);
+        }
+    }
+
+    /**
+     * <p>Разбирает долю несжимаемых байтов в диапазоне от 0 до 1.</p>
+     *
+     * @param option параметр режима
+     * @return доля несжимаемых байтов
+     * @throws IllegalArgumentException если параметр некорректен
+     */
+    private static double parseRatio(String option) {
+        if (option == null || option.isEmpty()) {
+            throw new IllegalArgumentException("Compressibility ratio cannot be empty");
+        }
+        double ratio;
+        try {
+            ratio = Double.parseDouble(option.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Compressibility ratio must be a number: " + option);
+        }
+        if (ratio < 0 || ratio > 1) {
+            throw new IllegalArgumentException("Compressibility ratio must be between 0 and 1: " + option);
+        }
+        return ratio;
+    }
+}
@@ -0,0 +1,115 @@
+package TrafficGenerator;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>RatePacer - класс для выдерживания заданной скорости отправки пакетов.</p>
+ *
+ * <p>Моменты отправки рассчитываются на основе {@link System#nanoTime()} по абсолютному расписанию
+ * от времени начала сессии, интервалы которого задает {@link InterDepartureScheduler}, поэтому
+ * время самой отправки не накапливается в ошибку.
+ * Ожидание гибридное: длинные паузы - через {@link Thread#sleep(long)}, средние - через
+ * {@link LockSupport#parkNanos(long)}, последние микросекунды - активным ожиданием.</p>
+ */
+public class RatePacer {
+    /**
+     * <p>Остаток времени, начиная с которого поток засыпает через Thread.sleep.</p>
+     */
+    public static final long SLEEP_THRESHOLD_NANOS = 2_000_000;
+
+    /**
+     * <p>Остаток времени, ниже которого поток ждет активно, не отдавая процессор.</p>
+     */
+    public static final long SPIN_THRESHOLD_NANOS = 50_000;
+
+    private final InterDepartureScheduler scheduler;
+    private long nextDeadline;
+
+    /**
+     * <p>Конструктор класса RatePacer с постоянным интервалом.</p>
+     *
+     * @param intervalNanos интервал между пакетами в наносекундах; 0 - без ограничения скорости
+     * @throws IllegalArgumentException если интервал отрицательный
+     */
+    public RatePacer(long intervalNanos) {
+        this(TrafficProfile.CONSTANT.createScheduler(checkInterval(intervalNanos), 0, 0));
+    }
+
+    /**
+     * <p>Конструктор класса RatePacer с произвольным расписанием.</p>
+     *
+     * @param scheduler расписание интервалов между пакетами
+     * @throws IllegalArgumentException если расписание равно null
+     */
+    public RatePacer(InterDepartureScheduler scheduler) {
+        if (scheduler == null) {
+            throw new IllegalArgumentException("Scheduler cannot be null");
+        }
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * <p>Задает начало расписания. Первый пакет отправляется сразу.</p>
+     *
+     * @param startTime время начала сессии в наносекундах
+     */
+    public void start(long startTime) {
+        this.nextDeadline = startTime;
+    }
+
+    /**
+     * <p>Возвращает запланированное время отправки следующего пакета.</p>
+     *
+     * @return время в наносекундах
+     */
+    public long getNextDeadline() {
+        return nextDeadline;
+    }
+
+    /**
+     * <p>Ожидает момента отправки следующего пакета по расписанию.</p>
+     * <p>Если отправка отстала от расписания, возвращается сразу, догоняя его.</p>
+     *
+     * @throws InterruptedException если поток был прерван во время ожидания
+     */
+    public void awaitNext() throws InterruptedException {
+        long deadline = nextDeadline;
+        nextDeadline = deadline + scheduler.nextGapNanos();
+        awaitDeadline(deadline);
+    }
+
+    /**
+     * <p>Проверяет, что интервал не отрицательный.</p>
+     *
+     * @param intervalNanos интервал в наносекундах
+     * @return тот же интервал
+     */
+    private static long checkInterval(long intervalNanos) {
+        if (intervalNanos < 0) {
+            throw new IllegalArgumentException("Interval cannot be negative");
+        }
+        return intervalNanos;
+    }
+
+    /**
+     * <p>Ожидает наступления заданного момента времени.</p>
+     *
+     * @param deadline момент времени в наносекундах
+     * @throws InterruptedException если поток был прерван во время ожидания
+     */
+    static void awaitDeadline(long deadline) throws InterruptedException {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > SLEEP_THRESHOLD_NANOS) {
+                Thread.sleep((remaining - SLEEP_THRESHOLD_NANOS) / 1_000_000 + 1);
+            } else if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
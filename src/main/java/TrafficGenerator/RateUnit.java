@@ -0,0 +1,68 @@
+package TrafficGenerator;
+
+/**
+ * <p>RateUnit - перечисление единиц, в которых задается скорость отправки пакетов.</p>
+ *
+ * <p>Значение 0 в любой единице означает отправку без ограничения скорости.</p>
+ */
+public enum RateUnit {
+    /**
+     * <p>Интервал между пакетами в миллисекундах (прежнее поле FREQUENCY [MS]).</p>
+     */
+    INTERVAL_MS("MS INTERVAL") {
+        @Override
+        public long intervalNanos(double value, int packetSize) {
+            return Math.round(value * 1_000_000.0);
+        }
+    },
+
+    /**
+     * <p>Пакеты в секунду.</p>
+     */
+    PPS("PACKETS/S") {
+        @Override
+        public long intervalNanos(double value, int packetSize) {
+            return value > 0 ? Math.round(1_000_000_000.0 / value) : 0;
+        }
+    },
+
+    /**
+     * <p>Мегабиты полезной нагрузки в секунду.</p>
+     */
+    MBPS("MBIT/S") {
+        @Override
+        public long intervalNanos(double value, int packetSize) {
+            return value > 0 ? Math.round(packetSize * 8 * 1_000.0 / value) : 0;
+        }
+    };
+
+    private final String label;
+
+    RateUnit(String label) {
+        this.label = label;
+    }
+
+    /**
+     * <p>Переводит заданную скорость в интервал между отправками пакетов.</p>
+     *
+     * @param value значение скорости в данной единице
+     * @param packetSize размер пакета в байтах
+     * @return интервал в наносекундах или 0, если скорость не ограничена
+     */
+    public abstract long intervalNanos(double value, int packetSize);
+
+    /**
+     * <p>Переводит интервал между пакетами в скорость в пакетах в секунду.</p>
+     *
+     * @param intervalNanos интервал в наносекундах
+     * @return скорость в пакетах в секунду или 0, если скорость не ограничена
+     */
+    public static double packetsPerSecond(long intervalNanos) {
+        return intervalNanos > 0 ? 1_000_000_000.0 / intervalNanos : 0;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,66 @@
+package TrafficGenerator;
+
+import Capture.CaptureReader;
+import NetworkConnection.ParameterParser;
+
+/**
+ * <p>ReplayScheduler - расписание отправки по времени прихода пакетов в файле захвата {@link CaptureReader}.</p>
+ *
+ * <p>Интервал между пакетами равен интервалу между их приходом в захваченной сессии, деленному на
+ * коэффициент скорости: 1 - исходная форма трафика, 2 - вдвое быстрее, 0.5 - вдвое медленнее. Так как
+ * {@link RatePacer} ведет абсолютное расписание от начала сессии, ошибки отдельных интервалов не накапливаются.</p>
+ */
+public class ReplayScheduler implements InterDepartureScheduler {
+    private final CaptureReader capture;
+    private final double speed;
+    private int index;
+
+    /**
+     * <p>Конструктор класса ReplayScheduler.</p>
+     *
+     * @param capture файл захвата
+     * @param speed коэффициент скорости воспроизведения
+     * @throws IllegalArgumentException если коэффициент не положителен
+     */
+    public ReplayScheduler(CaptureReader capture, double speed) {
+        if (!(speed > 0) || Double.isInfinite(speed)) {
+            throw new IllegalArgumentException("Replay speed must be positive: " + speed);
+        }
+        this.capture = capture;
+        this.speed = speed;
+    }
+
+    /**
+     * <p>Разбирает коэффициент скорости воспроизведения из параметра запуска.</p>
+     *
+     * @param value значение параметра; null или пустая строка - исходная скорость
+     * @return коэффициент скорости
+     * @throws IllegalArgumentException если значение не является положительным числом
+     */
+    public static double parseSpeed(String value) {
+        return ParameterParser.parsePositive("replay speed", value, 1);
+    }
+
+    /**
+     * <p>Возвращает средний интервал между пакетами при воспроизведении.</p>
+     *
+     * @param capture файл захвата
+     * @param speed коэффициент скорости воспроизведения
+     * @return интервал в наносекундах; 0 - меньше двух пакетов
+     */
+    public static long meanIntervalNanos(CaptureReader capture, double speed) {
+        return capture.size() < 2 ? 0 : (long) (capture.getDurationNanos() / speed / (capture.size() - 1));
+    }
+
+    @Override
+    public long nextGapNanos() {
+        int next = index + 1;
+        if (next >= capture.size()) {
+            return 0;
+        }
+        // Интервал - разность масштабированных моментов, а не масштабированная разность, чтобы округление не копилось
+        long gap = (long) (capture.arrivalNanos(next) / speed) - (long) (capture.arrivalNanos(index) / speed);
+        index = next;
+        return gap;
+    }
+}
@@ -1,162 +1,547 @@
 package TrafficGenerator;
 
+import Capture.CaptureReader;
 import ErrorHandler.ErrorHandler;
+import Monitoring.PacketTrace;
+import Monitoring.PacketsSentEvent;
+import Monitoring.PinningMonitor;
+import Monitoring.PrometheusMetrics;
+import Monitoring.SessionEvent;
+import Monitoring.TraceEvent;
+import NetworkConnection.BufferPool;
 import NetworkConnection.NetworkConfig;
 import NetworkConnection.NetworkConnection;
+import NetworkConnection.ThreadMode;
+import NetworkConnection.Transport;
+import Output.OutputSink;
+import Protocol.EpochClock;
+import Protocol.FrameHeader;
+import Protocol.FrameType;
+import Results.ResultsStore;
+import Statistics.AggregateStatistics;
 import Statistics.GeneratorStatistics;
+import Statistics.IntervalSample;
+import Statistics.StatisticsSampler;
+import Statistics.TrafficCounters;
 
-import javafx.scene.control.TextArea;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
-import java.io.ByteArrayOutputStream;
-import java.util.stream.IntStream;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
 
 /**
  * <p>TrafficGenerator - класс для генерации и отправки трафика через сетевое соединение.</p>
  */
 public class TrafficGenerator extends NetworkConnection {
     private static final Logger logger = LogManager.getLogger(TrafficGenerator.class);
-    private TextArea outputArea;
+    private OutputSink outputArea;
     private InputReader inputReader;
+    private final Transport transport;
+    private final ThreadMode threadMode;
+    private final BufferPool bufferPool = new BufferPool(NetworkConfig.DIRECT_BUFFER_SIZE, 64);
+    private final BufferPool datagramPool = new BufferPool(NetworkConfig.MAX_DATAGRAM_SIZE, 64);
+    private volatile long sampleIntervalMillis = NetworkConfig.SAMPLE_INTERVAL_MS;
+    private final List<Consumer<IntervalSample>> sampleListeners = new CopyOnWriteArrayList<>();
+    private final TrafficCounters counters = new TrafficCounters();
+    private volatile CaptureReader replay;
+    private volatile double replaySpeed = 1;
 
     /**
      * <p>Конструктор класса TrafficGenerator.</p>
      *
-     * @param outputArea текстовая область для вывода информации
+     * @param outputArea приемник сообщений для вывода информации
      * @param inputReader класс для чтения пользовательского ввода
      * @throws IOException если возникает ошибка ввода-вывода
      */
-    public TrafficGenerator(TextArea outputArea, InputReader inputReader) throws IOException {
-        super(NetworkConfig.PORT);
+    public TrafficGenerator(OutputSink outputArea, InputReader inputReader) throws IOException {
+        this(outputArea, inputReader, Transport.STREAM);
+    }
+
+    /**
+     * <p>Конструктор класса TrafficGenerator с выбранным транспортом.</p>
+     *
+     * @param outputArea приемник сообщений для вывода информации
+     * @param inputReader класс для чтения пользовательского ввода
+     * @param transport транспорт для отправки пакетов
+     * @throws IOException если возникает ошибка ввода-вывода
+     */
+    public TrafficGenerator(OutputSink outputArea, InputReader inputReader, Transport transport) throws IOException {
+        this(outputArea, inputReader, transport, ThreadMode.PLATFORM);
+    }
+
+    /**
+     * <p>Конструктор класса TrafficGenerator с выбранным транспортом и моделью потоков.</p>
+     *
+     * @param outputArea приемник сообщений для вывода информации
+     * @param inputReader класс для чтения пользовательского ввода
+     * @param transport транспорт для отправки пакетов
+     * @param threadMode модель потоков для сессий отдельных соединений
+     * @throws IOException если возникает ошибка ввода-вывода
+     */
+    public TrafficGenerator(OutputSink outputArea, InputReader inputReader, Transport transport,
+                            ThreadMode threadMode) throws IOException {
+        super(NetworkConfig.PORT, transport);
         this.outputArea = outputArea;
         this.inputReader = inputReader;
-        logger.info("TrafficGenerator initialized with outputArea and inputReader.");
+        this.transport = transport;
+        this.threadMode = threadMode;
+        logger.info("TrafficGenerator initialized with outputArea and inputReader, transport = {}, threads = {}.",
+                transport, threadMode);
     }
 
     /**
      * <p>Обрабатывает сессию генерации трафика.</p>
+     * <p>Сессия запускается одновременно для всех подключенных приемников: у каждого соединения свой поток
+     * отправки, собственное расписание и статистика, а кольцевой блок полезной нагрузки общий.
+     * Ошибка одного соединения закрывает только его и не прерывает остальные.</p>
+     * <p>Все соединения обновляют общие счетчики генератора {@link TrafficCounters}, а {@link StatisticsSampler}
+     * сессии раз в интервал выводит текущую суммарную скорость отправки.</p>
      *
      * @param sessionCount номер сессии
+     * @return итоги сессии по всем соединениям
      */
-    public void handle(int sessionCount) {
-        try {
-            OutputStream outputStream = socket.getOutputStream();
+    public AggregateStatistics handle(int sessionCount) {
+        AggregateStatistics aggregate = new AggregateStatistics(outputArea);
+        List<Socket> receivers = getClients();
+        if (receivers.isEmpty()) {
+            outputArea.appendText("No receivers connected." + '\n');
+            logger.warn("Generation session # {} skipped: no receivers connected", sessionCount);
+            return aggregate;
+        }
+
+        outputArea.appendText("Generation session # " + sessionCount + " (" + transport + ", " + threadMode
+                + " threads), receivers: " + receivers.size() + '\n');
+        logger.info("Starting generation session # {} for {} receivers", sessionCount, receivers.size());
+
+        CaptureReader capture = replay;
+        double speed = replaySpeed;
+        if (capture != null) {
+            outputArea.appendText("Replaying " + capture.getFile() + ": " + capture.size() + " packets, speed x"
+                    + speed + '\n');
+        }
+        int packetSize = capture != null ? Math.max(1, capture.getMaxLength()) : inputReader.getPacketSize();
+        PayloadGenerator payloadGenerator = new PayloadGenerator(packetSize,
+                inputReader.getPayloadMode(), inputReader.getPayloadOption());
+        boolean labelled = receivers.size() > 1;
+        counters.recordSession();
+
+        List<Callable<Void>> sessions = new ArrayList<>();
+        for (Socket client : receivers) {
+            PayloadGenerator clientPayload = payloadGenerator.share();
+            String label = labelled ? client.getRemoteSocketAddress().toString() : null;
+            sessions.add(() -> {
+                handleClient(client, sessionCount, clientPayload, label, aggregate, counters, capture, speed);
+                return null;
+            });
+        }
+
+        PinningMonitor pinningMonitor = threadMode == ThreadMode.VIRTUAL ? new PinningMonitor() : null;
+        if (pinningMonitor != null) {
+            pinningMonitor.start();
+        }
+        long startTime = System.nanoTime();
+        StatisticsSampler sampler = new StatisticsSampler(counters, sampleIntervalMillis).addListener(this::displaySample);
+        sampleListeners.forEach(sampler::addListener);
+        sampler.start();
+        try (sampler;
+             ExecutorService executor = threadMode.newExecutor("generator-session")) {
+            executor.invokeAll(sessions);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ErrorHandler.handleError("Generation session interrupted", e);
+            logger.error("InterruptedException in handle method: {}", e.getMessage());
+        } finally {
+            if (pinningMonitor != null) {
+                pinningMonitor.close();
+            }
+        }
+
+        if (labelled) {
+            aggregate.displayStatistics(startTime);
+        }
+        if (pinningMonitor != null) {
+            outputArea.appendText(pinningMonitor.summary() + '\n');
+        }
+        return aggregate;
+    }
+
+    /**
+     * <p>Задает интервал вывода текущей скорости во время сессии.</p>
+     * <p>Действует со следующей сессии.</p>
+     *
+     * @param sampleIntervalMillis интервал в миллисекундах
+     * @throws IllegalArgumentException если интервал не положителен
+     */
+    public void setSampleIntervalMillis(long sampleIntervalMillis) {
+        if (sampleIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Sample interval must be positive");
+        }
+        this.sampleIntervalMillis = sampleIntervalMillis;
+    }
+
+    /**
+     * <p>Задает воспроизведение файла захвата вместо пакетов заданного размера и скорости.</p>
+     * <p>Количество пакетов, их длины и интервалы между ними берутся из захвата, интервалы делятся на
+     * коэффициент скорости. Полезная нагрузка берется из захвата, если она в нем сохранена.
+     * Действует со следующей сессии.</p>
+     *
+     * @param capture файл захвата; null - обычная генерация
+     * @param speed коэффициент скорости воспроизведения, 1 - исходная скорость
+     * @throws IllegalArgumentException если коэффициент не положителен
+     */
+    public void setReplay(CaptureReader capture, double speed) {
+        if (!(speed > 0) || Double.isInfinite(speed)) {
+            throw new IllegalArgumentException("Replay speed must be positive: " + speed);
+        }
+        this.replaySpeed = speed;
+        this.replay = capture;
+    }
+
+    /**
+     * <p>Добавляет слушателя показателей интервалов, который будет получать их во всех следующих сессиях.</p>
+     * <p>Слушатель вызывается в потоке выборки статистики.</p>
+     *
+     * @param listener слушатель
+     */
+    public void addSampleListener(Consumer<IntervalSample> listener) {
+        sampleListeners.add(listener);
+    }
+
+    /**
+     * <p>Возвращает счетчики генератора, общие для всех сессий.</p>
+     *
+     * @return счетчики трафика
+     */
+    public TrafficCounters getCounters() {
+        return counters;
+    }
 
-            outputArea.appendText("Generation session # " + sessionCount + '\n');
-            logger.info("Starting generation session # {}", sessionCount);
+    /**
+     * <p>Выводит показатели интервала, если за него были отправлены пакеты.</p>
+     *
+     * @param sample показатели интервала
+     */
+    private void displaySample(IntervalSample sample) {
+        if (sample.isIdle()) {
+            return;
+        }
+        outputArea.appendText("Sending: " + sample.format() + '\n');
+        logger.info("Sending: {}", sample.format());
+    }
 
-            int numberOfPackets = inputReader.getPacketCount();
-            int packetSize = inputReader.getPacketSize();
-            int frequency = inputReader.getFrequency();
+    /**
+     * <p>Обрабатывает сессию генерации трафика для одного приемника.</p>
+     *
+     * @param client соединение с приемником
+     * @param sessionCount номер сессии
+     * @param payloadGenerator источник полезной нагрузки пакетов этого соединения
+     * @param label метка соединения для статистики; null - без метки
+     * @param aggregate суммарная статистика всех соединений сессии
+     * @param counters общие счетчики отправленных пакетов генератора
+     * @param capture воспроизводимый файл захвата; null - обычная генерация
+     * @param speed коэффициент скорости воспроизведения
+     */
+    private void handleClient(Socket client, int sessionCount, PayloadGenerator payloadGenerator, String label,
+                              AggregateStatistics aggregate, TrafficCounters counters, CaptureReader capture,
+                              double speed) {
+        try {
+            OutputStream outputStream = client.getOutputStream();
 
-            sendSessionInfo(outputStream, sessionCount, numberOfPackets);
-            sendPackets(outputStream, numberOfPackets, packetSize, frequency);
+            int numberOfPackets;
+            long intervalNanos;
+            InterDepartureScheduler scheduler;
+            if (capture != null) {
+                numberOfPackets = capture.size();
+                intervalNanos = ReplayScheduler.meanIntervalNanos(capture, speed);
+                scheduler = new ReplayScheduler(capture, speed);
+            } else {
+                numberOfPackets = inputReader.getPacketCount();
+                intervalNanos = inputReader.getRateUnit().intervalNanos(inputReader.getRate(),
+                        payloadGenerator.getPacketSize());
+                scheduler = inputReader.getTrafficProfile()
+                        .createScheduler(intervalNanos, numberOfPackets, inputReader.getProfileOption());
+            }
+
+            int sessionFlags = (transport.isDatagram() ? FrameHeader.FLAG_DATAGRAM : 0)
+                    | (inputReader.isChecksum() ? FrameHeader.FLAG_CHECKSUM : 0);
+            sendSessionInfo(outputStream, sessionCount, numberOfPackets, sessionFlags);
+            if (transport.isDatagram()) {
+                try (DatagramChannel channel = openDatagramChannel(client, sessionCount, payloadGenerator.getPacketSize())) {
+                    sendPackets(client, outputStream, new DatagramPacketSender(channel, datagramPool),
+                            sessionCount, numberOfPackets, payloadGenerator, scheduler, intervalNanos, capture,
+                            new GeneratorStatistics(outputArea, label), aggregate, counters);
+                }
+            } else {
+                sendPackets(client, outputStream, createPacketSink(client, outputStream),
+                        sessionCount, numberOfPackets, payloadGenerator, scheduler, intervalNanos, capture,
+                        new GeneratorStatistics(outputArea, label), aggregate, counters);
+            }
         } catch (IOException e) {
             ErrorHandler.handleError("Error sending data", e);
-            outputArea.appendText("Error sending data: " + e.getMessage());
-            logger.error("IOException in handle method: {}", e.getMessage());
+            outputArea.appendText("Error sending data: " + e.getMessage() + '\n');
+            logger.error("IOException in handle method for {}: {}", client.getRemoteSocketAddress(), e.getMessage());
+            removeClient(client);
         }
     }
 
     /**
-     * <p>Отправляет информацию о сессии.</p>
+     * <p>Отправляет информацию о сессии кадром {@link FrameType#SESSION_START}.</p>
      *
      * @param outputStream выходной поток для отправки данных
      * @param sessionCount номер сессии
      * @param numberOfPackets количество пакетов
+     * @param sessionFlags флаги сессии, например {@link FrameHeader#FLAG_DATAGRAM}
      * @throws IOException если возникает ошибка ввода-вывода
      */
-    private void sendSessionInfo(OutputStream outputStream, int sessionCount, int numberOfPackets) throws IOException {
-        byte[] byteSessionCount = ByteBuffer.allocate(4).putInt(sessionCount).array();
-        outputStream.write(byteSessionCount);
+    private void sendSessionInfo(OutputStream outputStream, int sessionCount, int numberOfPackets,
+                                 int sessionFlags) throws IOException {
+        outputStream.write(FrameHeader.control(FrameType.SESSION_START, sessionFlags, sessionCount, numberOfPackets));
         outputStream.flush();
+        logger.info("Session info sent: sessionCount={}, numberOfPackets={}, flags={}",
+                sessionCount, numberOfPackets, sessionFlags);
+    }
 
-        byte[] bytePacketCount = ByteBuffer.allocate(4).putInt(numberOfPackets).array();
-        outputStream.write(bytePacketCount);
-        outputStream.flush();
-        logger.info("Session info sent: sessionCount={}, numberOfPackets={}", sessionCount, numberOfPackets);
+    /**
+     * <p>Получает от приемника номер его порта UDP и открывает подключенный к нему канал датаграмм.</p>
+     *
+     * @param client управляющее соединение с приемником
+     * @param sessionCount номер сессии
+     * @param packetSize размер пакета
+     * @return канал датаграмм, подключенный к приемнику
+     * @throws IOException если пакет не помещается в датаграмму, приемник не ответил или канал не открылся
+     */
+    private DatagramChannel openDatagramChannel(Socket client, int sessionCount, int packetSize) throws IOException {
+        int maxPacketSize = DatagramPacketSender.maxPacketSize(NetworkConfig.MAX_DATAGRAM_SIZE);
+        if (packetSize > maxPacketSize) {
+            throw new IOException("Packet size " + packetSize + " exceeds the datagram limit of " + maxPacketSize);
+        }
+
+        byte[] reply = new byte[FrameHeader.SIZE];
+        client.setSoTimeout(NetworkConfig.CONTROL_TIMEOUT_MS);
+        try {
+            new DataInputStream(client.getInputStream()).readFully(reply);
+        } catch (SocketTimeoutException e) {
+            throw new IOException("The receiver did not announce a datagram port", e);
+        } finally {
+            client.setSoTimeout(0);
+        }
+        FrameHeader header = new FrameHeader().wrap(ByteBuffer.wrap(reply), 0);
+        if (!header.hasValidMagic() || header.type() != FrameType.DATAGRAM_PORT || header.sessionId() != sessionCount) {
+            throw new ProtocolException("Unexpected reply to the datagram session start");
+        }
+        int port = (int) header.sequence();
+
+        DatagramChannel channel = DatagramChannel.open();
+        try {
+            channel.connect(new InetSocketAddress(client.getInetAddress(), port));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        logger.info("Datagram channel connected to {}:{}", client.getInetAddress().getHostAddress(), port);
+        return channel;
     }
 
     /**
      * <p>Отправляет пакеты данных.</p>
+     * <p>В текстовый журнал пишутся только события сессии; отправка отдельных пакетов записывается
+     * в двоичную трассировку {@link PacketTrace}, если она включена. Для JFR сессия фиксируется событием
+     * {@link SessionEvent}, а отправка - событием {@link PacketsSentEvent} на каждую пачку пакетов. Итоги сессии
+     * сохраняются в {@link ResultsStore}, если оно включено.</p>
+     * <p>При воспроизведении захвата длина каждого пакета берется из него, а полезная нагрузка копируется
+     * из захвата, если она в нем сохранена.</p>
      *
-     * @param outputStream выходной поток для отправки данных
+     * @param client соединение с приемником
+     * @param outputStream выходной поток управляющего соединения
+     * @param packetSender отправитель пакетов
+     * @param sessionCount номер сессии
      * @param numberOfPackets количество пакетов
-     * @param packetSize размер пакета
-     * @param frequency частота отправки пакетов
+     * @param payloadGenerator источник полезной нагрузки пакетов
+     * @param scheduler расписание интервалов между пакетами
+     * @param intervalNanos базовый интервал между пакетами в наносекундах; 0 - без ограничения скорости
+     * @param capture воспроизводимый файл захвата; null - пакеты размера источника нагрузки
+     * @param statistics статистика соединения
+     * @param aggregate суммарная статистика сессии, в которую добавляются итоги и время цикла отправки
+     * @param counters общие счетчики отправленных пакетов генератора
+     * @return количество отправленных пакетов
      * @throws IOException если возникает ошибка ввода-вывода
      */
-    private void sendPackets(OutputStream outputStream, int numberOfPackets, int packetSize, int frequency) throws IOException {
-        PacketSender packetSender = new PacketSender(outputStream);
-        GeneratorStatistics statistics = new GeneratorStatistics(outputArea);
+    private int sendPackets(Socket client, OutputStream outputStream, PacketSink packetSender, int sessionCount,
+                            int numberOfPackets, PayloadGenerator payloadGenerator, InterDepartureScheduler scheduler,
+                            long intervalNanos, CaptureReader capture, GeneratorStatistics statistics,
+                            AggregateStatistics aggregate, TrafficCounters counters) throws IOException {
+        RatePacer pacer = new RatePacer(scheduler);
+        int packetSize = payloadGenerator.getPacketSize();
+        byte[] payload = payloadGenerator.getBuffer();
+        byte[] capturedPayload = capture != null && capture.hasPayload() ? new byte[packetSize] : null;
+        byte[] header = new byte[FrameHeader.SIZE];
+        ByteBuffer headerView = ByteBuffer.wrap(header);
+        boolean checksum = inputReader.isChecksum();
+        FrameHeader.write(headerView, 0, FrameType.DATA, checksum ? FrameHeader.FLAG_CHECKSUM : 0,
+                packetSize, sessionCount, 0, 0);
+        // CRC32C вычисляется инструкциями процессора (SSE4.2 / ARMv8 CRC), поэтому почти не замедляет отправку
+        CRC32C crc = new CRC32C();
+        PacketTrace trace = PacketTrace.global();
 
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        // Для виртуальных потоков время процессора недоступно и равно -1
+        long startCpuTime = threadBean.getCurrentThreadCpuTime();
+        int packetsSent = 0;
+        long bytesSent = 0;
+        long batchBytes = 0;
+        SessionEvent sessionEvent = SessionEvent.start();
+        PacketsSentEvent sentEvent = PacketsSentEvent.start();
         long startTime = System.nanoTime();
+        pacer.start(startTime);
         for (int i = 0; i < numberOfPackets; i++) {
-            byte[] data = generatePackets(packetSize);
-            packetSender.sendPacket(data);
-            logger.info("Packet {} sent with size {}", i + 1, packetSize);
-
             try {
-                Thread.sleep(frequency);
+                pacer.awaitNext();
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
-                ErrorHandler.handleError("Error during sleep", e);
-                logger.error("InterruptedException during sleep: {}", e.getMessage());
+                ErrorHandler.handleError("Error during pacing", e);
+                logger.error("InterruptedException during pacing: {}", e.getMessage());
+                break;
+            }
+
+            byte[] data = payload;
+            int offset = payloadGenerator.nextOffset();
+            int length = packetSize;
+            if (capture != null) {
+                length = capture.length(i);
+                if (capturedPayload != null) {
+                    capture.copyPayload(i, capturedPayload);
+                    data = capturedPayload;
+                    offset = 0;
+                }
+                FrameHeader.writeLength(headerView, 0, length);
+            }
+            if (checksum) {
+                crc.reset();
+                crc.update(data, offset, length);
+                FrameHeader.writeChecksum(headerView, 0, (int) crc.getValue());
+            }
+            long sendStart = System.nanoTime();
+            long sendTime = EpochClock.toEpochNanos(sendStart);
+            FrameHeader.writeSequence(headerView, 0, i, sendTime);
+            if (data == payload) {
+                packetSender.sendFrame(header, payloadGenerator, offset, length);
+            } else {
+                packetSender.sendFrame(header, data, offset, length);
+            }
+            if (packetSender.hasFailed()) {
+                break;
+            }
+            packetSender.flushIfDue(pacer.getNextDeadline());
+            counters.recordWriteNanos(System.nanoTime() - sendStart);
+            packetsSent++;
+            bytesSent += length;
+            batchBytes += length;
+            counters.record(length);
+            trace.record(TraceEvent.SENT, sendTime, sessionCount, i, length);
+            if (packetsSent % NetworkConfig.JFR_BATCH_PACKETS == 0) {
+                sentEvent.complete(sessionCount, NetworkConfig.JFR_BATCH_PACKETS, batchBytes);
+                sentEvent = PacketsSentEvent.start();
+                batchBytes = 0;
             }
         }
+        int lastBatch = packetsSent % NetworkConfig.JFR_BATCH_PACKETS;
+        if (lastBatch > 0) {
+            sentEvent.complete(sessionCount, lastBatch, batchBytes);
+        }
 
-        outputStream.write("END".getBytes());
+        try {
+            if (packetSender.hasFailed()) {
+                throw new IOException("Connection to " + client.getRemoteSocketAddress() + " failed after "
+                        + packetsSent + " packets");
+            }
+            packetSender.flush();
+        } finally {
+            packetSender.release();
+        }
+        long cpuTime = startCpuTime < 0 ? -1 : threadBean.getCurrentThreadCpuTime() - startCpuTime;
+        outputStream.write(FrameHeader.control(FrameType.SESSION_END, 0, sessionCount, packetsSent));
         outputStream.flush();
-        statistics.displayStatistics(numberOfPackets, packetSize, startTime);
-        logger.info("Finished sending packets. Total packets sent: {}", numberOfPackets);
+        long endTime = System.nanoTime();
+        aggregate.addConnection(packetsSent, bytesSent, startTime, endTime);
+        sessionEvent.complete(PrometheusMetrics.GENERATOR, sessionCount, String.valueOf(client.getRemoteSocketAddress()),
+                packetsSent, bytesSent);
+        int meanSize = packetsSent > 0 ? (int) (bytesSent / packetsSent) : packetSize;
+        ResultsStore.global().append(PrometheusMetrics.GENERATOR, transport, sessionCount, meanSize,
+                RateUnit.packetsPerSecond(intervalNanos), endTime - startTime, packetsSent, bytesSent,
+                -1, null);
+        statistics.displayStatistics(packetsSent, bytesSent, startTime);
+        statistics.displayRate(RateUnit.packetsPerSecond(intervalNanos), packetsSent, meanSize, startTime);
+        statistics.displayWriteCalls(packetSender.getWriteCalls(), packetsSent);
+        statistics.displayCpuUsage(cpuTime, startTime);
+        logger.info("Finished sending packets. Total packets sent: {}", packetsSent);
+        return packetsSent;
     }
 
     /**
-     * <p>Генерирует пакеты данных.</p>
+     * <p>Создает отправителя пакетов для текущего транспорта и режима отправки.</p>
+     *
+     * @param client соединение с приемником
+     * @param outputStream выходной поток сокета
+     * @return отправитель пакетов
+     */
+    private PacketSink createPacketSink(Socket client, OutputStream outputStream) {
+        SocketChannel channel = client.getChannel();
+        if (transport == Transport.NIO && channel != null) {
+            return inputReader.isBatching()
+                    ? new ChannelPacketSender(channel, bufferPool, NetworkConfig.BATCH_BYTES, NetworkConfig.BATCH_MAX_DELAY_NANOS)
+                    : new ChannelPacketSender(channel, bufferPool);
+        }
+        return inputReader.isBatching()
+                ? new PacketSender(outputStream, NetworkConfig.BATCH_BYTES, NetworkConfig.BATCH_MAX_DELAY_NANOS)
+                : new PacketSender(outputStream);
+    }
+
+    /**
+     * <p>Генерирует отдельный пакет данных.</p>
+     * <p>В цикле отправки не используется: там пакеты берутся из {@link PayloadGenerator}.</p>
      *
      * @param packetSize размер пакета
      * @return byte[] data массив байтов
      */
     public static byte[] generatePackets(int packetSize) {
-        byte[] data = IntStream.range(0, packetSize)
-                .mapToObj(j -> (byte) (Math.random() * 256))
-                .collect(ByteArrayOutputStream::new, ByteArrayOutputStream::write, (a, b) -> {
-                    try {
-                        b.writeTo(a);
-                    } catch (IOException e) {
-                        throw new UncheckedIOException(e);
-                    }
-                }).toByteArray();
+        byte[] data = new byte[packetSize];
+        PayloadGenerator.fillRandom(data, 0, packetSize, ThreadLocalRandom.current());
         return data;
     }
 
     /**
-     * <p>Закрывает сокет.</p>
+     * <p>Закрывает соединения со всеми приемниками и серверный сокет.</p>
      */
+    @Override
     public void close() {
-        if (socket != null) {
-            try {
-                serverSocket.close();
-                socket.close();
-                logger.info("Socket closed successfully.");
-            } catch (IOException e) {
-                ErrorHandler.handleIOException("Error closing socket", e);
-                logger.error("IOException while closing socket: {}", e.getMessage());
-            }
-        }
+        super.close();
     }
 
     /**
-     * <p> Проверяет закрыт ли сокет</p>
+     * <p> Проверяет, подключен ли хотя бы один приемник</p>
      *
-     * @return 0, если сокет пуст или закрыт или 1, если сокет не пуст и не закрыт
+     * @return true, если есть хотя бы одно открытое соединение, иначе false
      */
     public boolean isClientConnected() {
-        return socket != null && !socket.isClosed();
+        return !getClients().isEmpty();
     }
 
     /**
@@ -0,0 +1,160 @@
+package TrafficGenerator;
+
+import java.util.SplittableRandom;
+
+/**
+ * <p>TrafficProfile - перечисление статистических профилей трафика.</p>
+ *
+ * <p>Профиль задает форму расписания отправки. CONSTANT, POISSON и ON_OFF сохраняют среднюю скорость,
+ * указанную в поле скорости. Для RAMP и STEP эта скорость - наибольшая, которая достигается к концу сессии,
+ * поэтому их средняя скорость ниже заданной. Целочисленный параметр профиля: длина пачки для ON_OFF,
+ * начальная скорость в процентах для RAMP и число ступеней для STEP.</p>
+ */
+public enum TrafficProfile {
+    /**
+     * <p>Постоянный интервал между пакетами.</p>
+     */
+    CONSTANT("CONSTANT", 0) {
+        @Override
+        InterDepartureScheduler scheduler(long meanIntervalNanos, int packetCount, int option) {
+            return () -> meanIntervalNanos;
+        }
+    },
+
+    /**
+     * <p>Пуассоновский поток: интервалы распределены экспоненциально.</p>
+     */
+    POISSON("POISSON", 0) {
+        @Override
+        InterDepartureScheduler scheduler(long meanIntervalNanos, int packetCount, int option) {
+            SplittableRandom random = new SplittableRandom();
+            return () -> (long) (-meanIntervalNanos * Math.log(1.0 - random.nextDouble()));
+        }
+    },
+
+    /**
+     * <p>Пачки из option пакетов подряд, разделенные паузами.</p>
+     */
+    ON_OFF("ON/OFF BURSTS", 10) {
+        @Override
+        InterDepartureScheduler scheduler(long meanIntervalNanos, int packetCount, int option) {
+            long offGap = meanIntervalNanos * option;
+            return new InterDepartureScheduler() {
+                private int sentInBurst;
+
+                @Override
+                public long nextGapNanos() {
+                    if (++sentInBurst < option) {
+                        return 0;
+                    }
+                    sentInBurst = 0;
+                    return offGap;
+                }
+            };
+        }
+    },
+
+    /**
+     * <p>Линейный рост скорости от option процентов заданной скорости до 100% к концу сессии.</p>
+     */
+    RAMP("LINEAR RAMP", 10) {
+        @Override
+        InterDepartureScheduler scheduler(long meanIntervalNanos, int packetCount, int option) {
+            double startRate = option / 100.0;
+            double rateStep = (1.0 - startRate) / Math.max(1, packetCount - 1);
+            return new InterDepartureScheduler() {
+                private int sent;
+
+                @Override
+                public long nextGapNanos() {
+                    double rateFactor = startRate + rateStep * sent++;
+                    return (long) (meanIntervalNanos / rateFactor);
+                }
+            };
+        }
+
+        @Override
+        public void validate(int option) {
+            if (option < 0 || option > 100) {
+                throw new IllegalArgumentException("Ramp start must be between 1 and 100 percent, or 0 for the default");
+            }
+        }
+    },
+
+    /**
+     * <p>Ступенчатый рост скорости: option ступеней равной длины до заданной скорости.</p>
+     */
+    STEP("STEPS", 4) {
+        @Override
+        InterDepartureScheduler scheduler(long meanIntervalNanos, int packetCount, int option) {
+            int packetsPerStep = Math.max(1, packetCount / option);
+            return new InterDepartureScheduler() {
+                private int sent;
+
+                @Override
+                public long nextGapNanos() {
+                    int step = Math.min(option - 1, sent++ / packetsPerStep);
+                    return meanIntervalNanos * option / (step + 1);
+                }
+            };
+        }
+    };
+
+    private final String label;
+    private final int defaultOption;
+
+    TrafficProfile(String label, int defaultOption) {
+        this.label = label;
+        this.defaultOption = defaultOption;
+    }
+
+    /**
+     * <p>Создает расписание отправки для сессии.</p>
+     *
+     * @param meanIntervalNanos базовый интервал между пакетами в наносекундах
+     * @param packetCount количество пакетов в сессии
+     * @param option параметр профиля
+     * @return расписание интервалов между пакетами
+     */
+    abstract InterDepartureScheduler scheduler(long meanIntervalNanos, int packetCount, int option);
+
+    /**
+     * <p>Создает расписание отправки для сессии, подставляя параметр по умолчанию вместо 0.</p>
+     *
+     * @param meanIntervalNanos базовый интервал между пакетами в наносекундах
+     * @param packetCount количество пакетов в сессии
+     * @param option параметр профиля; 0 - значение по умолчанию
+     * @return расписание интервалов между пакетами
+     * @throws IllegalArgumentException если параметр не подходит для профиля
+     */
+    public InterDepartureScheduler createScheduler(long meanIntervalNanos, int packetCount, int option) {
+        validate(option);
+        return scheduler(meanIntervalNanos, packetCount, option == 0 ? defaultOption : option);
+    }
+
+    /**
+     * <p>Проверяет параметр профиля до начала сессии.</p>
+     *
+     * @param option параметр профиля; 0 - значение по умолчанию
+     * @throws IllegalArgumentException если параметр не подходит для профиля
+     */
+    public void validate(int option) {
+        if (option < 0) {
+            throw new IllegalArgumentException("Profile option cannot be negative");
+        }
+    }
+
+    /**
+     * <p>Возвращает параметр профиля по умолчанию.</p>
+     *
+     * @return параметр по умолчанию
+     */
+    public int getDefaultOption() {
+        return defaultOption;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
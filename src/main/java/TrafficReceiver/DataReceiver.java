@@ -1,136 +1,659 @@
 package TrafficReceiver;
 
+import Capture.CaptureWriter;
+import Monitoring.PacketTrace;
+import Monitoring.PacketsReceivedEvent;
+import Monitoring.PrometheusMetrics;
+import Monitoring.SessionEvent;
+import Monitoring.TraceEvent;
+import NetworkConnection.AdaptiveReadSize;
+import NetworkConnection.BufferPool;
+import NetworkConnection.NetworkConfig;
+import NetworkConnection.SelectorPool;
+import NetworkConnection.ThreadMode;
+import NetworkConnection.Transport;
+import Output.OutputSink;
+import Protocol.EpochClock;
+import Protocol.FrameDecoder;
+import Protocol.FrameHeader;
+import Protocol.FrameType;
+import Results.ResultsStore;
+import Results.SessionResult;
+import Statistics.LatencyHistogram;
 import Statistics.ReceiverStatistics;
+import Statistics.SequenceTracker;
+import Statistics.TrafficCounters;
 
-import javafx.scene.control.TextArea;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
 import java.nio.ByteBuffer;
-import java.util.Arrays;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
 
 /**
  * <p>DataReceiver - класс для приема и обработки трафика.</p>
+ *
+ * <p>Поток разбирается на кадры {@link FrameDecoder}: сессия начинается кадром {@link FrameType#SESSION_START},
+ * каждый пакет - кадр {@link FrameType#DATA} с порядковым номером, сессия заканчивается кадром
+ * {@link FrameType#SESSION_END}. Поэтому количество пакетов не зависит от того, как данные разбиты на чтения.</p>
+ *
+ * <p>Данные передаются приемнику порциями через {@link #onData(ByteBuffer)}: из потока селектора
+ * {@link SelectorPool} или из блокирующего цикла {@link #receive(ReadableByteChannel)}, который читает канал
+ * прямо в прямой буфер с подбираемым размером чтения. Пакеты сессии с датаграммами
+ * принимает отдельный виртуальный поток, а кадры управляющего соединения продолжают приходить через onData.</p>
+ *
+ * <p>Для каждого кадра данных задержка от отметки отправки до разбора учитывается в {@link LatencyHistogram}
+ * сессии. В конце сессии выводятся ее перцентили, а гистограмма добавляется к общей гистограмме приемника,
+ * если она задана. Если в кадре установлен {@link FrameHeader#FLAG_CHECKSUM}, полезная нагрузка проверяется
+ * по CRC32C прямо в буфере чтения, по мере прихода частей кадра. В режиме {@link ReceiveMode#DISCARD} пакеты только считаются по длинам из заголовков.</p>
+ *
+ * <p>Каждый пакет, а в полном режиме также его задержка и пропуски в порядковых номерах, учитывается в счетчиках
+ * {@link TrafficCounters}, по которым во время сессии выводится текущая скорость приема.</p>
+ *
+ * <p>Для JFR каждая порция данных фиксируется событием {@link PacketsReceivedEvent}, а потоковая сессия -
+ * событием {@link SessionEvent}; сессию с датаграммами фиксирует {@link DatagramReceiver}.</p>
+ *
+ * <p>Если запущен общий захват {@link CaptureWriter}, первая сессия, принятая в полном режиме, записывается
+ * в файл захвата по мере разбора кадров: время прихода, порядковый номер, длина и полезная нагрузка.</p>
  */
-public class DataReceiver {
+public class DataReceiver implements AutoCloseable, FrameDecoder.Listener, SelectorPool.Handler {
     private static final Logger logger = LogManager.getLogger(DataReceiver.class);
-    private static final int BUFFER_SIZE = 1024;
-    private static final String SESSION_END_MARKER = "END";
-    private TextArea outputArea;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final BufferPool READ_BUFFER_POOL = new BufferPool(NetworkConfig.MAX_READ_SIZE, 16);
+    private static final long DATAGRAM_SESSION_JOIN_MS = 1_000;
+    private static final long CONTROL_RETRY_NANOS = 100_000;
+    private OutputSink outputArea;
     private final ReceiverStatistics statistics;
+    private final Socket socket;
+    private final FrameDecoder decoder = new FrameDecoder(this);
+    private final LatencyHistogram totalLatency;
+    private final ReceiveMode receiveMode;
+    private final TrafficCounters counters;
+    private final Object datagramLock = new Object();
+    private DatagramReceiver datagramReceiver;
+    private Thread datagramSessionThread;
+    private CountDownLatch datagramSessionEnd;
+    private boolean datagramClosed;
+
+    private int sessionId;
+    private boolean sessionActive;
+    private boolean datagramSession;
+    private volatile long completedSessions;
+    private SequenceTracker tracker;
+    private LatencyHistogram latency;
+    private long totalPackets;
+    private long totalBytesRead;
+    private long decodedPackets;
+    private SessionEvent sessionEvent;
+    private long startTime;
+    private long lastArrival;
+    private long staleFrames;
+    private final CRC32C crc = new CRC32C();
+    private boolean verifying;
+    private int expectedChecksum;
+    private long checkedSequence;
+    private PacketTrace trace = PacketTrace.global();
+    private CaptureWriter capture;
+    private volatile Consumer<SessionResult> sessionListener;
 
     /**
      * <p>Конструктор класса DataReceiver.</p>
      *
-     * @param outputArea текстовая область для вывода информации
+     * @param outputArea приемник сообщений для вывода информации
+     */
+    public DataReceiver(OutputSink outputArea) {
+        this(outputArea, null);
+    }
+
+    /**
+     * <p>Конструктор класса DataReceiver с управляющим соединением.</p>
+     * <p>Соединение нужно для сессий с датаграммами: через него приемник сообщает генератору свой порт UDP.</p>
+     *
+     * @param outputArea приемник сообщений для вывода информации
+     * @param socket соединение с генератором; null - датаграммы не поддерживаются
      */
-    public DataReceiver(TextArea outputArea) {
+    public DataReceiver(OutputSink outputArea, Socket socket) {
+        this(outputArea, socket, null);
+    }
+
+    /**
+     * <p>Конструктор класса DataReceiver с общей гистограммой задержек.</p>
+     *
+     * @param outputArea приемник сообщений для вывода информации
+     * @param socket соединение с генератором; null - датаграммы не поддерживаются
+     * @param totalLatency гистограмма, к которой добавляются задержки всех сессий; null - не собирать
+     */
+    public DataReceiver(OutputSink outputArea, Socket socket, LatencyHistogram totalLatency) {
+        this(outputArea, socket, totalLatency, ReceiveMode.FULL);
+    }
+
+    /**
+     * <p>Конструктор класса DataReceiver с режимом приема.</p>
+     *
+     * @param outputArea приемник сообщений для вывода информации
+     * @param socket соединение с генератором; null - датаграммы не поддерживаются
+     * @param totalLatency гистограмма, к которой добавляются задержки всех сессий; null - не собирать
+     * @param receiveMode режим обработки принятых пакетов
+     */
+    public DataReceiver(OutputSink outputArea, Socket socket, LatencyHistogram totalLatency, ReceiveMode receiveMode) {
+        this(outputArea, socket, totalLatency, receiveMode, new TrafficCounters());
+    }
+
+    /**
+     * <p>Конструктор класса DataReceiver с общими счетчиками трафика.</p>
+     *
+     * @param outputArea приемник сообщений для вывода информации
+     * @param socket соединение с генератором; null - датаграммы не поддерживаются
+     * @param totalLatency гистограмма, к которой добавляются задержки всех сессий; null - не собирать
+     * @param receiveMode режим обработки принятых пакетов
+     * @param counters счетчики, которые обновляются на каждом принятом пакете
+     */
+    public DataReceiver(OutputSink outputArea, Socket socket, LatencyHistogram totalLatency, ReceiveMode receiveMode,
+                        TrafficCounters counters) {
         this.outputArea = outputArea;
+        this.socket = socket;
+        this.totalLatency = totalLatency;
+        this.receiveMode = receiveMode;
+        this.counters = counters;
         this.statistics = new ReceiverStatistics(outputArea);
-        logger.info("DataReceiver initialized");
+        logger.info("DataReceiver initialized: {} mode", receiveMode);
+    }
+
+    /**
+     * <p>Читает блокирующий канал до его конца и передает данные в {@link #onData(ByteBuffer)}.</p>
+     * <p>Данные читаются прямо в прямой буфер из пула, размер чтения подбирается по заполнению предыдущих.</p>
+     *
+     * @param channel блокирующий канал для чтения данных
+     * @throws IOException если возникает ошибка ввода-вывода или нарушен формат кадров
+     */
+    public void receive(ReadableByteChannel channel) throws IOException {
+        ByteBuffer buffer = READ_BUFFER_POOL.acquire();
+        AdaptiveReadSize readSize = new AdaptiveReadSize(NetworkConfig.MIN_READ_SIZE,
+                NetworkConfig.INITIAL_READ_SIZE, NetworkConfig.MAX_READ_SIZE);
+        try {
+            int bytesRead;
+            while ((bytesRead = channel.read(buffer.clear().limit(readSize.size()))) != -1) {
+                readSize.record(bytesRead);
+                onData(buffer.flip());
+            }
+            logger.info("The input channel ended");
+        } finally {
+            READ_BUFFER_POOL.release(buffer);
+        }
     }
 
     /**
-     * <p>Обрабатывает входящие данные из потока.</p>
+     * <p>Читает блокирующий поток до его конца и передает данные в {@link #onData(ByteBuffer)}.</p>
+     * <p>Чтение блокируется до прихода данных, поэтому прием начинается сразу, без опроса.</p>
      *
      * @param inputStream входной поток для чтения данных
-     * @throws IOException если возникает ошибка ввода-вывода
+     * @throws IOException если возникает ошибка ввода-вывода или нарушен формат кадров
      */
-    public void processIncomingData(BufferedInputStream inputStream) throws IOException {
-        int currentSessionCount = readSessionCount(inputStream);
-        int expectedPacketCount = readPacketCount(inputStream);
-        if (currentSessionCount == -1) {
-            return;
+    public void receive(InputStream inputStream) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        ByteBuffer view = ByteBuffer.wrap(buffer);
+        int bytesRead;
+        while ((bytesRead = inputStream.read(buffer)) != -1) {
+            onData(view.clear().limit(bytesRead));
         }
+        logger.info("The input stream ended");
+    }
+
+    /**
+     * <p>Разбирает очередную порцию данных соединения на кадры.</p>
+     *
+     * @param buffer буфер с данными между position и limit
+     * @throws IOException если нарушен формат кадров
+     */
+    @Override
+    public void onData(ByteBuffer buffer) throws IOException {
+        PacketsReceivedEvent event = PacketsReceivedEvent.start();
+        int bytes = buffer.remaining();
+        long packetsBefore = decodedPackets;
+        decoder.feed(buffer);
+        event.complete(sessionId, decodedPackets - packetsBefore, bytes);
+    }
+
+    /**
+     * <p>Завершает прием после закрытия соединения.</p>
+     * <p>Метод вызывается в потоке селектора, поэтому не ждет сессию с датаграммами: она завершается
+     * в своем потоке, который и закрывает канал датаграмм.</p>
+     */
+    @Override
+    public void onClosed() {
+        finishCapture();
+        endDatagramSessions();
+    }
 
-        outputArea.appendText("Receiving session # " + currentSessionCount + '\n');
-        logger.info("Receiving session # {}", currentSessionCount);
+    /**
+     * <p>Задает слушателя, который получает итоги каждой завершенной сессии, в том числе сессии с датаграммами.</p>
+     * <p>Слушатель вызывается в потоке приема сессии.</p>
+     *
+     * @param sessionListener слушатель; null - итоги не передаются
+     */
+    public void setSessionListener(Consumer<SessionResult> sessionListener) {
+        this.sessionListener = sessionListener;
+    }
 
-        int totalPackets = 0;
-        int totalBytesRead = 0;
-        long startTime = System.nanoTime();
+    /**
+     * <p>Возвращает количество завершенных сессий.</p>
+     *
+     * @return количество сессий
+     */
+    public long getCompletedSessions() {
+        return completedSessions;
+    }
 
-        byte[] buffer = new byte[BUFFER_SIZE];
-        while (true) {
-            int bytesRead = inputStream.read(buffer);
-            if (bytesRead == -1) {
-                break;
+    @Override
+    public void onHeader(FrameHeader header) {
+        switch (header.type()) {
+            case SESSION_START -> startSession(header);
+            case DATA -> {
+                if (!sessionActive || header.sessionId() != sessionId) {
+                    staleFrames++;
+                    return;
+                }
+                counters.record(header.length());
+                decodedPackets++;
+                if (receiveMode == ReceiveMode.DISCARD) {
+                    totalPackets++;
+                    totalBytesRead += header.length();
+                    return;
+                }
+                lastArrival = System.nanoTime();
+                if (capture != null) {
+                    capture.begin(lastArrival, header.sequence(), header.length());
+                }
+                if ((header.flags() & FrameHeader.FLAG_CHECKSUM) != 0) {
+                    verifying = true;
+                    expectedChecksum = header.checksum();
+                    checkedSequence = header.sequence();
+                    crc.reset();
+                }
+                long arrival = EpochClock.toEpochNanos(lastArrival);
+                long packetLatency = arrival - header.timestamp();
+                latency.record(packetLatency);
+                counters.recordLatency(packetLatency);
+                long gap = tracker.record(header.sequence());
+                counters.recordMissing(gap);
+                trace.record(TraceEvent.RECEIVED, arrival, sessionId, header.sequence(), header.length());
+                if (gap > 0) {
+                    trace.record(TraceEvent.GAP, arrival, sessionId, header.sequence(), (int) gap);
+                }
+                totalPackets++;
+                totalBytesRead += header.length();
             }
+            case SESSION_END -> finishSession(header);
+            default -> logger.warn("Unexpected frame {} from the generator", header.type());
+        }
+    }
 
-            if (isSessionEnd(buffer, bytesRead)) {
-                logger.info("Session end marker received");
-                break;
+    /**
+     * <p>Добавляет часть полезной нагрузки проверяемого кадра к контрольной сумме и записывает ее в захват,
+     * если сессия захватывается.</p>
+     * <p>Позиция и граница буфера после вызова остаются прежними.</p>
+     *
+     * @param buffer буфер с данными
+     * @param offset индекс начала части в буфере
+     * @param length длина части
+     */
+    @Override
+    public void onPayload(ByteBuffer buffer, int offset, int length) {
+        if (capture != null) {
+            capture.payload(buffer, offset, length);
+        }
+        if (!verifying) {
+            return;
+        }
+        int position = buffer.position();
+        int limit = buffer.limit();
+        buffer.limit(offset + length).position(offset);
+        crc.update(buffer);
+        buffer.limit(limit).position(position);
+    }
+
+    /**
+     * <p>Сравнивает контрольную сумму проверяемого кадра с записанной генератором.</p>
+     */
+    @Override
+    public void onFrameEnd() {
+        if (verifying) {
+            verifying = false;
+            boolean valid = (int) crc.getValue() == expectedChecksum;
+            tracker.recordChecksum(valid);
+            if (!valid) {
+                trace.record(TraceEvent.CHECKSUM_ERROR, EpochClock.nanos(), sessionId, checkedSequence, 0);
+            }
+        }
+    }
+
+    /**
+     * <p>Дожидается окончания сессии с датаграммами, если она идет, и закрывает канал датаграмм.</p>
+     */
+    @Override
+    public void close() {
+        finishCapture();
+        endDatagramSessions();
+        Thread sessionThread;
+        synchronized (datagramLock) {
+            sessionThread = datagramSessionThread;
+        }
+        if (sessionThread != null) {
+            try {
+                sessionThread.join(DATAGRAM_SESSION_JOIN_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
+        }
+        synchronized (datagramLock) {
+            closeDatagramReceiver();
+        }
+    }
+
+    /**
+     * <p>Начинает новую сессию по кадру {@link FrameType#SESSION_START}.</p>
+     *
+     * @param header заголовок кадра
+     */
+    private void startSession(FrameHeader header) {
+        sessionId = header.sessionId();
+        sessionActive = true;
+        datagramSession = (header.flags() & FrameHeader.FLAG_DATAGRAM) != 0;
+        tracker = new SequenceTracker(header.sequence());
+        latency = new LatencyHistogram();
+        trace = PacketTrace.global();
+        counters.recordSession();
+        totalPackets = 0;
+        totalBytesRead = 0;
+        staleFrames = 0;
+        startTime = System.nanoTime();
+        lastArrival = startTime;
+        sessionEvent = datagramSession ? null : SessionEvent.start();
+        finishCapture();
+        capture = datagramSession || receiveMode == ReceiveMode.DISCARD ? null : CaptureWriter.claimGlobal(sessionId);
 
-            totalPackets++;
-            totalBytesRead += bytesRead;
+        outputArea.appendText("Receiving session # " + sessionId + '\n');
+        logger.info("Receiving session # {}, expected packets: {}, datagrams: {}",
+                sessionId, header.sequence(), datagramSession);
+        if (datagramSession) {
+            startDatagramSession();
         }
+    }
 
-        if (totalPackets > 0) {
-            statistics.displayStatistics(totalPackets, totalBytesRead, startTime);
-            statistics.displayPacketLoss(expectedPacketCount, totalPackets);
+    /**
+     * <p>Завершает сессию по кадру {@link FrameType#SESSION_END} и выводит статистику потоковой сессии.</p>
+     * <p>Статистику сессии с датаграммами выводит ее поток после приема запоздавших датаграмм.</p>
+     *
+     * @param header заголовок кадра
+     */
+    private void finishSession(FrameHeader header) {
+        if (!sessionActive || header.sessionId() != sessionId) {
+            logger.warn("Session end for unknown session # {}", header.sessionId());
+            return;
+        }
+        sessionActive = false;
+        completedSessions++;
+        logger.info("Session end received: generator sent {} packets", header.sequence());
+        if (staleFrames > 0) {
+            logger.warn("Ignored {} frames of other sessions", staleFrames);
+        }
+        if (datagramSession) {
+            synchronized (datagramLock) {
+                if (datagramSessionEnd != null) {
+                    datagramSessionEnd.countDown();
+                }
+            }
+            return;
+        }
+
+        sessionEvent.complete(PrometheusMetrics.RECEIVER, sessionId,
+                socket == null ? null : String.valueOf(socket.getRemoteSocketAddress()), totalPackets, totalBytesRead);
+        sessionEvent = null;
+        finishCapture();
+        boolean discard = receiveMode == ReceiveMode.DISCARD;
+        completeSession(sessionListener, streamTransport(), sessionId,
+                (discard ? System.nanoTime() : lastArrival) - startTime, totalPackets, totalBytesRead,
+                discard ? -1 : tracker.getLost(), discard ? null : latency);
+        if (totalPackets > 0 && discard) {
+            statistics.displayStatistics(totalPackets, totalBytesRead, startTime, System.nanoTime());
+            outputArea.appendText("Discard mode: sequence and latency tracking are off." + '\n');
+            logger.info("Total packets received: {}", totalPackets);
+        } else if (totalPackets > 0) {
+            statistics.displayStatistics(totalPackets, totalBytesRead, startTime, lastArrival);
+            statistics.displaySequenceStatistics(tracker);
+            statistics.displayLatency(latency);
+            mergeLatency(latency);
             logger.info("Total packets received: {}", totalPackets);
         } else {
             outputArea.appendText("No packets received." + '\n');
-            logger.warn("No packets received in session # {}", currentSessionCount);
+            logger.warn("No packets received in session # {}", sessionId);
         }
     }
 
     /**
-     * <p>Читает номер текущей сессии из входного потока.</p>
+     * <p>Закрывает файл захвата сессии, если она захватывается.</p>
+     */
+    private void finishCapture() {
+        if (capture != null) {
+            capture.close();
+            outputArea.appendText("Captured " + capture.getPackets() + " packets to " + capture.getFile() + '\n');
+            capture = null;
+        }
+    }
+
+    /**
+     * <p>Определяет транспорт потоковой сессии: соединения, которые обслуживает селектор, неблокирующие.</p>
      *
-     * @param inputStream входной поток для чтения данных
-     * @return номер сессии или -1 в случае ошибки
-     * @throws IOException если возникает ошибка ввода-вывода
+     * @return {@link Transport#NIO} или {@link Transport#STREAM}
+     */
+    private Transport streamTransport() {
+        SocketChannel channel = socket == null ? null : socket.getChannel();
+        return channel != null && !channel.isBlocking() ? Transport.NIO : Transport.STREAM;
+    }
+
+    /**
+     * <p>Запускает прием датаграмм сессии в отдельном виртуальном потоке.</p>
+     * <p>Поток сообщает генератору порт UDP и принимает датаграммы, пока по управляющему соединению
+     * не придет конец сессии. Сессии с датаграммами одного соединения выполняются по очереди.</p>
+     */
+    private void startDatagramSession() {
+        if (socket == null) {
+            logger.error("Datagram sessions require a control connection");
+            return;
+        }
+        int id = sessionId;
+        SequenceTracker sessionTracker = tracker;
+        LatencyHistogram sessionLatency = latency;
+        long sessionStart = startTime;
+        CountDownLatch sessionEnd = new CountDownLatch(1);
+        synchronized (datagramLock) {
+            Thread previous = datagramSessionThread;
+            datagramSessionEnd = sessionEnd;
+            datagramSessionThread = ThreadMode.VIRTUAL.start("datagram-session-" + id, () -> {
+                joinQuietly(previous);
+                receiveDatagrams(id, sessionTracker, sessionLatency, sessionStart, sessionEnd);
+                finishDatagramThread();
+            });
+        }
+    }
+
+    /**
+     * <p>Отмечает, что прием датаграмм закрыт, и открывает защелку идущей сессии. Если сессия не идет,
+     * канал датаграмм закрывается сразу, иначе его закрывает поток сессии по окончании.</p>
+     */
+    private void endDatagramSessions() {
+        synchronized (datagramLock) {
+            datagramClosed = true;
+            if (datagramSessionEnd != null) {
+                datagramSessionEnd.countDown();
+            }
+            if (datagramSessionThread == null) {
+                closeDatagramReceiver();
+            }
+        }
+    }
+
+    /**
+     * <p>Завершает поток сессии с датаграммами. Последний поток соединения закрывает канал датаграмм,
+     * если прием уже закрыт.</p>
      */
-    private int readSessionCount(BufferedInputStream inputStream) throws IOException {
-        byte[] currentSessionCountBytes = new byte[4];
-        int bytesRead = inputStream.read(currentSessionCountBytes);
-        if (bytesRead == -1) {
-            logger.error("Failed to read session count from input stream");
-            return -1;
+    private void finishDatagramThread() {
+        synchronized (datagramLock) {
+            if (datagramSessionThread != Thread.currentThread()) {
+                return;
+            }
+            datagramSessionThread = null;
+            if (datagramClosed) {
+                closeDatagramReceiver();
+            }
+        }
+    }
+
+    /**
+     * <p>Закрывает канал датаграмм, если он открыт. Вызывается под {@code datagramLock}.</p>
+     */
+    private void closeDatagramReceiver() {
+        if (datagramReceiver != null) {
+            datagramReceiver.close();
+            datagramReceiver = null;
         }
-        int sessionCount = ByteBuffer.wrap(currentSessionCountBytes).getInt();
-        logger.info("Session count read: {}", sessionCount);
-        return sessionCount;
     }
 
     /**
-     * <p>Читает ожидаемое количество пакетов из входного потока.</p>
+     * <p>Принимает пакеты сессии датаграммами: сообщает генератору порт UDP и ждет конца сессии.</p>
      *
-     * @param inputStream входной поток для чтения данных
-     * @return ожидаемое количество пакетов или -1 в случае ошибки
-     * @throws IOException если возникает ошибка ввода-вывода
+     * @param id номер сессии
+     * @param sessionTracker учет порядковых номеров сессии
+     * @param sessionLatency гистограмма задержек сессии
+     * @param sessionStart время начала сессии в наносекундах
+     * @param sessionEnd защелка, которая открывается по кадру конца сессии или при закрытии соединения
      */
-    private int readPacketCount(BufferedInputStream inputStream) throws IOException {
-        byte[] expectedPacketCountBytes = new byte[4];
-        int bytesRead = inputStream.read(expectedPacketCountBytes);
-        if (bytesRead == -1) {
-            logger.error("Failed to read expected packet count from input stream");
-            return -1;
+    private void receiveDatagrams(int id, SequenceTracker sessionTracker, LatencyHistogram sessionLatency,
+                                  long sessionStart, CountDownLatch sessionEnd) {
+        try {
+            DatagramReceiver receiver;
+            synchronized (datagramLock) {
+                if (datagramReceiver == null) {
+                    datagramReceiver = new DatagramReceiver(socket.getLocalAddress(), counters);
+                }
+                receiver = datagramReceiver;
+                receiver.setSessionListener(sessionListener);
+            }
+            sendControl(FrameHeader.control(FrameType.DATAGRAM_PORT, 0, id, receiver.getPort()));
+            logger.info("Datagram port announced: {}", receiver.getPort());
+
+            long received = receiver.receiveSession(() -> awaitQuietly(sessionEnd), id, sessionTracker,
+                    sessionLatency, statistics, sessionStart);
+            mergeLatency(sessionLatency);
+            logger.info("Total packets received: {}", received);
+        } catch (IOException e) {
+            logger.error("Error receiving datagram session # {}: {}", id, e.getMessage());
         }
-        int packetCount = ByteBuffer.wrap(expectedPacketCountBytes).getInt();
-        logger.info("Expected packet count read: {}", packetCount);
-        return packetCount;
     }
 
     /**
-     * <p>Проверяет, является ли полученный буфер маркером конца сессии.</p>
+     * <p>Сохраняет итоги сессии приемника в общий {@link ResultsStore} и передает их слушателю.</p>
      *
-     * @param buffer массив байтов, содержащий данные
-     * @param bytesRead количество прочитанных байтов
-     * @return true, если получен маркер конца сессии, иначе false
+     * @param listener слушатель итогов; null - не передавать
+     * @param transport транспорт сессии
+     * @param sessionId номер сессии
+     * @param durationNanos длительность сессии в наносекундах
+     * @param packets количество полученных пакетов
+     * @param bytes количество полученных байт
+     * @param lost количество потерянных пакетов; -1 - не измерялось
+     * @param latency гистограмма задержек сессии; null - не измерялась
      */
-    private boolean isSessionEnd(byte[] buffer, int bytesRead) {
-        byte[] sessionEndBytes = SESSION_END_MARKER.getBytes();
-        if (bytesRead < sessionEndBytes.length) {
-            return false;
+    static void completeSession(Consumer<SessionResult> listener, Transport transport, int sessionId,
+                                long durationNanos, long packets, long bytes, long lost, LatencyHistogram latency) {
+        int packetSize = packets > 0 ? (int) (bytes / packets) : 0;
+        ResultsStore store = ResultsStore.global();
+        SessionResult result = store.append(PrometheusMetrics.RECEIVER, transport, sessionId, packetSize, Double.NaN,
+                durationNanos, packets, bytes, lost, latency);
+        if (listener != null) {
+            listener.accept(result != null ? result : SessionResult.of(store.getRunId(), System.currentTimeMillis(),
+                    PrometheusMetrics.RECEIVER, transport, sessionId, packetSize, Double.NaN, durationNanos, packets,
+                    bytes, lost, latency));
+        }
+    }
+
+    /**
+     * <p>Отправляет генератору управляющий кадр по соединению TCP.</p>
+     * <p>Если соединение обслуживает селектор, канал неблокирующий, и кадр дописывается в него напрямую.
+     * Пока буфер отправки полон, поток ненадолго засыпает, а не крутится в активном
+     * ожидании; если кадр не уходит за {@link NetworkConfig#CONTROL_TIMEOUT_MS}, соединение закрывается.</p>
+     *
+     * @param frame кадр для отправки
+     * @throws IOException если возникает ошибка ввода-вывода или кадр не отправлен вовремя
+     */
+    private void sendControl(byte[] frame) throws IOException {
+        SocketChannel channel = socket.getChannel();
+        if (channel != null && !channel.isBlocking()) {
+            ByteBuffer buffer = ByteBuffer.wrap(frame);
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(NetworkConfig.CONTROL_TIMEOUT_MS);
+            while (buffer.hasRemaining()) {
+                if (channel.write(buffer) > 0) {
+                    continue;
+                }
+                if (System.nanoTime() - deadline >= 0) {
+                    // Поток селектора увидит закрытый канал и завершит соединение
+                    channel.close();
+                    throw new IOException("Control frame not sent within " + NetworkConfig.CONTROL_TIMEOUT_MS + " ms");
+                }
+                LockSupport.parkNanos(CONTROL_RETRY_NANOS);
+            }
+            return;
+        }
+        OutputStream control = socket.getOutputStream();
+        control.write(frame);
+        control.flush();
+    }
+
+    /**
+     * <p>Добавляет задержки завершенной сессии к общей гистограмме приемника.</p>
+     *
+     * @param sessionLatency гистограмма задержек сессии
+     */
+    private void mergeLatency(LatencyHistogram sessionLatency) {
+        if (totalLatency != null) {
+            totalLatency.merge(sessionLatency);
+        }
+    }
+
+    /**
+     * <p>Ждет открытия защелки; прерывание завершает ожидание.</p>
+     *
+     * @param latch защелка
+     */
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * <p>Ждет завершения потока; прерывание завершает ожидание.</p>
+     *
+     * @param thread поток или null
+     */
+    private static void joinQuietly(Thread thread) {
+        if (thread == null) {
+            return;
         }
-        boolean endMarkerReceived = Arrays.equals(Arrays.copyOfRange(buffer, bytesRead - sessionEndBytes.length, bytesRead), sessionEndBytes);
-        if (endMarkerReceived) {
-            logger.info("Detected session end marker in buffer");
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-        return endMarkerReceived;
     }
 }
@@ -0,0 +1,268 @@
+package TrafficReceiver;
+
+import Capture.CaptureWriter;
+import Monitoring.PacketTrace;
+import Monitoring.PacketsReceivedEvent;
+import Monitoring.PrometheusMetrics;
+import Monitoring.SessionEvent;
+import Monitoring.TraceEvent;
+import NetworkConnection.BufferPool;
+import NetworkConnection.NetworkConfig;
+import NetworkConnection.ThreadMode;
+import NetworkConnection.Transport;
+import Results.SessionResult;
+import Statistics.LatencyHistogram;
+import Statistics.ReceiverStatistics;
+import Protocol.EpochClock;
+import Protocol.FrameHeader;
+import Protocol.FrameType;
+import Statistics.SequenceTracker;
+import Statistics.TrafficCounters;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * <p>DatagramReceiver - класс для приема пакетов сессии датаграммами UDP.</p>
+ *
+ * <p>Канал датаграмм открывается один раз на соединение и используется во всех сессиях. Датаграммы
+ * читаются в прямой буфер из общего пула, заголовок кадра разбирается прямо в нем. Конец сессии приходит
+ * кадром по управляющему соединению TCP, которое читает отдельный виртуальный поток; после него приемник
+ * дочитывает датаграммы,
+ * которые были в пути, пока они приходят чаще, чем раз в {@value NetworkConfig#DATAGRAM_DRAIN_MS} мс.</p>
+ */
+public class DatagramReceiver implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(DatagramReceiver.class);
+    private static final BufferPool BUFFER_POOL = new BufferPool(NetworkConfig.MAX_DATAGRAM_SIZE, 64);
+    private final DatagramChannel channel;
+    private final Selector selector;
+    private final TrafficCounters counters;
+    private long staleDatagrams;
+    private volatile Consumer<SessionResult> sessionListener;
+
+    /**
+     * <p>Конструктор класса DatagramReceiver: открывает канал на свободном порту заданного адреса.</p>
+     *
+     * @param bindAddress локальный адрес, на котором принимаются датаграммы
+     * @throws IOException если не удалось открыть канал
+     */
+    public DatagramReceiver(InetAddress bindAddress) throws IOException {
+        this(bindAddress, new TrafficCounters());
+    }
+
+    /**
+     * <p>Конструктор класса DatagramReceiver с общими счетчиками трафика.</p>
+     *
+     * @param bindAddress локальный адрес, на котором принимаются датаграммы
+     * @param counters счетчики, которые обновляются на каждой принятой датаграмме
+     * @throws IOException если не удалось открыть канал
+     */
+    public DatagramReceiver(InetAddress bindAddress, TrafficCounters counters) throws IOException {
+        this.counters = counters;
+        channel = DatagramChannel.open();
+        try {
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, NetworkConfig.DATAGRAM_RECEIVE_BUFFER);
+            channel.bind(new InetSocketAddress(bindAddress, 0));
+            channel.configureBlocking(false);
+            selector = Selector.open();
+            channel.register(selector, SelectionKey.OP_READ);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        logger.info("DatagramReceiver bound to {}", channel.getLocalAddress());
+    }
+
+    /**
+     * <p>Возвращает порт, на котором принимаются датаграммы.</p>
+     *
+     * @return номер порта
+     * @throws IOException если канал закрыт
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * <p>Задает слушателя, который получает итоги каждой сессии после ее окончания.</p>
+     *
+     * @param sessionListener слушатель; null - итоги не передаются
+     */
+    public void setSessionListener(Consumer<SessionResult> sessionListener) {
+        this.sessionListener = sessionListener;
+    }
+
+    /**
+     * <p>Принимает датаграммы сессии, пока не завершится ожидание конца сессии, и выводит статистику.</p>
+     * <p>Датаграммы с некорректным заголовком учитываются как некорректные номера. Датаграммы другой сессии,
+     * например запоздавшие из предыдущей, только считаются и не влияют на учет номеров текущей.</p>
+     *
+     * @param awaitSessionEnd действие, которое возвращает управление после конца сессии в управляющем соединении
+     * @param sessionId номер сессии
+     * @param tracker учет порядковых номеров сессии
+     * @param latency гистограмма задержек сессии
+     * @param statistics статистика приема
+     * @param startTime время начала сессии в наносекундах
+     * @return количество различных полученных пакетов
+     * @throws IOException если возникает ошибка ввода-вывода
+     */
+    public long receiveSession(Runnable awaitSessionEnd, int sessionId, SequenceTracker tracker,
+                               LatencyHistogram latency, ReceiverStatistics statistics, long startTime)
+            throws IOException {
+        ByteBuffer buffer = BUFFER_POOL.acquire();
+        FrameHeader header = new FrameHeader().wrap(buffer, 0);
+        CRC32C crc = new CRC32C();
+        PacketTrace trace = PacketTrace.global();
+        long lastArrival = startTime;
+        long packets = 0;
+        long totalBytes = 0;
+        SocketAddress sender = null;
+        staleDatagrams = 0;
+        SessionEvent sessionEvent = SessionEvent.start();
+        CaptureWriter capture = CaptureWriter.claimGlobal(sessionId);
+        AtomicBoolean ended = new AtomicBoolean();
+        Thread controlWatcher = ThreadMode.VIRTUAL.start("datagram-session-control", () -> {
+            awaitSessionEnd.run();
+            ended.set(true);
+            selector.wakeup();
+        });
+        try {
+            boolean draining = false;
+            while (true) {
+                int ready = selector.select(NetworkConfig.DATAGRAM_DRAIN_MS);
+                selector.selectedKeys().clear();
+                if (ready > 0) {
+                    PacketsReceivedEvent event = PacketsReceivedEvent.start();
+                    long packetsBefore = packets;
+                    long bytesBefore = totalBytes;
+                    SocketAddress from;
+                    while ((from = channel.receive(buffer.clear())) != null) {
+                        sender = from;
+                        lastArrival = System.nanoTime();
+                        if (!isValidData(header, buffer.position())) {
+                            tracker.record(-1);
+                            continue;
+                        }
+                        if (header.sessionId() != sessionId) {
+                            staleDatagrams++;
+                            continue;
+                        }
+                        int size = buffer.position();
+                        if (capture != null) {
+                            capture.record(lastArrival, header.sequence(), buffer, FrameHeader.SIZE,
+                                    size - FrameHeader.SIZE);
+                        }
+                        long arrival = EpochClock.toEpochNanos(lastArrival);
+                        long packetLatency = arrival - header.timestamp();
+                        latency.record(packetLatency);
+                        counters.recordLatency(packetLatency);
+                        long gap = tracker.record(header.sequence());
+                        counters.recordMissing(gap);
+                        trace.record(TraceEvent.RECEIVED, arrival, sessionId, header.sequence(), header.length());
+                        if (gap > 0) {
+                            trace.record(TraceEvent.GAP, arrival, sessionId, header.sequence(), (int) gap);
+                        }
+                        if ((header.flags() & FrameHeader.FLAG_CHECKSUM) != 0) {
+                            boolean valid = checksum(crc, buffer) == header.checksum();
+                            tracker.recordChecksum(valid);
+                            if (!valid) {
+                                trace.record(TraceEvent.CHECKSUM_ERROR, arrival, sessionId, header.sequence(), 0);
+                            }
+                        }
+                        packets++;
+                        totalBytes += size - FrameHeader.SIZE;
+                        counters.record(size - FrameHeader.SIZE);
+                    }
+                    event.complete(sessionId, packets - packetsBefore, totalBytes - bytesBefore);
+                } else if (draining) {
+                    break;
+                }
+                draining = ended.get();
+            }
+            controlWatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Datagram session interrupted");
+        } finally {
+            BUFFER_POOL.release(buffer);
+        }
+
+        if (capture != null) {
+            capture.close();
+        }
+        if (staleDatagrams > 0) {
+            logger.warn("Ignored {} datagrams of other sessions", staleDatagrams);
+        }
+        sessionEvent.complete(PrometheusMetrics.RECEIVER, sessionId, sender == null ? null : String.valueOf(sender),
+                packets, totalBytes);
+        DataReceiver.completeSession(sessionListener, Transport.UDP, sessionId, lastArrival - startTime, packets,
+                totalBytes, tracker.getLost(), latency);
+        statistics.displayStatistics(packets, totalBytes, startTime, lastArrival);
+        statistics.displaySequenceStatistics(tracker);
+        statistics.displayLatency(latency);
+        logger.info("Datagram session finished: {} received, {} lost", tracker.getReceived(), tracker.getLost());
+        return tracker.getReceived();
+    }
+
+    /**
+     * <p>Возвращает количество датаграмм других сессий, пришедших во время последней сессии.</p>
+     *
+     * @return количество датаграмм
+     */
+    public long getStaleDatagrams() {
+        return staleDatagrams;
+    }
+
+    /**
+     * <p>Закрывает канал датаграмм.</p>
+     */
+    @Override
+    public void close() {
+        try {
+            selector.close();
+            channel.close();
+            logger.info("DatagramReceiver closed");
+        } catch (IOException e) {
+            logger.error("Error closing datagram channel: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * <p>Вычисляет CRC32C полезной нагрузки датаграммы, лежащей в буфере после заголовка.</p>
+     *
+     * @param crc объект для вычисления контрольной суммы
+     * @param buffer буфер с датаграммой от 0 до position
+     * @return контрольная сумма
+     */
+    private static int checksum(CRC32C crc, ByteBuffer buffer) {
+        crc.reset();
+        crc.update(buffer.flip().position(FrameHeader.SIZE));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * <p>Проверяет, что датаграмма - корректный кадр данных.</p>
+     *
+     * @param header представление заголовка в начале буфера датаграммы
+     * @param size размер датаграммы
+     * @return true, если заголовок корректен и длина совпадает с размером датаграммы
+     */
+    private static boolean isValidData(FrameHeader header, int size) {
+        return size >= FrameHeader.SIZE
+                && header.hasValidMagic()
+                && header.type() == FrameType.DATA
+                && header.length() == size - FrameHeader.SIZE;
+    }
+}
@@ -0,0 +1,35 @@
+package TrafficReceiver;
+
+/**
+ * <p>ReceiveMode - перечисление режимов обработки принятых пакетов.</p>
+ */
+public enum ReceiveMode {
+    /**
+     * <p>Полная обработка: порядковые номера, потери и гистограмма задержек для каждого пакета.</p>
+     */
+    FULL,
+
+    /**
+     * <p>Только подсчет: из заголовка кадра берется длина, пакет отбрасывается без других действий.
+     * Приемник тратит на пакет минимум времени и не ограничивает скорость генератора, который он измеряет.</p>
+     */
+    DISCARD;
+
+    /**
+     * <p>Возвращает режим по имени без учета регистра.</p>
+     *
+     * @param name имя режима; null или пустая строка - {@link #FULL}
+     * @return режим приема
+     * @throws IllegalArgumentException если режим с таким именем не существует
+     */
+    public static ReceiveMode parse(String name) {
+        if (name == null || name.isBlank()) {
+            return FULL;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown receive mode: " + name);
+        }
+    }
+}
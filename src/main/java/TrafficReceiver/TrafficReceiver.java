@@ -2,62 +2,104 @@ package TrafficReceiver;
 
 import ErrorHandler.ErrorHandler;
 import NetworkConnection.NetworkConnection;
+import NetworkConnection.SelectorPool;
+import Output.OutputSink;
+import Results.SessionResult;
+import Statistics.LatencyHistogram;
+import Statistics.TrafficCounters;
 
-import javafx.scene.control.TextArea;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.Socket;
 import java.net.SocketException;
+import java.nio.channels.SocketChannel;
+import java.util.function.Consumer;
 
 /**
  * <p>TrafficReceiver - класс для приема сетевого трафика через сокет.</p>
  */
 public class TrafficReceiver extends NetworkConnection {
     private static final Logger logger = LogManager.getLogger(TrafficReceiver.class);
-    private TextArea outputArea;
+    private OutputSink outputArea;
+    private final LatencyHistogram totalLatency;
+    private final ReceiveMode receiveMode;
+    private final TrafficCounters counters;
+    private Consumer<SessionResult> sessionListener;
 
     /**
      * <p>Конструктор класса TrafficReceiver.</p>
      *
      * @param socket сокет для связи
-     * @param outputArea текстовая область для вывода информации
+     * @param outputArea приемник сообщений для вывода информации
      */
-    public TrafficReceiver(Socket socket, TextArea outputArea) {
+    public TrafficReceiver(Socket socket, OutputSink outputArea) {
+        this(socket, outputArea, null);
+    }
+
+    /**
+     * <p>Конструктор класса TrafficReceiver с общей гистограммой задержек.</p>
+     *
+     * @param socket сокет для связи
+     * @param outputArea приемник сообщений для вывода информации
+     * @param totalLatency гистограмма, к которой добавляются задержки всех сессий; null - не собирать
+     */
+    public TrafficReceiver(Socket socket, OutputSink outputArea, LatencyHistogram totalLatency) {
+        this(socket, outputArea, totalLatency, ReceiveMode.FULL);
+    }
+
+    /**
+     * <p>Конструктор класса TrafficReceiver с режимом приема.</p>
+     *
+     * @param socket сокет для связи
+     * @param outputArea приемник сообщений для вывода информации
+     * @param totalLatency гистограмма, к которой добавляются задержки всех сессий; null - не собирать
+     * @param receiveMode режим обработки принятых пакетов
+     */
+    public TrafficReceiver(Socket socket, OutputSink outputArea, LatencyHistogram totalLatency,
+                           ReceiveMode receiveMode) {
+        this(socket, outputArea, totalLatency, receiveMode, new TrafficCounters());
+    }
+
+    /**
+     * <p>Конструктор класса TrafficReceiver с общими счетчиками трафика.</p>
+     *
+     * @param socket сокет для связи
+     * @param outputArea приемник сообщений для вывода информации
+     * @param totalLatency гистограмма, к которой добавляются задержки всех сессий; null - не собирать
+     * @param receiveMode режим обработки принятых пакетов
+     * @param counters счетчики, которые обновляются на каждом принятом пакете
+     */
+    public TrafficReceiver(Socket socket, OutputSink outputArea, LatencyHistogram totalLatency,
+                           ReceiveMode receiveMode, TrafficCounters counters) {
         super(socket);
         this.outputArea = outputArea;
+        this.totalLatency = totalLatency;
+        this.receiveMode = receiveMode;
+        this.counters = counters;
         logger.info("TrafficReceiver initialized with socket: {}", socket);
     }
 
     /**
-     * <p>Обрабатывает входящие данные из сокета.</p>
+     * <p>Обрабатывает входящие данные из сокета до закрытия соединения.</p>
+     * <p>Поток блокируется в чтении сокета и просыпается, как только приходят данные. Если сокет создан
+     * через {@link SocketChannel}, данные читаются из канала в прямой буфер без копирования в кучу.</p>
      */
     @Override
     public void handle() {
-        try (BufferedInputStream inputStream = new BufferedInputStream(socket.getInputStream())) {
+        try (InputStream inputStream = socket.getInputStream();
+             DataReceiver dataReceiver = new DataReceiver(getOutputArea(), socket, totalLatency, receiveMode, counters)) {
+            dataReceiver.setSessionListener(sessionListener);
             outputArea.appendText("Waiting for data...\n");
             logger.info("Waiting for data");
-
-            DataReceiver dataReceiver = new DataReceiver(getOutputArea());
-
-            while (true) {
-                if (inputStream.available() > 0) {
-                    logger.info("Data is available; processing incoming data");
-                    dataReceiver.processIncomingData(inputStream);
-                } else {
-                    if (socket.isClosed() || !socket.isConnected()) {
-                        logger.warn("The connection is broken.");
-                        throw new SocketException("The connection is broken");
-                    }
-                    try {
-                        Thread.sleep(100);
-                    } catch (InterruptedException e) {
-                        handleInterrupt(e);
-                        break;
-                    }
-                }
+            SocketChannel channel = socket.getChannel();
+            if (channel != null) {
+                dataReceiver.receive(channel);
+            } else {
+                dataReceiver.receive(inputStream);
             }
+            outputArea.appendText("The connection is closed by the generator.\n");
         } catch (SocketException e) {
             ErrorHandler.handleSocketError("Error receiving data", e);
         } catch (IOException e) {
@@ -68,24 +110,43 @@ public class TrafficReceiver extends NetworkConnection {
     }
 
     /**
-     * <p>Метод - геттер.</p>
-     * <p>Возвращает текстовую область для вывода информации.</p>
+     * <p>Передает соединение пулу селекторов: дальше данные обрабатываются без отдельного потока на соединение.</p>
+     * <p>Сокет должен быть создан через {@link SocketChannel}.</p>
      *
-     * @return текстовая область
+     * @param selectorPool пул потоков с селекторами
+     * @throws IOException если не удалось зарегистрировать соединение
+     * @throws IllegalStateException если у сокета нет канала
      */
-    public TextArea getOutputArea() {
-        return outputArea;
+    public void register(SelectorPool selectorPool) throws IOException {
+        SocketChannel channel = socket.getChannel();
+        if (channel == null) {
+            throw new IllegalStateException("The socket has no channel");
+        }
+        outputArea.appendText("Waiting for data...\n");
+        DataReceiver dataReceiver = new DataReceiver(getOutputArea(), socket, totalLatency, receiveMode, counters);
+        dataReceiver.setSessionListener(sessionListener);
+        selectorPool.register(channel, dataReceiver);
     }
 
     /**
-     * <p>Обрабатывает прерывание потока.</p>
+     * <p>Задает слушателя итогов сессий соединения. Действует для приема, начатого после вызова.</p>
      *
-     * @param e исключение InterruptedException
+     * @param sessionListener слушатель; null - итоги не передаются
+     * @return этот приемник
      */
-    private void handleInterrupt(InterruptedException e) {
-        outputArea.appendText("The stream was interrupted: " + e.getMessage() + '\n');
-        logger.warn("The stream was interrupted: {}", e.getMessage());
-        Thread.currentThread().interrupt();
+    public TrafficReceiver setSessionListener(Consumer<SessionResult> sessionListener) {
+        this.sessionListener = sessionListener;
+        return this;
+    }
+
+    /**
+     * <p>Метод - геттер.</p>
+     * <p>Возвращает приемник сообщений для вывода информации.</p>
+     *
+     * @return приемник сообщений
+     */
+    public OutputSink getOutputArea() {
+        return outputArea;
     }
 
     /**
@@ -0,0 +1,101 @@
+import CLI.BenchmarkCLI;
+import CLI.BenchmarkResult;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Класс BenchmarkTests содержит тесты для проверки нагрузочного прогона через loopback.</p>
+ */
+public class BenchmarkTests {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * <p>Тестирует запись и чтение файла результатов.</p>
+     * <p>Проверяет, что результат читается без изменений, а отсутствующая задержка сохраняется как NaN.</p>
+     *
+     * @throws IOException если возникает ошибка записи или чтения файла
+     */
+    @Test
+    public void testResults_RoundTrip() throws IOException {
+        BenchmarkResult result = new BenchmarkResult("udp", 1400, 2.5, 4, 1000, 1.25, 812.5, 72_000, 150.5, 0.1,
+                0.05, 0.2, Double.NaN);
+        Path file = directory.resolve("results.csv");
+
+        BenchmarkResult.write(file, List.of(result));
+        Map<String, BenchmarkResult> read = BenchmarkResult.read(file);
+
+        assertEquals(1, read.size());
+        assertEquals(result, read.get("udp,1400,2.500,4"));
+    }
+
+    /**
+     * <p>Тестирует сравнение с базовой линией.</p>
+     * <p>Проверяет, что регрессией считается только падение пропускной способности больше допуска.</p>
+     */
+    @Test
+    public void testIsRegression_UsesTolerance() {
+        BenchmarkResult baseline = result(1000);
+
+        assertFalse(result(950).isRegression(baseline, 10));
+        assertFalse(result(1200).isRegression(baseline, 10));
+        assertTrue(result(850).isRegression(baseline, 10));
+    }
+
+    /**
+     * <p>Тестирует прогон через loopback и проверку по базовой линии.</p>
+     * <p>Проверяет, что первый прогон записывает результаты всех случаев, а повторный прогон с завышенной
+     * базовой линией завершается кодом регрессии.</p>
+     *
+     * @throws IOException если возникает ошибка чтения или записи файлов результатов
+     */
+    @Test
+    public void testRun_SweepAndBaseline() throws IOException {
+        Path results = directory.resolve("run.csv");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream err = new PrintStream(new ByteArrayOutputStream());
+
+        int code = BenchmarkCLI.run(new String[]{"--sizes=100,1000", "--packets=2000", "--timeout=20",
+                "--results=" + results}, new PrintStream(out), err);
+
+        assertEquals(0, code);
+        Map<String, BenchmarkResult> first = BenchmarkResult.read(results);
+        assertEquals(2, first.size());
+        for (BenchmarkResult result : first.values()) {
+            assertEquals(2000, result.packets());
+            assertTrue(result.mbps() > 0);
+            assertEquals(0, result.lossPercent());
+        }
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("\"event\":\"benchmark\",\"cases\":2"));
+
+        BenchmarkResult measured = first.get("stream,100,0,1");
+        Path baseline = directory.resolve("baseline.csv");
+        BenchmarkResult.write(baseline, List.of(new BenchmarkResult("stream", 100, 0, 1, 2000, 1, measured.mbps() * 1000,
+                0, 0, 0, 0, 0, 0)));
+        int regression = BenchmarkCLI.run(new String[]{"--sizes=100", "--packets=2000", "--timeout=20",
+                "--results=" + directory.resolve("second.csv"), "--baseline=" + baseline, "--quiet"},
+                new PrintStream(new ByteArrayOutputStream()), err);
+
+        assertEquals(BenchmarkCLI.REGRESSION, regression);
+    }
+
+    /**
+     * <p>Создает результат с заданной пропускной способностью.</p>
+     *
+     * @param mbps пропускная способность
+     * @return результат
+     */
+    private static BenchmarkResult result(double mbps) {
+        return new BenchmarkResult("stream", 512, 0, 1, 1000, 1, mbps, 0, 0, 0, 0, 0, 0);
+    }
+}
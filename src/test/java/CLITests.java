@@ -0,0 +1,106 @@
+import CLI.CommandLine;
+import CLI.GeneratorCLI;
+import CLI.JsonLine;
+import CLI.ReceiverCLI;
+import TrafficGenerator.RateUnit;
+
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Класс CLITests содержит тесты для проверки консольных генератора и приемника.</p>
+ */
+public class CLITests {
+
+    /**
+     * <p>Тестирует разбор ключей командной строки.</p>
+     * <p>Проверяет значения, флаги, значения по умолчанию и перечисления с дефисами.</p>
+     */
+    @Test
+    public void testParse_ReadsOptions() {
+        CommandLine commandLine = CommandLine.parse(
+                new String[]{"--packets=10", "--quiet", "--rate-unit=interval-ms"},
+                Set.of("packets", "quiet", "rate-unit", "size"));
+
+        assertEquals(10, commandLine.integer("packets", 1, 1));
+        assertEquals(1024, commandLine.integer("size", 1024, 1));
+        assertTrue(commandLine.flag("quiet"));
+        assertEquals(RateUnit.INTERVAL_MS, commandLine.enumValue("rate-unit", RateUnit.class, RateUnit.PPS));
+    }
+
+    /**
+     * <p>Тестирует ошибки разбора ключей.</p>
+     * <p>Проверяет, что неизвестный ключ, аргумент без -- и значение меньше допустимого отклоняются.</p>
+     */
+    @Test
+    public void testParse_RejectsInvalidOptions() {
+        Set<String> known = Set.of("packets");
+        assertThrows(IllegalArgumentException.class, () -> CommandLine.parse(new String[]{"--size=1"}, known));
+        assertThrows(IllegalArgumentException.class, () -> CommandLine.parse(new String[]{"packets"}, known));
+        CommandLine commandLine = CommandLine.parse(new String[]{"--packets=0"}, known);
+        assertThrows(IllegalArgumentException.class, () -> commandLine.integer("packets", 1, 1));
+    }
+
+    /**
+     * <p>Тестирует формирование строки JSON.</p>
+     * <p>Проверяет экранирование кавычек, обратной косой черты и управляющих символов.</p>
+     */
+    @Test
+    public void testJsonLine_EscapesStrings() {
+        String line = new JsonLine("error").add("message", "a \"b\"\\\n").add("packets", 5L).toString();
+
+        assertEquals("{\"event\":\"error\",\"message\":\"a \\\"b\\\"\\\\\\n\",\"packets\":5}", line);
+    }
+
+    /**
+     * <p>Тестирует код завершения при неверном ключе.</p>
+     * <p>Проверяет, что генератор не запускается, а в стандартный вывод ничего не пишется.</p>
+     */
+    @Test
+    public void testRun_UsageError() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        int code = GeneratorCLI.run(new String[]{"--bogus"}, new PrintStream(out), new PrintStream(err));
+
+        assertEquals(2, code);
+        assertEquals(0, out.size());
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("Unknown option: --bogus"));
+    }
+
+    /**
+     * <p>Тестирует сессию консольных генератора и приемника через loopback.</p>
+     * <p>Проверяет, что оба завершаются успешно, сообщают одинаковое количество пакетов, а приемник выводит
+     * итоги сессии отдельной строкой.</p>
+     *
+     * @throws Exception если возникает ошибка при ожидании генератора
+     */
+    @Test
+    public void testRun_LoopbackSession() throws Exception {
+        ByteArrayOutputStream generatorOut = new ByteArrayOutputStream();
+        ByteArrayOutputStream receiverOut = new ByteArrayOutputStream();
+        PrintStream err = new PrintStream(new ByteArrayOutputStream());
+
+        CompletableFuture<Integer> generator = CompletableFuture.supplyAsync(() -> GeneratorCLI.run(
+                new String[]{"--packets=500", "--size=200", "--wait=10", "--quiet"},
+                new PrintStream(generatorOut), err));
+        int receiverCode = ReceiverCLI.run(new String[]{"--duration=10", "--quiet"}, new PrintStream(receiverOut), err);
+
+        assertEquals(0, generator.get(10, TimeUnit.SECONDS));
+        assertEquals(0, receiverCode);
+        String generatorJson = generatorOut.toString(StandardCharsets.UTF_8);
+        String receiverJson = receiverOut.toString(StandardCharsets.UTF_8);
+        assertTrue(generatorJson.contains("\"event\":\"session\""));
+        assertTrue(generatorJson.contains("\"packets\":500,"));
+        assertTrue(receiverJson.contains("\"event\":\"session\",\"role\":\"receiver\",\"session\":1,"), receiverJson);
+        assertTrue(receiverJson.contains("\"lost\":0,"), receiverJson);
+        assertTrue(receiverJson.contains("\"event\":\"summary\""));
+        assertTrue(receiverJson.contains("\"packets\":500,"));
+    }
+}
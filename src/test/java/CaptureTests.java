@@ -0,0 +1,209 @@
+import CLI.GeneratorCLI;
+import CLI.ReceiverCLI;
+import Capture.CaptureReader;
+import Capture.CaptureWriter;
+import TrafficGenerator.ReplayScheduler;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Класс CaptureTests содержит тесты для проверки захвата принятой сессии и ее воспроизведения.</p>
+ */
+public class CaptureTests {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * <p>Тестирует запись и чтение файла захвата.</p>
+     * <p>Проверяет, что время прихода отсчитывается от первого пакета, а полезная нагрузка, пришедшая
+     * частями, читается целиком.</p>
+     *
+     * @throws IOException если возникает ошибка записи или чтения файла
+     */
+    @Test
+    public void testCapture_RoundTrip() throws IOException {
+        Path file = directory.resolve("session.capture");
+        ByteBuffer buffer = ByteBuffer.wrap("..abcdefgh..".getBytes(StandardCharsets.US_ASCII));
+
+        try (CaptureWriter capture = new CaptureWriter(file, true, 1 << 20)) {
+            capture.begin(1_000, 7, 8);
+            capture.payload(buffer, 2, 3);
+            capture.payload(buffer, 5, 7);
+            capture.record(4_000, 8, buffer, 2, 4);
+            capture.begin(9_000, 10, 0);
+            assertEquals(3, capture.getPackets());
+        }
+
+        CaptureReader reader = CaptureReader.open(file);
+        assertEquals(3, reader.size());
+        assertTrue(reader.hasPayload());
+        assertEquals(0, reader.arrivalNanos(0));
+        assertEquals(3_000, reader.arrivalNanos(1));
+        assertEquals(8_000, reader.getDurationNanos());
+        assertEquals(10, reader.sequence(2));
+        assertEquals(8, reader.getMaxLength());
+        assertEquals(12, reader.totalLength(3));
+        byte[] payload = new byte[8];
+        assertEquals(8, reader.copyPayload(0, payload));
+        assertEquals("abcdefgh", new String(payload, StandardCharsets.US_ASCII));
+        assertEquals(4, reader.copyPayload(1, payload));
+        assertEquals("abcd", new String(payload, 0, 4, StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * <p>Тестирует ограничение размера файла захвата.</p>
+     * <p>Проверяет, что пакеты сверх ограничения только считаются, а записанные читаются.</p>
+     *
+     * @throws IOException если возникает ошибка записи или чтения файла
+     */
+    @Test
+    public void testCapture_SizeLimit() throws IOException {
+        Path file = directory.resolve("limited.capture");
+        int limit = CaptureWriter.HEADER_SIZE + 10 * CaptureWriter.RECORD_HEADER_SIZE;
+
+        try (CaptureWriter capture = new CaptureWriter(file, false, limit)) {
+            for (int i = 0; i < 15; i++) {
+                capture.begin(i * 100L, i, 1400);
+            }
+            assertEquals(10, capture.getPackets());
+            assertEquals(5, capture.getDropped());
+        }
+
+        CaptureReader reader = CaptureReader.open(file);
+        assertEquals(10, reader.size());
+        assertFalse(reader.hasPayload());
+        assertEquals(0, reader.copyPayload(9, new byte[0]));
+        assertEquals(900, reader.arrivalNanos(9));
+    }
+
+    /**
+     * <p>Тестирует закрытие захвата посреди записи пакета.</p>
+     * <p>Проверяет, что пакет с неполной нагрузкой не попадает в файл, а после закрытия пакеты не записываются.</p>
+     *
+     * @throws IOException если возникает ошибка чтения файла
+     */
+    @Test
+    public void testClose_DuringPayload() throws IOException {
+        Path file = directory.resolve("interrupted.capture");
+        ByteBuffer buffer = ByteBuffer.wrap("abcdefgh".getBytes(StandardCharsets.US_ASCII));
+
+        CaptureWriter capture = new CaptureWriter(file, true, 1 << 20);
+        capture.record(1_000, 1, buffer, 0, 8);
+        capture.begin(2_000, 2, 8);
+        capture.payload(buffer, 0, 3);
+        capture.close();
+        capture.payload(buffer, 3, 5);
+        capture.begin(3_000, 3, 8);
+
+        assertEquals(1, capture.getPackets());
+        CaptureReader reader = CaptureReader.open(file);
+        assertEquals(1, reader.size());
+        assertEquals(1, reader.sequence(0));
+        assertEquals(CaptureWriter.HEADER_SIZE + CaptureWriter.RECORD_HEADER_SIZE + 8, Files.size(file));
+    }
+
+    /**
+     * <p>Тестирует открытие файла, который не является файлом захвата.</p>
+     *
+     * @throws IOException если возникает ошибка записи файла
+     */
+    @Test
+    public void testOpen_RejectsOtherFile() throws IOException {
+        Path file = Files.write(directory.resolve("other.capture"), new byte[64]);
+
+        assertThrows(IOException.class, () -> CaptureReader.open(file));
+    }
+
+    /**
+     * <p>Тестирует расписание воспроизведения.</p>
+     * <p>Проверяет, что интервалы повторяют захват с учетом коэффициента скорости и округление не копится.</p>
+     *
+     * @throws IOException если возникает ошибка записи или чтения файла
+     */
+    @Test
+    public void testReplayScheduler_ScalesGaps() throws IOException {
+        Path file = directory.resolve("gaps.capture");
+        try (CaptureWriter capture = new CaptureWriter(file, false, 1 << 20)) {
+            long[] arrivals = {0, 1_000, 1_001, 5_001};
+            for (int i = 0; i < arrivals.length; i++) {
+                capture.begin(arrivals[i], i, 100);
+            }
+        }
+        CaptureReader reader = CaptureReader.open(file);
+
+        ReplayScheduler original = new ReplayScheduler(reader, 1);
+        assertEquals(1_000, original.nextGapNanos());
+        assertEquals(1, original.nextGapNanos());
+        assertEquals(4_000, original.nextGapNanos());
+        assertEquals(0, original.nextGapNanos());
+
+        ReplayScheduler faster = new ReplayScheduler(reader, 2);
+        long total = 0;
+        for (int i = 0; i < reader.size(); i++) {
+            total += faster.nextGapNanos();
+        }
+        assertEquals(2_500, total);
+        assertEquals(833, ReplayScheduler.meanIntervalNanos(reader, 2));
+
+        assertEquals(1, ReplayScheduler.parseSpeed(null));
+        assertEquals(0.5, ReplayScheduler.parseSpeed("0.5"));
+        assertThrows(IllegalArgumentException.class, () -> ReplayScheduler.parseSpeed("0"));
+        assertThrows(IllegalArgumentException.class, () -> ReplayScheduler.parseSpeed("fast"));
+    }
+
+    /**
+     * <p>Тестирует захват сессии консольным приемником и ее воспроизведение консольным генератором.</p>
+     * <p>Проверяет, что захват содержит все пакеты с их нагрузкой и временем прихода, а при воспроизведении
+     * приемник получает столько же пакетов и байт.</p>
+     *
+     * @throws Exception если возникает ошибка при ожидании генератора или чтении захвата
+     */
+    @Test
+    public void testRun_CaptureAndReplay() throws Exception {
+        Path file = directory.resolve("loopback.capture");
+        PrintStream err = new PrintStream(new ByteArrayOutputStream());
+
+        CompletableFuture<Integer> generator = CompletableFuture.supplyAsync(() -> GeneratorCLI.run(
+                new String[]{"--packets=300", "--size=200", "--rate=3000", "--payload=pattern",
+                        "--payload-option=abc", "--wait=10", "--quiet"},
+                new PrintStream(new ByteArrayOutputStream()), err));
+        int receiverCode = ReceiverCLI.run(new String[]{"--duration=10", "--quiet", "--capture=" + file,
+                "--capture-payload"}, new PrintStream(new ByteArrayOutputStream()), err);
+        assertEquals(0, generator.get(10, TimeUnit.SECONDS));
+        assertEquals(0, receiverCode);
+
+        CaptureReader capture = CaptureReader.open(file);
+        assertEquals(300, capture.size());
+        assertEquals(200, capture.getMaxLength());
+        assertEquals(299, capture.sequence(299));
+        assertTrue(capture.getDurationNanos() > 50_000_000L, "duration " + capture.getDurationNanos());
+        byte[] payload = new byte[200];
+        capture.copyPayload(0, payload);
+        assertEquals("abcabc", new String(payload, 0, 6, StandardCharsets.US_ASCII));
+
+        ByteArrayOutputStream receiverOut = new ByteArrayOutputStream();
+        long startTime = System.nanoTime();
+        CompletableFuture<Integer> replay = CompletableFuture.supplyAsync(() -> GeneratorCLI.run(
+                new String[]{"--replay=" + file, "--replay-speed=2", "--checksum", "--wait=10", "--quiet"},
+                new PrintStream(new ByteArrayOutputStream()), err));
+        receiverCode = ReceiverCLI.run(new String[]{"--duration=10", "--quiet"}, new PrintStream(receiverOut), err);
+        assertEquals(0, replay.get(10, TimeUnit.SECONDS));
+        assertEquals(0, receiverCode);
+        assertTrue(System.nanoTime() - startTime >= capture.getDurationNanos() / 2);
+        String receiverJson = receiverOut.toString(StandardCharsets.UTF_8);
+        assertTrue(receiverJson.contains("\"packets\":300,"), receiverJson);
+        assertTrue(receiverJson.contains("\"bytes\":60000,"), receiverJson);
+    }
+}
@@ -0,0 +1,171 @@
+import NetworkConnection.BufferPool;
+import TrafficGenerator.ChannelPacketSender;
+import TrafficGenerator.PayloadGenerator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.Arrays;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Класс ChannelPacketSenderTests содержит тесты для проверки функциональности класса ChannelPacketSender.</p>
+ */
+public class ChannelPacketSenderTests {
+    private PartialWriteChannel channel;
+    private BufferPool bufferPool;
+
+    /**
+     * <p>Настраивает тестовую среду перед каждым тестом.</p>
+     * <p>Создает канал, записывающий не больше 7 байт за вызов, и пул маленьких буферов.</p>
+     */
+    @BeforeEach
+    public void setUp() {
+        channel = new PartialWriteChannel(7);
+        bufferPool = new BufferPool(16, 8);
+    }
+
+    /**
+     * <p>Тестирует метод sendPacket класса ChannelPacketSender при частичных записях.</p>
+     * <p>Проверяет, что пакет больше буфера и больше одной записи доходит целиком и по порядку.</p>
+     */
+    @Test
+    public void testSendPacket_PartialWrites() {
+        ChannelPacketSender sender = new ChannelPacketSender(channel, bufferPool);
+        byte[] data = new byte[100];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+
+        sender.sendPacket(data, 10, 90);
+
+        byte[] written = channel.output.toByteArray();
+        assertEquals(90, written.length);
+        for (int i = 0; i < written.length; i++) {
+            assertEquals((byte) (i + 10), written[i]);
+        }
+        assertTrue(sender.getWriteCalls() >= 13);
+        assertEquals(1, sender.getPacketsSent());
+    }
+
+    /**
+     * <p>Тестирует пакетный режим класса ChannelPacketSender.</p>
+     * <p>Проверяет, что пакеты накапливаются в нескольких буферах и уходят собирающей записью.</p>
+     *
+     * @throws IOException если возникает ошибка при отправке данных
+     */
+    @Test
+    public void testBatchMode_GatheringWrite() throws IOException {
+        channel = new PartialWriteChannel(Integer.MAX_VALUE);
+        ChannelPacketSender sender = new ChannelPacketSender(channel, bufferPool, 64, 60_000_000_000L);
+
+        for (int i = 0; i < 6; i++) {
+            sender.sendPacket(new byte[]{(byte) i, (byte) i, (byte) i, (byte) i, (byte) i}, 0, 5);
+        }
+        assertEquals(0, channel.output.size());
+
+        sender.flush();
+        assertEquals(30, channel.output.size());
+        assertEquals(1, sender.getWriteCalls());
+        assertEquals(2, channel.maxBuffersPerWrite);
+        assertEquals(5, channel.output.toByteArray()[29]);
+    }
+
+    /**
+     * <p>Тестирует отправку кадров с нагрузкой из кольцевого блока {@link PayloadGenerator}.</p>
+     * <p>Проверяет, что заголовок и нагрузка каждого кадра уходят отдельными участками одной собирающей записи,
+     * а байты в канале идут в порядке кадров.</p>
+     *
+     * @throws IOException если возникает ошибка при отправке данных
+     */
+    @Test
+    public void testSendFrame_DirectPayload() throws IOException {
+        channel = new PartialWriteChannel(Integer.MAX_VALUE);
+        ChannelPacketSender sender = new ChannelPacketSender(channel, bufferPool, 64, 60_000_000_000L);
+        PayloadGenerator payload = new PayloadGenerator(40);
+        byte[] header = {1, 2, 3};
+
+        int first = payload.nextOffset();
+        int second = payload.nextOffset();
+        sender.sendFrame(header, payload, first, 40);
+        sender.sendFrame(header, payload, second, 40);
+        sender.flush();
+
+        byte[] written = channel.output.toByteArray();
+        assertEquals(86, written.length);
+        assertEquals(4, channel.maxBuffersPerWrite);
+        assertTrue(payload.getDirectBuffer().isDirect());
+        assertArrayEquals(Arrays.copyOfRange(payload.getBuffer(), first, first + 40),
+                Arrays.copyOfRange(written, 3, 43));
+        assertArrayEquals(header, Arrays.copyOfRange(written, 43, 46));
+        assertArrayEquals(Arrays.copyOfRange(payload.getBuffer(), second, second + 40),
+                Arrays.copyOfRange(written, 46, 86));
+        assertEquals(0, payload.getDirectBuffer().position());
+    }
+
+    /**
+     * <p>Тестирует метод release класса ChannelPacketSender.</p>
+     * <p>Проверяет, что прямые буферы возвращаются в пул.</p>
+     */
+    @Test
+    public void testRelease_ReturnsBuffers() {
+        ChannelPacketSender sender = new ChannelPacketSender(channel, bufferPool, 64, 1_000_000);
+        assertEquals(0, bufferPool.available());
+
+        sender.release();
+
+        assertEquals(4, bufferPool.available());
+    }
+
+    /**
+     * <p>Канал для тестов, записывающий ограниченное количество байт за вызов.</p>
+     */
+    private static class PartialWriteChannel implements GatheringByteChannel {
+        private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        private final int maxBytesPerWrite;
+        private int maxBuffersPerWrite;
+
+        PartialWriteChannel(int maxBytesPerWrite) {
+            this.maxBytesPerWrite = maxBytesPerWrite;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) {
+            int buffersWithData = 0;
+            long written = 0;
+            for (int i = offset; i < offset + length; i++) {
+                if (srcs[i].hasRemaining()) {
+                    buffersWithData++;
+                }
+                while (srcs[i].hasRemaining() && written < maxBytesPerWrite) {
+                    output.write(srcs[i].get());
+                    written++;
+                }
+            }
+            maxBuffersPerWrite = Math.max(maxBuffersPerWrite, buffersWithData);
+            return written;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs) {
+            return write(srcs, 0, srcs.length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            return (int) write(new ByteBuffer[]{src});
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
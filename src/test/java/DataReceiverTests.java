@@ -0,0 +1,166 @@
+import Output.OutputSink;
+import Protocol.FrameHeader;
+import Protocol.FrameType;
+import Protocol.Frames;
+import TrafficReceiver.DataReceiver;
+import TrafficReceiver.ReceiveMode;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.zip.CRC32C;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * <p>Класс DataReceiverTests содержит тесты для проверки разбора сессий классом DataReceiver.</p>
+ */
+public class DataReceiverTests {
+    private OutputSink mockOutputArea;
+
+    /**
+     * <p>Настраивает тестовую среду перед каждым тестом.</p>
+     * <p>Создает мок OutputSink для вывода статистики.</p>
+     */
+    @BeforeEach
+    public void setUp() {
+        mockOutputArea = Mockito.mock(OutputSink.class);
+    }
+
+    /**
+     * <p>Тестирует прием сессии в полном режиме.</p>
+     * <p>Проверяет, что сессия, разрезанная на мелкие порции, разбирается целиком и выводятся потери по номерам.</p>
+     *
+     * @throws IOException если нарушен формат кадров
+     */
+    @Test
+    public void testOnData_FullMode() throws IOException {
+        DataReceiver receiver = new DataReceiver(mockOutputArea);
+
+        feedInChunks(receiver, Frames.session(5, 3, 100), 7);
+
+        assertEquals(1, receiver.getCompletedSessions());
+        verify(mockOutputArea).appendText("Receiving session # 5\n");
+        verify(mockOutputArea).appendText(Mockito.startsWith("Received 3 packets"));
+        verify(mockOutputArea).appendText(Mockito.startsWith("Packet loss: 0 of 3"));
+    }
+
+    /**
+     * <p>Тестирует прием сессии в режиме только подсчета.</p>
+     * <p>Проверяет, что пакеты считаются, а статистика номеров не выводится.</p>
+     *
+     * @throws IOException если нарушен формат кадров
+     */
+    @Test
+    public void testOnData_DiscardMode() throws IOException {
+        DataReceiver receiver = new DataReceiver(mockOutputArea, null, null, ReceiveMode.DISCARD);
+
+        feedInChunks(receiver, Frames.session(6, 4, 1000), 4096);
+
+        assertEquals(1, receiver.getCompletedSessions());
+        verify(mockOutputArea).appendText(Mockito.startsWith("Received 4 packets"));
+        verify(mockOutputArea).appendText(Mockito.startsWith("Discard mode"));
+        verify(mockOutputArea, never()).appendText(Mockito.startsWith("Packet loss"));
+    }
+
+    /**
+     * <p>Тестирует проверку контрольных сумм полезной нагрузки.</p>
+     * <p>Проверяет, что пакет, поврежденный после вычисления CRC32C, учитывается как поврежденный,
+     * даже если его кадр разрезан между порциями.</p>
+     *
+     * @throws IOException если нарушен формат кадров
+     */
+    @Test
+    public void testOnData_Checksum() throws IOException {
+        DataReceiver receiver = new DataReceiver(mockOutputArea);
+        ByteBuffer stream = Frames.session(7, 3, 100);
+        CRC32C crc = new CRC32C();
+        for (int i = 0; i < 3; i++) {
+            int header = (i + 1) * FrameHeader.SIZE + i * 100;
+            stream.put(header + FrameHeader.SIZE + i, (byte) i);
+            crc.reset();
+            crc.update(stream.slice(header + FrameHeader.SIZE, 100));
+            stream.put(header + 3, (byte) FrameHeader.FLAG_CHECKSUM);
+            FrameHeader.writeChecksum(stream, header, (int) crc.getValue());
+        }
+        stream.put(2 * FrameHeader.SIZE + 100 + FrameHeader.SIZE + 50, (byte) 0x55);
+
+        feedInChunks(receiver, stream, 61);
+
+        verify(mockOutputArea).appendText("Payload integrity: 1 corrupted of 3 verified.\n");
+    }
+
+    /**
+     * <p>Тестирует закрытие соединения во время сессии с датаграммами.</p>
+     * <p>Проверяет, что onClosed не ждет поток сессии, а канал датаграмм закрывается, когда поток завершится.</p>
+     *
+     * @throws Exception если возникает ошибка при работе с сокетами или ожидании
+     */
+    @Test
+    public void testOnClosed_DatagramSession() throws Exception {
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        try (ServerSocket server = new ServerSocket(0, 1, loopback);
+             Socket generator = new Socket(loopback, server.getLocalPort());
+             Socket accepted = server.accept()) {
+            DataReceiver receiver = new DataReceiver(mockOutputArea, accepted);
+            receiver.onData(ByteBuffer.wrap(FrameHeader.control(FrameType.SESSION_START, FrameHeader.FLAG_DATAGRAM,
+                    8, 10)));
+            byte[] frame = new byte[FrameHeader.SIZE];
+            new DataInputStream(generator.getInputStream()).readFully(frame);
+            FrameHeader portFrame = new FrameHeader().wrap(ByteBuffer.wrap(frame), 0);
+            assertEquals(FrameType.DATAGRAM_PORT, portFrame.type());
+            int port = (int) portFrame.sequence();
+
+            receiver.onClosed();
+
+            assertTrue(rebind(new InetSocketAddress(loopback, port), 2_000), "datagram port was not released");
+        }
+    }
+
+    /**
+     * <p>Пытается занять порт датаграмм, пока он не освободится или не выйдет время.</p>
+     *
+     * @param address адрес и порт
+     * @param timeoutMillis время ожидания в миллисекундах
+     * @return true, если порт удалось занять
+     * @throws InterruptedException если ожидание прервано
+     */
+    private static boolean rebind(InetSocketAddress address, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (System.currentTimeMillis() < deadline) {
+            try (DatagramChannel channel = DatagramChannel.open()) {
+                channel.bind(address);
+                return true;
+            } catch (IOException e) {
+                Thread.sleep(20);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * <p>Передает поток приемнику порциями заданного размера.</p>
+     *
+     * @param receiver приемник
+     * @param stream поток кадров
+     * @param chunkSize размер порции
+     * @throws IOException если нарушен формат кадров
+     */
+    private static void feedInChunks(DataReceiver receiver, ByteBuffer stream, int chunkSize) throws IOException {
+        while (stream.hasRemaining()) {
+            int length = Math.min(chunkSize, stream.remaining());
+            receiver.onData(stream.slice(stream.position(), length));
+            stream.position(stream.position() + length);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+import NetworkConnection.BufferPool;
+import Protocol.FrameHeader;
+import Protocol.FrameType;
+import Statistics.LatencyHistogram;
+import Statistics.ReceiverStatistics;
+import Statistics.SequenceTracker;
+import TrafficGenerator.DatagramPacketSender;
+import TrafficReceiver.DatagramReceiver;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+
+/**
+ * <p>Класс DatagramTests содержит тесты для проверки передачи пакетов датаграммами UDP.</p>
+ */
+public class DatagramTests {
+
+    /**
+     * <p>Тестирует класс SequenceTracker.</p>
+     * <p>Проверяет учет потерь, дубликатов, нарушений порядка и номеров вне диапазона.</p>
+     */
+    @Test
+    public void testSequenceTracker() {
+        SequenceTracker tracker = new SequenceTracker(10);
+
+        for (long sequence : new long[]{0, 1, 3, 2, 4, 4, 6, 7, 8, 12}) {
+            tracker.record(sequence);
+        }
+
+        assertEquals(8, tracker.getReceived());
+        assertEquals(2, tracker.getLost());
+        assertEquals(1, tracker.getDuplicates());
+        assertEquals(1, tracker.getReordered());
+        assertEquals(1, tracker.getInvalid());
+        assertEquals(20.0, tracker.getLossPercent(), 1e-9);
+    }
+
+    /**
+     * <p>Тестирует метод sendFrame класса DatagramPacketSender.</p>
+     * <p>Проверяет, что каждый кадр уходит одной датаграммой: заголовок с порядковым номером, затем пакет.</p>
+     *
+     * @throws IOException если возникает ошибка при работе с каналами
+     */
+    @Test
+    public void testSendFrame_OneDatagramPerPacket() throws IOException {
+        try (DatagramChannel receiver = DatagramChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+             DatagramChannel channel = DatagramChannel.open().connect(receiver.getLocalAddress())) {
+            BufferPool bufferPool = new BufferPool(1024, 4);
+            DatagramPacketSender sender = new DatagramPacketSender(channel, bufferPool);
+            byte[] data = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+            sender.sendFrame(dataHeader(7, 0, 5), data, 2, 5);
+            sender.sendFrame(dataHeader(7, 1, 3), data, 0, 3);
+            sender.release();
+
+            ByteBuffer buffer = ByteBuffer.allocate(1024);
+            FrameHeader header = new FrameHeader().wrap(buffer, 0);
+            receiver.receive(buffer);
+            assertEquals(FrameHeader.SIZE + 5, buffer.position());
+            assertEquals(0, header.sequence());
+            assertEquals('2', buffer.get(FrameHeader.SIZE));
+
+            receiver.receive(buffer.clear());
+            assertEquals(FrameHeader.SIZE + 3, buffer.position());
+            assertEquals(1, header.sequence());
+            assertEquals(2, sender.getPacketsSent());
+            assertEquals(1, bufferPool.available());
+        }
+    }
+
+    /**
+     * <p>Тестирует метод sendFrame класса DatagramPacketSender с кадром больше датаграммы.</p>
+     * <p>Проверяет, что пакет не отправляется, а отправитель переходит в состояние ошибки.</p>
+     *
+     * @throws IOException если возникает ошибка при работе с каналом
+     */
+    @Test
+    public void testSendFrame_TooLarge() throws IOException {
+        try (DatagramChannel channel = DatagramChannel.open()) {
+            DatagramPacketSender sender = new DatagramPacketSender(channel, new BufferPool(FrameHeader.SIZE + 16, 1));
+
+            sender.sendFrame(dataHeader(1, 0, 17), new byte[17], 0, 17);
+
+            assertTrue(sender.hasFailed());
+            assertEquals(0, sender.getPacketsSent());
+        }
+    }
+
+    /**
+     * <p>Тестирует метод receiveSession класса DatagramReceiver.</p>
+     * <p>Проверяет, что потерянная и повторная датаграммы учитываются в статистике сессии, датаграмма
+     * с некорректным заголовком считается некорректным номером, а датаграмма другой сессии - устаревшей.</p>
+     *
+     * @throws IOException если возникает ошибка при работе с каналами
+     */
+    @Test
+    public void testReceiveSession_LossAndDuplicates() throws IOException {
+        ReceiverStatistics statistics = Mockito.mock(ReceiverStatistics.class);
+        try (DatagramReceiver receiver = new DatagramReceiver(InetAddress.getLoopbackAddress());
+             DatagramChannel channel = DatagramChannel.open()
+                     .connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), receiver.getPort()))) {
+            for (long sequence : new long[]{0, 1, 2, 4, 4}) {
+                channel.write(ByteBuffer.allocate(FrameHeader.SIZE + 32).put(dataHeader(3, sequence, 32)).clear());
+            }
+            channel.write(ByteBuffer.allocate(FrameHeader.SIZE + 32).put(dataHeader(2, 3, 32)).clear());
+            channel.write(ByteBuffer.allocate(FrameHeader.SIZE + 32).put(dataHeader(3, 3, 16)).clear());
+            SequenceTracker tracker = new SequenceTracker(5);
+
+            long received = receiver.receiveSession(() -> { }, 3, tracker, new LatencyHistogram(), statistics,
+                    System.nanoTime());
+
+            assertEquals(4, received);
+            assertEquals(1, tracker.getInvalid());
+            assertEquals(1, receiver.getStaleDatagrams());
+            verify(statistics).displayStatistics(Mockito.eq(5L), Mockito.eq(160L), Mockito.anyLong(), Mockito.anyLong());
+            verify(statistics).displaySequenceStatistics(Mockito.argThat(t ->
+                    t.getLost() == 1 && t.getDuplicates() == 1 && t.getReordered() == 0));
+        }
+    }
+
+    /**
+     * <p>Создает заголовок кадра данных.</p>
+     *
+     * @param sessionId номер сессии
+     * @param sequence порядковый номер
+     * @param length длина пакета
+     * @return заголовок кадра
+     */
+    private static byte[] dataHeader(int sessionId, long sequence, int length) {
+        byte[] header = new byte[FrameHeader.SIZE];
+        FrameHeader.write(ByteBuffer.wrap(header), 0, FrameType.DATA, 0, length, sessionId, sequence, 0);
+        return header;
+    }
+}
@@ -1,8 +1,11 @@
 import TrafficGenerator.InputReader;
+import TrafficGenerator.PayloadMode;
+import TrafficGenerator.RateUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.TextField;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -98,4 +101,87 @@ public class InputReaderTests extends JavaFXTest {
         assertEquals(-1, frequency);
         assertEquals(-1, inputReader.getFrequency());
     }
-}
\ No newline at end of file
+
+    /**
+     * <p>Тестирует метод scanPayloadMode класса InputReader с выбранным режимом.</p>
+     * <p>Ожидает, что метод вернет выбранный режим и установит его в InputReader.</p>
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testScanPayloadMode_Selected() {
+        ComboBox<PayloadMode> mockPayloadModeBox = Mockito.mock(ComboBox.class);
+        Mockito.when(mockPayloadModeBox.getValue()).thenReturn(PayloadMode.SEEDED);
+        assertEquals(PayloadMode.SEEDED, inputReader.scanPayloadMode(mockPayloadModeBox));
+        assertEquals(PayloadMode.SEEDED, inputReader.getPayloadMode());
+    }
+
+    /**
+     * <p>Тестирует метод scanPayloadMode класса InputReader без выбранного режима.</p>
+     * <p>Ожидает, что метод вернет режим RANDOM.</p>
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testScanPayloadMode_NotSelected() {
+        ComboBox<PayloadMode> mockPayloadModeBox = Mockito.mock(ComboBox.class);
+        Mockito.when(mockPayloadModeBox.getValue()).thenReturn(null);
+        assertEquals(PayloadMode.RANDOM, inputReader.scanPayloadMode(mockPayloadModeBox));
+    }
+
+    /**
+     * <p>Тестирует метод scanPayloadOption класса InputReader.</p>
+     * <p>Ожидает, что метод вернет параметр без пробелов по краям.</p>
+     */
+    @Test
+    public void testScanPayloadOption() {
+        TextField mockPayloadOptionField = Mockito.mock(TextField.class);
+        Mockito.when(mockPayloadOptionField.getText()).thenReturn(" 0.5 ");
+        assertEquals("0.5", inputReader.scanPayloadOption(mockPayloadOptionField));
+        assertEquals("0.5", inputReader.getPayloadOption());
+    }
+
+    /**
+     * <p>Тестирует метод scanRate класса InputReader с дробным вводом.</p>
+     * <p>Ожидает, что метод вернет дробное значение и установит его в InputReader.</p>
+     */
+    @Test
+    public void testScanRate_FractionalInput() {
+        Mockito.when(mockFrequencyField.getText()).thenReturn("0.25");
+        assertEquals(0.25, inputReader.scanRate(mockFrequencyField));
+        assertEquals(0.25, inputReader.getRate());
+    }
+
+    /**
+     * <p>Тестирует метод scanRate класса InputReader с невалидным вводом.</p>
+     * <p>Ожидает, что метод вернет -1.</p>
+     */
+    @Test
+    public void testScanRate_InvalidInput() {
+        Mockito.when(mockFrequencyField.getText()).thenReturn("fast");
+        assertEquals(-1, inputReader.scanRate(mockFrequencyField));
+    }
+
+    /**
+     * <p>Тестирует метод scanRateUnit класса InputReader.</p>
+     * <p>Ожидает, что метод вернет выбранную единицу скорости.</p>
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testScanRateUnit() {
+        ComboBox<RateUnit> mockRateUnitBox = Mockito.mock(ComboBox.class);
+        Mockito.when(mockRateUnitBox.getValue()).thenReturn(RateUnit.MBPS);
+        assertEquals(RateUnit.MBPS, inputReader.scanRateUnit(mockRateUnitBox));
+        assertEquals(RateUnit.MBPS, inputReader.getRateUnit());
+    }
+
+    /**
+     * <p>Тестирует метод scanProfileOption класса InputReader с пустым вводом.</p>
+     * <p>Ожидает, что метод вернет 0 (значение по умолчанию для профиля).</p>
+     */
+    @Test
+    public void testScanProfileOption_Empty() {
+        TextField mockProfileOptionField = Mockito.mock(TextField.class);
+        Mockito.when(mockProfileOptionField.getText()).thenReturn("");
+        assertEquals(0, inputReader.scanProfileOption(mockProfileOptionField));
+        assertEquals(0, inputReader.getProfileOption());
+    }
+}
@@ -0,0 +1,145 @@
+import Monitoring.PacketsReceivedEvent;
+import Monitoring.SessionEvent;
+import Monitoring.WriteStallEvent;
+import Output.OutputSink;
+import Protocol.FrameHeader;
+import Protocol.Frames;
+import TrafficGenerator.PacketSender;
+import TrafficReceiver.DataReceiver;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Класс JfrEventsTests содержит тесты для проверки событий JFR генератора и приемника.</p>
+ */
+public class JfrEventsTests {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * <p>Тестирует события приемника.</p>
+     * <p>Проверяет, что сессия фиксируется одним событием с итогами, а порции данных - событиями
+     * с количеством пакетов, которые в сумме дают все пакеты сессии.</p>
+     *
+     * @throws IOException если возникает ошибка записи или чтения файла JFR
+     */
+    @Test
+    public void testDataReceiver_EmitsSessionAndReceiveEvents() throws IOException {
+        DataReceiver receiver = new DataReceiver(Mockito.mock(OutputSink.class));
+        ByteBuffer stream = Frames.session(9, 10, 100);
+
+        List<RecordedEvent> events = record(() -> {
+            while (stream.hasRemaining()) {
+                int length = Math.min(500, stream.remaining());
+                receiver.onData(stream.slice(stream.position(), length));
+                stream.position(stream.position() + length);
+            }
+        }, SessionEvent.NAME, PacketsReceivedEvent.NAME);
+
+        List<RecordedEvent> sessions = ofType(events, SessionEvent.NAME);
+        assertEquals(1, sessions.size());
+        assertEquals("receiver", sessions.get(0).getString("role"));
+        assertEquals(9, sessions.get(0).getInt("session"));
+        assertEquals(10, sessions.get(0).getLong("packets"));
+        assertEquals(1000, sessions.get(0).getLong("bytes"));
+        List<RecordedEvent> chunks = ofType(events, PacketsReceivedEvent.NAME);
+        assertEquals(10, chunks.stream().mapToLong(event -> event.getLong("packets")).sum());
+        assertEquals(12 * FrameHeader.SIZE + 1000, chunks.stream().mapToLong(event -> event.getLong("bytes")).sum());
+    }
+
+    /**
+     * <p>Тестирует порог события долгой записи.</p>
+     * <p>Проверяет, что фиксируется только запись, которая блокировалась дольше порога.</p>
+     *
+     * @throws IOException если возникает ошибка записи или чтения файла JFR
+     */
+    @Test
+    public void testPacketSender_EmitsOnlySlowWrites() throws IOException {
+        OutputStream slowStream = new OutputStream() {
+            private int writes;
+
+            @Override
+            public void write(int b) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                if (++writes == 2) {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        };
+        PacketSender sender = new PacketSender(slowStream);
+        byte[] header = new byte[FrameHeader.SIZE];
+
+        List<RecordedEvent> events = record(() -> {
+            for (int i = 0; i < 3; i++) {
+                sender.sendFrame(header, new byte[100], 0, 100);
+            }
+        }, WriteStallEvent.NAME);
+
+        List<RecordedEvent> stalls = ofType(events, WriteStallEvent.NAME);
+        assertEquals(1, stalls.size());
+        assertEquals("STREAM", stalls.get(0).getString("transport"));
+        assertEquals(FrameHeader.SIZE + 100, stalls.get(0).getLong("bytes"));
+        assertTrue(stalls.get(0).getDuration().compareTo(Duration.ofMillis(1)) >= 0);
+    }
+
+    /**
+     * <p>Действие, которое выполняется во время записи JFR.</p>
+     */
+    private interface RecordedAction {
+        void run() throws IOException;
+    }
+
+    /**
+     * <p>Выполняет действие во время записи JFR с заданными событиями и читает записанные события.</p>
+     *
+     * @param action действие
+     * @param names имена включаемых событий
+     * @return записанные события
+     * @throws IOException если возникает ошибка записи или чтения файла JFR
+     */
+    private List<RecordedEvent> record(RecordedAction action, String... names) throws IOException {
+        Path file = directory.resolve("events.jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : names) {
+                recording.enable(name);
+            }
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file);
+    }
+
+    /**
+     * <p>Отбирает события с заданным именем.</p>
+     *
+     * @param events события
+     * @param name имя события
+     * @return события с этим именем
+     */
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+    }
+}
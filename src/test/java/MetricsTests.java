@@ -0,0 +1,93 @@
+import Monitoring.MetricsServer;
+import Monitoring.PrometheusMetrics;
+import Statistics.StatisticsSampler;
+import Statistics.TrafficCounters;
+
+import org.junit.jupiter.api.Test;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Класс MetricsTests содержит тесты для проверки метрик Prometheus и сервера метрик.</p>
+ */
+public class MetricsTests {
+
+    /**
+     * <p>Тестирует сборку текста метрик приемника.</p>
+     * <p>Проверяет счетчики, потери и гистограмму задержек после выборки интервала.</p>
+     */
+    @Test
+    public void testScrape_ReceiverMetrics() {
+        TrafficCounters counters = new TrafficCounters();
+        PrometheusMetrics metrics = new PrometheusMetrics(PrometheusMetrics.RECEIVER, counters);
+        StatisticsSampler sampler = new StatisticsSampler(counters, 1_000)
+                .addListener(metrics)
+                .addLatencyListener(metrics::addLatency);
+        counters.recordSession();
+        for (int i = 0; i < 3; i++) {
+            counters.record(100);
+        }
+        counters.recordMissing(2);
+        counters.recordLatency(20_000);
+        counters.recordLatency(30_000);
+        counters.recordLatency(3_000_000);
+
+        String before = metrics.scrape();
+        sampler.sample();
+        String text = metrics.scrape();
+
+        assertTrue(before.contains("traffic_packets_total{role=\"receiver\"} 0\n"));
+        assertTrue(text.contains("# TYPE traffic_packets_total counter\n"));
+        assertTrue(text.contains("traffic_packets_total{role=\"receiver\"} 3\n"));
+        assertTrue(text.contains("traffic_bytes_total{role=\"receiver\"} 300\n"));
+        assertTrue(text.contains("traffic_sessions_total{role=\"receiver\"} 1\n"));
+        assertTrue(text.contains("traffic_missing_packets{role=\"receiver\"} 2\n"));
+        assertTrue(text.contains("traffic_latency_seconds_bucket{role=\"receiver\",le=\"0.00005\"} 2\n"));
+        assertTrue(text.contains("traffic_latency_seconds_bucket{role=\"receiver\",le=\"0.0025\"} 2\n"));
+        assertTrue(text.contains("traffic_latency_seconds_bucket{role=\"receiver\",le=\"0.005\"} 3\n"));
+        assertTrue(text.contains("traffic_latency_seconds_bucket{role=\"receiver\",le=\"+Inf\"} 3\n"));
+        assertTrue(text.contains("traffic_latency_seconds_count{role=\"receiver\"} 3\n"));
+    }
+
+    /**
+     * <p>Тестирует HTTP-сервер метрик.</p>
+     * <p>Проверяет тип содержимого и текст ответа на GET и отказ на другие методы.</p>
+     *
+     * @throws Exception если возникает ошибка запроса
+     */
+    @Test
+    public void testServer_ServesMetrics() throws Exception {
+        TrafficCounters counters = new TrafficCounters();
+        counters.recordWriteNanos(1_500_000_000L);
+        PrometheusMetrics metrics = new PrometheusMetrics(PrometheusMetrics.GENERATOR, counters);
+        try (MetricsServer server = new MetricsServer(0, metrics)) {
+            HttpClient client = HttpClient.newHttpClient();
+            URI uri = URI.create("http://localhost:" + server.getPort() + MetricsServer.PATH);
+
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> post = client.send(HttpRequest.newBuilder(uri)
+                    .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, response.statusCode());
+            assertEquals(MetricsServer.CONTENT_TYPE, response.headers().firstValue("Content-Type").orElse(""));
+            assertTrue(response.body().contains("traffic_write_blocked_seconds_total{role=\"generator\"} 1.5\n"));
+            assertFalse(response.body().contains("traffic_latency_seconds"));
+            assertEquals(405, post.statusCode());
+        }
+    }
+
+    /**
+     * <p>Тестирует разбор порта сервера метрик.</p>
+     * <p>Проверяет, что пустое значение выключает сервер, а номер вне диапазона отклоняется.</p>
+     */
+    @Test
+    public void testParsePort() {
+        assertEquals(-1, MetricsServer.parsePort(null));
+        assertEquals(9100, MetricsServer.parsePort("9100"));
+        assertThrows(IllegalArgumentException.class, () -> MetricsServer.parsePort("70000"));
+    }
+}
@@ -0,0 +1,96 @@
+import GUI.OutputArea;
+
+import javafx.application.Platform;
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Класс OutputAreaTests содержит тесты для проверки области вывода с очередью сообщений.</p>
+ */
+public class OutputAreaTests extends JavaFXTest {
+
+    /**
+     * <p>Тестирует вывод сообщений из нескольких потоков.</p>
+     * <p>Проверяет, что после разбора очереди в области остаются только последние строки.</p>
+     *
+     * @throws Exception если возникает ошибка при ожидании потоков
+     */
+    @Test
+    public void testAppendText_KeepsLastLines() throws Exception {
+        OutputArea area = onFxThread(() -> new OutputArea(3, 100));
+        Thread[] writers = new Thread[2];
+        for (int t = 0; t < writers.length; t++) {
+            int id = t;
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < 5; i++) {
+                    area.appendText("writer " + id + " line " + i + "\n");
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        String text = onFxThread(() -> {
+            area.flush();
+            return area.getText();
+        });
+        assertEquals(3, text.split("\n").length);
+        assertTrue(text.endsWith("line 4\n"));
+    }
+
+    /**
+     * <p>Тестирует переполнение очереди сообщений.</p>
+     * <p>Проверяет, что лишние сообщения отбрасываются без ожидания, а вместо них выводится их количество.</p>
+     *
+     * @throws Exception если возникает ошибка при ожидании потока JavaFX
+     */
+    @Test
+    public void testAppendText_DropsWhenFull() throws Exception {
+        OutputArea area = onFxThread(() -> {
+            OutputArea created = new OutputArea(100, 2);
+            created.stop();
+            return created;
+        });
+        for (int i = 0; i < 5; i++) {
+            area.appendText("message " + i + "\n");
+        }
+
+        String text = onFxThread(() -> {
+            area.flush();
+            return area.getText();
+        });
+        assertEquals("message 0\nmessage 1\n... 3 messages dropped ...\n", text);
+    }
+
+    /**
+     * <p>Выполняет действие в потоке JavaFX и возвращает его результат.</p>
+     *
+     * @param action действие
+     * @param <T> тип результата
+     * @return результат действия
+     * @throws InterruptedException если ожидание прервано
+     */
+    private static <T> T onFxThread(Callable<T> action) throws InterruptedException {
+        AtomicReference<T> result = new AtomicReference<>();
+        AtomicReference<Exception> error = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        Platform.runLater(() -> {
+            try {
+                result.set(action.call());
+            } catch (Exception e) {
+                error.set(e);
+            } finally {
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertNull(error.get());
+        return result.get();
+    }
+}
@@ -4,8 +4,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import static org.mockito.Mockito.*;
+import java.io.ByteArrayOutputStream;
 import java.io.OutputStream;
 import java.io.IOException;
+import java.util.Arrays;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -73,4 +75,90 @@ public class PacketSenderTests {
         IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> new PacketSender(null));
         assertEquals("OutputStream cannot be null", thrown.getMessage());
     }
-}
\ No newline at end of file
+
+    /**
+     * <p>Тестирует пакетный режим класса PacketSender.</p>
+     * <p>Проверяет, что маленькие пакеты уходят одной записью в исходном порядке.</p>
+     *
+     * @throws IOException если возникает ошибка при отправке данных
+     */
+    @Test
+    public void testBatchMode_CoalescesPackets() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        PacketSender batchSender = new PacketSender(outputStream, 1024, 60_000_000_000L);
+        byte[] data = {1, 2, 3, 4, 5, 6};
+
+        for (int i = 0; i < 10; i++) {
+            batchSender.sendPacket(data, i % 3, 3);
+        }
+        assertEquals(0, outputStream.size());
+
+        batchSender.flush();
+        assertEquals(30, outputStream.size());
+        assertEquals(1, batchSender.getWriteCalls());
+        assertEquals(10, batchSender.getPacketsSent());
+        assertArrayEquals(new byte[]{2, 3, 4}, Arrays.copyOfRange(outputStream.toByteArray(), 3, 6));
+    }
+
+    /**
+     * <p>Тестирует пакетный режим класса PacketSender при заполнении буфера.</p>
+     * <p>Проверяет, что буфер отправляется, как только следующий пакет в него не помещается.</p>
+     */
+    @Test
+    public void testBatchMode_FullBuffer() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        PacketSender batchSender = new PacketSender(outputStream, 100, 60_000_000_000L);
+
+        for (int i = 0; i < 5; i++) {
+            batchSender.sendPacket(new byte[40]);
+        }
+
+        assertEquals(2, batchSender.getWriteCalls());
+        assertEquals(160, outputStream.size());
+    }
+
+    /**
+     * <p>Тестирует метод flushIfDue класса PacketSender.</p>
+     * <p>Проверяет, что буфер отправляется, только если следующий пакет выйдет за границу задержки.</p>
+     */
+    @Test
+    public void testBatchMode_FlushIfDue() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        PacketSender batchSender = new PacketSender(outputStream, 1024, 10_000_000_000L);
+
+        batchSender.sendPacket(new byte[10]);
+        batchSender.flushIfDue(System.nanoTime());
+        assertEquals(0, outputStream.size());
+
+        batchSender.flushIfDue(System.nanoTime() + 20_000_000_000L);
+        assertEquals(10, outputStream.size());
+    }
+
+    /**
+     * <p>Тестирует конструктор пакетного режима класса PacketSender с некорректными параметрами.</p>
+     * <p>Ожидает выброс IllegalArgumentException.</p>
+     */
+    @Test
+    public void testBatchConstructor_InvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new PacketSender(mockOutputStream, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new PacketSender(mockOutputStream, 1024, 0));
+    }
+
+    /**
+     * <p>Тестирует метод sendFrame класса PacketSender без пакетного режима.</p>
+     * <p>Проверяет, что заголовок и пакет уходят одним вызовом записи.</p>
+     *
+     * @throws IOException если возникает ошибка при отправке данных
+     */
+    @Test
+    public void testSendFrame_SingleWrite() throws IOException {
+        ByteArrayOutputStream target = Mockito.spy(new ByteArrayOutputStream());
+        PacketSender sender = new PacketSender(target);
+
+        sender.sendFrame(new byte[]{9, 9}, new byte[]{1, 2, 3, 4}, 1, 2);
+
+        verify(target, times(1)).write(Mockito.any(byte[].class), Mockito.anyInt(), Mockito.anyInt());
+        assertArrayEquals(new byte[]{9, 9, 2, 3}, target.toByteArray());
+        assertEquals(1, sender.getWriteCalls());
+    }
+}
@@ -0,0 +1,124 @@
+import Monitoring.PacketTrace;
+import Monitoring.TraceDecoder;
+import Monitoring.TraceDecoder.TraceRecord;
+import Monitoring.TraceEvent;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Класс PacketTraceTests содержит тесты для проверки двоичной пакетной трассировки.</p>
+ */
+public class PacketTraceTests {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * <p>Тестирует запись и чтение трассировки.</p>
+     * <p>Проверяет, что прореживаются только отправка и прием, а поля записей читаются без изменений.</p>
+     *
+     * @throws IOException если возникает ошибка записи или чтения файла
+     */
+    @Test
+    public void testRecord_DecodesSampledEvents() throws IOException {
+        Path file = directory.resolve("sampled.trace");
+        try (PacketTrace trace = new PacketTrace(64, 4, file)) {
+            for (int sequence = 0; sequence < 10; sequence++) {
+                trace.record(TraceEvent.SENT, 1_000L + sequence, 7, sequence, 1400);
+            }
+            trace.record(TraceEvent.GAP, 2_000L, 7, 9, 3);
+        }
+
+        List<TraceRecord> records = new ArrayList<>();
+        int sampleEvery = TraceDecoder.read(file, records::add);
+
+        assertEquals(4, sampleEvery);
+        assertEquals(List.of(
+                new TraceRecord(1_000L, TraceEvent.SENT, 7, 0, 1400),
+                new TraceRecord(1_004L, TraceEvent.SENT, 7, 4, 1400),
+                new TraceRecord(1_008L, TraceEvent.SENT, 7, 8, 1400),
+                new TraceRecord(2_000L, TraceEvent.GAP, 7, 9, 3)), records);
+    }
+
+    /**
+     * <p>Тестирует переполнение кольцевого буфера.</p>
+     * <p>Проверяет, что в файл попадают последние записи, а перезаписанные учитываются как потерянные.</p>
+     *
+     * @throws IOException если возникает ошибка записи или чтения файла
+     */
+    @Test
+    public void testDrain_CountsOverwrittenRecords() throws IOException {
+        Path file = directory.resolve("overrun.trace");
+        PacketTrace trace = new PacketTrace(8, 1, file);
+        for (int sequence = 0; sequence < 20; sequence++) {
+            trace.record(TraceEvent.RECEIVED, sequence, 1, sequence, 100);
+        }
+        assertEquals(8, trace.drain());
+        trace.close();
+
+        List<TraceRecord> records = new ArrayList<>();
+        TraceDecoder.read(file, records::add);
+        assertEquals(12, trace.getDropped());
+        assertEquals(8, records.size());
+        assertEquals(12, records.get(0).sequence());
+        assertEquals(19, records.get(7).sequence());
+    }
+
+    /**
+     * <p>Тестирует перенос записей, пока потоки отправки обгоняют его на несколько кругов буфера.</p>
+     * <p>Проверяет, что в файл не попадают записи, поля которых взяты из разных событий.</p>
+     *
+     * @throws Exception если возникает ошибка записи или чтения файла или ожидания потоков
+     */
+    @Test
+    public void testDrain_SkipsOverwrittenSlots() throws Exception {
+        Path file = directory.resolve("lapped.trace");
+        PacketTrace trace = new PacketTrace(16, 1, file);
+        Thread[] writers = new Thread[4];
+        for (int w = 0; w < writers.length; w++) {
+            int session = w + 1;
+            writers[w] = new Thread(() -> {
+                for (int sequence = 0; sequence < 200_000; sequence++) {
+                    trace.record(TraceEvent.SENT, sequence * 10L + session, session, sequence, sequence % 1000);
+                }
+            });
+            writers[w].start();
+        }
+        while (Arrays.stream(writers).anyMatch(Thread::isAlive)) {
+            trace.drain();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        trace.close();
+
+        List<TraceRecord> records = new ArrayList<>();
+        TraceDecoder.read(file, records::add);
+        assertFalse(records.isEmpty());
+        for (TraceRecord record : records) {
+            assertEquals(record.sequence() * 10 + record.session(), record.timestamp(), record.toString());
+            assertEquals(record.sequence() % 1000, record.length(), record.toString());
+        }
+    }
+
+    /**
+     * <p>Тестирует разбор частоты трассировки.</p>
+     * <p>Проверяет, что пустое значение выключает трассировку, а отрицательное отклоняется.</p>
+     */
+    @Test
+    public void testParseSample() {
+        assertEquals(0, PacketTrace.parseSample(null));
+        assertEquals(16, PacketTrace.parseSample(" 16 "));
+        assertThrows(IllegalArgumentException.class, () -> PacketTrace.parseSample("-1"));
+        assertEquals(PacketTrace.MAX_SAMPLE_EVERY, PacketTrace.parseSample("1073741824"));
+        assertThrows(IllegalArgumentException.class, () -> PacketTrace.parseSample("1073741825"));
+        assertFalse(PacketTrace.global().isEnabled());
+    }
+}
@@ -0,0 +1,121 @@
+import TrafficGenerator.PayloadGenerator;
+import TrafficGenerator.PayloadMode;
+
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Класс PayloadGeneratorTests содержит тесты для проверки функциональности класса PayloadGenerator.</p>
+ */
+public class PayloadGeneratorTests {
+
+    /**
+     * <p>Тестирует метод nextOffset класса PayloadGenerator.</p>
+     * <p>Проверяет, что каждое окно пакета целиком помещается в кольцевой блок.</p>
+     */
+    @Test
+    public void testNextOffset_WindowInsideBuffer() {
+        int packetSize = 1500;
+        PayloadGenerator payloadGenerator = new PayloadGenerator(packetSize);
+
+        for (int i = 0; i < 10_000; i++) {
+            int offset = payloadGenerator.nextOffset();
+            assertTrue(offset >= 0);
+            assertTrue(offset + packetSize <= payloadGenerator.getBuffer().length);
+        }
+    }
+
+    /**
+     * <p>Тестирует метод nextOffset класса PayloadGenerator.</p>
+     * <p>Проверяет, что соседние пакеты берутся из разных участков кольцевого блока.</p>
+     */
+    @Test
+    public void testNextOffset_ConsecutivePacketsDiffer() {
+        PayloadGenerator payloadGenerator = new PayloadGenerator(64);
+
+        assertNotEquals(payloadGenerator.nextOffset(), payloadGenerator.nextOffset());
+    }
+
+    /**
+     * <p>Тестирует конструктор класса PayloadGenerator с отрицательным размером пакета.</p>
+     * <p>Ожидает выброс IllegalArgumentException.</p>
+     */
+    @Test
+    public void testConstructor_NegativePacketSize() {
+        assertThrows(IllegalArgumentException.class, () -> new PayloadGenerator(-1));
+    }
+
+    /**
+     * <p>Тестирует режим ZERO класса PayloadGenerator.</p>
+     * <p>Проверяет, что все байты полезной нагрузки равны нулю.</p>
+     */
+    @Test
+    public void testZeroMode() {
+        PayloadGenerator payloadGenerator = new PayloadGenerator(128, PayloadMode.ZERO, "");
+
+        for (byte b : payloadGenerator.getBuffer()) {
+            assertEquals(0, b);
+        }
+    }
+
+    /**
+     * <p>Тестирует режим PATTERN класса PayloadGenerator с шестнадцатеричным шаблоном.</p>
+     * <p>Проверяет, что шаблон повторяется по всему кольцевому блоку.</p>
+     */
+    @Test
+    public void testPatternMode() {
+        byte[] buffer = new PayloadGenerator(100, PayloadMode.PATTERN, "0xCAFE01").getBuffer();
+
+        byte[] pattern = {(byte) 0xCA, (byte) 0xFE, 0x01};
+        for (int i = 0; i < buffer.length; i++) {
+            assertEquals(pattern[i % pattern.length], buffer[i]);
+        }
+    }
+
+    /**
+     * <p>Тестирует режим SEEDED класса PayloadGenerator.</p>
+     * <p>Проверяет, что одинаковое зерно дает одинаковую полезную нагрузку, а разное - разную.</p>
+     */
+    @Test
+    public void testSeededMode_Deterministic() {
+        byte[] first = new PayloadGenerator(64, PayloadMode.SEEDED, "42").getBuffer();
+        byte[] second = new PayloadGenerator(64, PayloadMode.SEEDED, "42").getBuffer();
+        byte[] other = new PayloadGenerator(64, PayloadMode.SEEDED, "43").getBuffer();
+
+        assertArrayEquals(first, second);
+        assertFalse(Arrays.equals(first, other));
+    }
+
+    /**
+     * <p>Тестирует режим COMPRESSIBLE класса PayloadGenerator.</p>
+     * <p>Проверяет, что сжатый размер данных близок к заданной доле.</p>
+     */
+    @Test
+    public void testCompressibleMode_Ratio() {
+        byte[] buffer = new PayloadGenerator(0, PayloadMode.COMPRESSIBLE, "0.25").getBuffer();
+
+        Deflater deflater = new Deflater();
+        deflater.setInput(buffer);
+        deflater.finish();
+        byte[] output = new byte[buffer.length * 2];
+        int compressed = deflater.deflate(output);
+        deflater.end();
+
+        double ratio = compressed / (double) buffer.length;
+        assertTrue(ratio > 0.2 && ratio < 0.35, "Compressed ratio: " + ratio);
+    }
+
+    /**
+     * <p>Тестирует проверку параметров режимов полезной нагрузки.</p>
+     * <p>Ожидает выброс IllegalArgumentException для некорректных параметров.</p>
+     */
+    @Test
+    public void testInvalidOptions() {
+        assertThrows(IllegalArgumentException.class, () -> new PayloadGenerator(64, PayloadMode.PATTERN, ""));
+        assertThrows(IllegalArgumentException.class, () -> new PayloadGenerator(64, PayloadMode.SEEDED, "abc"));
+        assertThrows(IllegalArgumentException.class, () -> new PayloadGenerator(64, PayloadMode.COMPRESSIBLE, "1.5"));
+        assertDoesNotThrow(() -> PayloadMode.RANDOM.validate(""));
+    }
+}
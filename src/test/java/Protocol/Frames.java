@@ -0,0 +1,60 @@
+package Protocol;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>Frames - сборка потоков кадров для тестов и микробенчмарков приемника.</p>
+ *
+ * <p>Поток сессии содержит кадр начала сессии, кадры данных с номерами от 0 и кадр конца сессии,
+ * как их отправляет генератор. Полезная нагрузка кадров данных заполнена нулями.</p>
+ */
+public final class Frames {
+
+    /**
+     * <p>Закрытый конструктор: класс содержит только статические методы.</p>
+     */
+    private Frames() {
+    }
+
+    /**
+     * <p>Возвращает длину потока кадров одной сессии.</p>
+     *
+     * @param packets количество пакетов
+     * @param packetSize размер пакета
+     * @return длина в байтах
+     */
+    public static int length(int packets, int packetSize) {
+        return (packets + 2) * FrameHeader.SIZE + packets * packetSize;
+    }
+
+    /**
+     * <p>Собирает поток кадров одной сессии с нулевым временем отправки.</p>
+     *
+     * @param sessionId номер сессии
+     * @param packets количество пакетов
+     * @param packetSize размер пакета
+     * @return буфер с кадрами сессии, готовый к чтению
+     */
+    public static ByteBuffer session(int sessionId, int packets, int packetSize) {
+        return put(ByteBuffer.allocate(length(packets, packetSize)), sessionId, packets, packetSize, 0).flip();
+    }
+
+    /**
+     * <p>Записывает поток кадров одной сессии в буфер с его текущей позиции.</p>
+     *
+     * @param stream буфер, в котором есть место для {@link #length(int, int)} байт
+     * @param sessionId номер сессии
+     * @param packets количество пакетов
+     * @param packetSize размер пакета
+     * @param timestamp время отправки в кадрах данных
+     * @return тот же буфер с позицией после кадра конца сессии
+     */
+    public static ByteBuffer put(ByteBuffer stream, int sessionId, int packets, int packetSize, long timestamp) {
+        stream.put(FrameHeader.control(FrameType.SESSION_START, 0, sessionId, packets));
+        for (int i = 0; i < packets; i++) {
+            FrameHeader.write(stream, stream.position(), FrameType.DATA, 0, packetSize, sessionId, i, timestamp);
+            stream.position(stream.position() + FrameHeader.SIZE + packetSize);
+        }
+        return stream.put(FrameHeader.control(FrameType.SESSION_END, 0, sessionId, packets));
+    }
+}
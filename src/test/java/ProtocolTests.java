@@ -0,0 +1,87 @@
+import Protocol.FrameDecoder;
+import Protocol.FrameHeader;
+import Protocol.FrameType;
+
+import org.junit.jupiter.api.Test;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Класс ProtocolTests содержит тесты для проверки кадров протокола и их разбора.</p>
+ */
+public class ProtocolTests {
+
+    /**
+     * <p>Тестирует запись и чтение заголовка кадра.</p>
+     * <p>Проверяет, что writeSequence меняет только порядковый номер и время отправки.</p>
+     */
+    @Test
+    public void testFrameHeader_RoundTrip() {
+        ByteBuffer buffer = ByteBuffer.allocate(FrameHeader.SIZE);
+        FrameHeader.write(buffer, 0, FrameType.DATA, FrameHeader.FLAG_DATAGRAM, 1400, 42, 7, 1000);
+        FrameHeader.writeSequence(buffer, 0, 8, 2000);
+
+        FrameHeader header = new FrameHeader().wrap(buffer, 0);
+        assertTrue(header.hasValidMagic());
+        assertEquals(FrameType.DATA, header.type());
+        assertEquals(FrameHeader.FLAG_DATAGRAM, header.flags());
+        assertEquals(1400, header.length());
+        assertEquals(42, header.sessionId());
+        assertEquals(8, header.sequence());
+        assertEquals(2000, header.timestamp());
+    }
+
+    /**
+     * <p>Тестирует класс FrameDecoder с кадрами, разрезанными на порции по одному байту.</p>
+     * <p>Проверяет, что заголовки собираются из частей, а полезная нагрузка передается целиком.</p>
+     *
+     * @throws ProtocolException если кадр некорректен
+     */
+    @Test
+    public void testFrameDecoder_SplitFrames() throws ProtocolException {
+        ByteBuffer stream = ByteBuffer.allocate(3 * FrameHeader.SIZE + 5);
+        stream.put(FrameHeader.control(FrameType.SESSION_START, 0, 1, 2));
+        FrameHeader.write(stream, stream.position(), FrameType.DATA, 0, 5, 1, 0, 0);
+        stream.position(stream.position() + FrameHeader.SIZE).put(new byte[]{1, 2, 3, 4, 5});
+        stream.put(FrameHeader.control(FrameType.SESSION_END, 0, 1, 1)).flip();
+        List<FrameType> types = new ArrayList<>();
+        int[] payload = new int[1];
+        FrameDecoder decoder = new FrameDecoder(new FrameDecoder.Listener() {
+            @Override
+            public void onHeader(FrameHeader header) {
+                types.add(header.type());
+            }
+
+            @Override
+            public void onPayload(ByteBuffer buffer, int offset, int length) {
+                for (int i = 0; i < length; i++) {
+                    payload[0] += buffer.get(offset + i);
+                }
+            }
+        });
+
+        while (stream.hasRemaining()) {
+            decoder.feed(stream.slice(stream.position(), 1));
+            stream.position(stream.position() + 1);
+        }
+
+        assertEquals(List.of(FrameType.SESSION_START, FrameType.DATA, FrameType.SESSION_END), types);
+        assertEquals(15, payload[0]);
+        assertEquals(3, decoder.getFrames());
+        assertTrue(decoder.isAtFrameBoundary());
+    }
+
+    /**
+     * <p>Тестирует класс FrameDecoder с некорректной сигнатурой кадра.</p>
+     * <p>Ожидает выброс ProtocolException.</p>
+     */
+    @Test
+    public void testFrameDecoder_InvalidMagic() {
+        FrameDecoder decoder = new FrameDecoder(header -> { });
+
+        assertThrows(ProtocolException.class, () -> decoder.feed(ByteBuffer.wrap("GET / HTTP/1.1\r\n\r\n0123456789abcdef".getBytes())));
+    }
+}
@@ -0,0 +1,82 @@
+import TrafficGenerator.RatePacer;
+import TrafficGenerator.RateUnit;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Класс RatePacerTests содержит тесты для проверки функциональности классов RatePacer и RateUnit.</p>
+ */
+public class RatePacerTests {
+
+    /**
+     * <p>Тестирует метод awaitNext класса RatePacer.</p>
+     * <p>Проверяет, что отправка по расписанию с интервалом меньше миллисекунды
+     * занимает не меньше расчетного времени и не сильно дольше него.</p>
+     *
+     * @throws InterruptedException если поток был прерван
+     */
+    @Test
+    public void testAwaitNext_SubMillisecondInterval() throws InterruptedException {
+        RatePacer pacer = new RatePacer(100_000);
+        long startTime = System.nanoTime();
+        pacer.start(startTime);
+
+        for (int i = 0; i < 1001; i++) {
+            pacer.awaitNext();
+        }
+        long elapsed = System.nanoTime() - startTime;
+
+        assertTrue(elapsed >= 100_000_000L, "Elapsed: " + elapsed);
+        assertTrue(elapsed < 200_000_000L, "Elapsed: " + elapsed);
+    }
+
+    /**
+     * <p>Тестирует метод awaitNext класса RatePacer без ограничения скорости.</p>
+     * <p>Проверяет, что метод не ждет.</p>
+     *
+     * @throws InterruptedException если поток был прерван
+     */
+    @Test
+    public void testAwaitNext_Unlimited() throws InterruptedException {
+        RatePacer pacer = new RatePacer(0);
+        long startTime = System.nanoTime();
+        pacer.start(startTime);
+
+        for (int i = 0; i < 1000; i++) {
+            pacer.awaitNext();
+        }
+
+        assertTrue(System.nanoTime() - startTime < 50_000_000L);
+    }
+
+    /**
+     * <p>Тестирует метод awaitNext класса RatePacer с прерванным потоком.</p>
+     * <p>Ожидает выброс InterruptedException.</p>
+     */
+    @Test
+    public void testAwaitNext_Interrupted() throws InterruptedException {
+        RatePacer pacer = new RatePacer(10_000_000);
+        pacer.start(System.nanoTime());
+        pacer.awaitNext();
+
+        assertThrows(InterruptedException.class, () -> {
+            Thread.currentThread().interrupt();
+            pacer.awaitNext();
+            pacer.awaitNext();
+        });
+        Thread.interrupted();
+    }
+
+    /**
+     * <p>Тестирует перевод скорости в интервал для всех единиц RateUnit.</p>
+     */
+    @Test
+    public void testRateUnit_IntervalNanos() {
+        assertEquals(1_500_000, RateUnit.INTERVAL_MS.intervalNanos(1.5, 1000));
+        assertEquals(100_000, RateUnit.PPS.intervalNanos(10_000, 1000));
+        assertEquals(8_000, RateUnit.MBPS.intervalNanos(1000, 1000));
+        assertEquals(0, RateUnit.PPS.intervalNanos(0, 1000));
+        assertEquals(10_000.0, RateUnit.packetsPerSecond(100_000), 1e-9);
+    }
+}
@@ -0,0 +1,241 @@
+import Monitoring.PrometheusMetrics;
+import NetworkConnection.Transport;
+import Results.ResultsReport;
+import Results.ResultsStore;
+import Results.RunSummary;
+import Results.SessionResult;
+import Statistics.LatencyHistogram;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Класс ResultsTests содержит тесты для проверки файла итогов сессий и отчета сравнения прогонов.</p>
+ */
+public class ResultsTests {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * <p>Тестирует добавление и чтение итогов сессии.</p>
+     * <p>Проверяет, что запись читается без изменений, перцентили берутся из гистограммы, а выключенное
+     * хранилище ничего не сохраняет.</p>
+     *
+     * @throws IOException если возникает ошибка записи или чтения файла
+     */
+    @Test
+    public void testAppend_RoundTrip() throws IOException {
+        Path file = directory.resolve("results.bin");
+        LatencyHistogram latency = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            latency.record(i * 1_000L);
+        }
+
+        SessionResult written;
+        try (ResultsStore store = new ResultsStore(file)) {
+            written = store.append(PrometheusMetrics.RECEIVER, Transport.UDP, 3, 1400, Double.NaN, 2_000_000_000L,
+                    1000, 1_400_000, 5, latency);
+            assertNotNull(written);
+            assertEquals(store.getRunId(), written.runId());
+        }
+        try (ResultsStore store = ResultsStore.open(file)) {
+            assertEquals(1, store.size());
+            SessionResult read = store.read(0);
+            assertEquals(written, read);
+            assertEquals(latency.getPercentile(99), read.latencyP99Nanos());
+            assertTrue(read.hasLatency());
+            assertFalse(store.isEnabled());
+            assertNull(store.append(PrometheusMetrics.RECEIVER, Transport.UDP, 4, 1400, Double.NaN, 1, 1, 1, 0, null));
+        }
+        assertFalse(ResultsStore.global().isEnabled());
+        assertNull(ResultsStore.global().append(PrometheusMetrics.GENERATOR, Transport.STREAM, 1, 1, 0, 1, 1, 1,
+                -1, null));
+    }
+
+    /**
+     * <p>Тестирует поиск по номеру прогона и по времени.</p>
+     * <p>Проверяет, что каждый прогон получает новый номер, а двоичный поиск находит его сессии.</p>
+     *
+     * @throws IOException если возникает ошибка записи или чтения файла
+     */
+    @Test
+    public void testFind_RunsAndTime() throws IOException {
+        Path file = directory.resolve("results.bin");
+        long first;
+        long second;
+        try (ResultsStore store = new ResultsStore(file)) {
+            first = store.getRunId();
+            for (int session = 1; session <= 3; session++) {
+                append(store, session, 1000);
+            }
+        }
+        long between = System.currentTimeMillis();
+        try (ResultsStore store = new ResultsStore(file)) {
+            second = store.getRunId();
+            append(store, 1, 1000);
+            append(store, 2, 1000);
+        }
+
+        assertTrue(second > first);
+        try (ResultsStore store = ResultsStore.open(file)) {
+            assertEquals(List.of(first, second), store.runIds());
+            assertEquals(3, store.findRun(first).size());
+            assertEquals(List.of(1, 2), store.findRun(second).stream().map(SessionResult::session).toList());
+            assertTrue(store.findRun(second + 1).isEmpty());
+            List<SessionResult> later = store.findBetween(between, Long.MAX_VALUE);
+            assertTrue(later.stream().allMatch(result -> result.timeMillis() >= between));
+            assertTrue(later.containsAll(store.findRun(second)));
+            assertEquals(5, store.findBetween(0, Long.MAX_VALUE).size());
+        }
+    }
+
+    /**
+     * <p>Тестирует добавление после недописанной последней записи.</p>
+     * <p>Проверяет, что остаток записи отбрасывается при открытии и новые записи читаются без сдвига.</p>
+     *
+     * @throws IOException если возникает ошибка записи или чтения файла
+     */
+    @Test
+    public void testAppend_AfterTornRecord() throws IOException {
+        Path file = directory.resolve("results.bin");
+        try (ResultsStore store = new ResultsStore(file)) {
+            append(store, 1, 1000);
+        }
+        Files.write(file, new byte[ResultsStore.RECORD_SIZE / 3], StandardOpenOption.APPEND);
+
+        try (ResultsStore store = new ResultsStore(file)) {
+            assertEquals(1, store.size());
+            append(store, 2, 2000);
+        }
+        try (ResultsStore store = ResultsStore.open(file)) {
+            assertEquals(ResultsStore.HEADER_SIZE + 2L * ResultsStore.RECORD_SIZE, Files.size(file));
+            assertEquals(List.of(1, 2), store.findBetween(0, Long.MAX_VALUE).stream()
+                    .map(SessionResult::session).toList());
+            assertEquals(2000, store.read(1).packets());
+        }
+    }
+
+    /**
+     * <p>Тестирует открытие файла, который не является файлом итогов.</p>
+     *
+     * @throws IOException если возникает ошибка записи файла
+     */
+    @Test
+    public void testOpen_RejectsOtherFile() throws IOException {
+        Path file = Files.writeString(directory.resolve("other.bin"), "not a results file");
+
+        assertThrows(IOException.class, () -> ResultsStore.open(file));
+        assertThrows(IOException.class, () -> new ResultsStore(file));
+    }
+
+    /**
+     * <p>Тестирует разбор параметра запуска хранилища.</p>
+     */
+    @Test
+    public void testParseFile() {
+        assertNull(ResultsStore.parseFile(null, ResultsStore.RECEIVER_FILE));
+        assertNull(ResultsStore.parseFile("false", ResultsStore.RECEIVER_FILE));
+        assertEquals(Path.of(ResultsStore.RECEIVER_FILE), ResultsStore.parseFile("true", ResultsStore.RECEIVER_FILE));
+        assertEquals(Path.of("runs.bin"), ResultsStore.parseFile(" runs.bin ", ResultsStore.RECEIVER_FILE));
+    }
+
+    /**
+     * <p>Тестирует итоги прогона и базовую линию.</p>
+     * <p>Проверяет, что пропускная способность считается за время от начала первой сессии до окончания
+     * последней, потери - по всем сессиям, а задержка взвешивается по количеству пакетов.</p>
+     */
+    @Test
+    public void testRunSummary_OfAndMean() {
+        SessionResult first = new SessionResult(1, 2_000, PrometheusMetrics.RECEIVER, Transport.STREAM, 1, 1000,
+                Double.NaN, 1_000_000_000L, 1000, 1_000_000, 0, 1_000_000, 2_000_000, 3_000_000);
+        SessionResult second = new SessionResult(1, 3_000, PrometheusMetrics.RECEIVER, Transport.STREAM, 2, 1000,
+                Double.NaN, 1_000_000_000L, 3000, 3_000_000, 1000, 3_000_000, 4_000_000, 5_000_000);
+
+        RunSummary run = RunSummary.of(1, List.of(first, second));
+
+        assertEquals(1_000, run.startMillis());
+        assertEquals(2.0, run.seconds(), 1e-9);
+        assertEquals(4000, run.packets());
+        assertEquals(2000, run.pps(), 1e-9);
+        assertEquals(16, run.mbps(), 1e-9);
+        assertEquals(20, run.lossPercent(), 1e-9);
+        assertEquals(2.5, run.latencyP50Ms(), 1e-9);
+
+        RunSummary other = RunSummary.of(2, List.of(new SessionResult(2, 5_000, PrometheusMetrics.GENERATOR,
+                Transport.STREAM, 1, 1000, 0, 1_000_000_000L, 2000, 2_000_000, -1, -1, -1, -1)));
+        assertTrue(Double.isNaN(other.lossPercent()));
+        RunSummary baseline = RunSummary.mean(List.of(run, other));
+        assertEquals(2000, baseline.pps(), 1e-9);
+        assertEquals(20, baseline.lossPercent(), 1e-9);
+        assertEquals(0, baseline.runId());
+        assertThrows(IllegalArgumentException.class, () -> RunSummary.of(3, List.of()));
+    }
+
+    /**
+     * <p>Тестирует отчет сравнения прогонов.</p>
+     * <p>Проверяет список прогонов, сравнение с другим прогоном и с базовой линией, а также ошибки параметров.</p>
+     *
+     * @throws IOException если возникает ошибка записи файла
+     */
+    @Test
+    public void testReport_CompareRuns() throws IOException {
+        Path file = directory.resolve("results.bin");
+        long first;
+        try (ResultsStore store = new ResultsStore(file)) {
+            first = store.getRunId();
+            append(store, 1, 1000);
+        }
+        try (ResultsStore store = new ResultsStore(file)) {
+            append(store, 1, 2000);
+        }
+
+        String list = report(0, "--file=" + file);
+        assertTrue(list.contains(Long.toString(first)));
+        assertEquals(3, list.lines().count());
+
+        String against = report(0, "--file=" + file, "--against=" + first);
+        assertTrue(against.contains("against run " + first));
+        assertTrue(against.lines().anyMatch(line -> line.startsWith("packets ") && line.endsWith("+100.0%")));
+
+        assertTrue(report(0, "--file=" + file, "--baseline=5").contains("baseline of 1 run(s)"));
+        report(1, "--file=" + file, "--against=1");
+        report(1, "--file=" + directory.resolve("missing.bin"));
+        report(2, "--file=" + file, "--run=latest", "--baseline=1");
+    }
+
+    /**
+     * <p>Добавляет итоги сессии генератора с заданным количеством пакетов по 1000 байт.</p>
+     *
+     * @param store хранилище
+     * @param session номер сессии
+     * @param packets количество пакетов
+     */
+    private static void append(ResultsStore store, int session, long packets) {
+        assertNotNull(store.append(PrometheusMetrics.GENERATOR, Transport.STREAM, session, 1000, 0, 1_000_000,
+                packets, packets * 1000, -1, null));
+    }
+
+    /**
+     * <p>Выполняет отчет и проверяет код завершения.</p>
+     *
+     * @param expectedCode ожидаемый код завершения
+     * @param args ключи командной строки
+     * @return вывод отчета
+     */
+    private static String report(int expectedCode, String... args) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int code = ResultsReport.run(args, new PrintStream(out), new PrintStream(new ByteArrayOutputStream()));
+        assertEquals(expectedCode, code);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
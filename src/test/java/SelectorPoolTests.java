@@ -0,0 +1,179 @@
+import NetworkConnection.AdaptiveReadSize;
+import NetworkConnection.SelectorPool;
+
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Класс SelectorPoolTests содержит тесты для проверки пула потоков с селекторами.</p>
+ */
+public class SelectorPoolTests {
+
+    /**
+     * <p>Тестирует прием данных через пул селекторов.</p>
+     * <p>Проверяет, что обработчик получает все данные соединения, а после закрытия соединения
+     * удаленной стороной вызывается onClosed.</p>
+     *
+     * @throws Exception если возникает ошибка при работе с сокетами или ожидании
+     */
+    @Test
+    public void testRegister_DeliversDataAndClose() throws Exception {
+        try (ServerSocketChannel server = ServerSocketChannel.open()
+                .bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+             SelectorPool pool = new SelectorPool(2, 1024)) {
+            RecordingHandler handler = new RecordingHandler();
+            SocketChannel client = SocketChannel.open(server.getLocalAddress());
+            SocketChannel accepted = server.accept();
+
+            pool.register(client, handler);
+            byte[] data = new byte[5000];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) i;
+            }
+            accepted.write(ByteBuffer.wrap(data));
+            accepted.close();
+
+            assertTrue(handler.closed.await(5, TimeUnit.SECONDS));
+            assertArrayEquals(data, handler.received.toByteArray());
+            assertEquals(0, pool.getConnections());
+        }
+    }
+
+    /**
+     * <p>Тестирует распределение соединений между потоками селекторов.</p>
+     * <p>Проверяет, что соединения закрепляются за разными потоками поровну.</p>
+     *
+     * @throws Exception если возникает ошибка при работе с сокетами или ожидании
+     */
+    @Test
+    public void testRegister_ShardsConnections() throws Exception {
+        try (ServerSocketChannel server = ServerSocketChannel.open()
+                .bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+             SelectorPool pool = new SelectorPool(2, 1024)) {
+            List<RecordingHandler> handlers = new ArrayList<>();
+            List<SocketChannel> peers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                RecordingHandler handler = new RecordingHandler();
+                pool.register(SocketChannel.open(server.getLocalAddress()), handler);
+                peers.add(server.accept());
+                handlers.add(handler);
+            }
+            for (SocketChannel peer : peers) {
+                peer.write(ByteBuffer.wrap(new byte[]{1}));
+                peer.close();
+            }
+            for (RecordingHandler handler : handlers) {
+                assertTrue(handler.closed.await(5, TimeUnit.SECONDS));
+            }
+
+            assertEquals(2, handlers.stream().map(handler -> handler.thread).distinct().count());
+            assertEquals(2, pool.getThreads());
+        }
+    }
+
+    /**
+     * <p>Тестирует остановку пула сразу после закрытия соединения удаленной стороной.</p>
+     * <p>Проверяет, что соединение, закрытое при чтении, не закрывается второй раз при остановке потока,
+     * пока его отмененный ключ еще остается в селекторе.</p>
+     *
+     * @throws Exception если возникает ошибка при работе с сокетами или ожидании
+     */
+    @Test
+    public void testClose_AfterPeerClosed() throws Exception {
+        try (ServerSocketChannel server = ServerSocketChannel.open()
+                .bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            SelectorPool pool = new SelectorPool(1, 1024);
+            CountDownLatch reading = new CountDownLatch(1);
+            CountDownLatch resume = new CountDownLatch(1);
+            RecordingHandler handler = new RecordingHandler() {
+                @Override
+                public void onData(ByteBuffer buffer) throws IOException {
+                    super.onData(buffer);
+                    reading.countDown();
+                    try {
+                        resume.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            };
+            pool.register(SocketChannel.open(server.getLocalAddress()), handler);
+            SocketChannel peer = server.accept();
+
+            // Полное чтение заставляет поток селектора сразу читать снова и увидеть конец потока
+            peer.write(ByteBuffer.wrap(new byte[1024]));
+            assertTrue(reading.await(5, TimeUnit.SECONDS));
+            peer.close();
+            CompletableFuture<Void> closing = CompletableFuture.runAsync(pool::close);
+            Thread.sleep(200);
+            resume.countDown();
+            closing.get(5, TimeUnit.SECONDS);
+
+            assertEquals(1, handler.closeCount.get());
+            assertEquals(0, pool.getConnections());
+        }
+    }
+
+    /**
+     * <p>Тестирует класс AdaptiveReadSize.</p>
+     * <p>Проверяет, что размер чтения растет после заполненных чтений до максимума и уменьшается
+     * только после нескольких почти пустых чтений подряд.</p>
+     */
+    @Test
+    public void testAdaptiveReadSize() {
+        AdaptiveReadSize readSize = new AdaptiveReadSize(1024, 4096, 16384);
+
+        readSize.record(4096);
+        assertEquals(8192, readSize.size());
+        readSize.record(8192);
+        readSize.record(16384);
+        assertEquals(16384, readSize.size());
+
+        for (int i = 0; i < 3; i++) {
+            readSize.record(100);
+        }
+        assertEquals(16384, readSize.size());
+        readSize.record(100);
+        assertEquals(8192, readSize.size());
+
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveReadSize(1000, 4096, 16384));
+        assertThrows(IllegalArgumentException.class, () -> new SelectorPool(1, 1000));
+    }
+
+    /**
+     * <p>RecordingHandler - обработчик, запоминающий полученные данные и поток, который их передал.</p>
+     */
+    private static class RecordingHandler implements SelectorPool.Handler {
+        private final ByteArrayOutputStream received = new ByteArrayOutputStream();
+        private final CountDownLatch closed = new CountDownLatch(1);
+        private final AtomicInteger closeCount = new AtomicInteger();
+        private volatile String thread;
+
+        @Override
+        public void onData(ByteBuffer buffer) throws IOException {
+            thread = Thread.currentThread().getName();
+            byte[] chunk = new byte[buffer.remaining()];
+            buffer.get(chunk);
+            received.write(chunk);
+        }
+
+        @Override
+        public void onClosed() {
+            closeCount.incrementAndGet();
+            closed.countDown();
+        }
+    }
+}
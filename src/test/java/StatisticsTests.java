@@ -1,10 +1,27 @@
+import Output.OutputSink;
+import Statistics.AggregateStatistics;
+import Statistics.Downsampler;
 import Statistics.GeneratorStatistics;
+import Statistics.IntervalSample;
+import Statistics.LatencyHistogram;
 import Statistics.ReceiverStatistics;
+import Statistics.SampleRing;
+import Statistics.SequenceTracker;
+import Statistics.StatisticsSampler;
+import Statistics.TrafficCounters;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import javafx.scene.control.TextArea;
 import org.mockito.Mockito;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -14,20 +31,20 @@ import static org.mockito.Mockito.verify;
  * отвечающих за отображение статистики генератора и приемника трафика.
  * </p>
  */
-public class StatisticsTests extends  JavaFXTest {
-    private TextArea mockOutputArea;
+public class StatisticsTests {
+    private OutputSink mockOutputArea;
     private GeneratorStatistics generatorStatistics;
     private ReceiverStatistics receiverStatistics;
 
     /**
-     * Инициализирует моки для TextArea и создает экземпляры GeneratorStatistics и ReceiverStatistics.
+     * Инициализирует моки для OutputSink и создает экземпляры GeneratorStatistics и ReceiverStatistics.
      * <p>
      * Этот метод выполняется перед каждым тестом и настраивает необходимые зависимости.
      * </p>
      */
     @BeforeEach
     public void setUp() {
-        mockOutputArea = Mockito.mock(TextArea.class);
+        mockOutputArea = Mockito.mock(OutputSink.class);
         generatorStatistics = new GeneratorStatistics(mockOutputArea);
         receiverStatistics = new ReceiverStatistics(mockOutputArea);
     }
@@ -63,6 +80,200 @@ public class StatisticsTests extends  JavaFXTest {
         verify(mockOutputArea).appendText("Transfer time is too short to measure.\n");
     }
 
+    /**
+     * Тест для метода displayRate в классе GeneratorStatistics.
+     * <p>
+     * Проверяет, что метод выводит запрошенную и достигнутую скорость отправки.
+     * </p>
+     */
+    @Test
+    public void testDisplayRate_Generator() {
+        long startTime = System.nanoTime() - 100_000_000;
+
+        generatorStatistics.displayRate(1000, 100, 1024, startTime);
+
+        verify(mockOutputArea).appendText(Mockito.contains("Requested rate: 1000"));
+        verify(mockOutputArea).appendText(Mockito.contains("Achieved rate:"));
+    }
+
+    /**
+     * Тест для метода displayRate в классе GeneratorStatistics без ограничения скорости.
+     * <p>
+     * Проверяет, что метод сообщает о неограниченной скорости.
+     * </p>
+     */
+    @Test
+    public void testDisplayRate_Generator_Unlimited() {
+        long startTime = System.nanoTime() - 100_000_000;
+
+        generatorStatistics.displayRate(0, 100, 1024, startTime);
+
+        verify(mockOutputArea).appendText("Requested rate: unlimited.\n");
+    }
+
+    /**
+     * Тест для метода displayWriteCalls в классе GeneratorStatistics.
+     * <p>
+     * Проверяет, что метод выводит количество записей в сокет на пакет.
+     * </p>
+     */
+    @Test
+    public void testDisplayWriteCalls_Generator() {
+        generatorStatistics.displayWriteCalls(25, 100);
+
+        verify(mockOutputArea).appendText(Mockito.contains("Write calls: 25"));
+    }
+
+    /**
+     * Тест для метода displayStatistics в классе GeneratorStatistics с меткой соединения.
+     * <p>
+     * Проверяет, что каждая строка статистики начинается с метки соединения.
+     * </p>
+     */
+    @Test
+    public void testDisplayStatistics_Generator_Labelled() {
+        GeneratorStatistics labelled = new GeneratorStatistics(mockOutputArea, "/127.0.0.1:5000");
+
+        labelled.displayStatistics(10, 2048, System.nanoTime() - 100_000_000);
+
+        verify(mockOutputArea).appendText(Mockito.startsWith("[/127.0.0.1:5000] Sent 10 packets in"));
+        verify(mockOutputArea).appendText(Mockito.startsWith("[/127.0.0.1:5000] Transfer speed:"));
+    }
+
+    /**
+     * Тест для класса AggregateStatistics.
+     * <p>
+     * Проверяет, что итоги нескольких соединений суммируются и выводятся общей статистикой.
+     * </p>
+     */
+    @Test
+    public void testDisplayStatistics_Aggregate() {
+        AggregateStatistics aggregate = new AggregateStatistics(mockOutputArea);
+
+        aggregate.addConnection(100, 100_000);
+        aggregate.addConnection(50, 50_000);
+        aggregate.displayStatistics(System.nanoTime() - 100_000_000);
+
+        assertEquals(150, aggregate.getPackets());
+        assertEquals(150_000, aggregate.getBytes());
+        verify(mockOutputArea).appendText(Mockito.contains("Total: 2 receivers, 150 packets"));
+        verify(mockOutputArea).appendText(Mockito.contains("Aggregate throughput:"));
+    }
+
+    /**
+     * Тест для метода displaySequenceStatistics в классе ReceiverStatistics.
+     * <p>
+     * Проверяет, что метод выводит потери, дубликаты и нарушения порядка по порядковым номерам.
+     * </p>
+     */
+    @Test
+    public void testDisplaySequenceStatistics() {
+        SequenceTracker tracker = new SequenceTracker(4);
+        tracker.record(0);
+        tracker.record(2);
+        tracker.record(1);
+        tracker.record(1);
+
+        receiverStatistics.displaySequenceStatistics(tracker);
+
+        verify(mockOutputArea).appendText(Mockito.startsWith("Packet loss: 1 of 4"));
+        verify(mockOutputArea).appendText("Duplicates: 1, out of order: 1.\n");
+    }
+
+    /**
+     * Тест для перцентилей класса LatencyHistogram.
+     * <p>
+     * Проверяет, что малые значения учитываются точно, а погрешность больших не превышает ширины корзины.
+     * </p>
+     */
+    @Test
+    public void testLatencyHistogram_Percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value * 1_000);
+        }
+        histogram.record(-5);
+
+        assertEquals(1001, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(1_000_000, histogram.getMax());
+        assertEquals(1, histogram.getClamped());
+        assertEquals(500_000, histogram.getPercentile(50), 500_000 / 32.0);
+        assertEquals(990_000, histogram.getPercentile(99), 990_000 / 32.0);
+        assertEquals(1_000_000, histogram.getPercentile(100));
+        assertEquals(0, histogram.getPercentile(0));
+    }
+
+    /**
+     * Тест для методов merge и writeCsv класса LatencyHistogram.
+     * <p>
+     * Проверяет, что гистограммы двух соединений складываются, а CSV заканчивается накопленной долей 100%.
+     * </p>
+     *
+     * @throws IOException если возникает ошибка записи
+     */
+    @Test
+    public void testLatencyHistogram_MergeAndCsv() throws IOException {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(10);
+        first.record(20);
+        second.record(5_000_000);
+
+        first.merge(second);
+        StringWriter csv = new StringWriter();
+        first.writeCsv(csv);
+
+        assertEquals(3, first.getCount());
+        assertEquals(5_000_000, first.getMax());
+        assertEquals(20, first.getPercentile(66));
+        String[] lines = csv.toString().split("\\R");
+        assertEquals("upper_bound_ns,count,cumulative_percent", lines[0]);
+        assertEquals(4, lines.length);
+        assertTrue(lines[3].startsWith("5000000,1,100.0000"));
+    }
+
+    /**
+     * Тест для метода snapshot класса LatencyHistogram.
+     * <p>
+     * Проверяет, что копия содержит все значения гистограммы и не меняется при последующих слияниях.
+     * </p>
+     */
+    @Test
+    public void testLatencyHistogram_Snapshot() {
+        LatencyHistogram total = new LatencyHistogram();
+        LatencyHistogram session = new LatencyHistogram();
+        session.record(10);
+        session.record(5_000_000);
+        total.merge(session);
+
+        LatencyHistogram snapshot = total.snapshot();
+        total.merge(session);
+
+        assertEquals(2, snapshot.getCount());
+        assertEquals(5_000_000, snapshot.getMax());
+        assertEquals(10, snapshot.getPercentile(50));
+        assertEquals(4, total.getCount());
+    }
+
+    /**
+     * Тест для метода displayLatency в классе ReceiverStatistics.
+     * <p>
+     * Проверяет, что метод выводит перцентили задержки и ничего не выводит для пустой гистограммы.
+     * </p>
+     */
+    @Test
+    public void testDisplayLatency() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        receiverStatistics.displayLatency(histogram);
+        Mockito.verifyNoInteractions(mockOutputArea);
+
+        histogram.record(2_000_000);
+        receiverStatistics.displayLatency(histogram);
+
+        verify(mockOutputArea).appendText(Mockito.startsWith("Latency p50: 2"));
+    }
+
     /**
      * Тест для метода displayStatistics в классе ReceiverStatistics.
      * <p>
@@ -138,4 +349,147 @@ public class StatisticsTests extends  JavaFXTest {
 
         Mockito.verify(mockOutputArea, Mockito.never()).appendText(Mockito.anyString());
     }
+
+    /**
+     * Тест для метода record класса SequenceTracker.
+     * <p>
+     * Проверяет, что метод возвращает размер открывшегося пропуска и -1 для запоздавшего пакета,
+     * а сумма изменений равна количеству недостающих пакетов.
+     * </p>
+     */
+    @Test
+    public void testSequenceTracker_MissingDelta() {
+        SequenceTracker tracker = new SequenceTracker(10);
+
+        assertEquals(0, tracker.record(0));
+        assertEquals(3, tracker.record(4));
+        assertEquals(-1, tracker.record(2));
+        assertEquals(0, tracker.record(2));
+        assertEquals(0, tracker.record(42));
+        assertEquals(0, tracker.record(5));
+    }
+
+    /**
+     * Тест для класса StatisticsSampler.
+     * <p>
+     * Проверяет, что выборка передает слушателям приращения счетчиков за интервал, скорость и потери,
+     * а закрытие выдает последний интервал.
+     * </p>
+     */
+    @Test
+    public void testStatisticsSampler_Intervals() {
+        TrafficCounters counters = new TrafficCounters();
+        List<IntervalSample> samples = new CopyOnWriteArrayList<>();
+        StatisticsSampler sampler = new StatisticsSampler(counters, 60_000).addListener(samples::add).start();
+
+        for (int i = 0; i < 90; i++) {
+            counters.record(1_000);
+        }
+        counters.recordMissing(10);
+        IntervalSample first = sampler.sample();
+        counters.record(3_000_000_000L);
+        sampler.close();
+
+        assertEquals(2, samples.size());
+        assertEquals(90, first.packets());
+        assertEquals(90_000, first.bytes());
+        assertEquals(10.0, first.lossPercent(), 1e-9);
+        assertTrue(first.packetsPerSecond() > 0);
+        IntervalSample last = samples.get(1);
+        assertEquals(1, last.packets());
+        assertEquals(3_000_000_000L, last.bytes());
+        assertEquals(91, last.totalPackets());
+        assertEquals(0, last.lossPercent());
+        assertEquals(3_000_090_000L, counters.getBytes());
+    }
+
+    /**
+     * Тест для метода parseInterval класса StatisticsSampler.
+     * <p>
+     * Проверяет значение по умолчанию и отказ для неположительного интервала.
+     * </p>
+     */
+    @Test
+    public void testStatisticsSampler_ParseInterval() {
+        assertEquals(1_000, StatisticsSampler.parseInterval(null));
+        assertEquals(250, StatisticsSampler.parseInterval(" 250 "));
+        assertEquals(5_000_000_000L, StatisticsSampler.parseInterval("5000000000"));
+        assertThrows(IllegalArgumentException.class, () -> StatisticsSampler.parseInterval("0"));
+        assertThrows(IllegalArgumentException.class, () -> StatisticsSampler.parseInterval("fast"));
+    }
+
+    /**
+     * Тест для задержек в классах TrafficCounters и StatisticsSampler.
+     * <p>
+     * Проверяет, что перцентили задержки считаются только по пакетам интервала.
+     * </p>
+     */
+    @Test
+    public void testStatisticsSampler_Latency() {
+        TrafficCounters counters = new TrafficCounters();
+        counters.recordLatency(50_000_000);
+        StatisticsSampler sampler = new StatisticsSampler(counters, 60_000).start();
+        for (int i = 0; i < 99; i++) {
+            counters.recordLatency(1_000);
+        }
+        counters.recordLatency(-1);
+
+        IntervalSample first = sampler.sample();
+        IntervalSample second = sampler.sample();
+        sampler.close();
+
+        assertTrue(first.hasLatency());
+        assertEquals(1_000, first.latencyP50Nanos(), 1_000 / 32.0);
+        assertEquals(1_000, first.latencyP99Nanos(), 1_000 / 32.0);
+        assertTrue(first.format().contains("latency p50"));
+        assertEquals(0, second.latencyP99Nanos());
+    }
+
+    /**
+     * Тест для класса SampleRing.
+     * <p>
+     * Проверяет, что после заполнения буфер замещает старые интервалы и возвращает их по порядку.
+     * </p>
+     */
+    @Test
+    public void testSampleRing_Wraps() {
+        SampleRing ring = new SampleRing(3);
+        for (int i = 1; i <= 5; i++) {
+            ring.add(i, new IntervalSample(1_000_000_000L, i, i * 125_000L, 0, i, 0, 0));
+        }
+
+        SampleRing.Snapshot snapshot = ring.snapshot();
+        assertEquals(3, ring.size());
+        assertArrayEquals(new double[] {3, 4, 5}, snapshot.times());
+        assertArrayEquals(new double[] {3, 4, 5}, snapshot.values(SampleRing.Metric.PACKETS_PER_SECOND), 1e-9);
+        assertArrayEquals(new double[] {3, 4, 5}, snapshot.values(SampleRing.Metric.THROUGHPUT_MBPS), 1e-9);
+    }
+
+    /**
+     * Тест для метода lttb класса Downsampler.
+     * <p>
+     * Проверяет, что прореженный ряд содержит заданное количество точек, крайние точки и одиночный пик.
+     * </p>
+     */
+    @Test
+    public void testDownsampler_KeepsPeak() {
+        double[] x = new double[10_000];
+        double[] y = new double[x.length];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = i;
+            y[i] = Math.sin(i / 500.0);
+        }
+        y[7_777] = 100;
+
+        int[] points = Downsampler.lttb(x, y, 200);
+
+        assertEquals(200, points.length);
+        assertEquals(0, points[0]);
+        assertEquals(x.length - 1, points[points.length - 1]);
+        assertTrue(Arrays.stream(points).anyMatch(index -> index == 7_777));
+        for (int i = 1; i < points.length; i++) {
+            assertTrue(points[i] > points[i - 1]);
+        }
+        assertEquals(5, Downsampler.lttb(new double[5], new double[5], 200).length);
+    }
 }
@@ -0,0 +1,130 @@
+import Monitoring.PinningMonitor;
+import NetworkConnection.ThreadMode;
+
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Класс ThreadModeTests содержит тесты для проверки моделей потоков ThreadMode и монитора PinningMonitor.</p>
+ */
+public class ThreadModeTests {
+
+    /**
+     * <p>Тестирует метод parse перечисления ThreadMode.</p>
+     * <p>Проверяет разбор имени без учета регистра, значение по умолчанию и неизвестное имя.</p>
+     */
+    @Test
+    public void testParse() {
+        assertEquals(ThreadMode.VIRTUAL, ThreadMode.parse(" Virtual "));
+        assertEquals(ThreadMode.PLATFORM, ThreadMode.parse(null));
+        assertEquals(ThreadMode.PLATFORM, ThreadMode.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> ThreadMode.parse("green"));
+    }
+
+    /**
+     * <p>Тестирует метод newExecutor перечисления ThreadMode.</p>
+     * <p>Проверяет, что в режиме VIRTUAL тысячи блокирующих задач выполняются одновременно в виртуальных потоках.</p>
+     *
+     * @throws Exception если задача завершилась с ошибкой
+     */
+    @Test
+    public void testVirtualExecutor_ManyBlockingTasks() throws Exception {
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            tasks.add(() -> {
+                Thread.sleep(100);
+                return Thread.currentThread().isVirtual();
+            });
+        }
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = ThreadMode.VIRTUAL.newExecutor("test")) {
+            for (Future<Boolean> result : executor.invokeAll(tasks)) {
+                assertTrue(result.get());
+            }
+        }
+
+        assertTrue(System.nanoTime() - start < 5_000_000_000L);
+    }
+
+    /**
+     * <p>Тестирует метод start перечисления ThreadMode.</p>
+     * <p>Проверяет имя и тип созданного потока.</p>
+     *
+     * @throws InterruptedException если ожидание потока прервано
+     */
+    @Test
+    public void testStart_PlatformThread() throws InterruptedException {
+        Thread thread = ThreadMode.PLATFORM.start("test-thread", () -> {
+        });
+        thread.join();
+
+        assertEquals("test-thread", thread.getName());
+        assertFalse(thread.isVirtual());
+    }
+
+    /**
+     * <p>Тестирует класс PinningMonitor.</p>
+     * <p>Проверяет, что ожидание внутри synchronized в виртуальном потоке учитывается как закрепление.</p>
+     *
+     * @throws InterruptedException если ожидание прервано
+     */
+    @Test
+    public void testPinningMonitor_DetectsPinning() throws InterruptedException {
+        Object lock = new Object();
+        try (PinningMonitor monitor = new PinningMonitor(Duration.ZERO)) {
+            monitor.start();
+
+            ThreadMode.VIRTUAL.start("pinned", () -> {
+                synchronized (lock) {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }).join();
+
+            long deadline = System.nanoTime() + 10_000_000_000L;
+            while (monitor.getPinnedCount() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+
+            assertTrue(monitor.getPinnedCount() >= 1);
+            assertTrue(monitor.getMaxPinnedNanos() >= 40_000_000);
+            assertTrue(monitor.summary().startsWith("Virtual thread pinning: "));
+        }
+    }
+
+    /**
+     * <p>Тестирует закрытие PinningMonitor сразу после закрепления.</p>
+     * <p>Проверяет, что событие, записанное до закрытия, попадает в итоги без ожидания его доставки.</p>
+     *
+     * @throws InterruptedException если ожидание прервано
+     */
+    @Test
+    public void testPinningMonitor_CloseCountsRecordedEvents() throws InterruptedException {
+        Object lock = new Object();
+        PinningMonitor monitor = new PinningMonitor(Duration.ZERO);
+        monitor.start();
+
+        ThreadMode.VIRTUAL.start("pinned", () -> {
+            synchronized (lock) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join();
+        monitor.close();
+
+        assertTrue(monitor.getPinnedCount() >= 1);
+    }
+}
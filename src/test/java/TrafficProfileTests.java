@@ -0,0 +1,109 @@
+import TrafficGenerator.InterDepartureScheduler;
+import TrafficGenerator.TrafficProfile;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <p>Класс TrafficProfileTests содержит тесты для проверки расписаний профилей TrafficProfile.</p>
+ */
+public class TrafficProfileTests {
+    private static final long INTERVAL = 1_000_000;
+
+    /**
+     * <p>Тестирует профиль CONSTANT.</p>
+     * <p>Проверяет, что все интервалы равны заданному.</p>
+     */
+    @Test
+    public void testConstant() {
+        InterDepartureScheduler scheduler = TrafficProfile.CONSTANT.createScheduler(INTERVAL, 100, 0);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(INTERVAL, scheduler.nextGapNanos());
+        }
+    }
+
+    /**
+     * <p>Тестирует профиль POISSON.</p>
+     * <p>Проверяет, что средний интервал близок к заданному, а интервалы различаются.</p>
+     */
+    @Test
+    public void testPoisson_MeanInterval() {
+        InterDepartureScheduler scheduler = TrafficProfile.POISSON.createScheduler(INTERVAL, 100_000, 0);
+
+        long sum = 0;
+        long first = scheduler.nextGapNanos();
+        boolean differs = false;
+        for (int i = 0; i < 100_000; i++) {
+            long gap = scheduler.nextGapNanos();
+            assertTrue(gap >= 0);
+            differs |= gap != first;
+            sum += gap;
+        }
+
+        assertEquals(INTERVAL, sum / 100_000.0, INTERVAL * 0.03);
+        assertTrue(differs);
+    }
+
+    /**
+     * <p>Тестирует профиль ON_OFF.</p>
+     * <p>Проверяет, что пакеты пачки идут подряд, а средний интервал сохраняется.</p>
+     */
+    @Test
+    public void testOnOff_Bursts() {
+        InterDepartureScheduler scheduler = TrafficProfile.ON_OFF.createScheduler(INTERVAL, 100, 5);
+
+        for (int burst = 0; burst < 3; burst++) {
+            for (int i = 0; i < 4; i++) {
+                assertEquals(0, scheduler.nextGapNanos());
+            }
+            assertEquals(5 * INTERVAL, scheduler.nextGapNanos());
+        }
+    }
+
+    /**
+     * <p>Тестирует профиль RAMP.</p>
+     * <p>Проверяет, что интервал уменьшается от начальной скорости до заданной.</p>
+     */
+    @Test
+    public void testRamp_IncreasingRate() {
+        InterDepartureScheduler scheduler = TrafficProfile.RAMP.createScheduler(INTERVAL, 11, 50);
+
+        long previous = Long.MAX_VALUE;
+        long gap = 0;
+        for (int i = 0; i < 11; i++) {
+            gap = scheduler.nextGapNanos();
+            if (i == 0) {
+                assertEquals(2 * INTERVAL, gap);
+            }
+            assertTrue(gap <= previous);
+            previous = gap;
+        }
+        assertEquals(INTERVAL, gap);
+    }
+
+    /**
+     * <p>Тестирует профиль STEP.</p>
+     * <p>Проверяет, что скорость растет ступенями равной длины.</p>
+     */
+    @Test
+    public void testStep_Steps() {
+        InterDepartureScheduler scheduler = TrafficProfile.STEP.createScheduler(INTERVAL, 8, 4);
+
+        long[] stepGaps = {4 * INTERVAL, 2 * INTERVAL, 4 * INTERVAL / 3, INTERVAL};
+        for (int i = 0; i < 8; i++) {
+            assertEquals(stepGaps[i / 2], scheduler.nextGapNanos());
+        }
+    }
+
+    /**
+     * <p>Тестирует проверку параметров профилей.</p>
+     * <p>Ожидает выброс IllegalArgumentException для некорректных параметров.</p>
+     */
+    @Test
+    public void testValidate() {
+        assertThrows(IllegalArgumentException.class, () -> TrafficProfile.RAMP.validate(150));
+        assertThrows(IllegalArgumentException.class, () -> TrafficProfile.ON_OFF.validate(-1));
+        assertDoesNotThrow(() -> TrafficProfile.RAMP.validate(0));
+    }
+}